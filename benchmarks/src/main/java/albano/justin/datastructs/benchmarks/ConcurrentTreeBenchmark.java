@@ -0,0 +1,246 @@
+package albano.justin.datastructs.benchmarks;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import albano.justin.datastructs.trees.AVLTree;
+import albano.justin.datastructs.trees.ConcurrentBinaryTree;
+import albano.justin.datastructs.trees.LockFreeBinaryTree;
+
+/**
+ * Multi-threaded benchmarks of the thread-safe trees
+ * ({@link ConcurrentBinaryTree} over an {@link AVLTree}, and
+ * {@link LockFreeBinaryTree}) against the {@link ConcurrentSkipListSet} of the
+ * JDK, which is the standard of comparison for a concurrent ordered set.
+ *
+ * <p>
+ * The lookups are measured alone on every available processor, and alongside
+ * a writer in a read-mostly group of three readers and one writer. The writer
+ * inserts an absent key and removes it again, so the size of the tree stays
+ * constant across the run. The lock-free tree does not balance itself, so
+ * every tree is filled with the keys in a random order; the distribution
+ * chooses the keys that are touched.
+ * </p>
+ *
+ * @author Justin Albano
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentTreeBenchmark {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	@Param({ "ConcurrentBinaryTree", "LockFreeBinaryTree", "ConcurrentSkipListSet" })
+	public String set;
+
+	@Param({ "RANDOM", "SORTED", "ZIPFIAN" })
+	public KeyDistribution distribution;
+
+	@Param({ "1000", "100000", "1000000" })
+	public int size;
+
+	private Integer[] hits;
+	private Integer[] misses;
+	private OrderedSet orderedSet;
+
+	/***************************************************************************
+	 * Setup
+	 **************************************************************************/
+
+	@Setup(Level.Trial)
+	public void setUp () {
+
+		Integer[] keys = KeyDistribution.RANDOM.keys(this.size, 42);
+		int[] ranks = this.distribution.ranks(this.size, TreeBenchmark.OPERATIONS, 43);
+		this.hits = new Integer[TreeBenchmark.OPERATIONS];
+		this.misses = new Integer[TreeBenchmark.OPERATIONS];
+
+		for (int i = 0; i < TreeBenchmark.OPERATIONS; i++) {
+			this.hits[i] = KeyDistribution.key(ranks[i]);
+			this.misses[i] = KeyDistribution.key(ranks[i]) + 1;
+		}
+
+		switch (this.set) {
+			case "LockFreeBinaryTree":
+				this.orderedSet = new LockFreeSet(keys);
+				break;
+			case "ConcurrentSkipListSet":
+				this.orderedSet = new SkipListSet(keys);
+				break;
+			default:
+				this.orderedSet = new LockedSet(keys);
+				break;
+		}
+	}
+
+	/**
+	 * The position of a thread in the sequence of operation keys. Every
+	 * thread starts at a different offset, so that the threads do not touch
+	 * the same keys in lockstep.
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		private static int offset;
+		private int index;
+
+		@Setup(Level.Iteration)
+		public void setUp () {
+			synchronized (Cursor.class) {
+				offset += TreeBenchmark.OPERATIONS / 7;
+				this.index = offset & (TreeBenchmark.OPERATIONS - 1);
+			}
+		}
+
+		private int next () {
+			int index = this.index;
+			this.index = (index + 1) & (TreeBenchmark.OPERATIONS - 1);
+			return index;
+		}
+	}
+
+	/***************************************************************************
+	 * Benchmarks
+	 **************************************************************************/
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public boolean lookup (Cursor cursor) {
+		return this.orderedSet.contains(this.hits[cursor.next()]);
+	}
+
+	@Benchmark
+	@Group("readMostly")
+	@GroupThreads(3)
+	public boolean readMostlyLookup (Cursor cursor) {
+		return this.orderedSet.contains(this.hits[cursor.next()]);
+	}
+
+	@Benchmark
+	@Group("readMostly")
+	@GroupThreads(1)
+	public boolean readMostlyUpdate (Cursor cursor) {
+		Integer key = this.misses[cursor.next()];
+		this.orderedSet.insert(key);
+		return this.orderedSet.remove(key);
+	}
+
+	/***************************************************************************
+	 * Adapters
+	 **************************************************************************/
+
+	/**
+	 * The operations shared by the benchmarked sets.
+	 */
+	private interface OrderedSet {
+		boolean contains (Integer key);
+
+		void insert (Integer key);
+
+		boolean remove (Integer key);
+	}
+
+	private static final class LockedSet implements OrderedSet {
+
+		private final ConcurrentBinaryTree<Integer> tree;
+
+		private LockedSet (Integer[] keys) {
+			this.tree = new ConcurrentBinaryTree<Integer>(new AVLTree<Integer>(Integer.class, keys));
+		}
+
+		@Override
+		public boolean contains (Integer key) {
+			return this.tree.isInTree(key);
+		}
+
+		@Override
+		public void insert (Integer key) {
+			this.tree.insert(key);
+		}
+
+		@Override
+		public boolean remove (Integer key) {
+			return this.tree.remove(key);
+		}
+	}
+
+	private static final class LockFreeSet implements OrderedSet {
+
+		private final LockFreeBinaryTree<Integer> tree;
+
+		private LockFreeSet (Integer[] keys) {
+
+			this.tree = new LockFreeBinaryTree<Integer>(Integer.class);
+
+			for (Integer key : keys) {
+				this.tree.insert(key);
+			}
+		}
+
+		@Override
+		public boolean contains (Integer key) {
+			return this.tree.isInTree(key);
+		}
+
+		@Override
+		public void insert (Integer key) {
+			this.tree.insert(key);
+		}
+
+		@Override
+		public boolean remove (Integer key) {
+			return this.tree.remove(key);
+		}
+	}
+
+	private static final class SkipListSet implements OrderedSet {
+
+		private final ConcurrentSkipListSet<Integer> set;
+
+		private SkipListSet (Integer[] keys) {
+
+			this.set = new ConcurrentSkipListSet<Integer>();
+
+			for (Integer key : keys) {
+				this.set.add(key);
+			}
+		}
+
+		@Override
+		public boolean contains (Integer key) {
+			return this.set.contains(key);
+		}
+
+		@Override
+		public void insert (Integer key) {
+			this.set.add(key);
+		}
+
+		@Override
+		public boolean remove (Integer key) {
+			return this.set.remove(key);
+		}
+	}
+}
@@ -0,0 +1,204 @@
+package albano.justin.datastructs.benchmarks;
+
+import java.util.Random;
+
+/**
+ * The distributions of the keys used by the benchmarks. The trees of a
+ * benchmark of size n hold the even keys 0, 2, ..., 2 (n - 1), and each
+ * distribution chooses which of these keys (by rank) an operation touches:
+ *
+ * <ul>
+ * <li>{@link #RANDOM}: every key is equally likely</li>
+ * <li>{@link #SORTED}: the keys are touched in ascending order, which is the
+ * worst case for an unbalanced tree and the best case for the caches</li>
+ * <li>{@link #ZIPFIAN}: a few hot keys receive most operations (with an
+ * exponent of 0.99), and the hot keys are scattered across the key space
+ * rather than clustered at its start</li>
+ * </ul>
+ *
+ * <h1>Citations</h1>
+ * <ul>
+ * <li>The Zipfian generator is based on J. Gray et al., "Quickly Generating
+ * Billion-Record Synthetic Databases" (1994), as used by the Yahoo! Cloud
+ * Serving Benchmark</li>
+ * </ul>
+ *
+ * @author Justin Albano
+ */
+public enum KeyDistribution {
+
+	RANDOM, SORTED, ZIPFIAN;
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	/**
+	 * The exponent of the Zipfian distribution.
+	 */
+	private static final double ZIPFIAN_EXPONENT = 0.99;
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Creates a sequence of ranks in [0, n) drawn from the distribution.
+	 *
+	 * @param n
+	 *            The number of distinct ranks.
+	 * @param count
+	 *            The length of the sequence.
+	 * @param seed
+	 *            The seed of the random number generator.
+	 * @return
+	 *         The sequence of ranks.
+	 */
+	public int[] ranks (int n, int count, long seed) {
+
+		Random random = new Random(seed);
+		int[] ranks = new int[count];
+
+		switch (this) {
+			case RANDOM:
+				for (int i = 0; i < count; i++) {
+					ranks[i] = random.nextInt(n);
+				}
+				break;
+			case SORTED:
+				for (int i = 0; i < count; i++) {
+					ranks[i] = (int) ((long) i * n / count);
+				}
+				break;
+			default:
+				Zipfian zipfian = new Zipfian(n);
+
+				for (int i = 0; i < count; i++) {
+					// Scatter the hot ranks across the key space
+					ranks[i] = (int) Long.remainderUnsigned(scramble(zipfian.next(random)), n);
+				}
+				break;
+		}
+
+		return ranks;
+	}
+
+	/**
+	 * Creates the keys of a tree of size n, in the order in which the
+	 * distribution inserts them. Every key appears exactly once: in ascending
+	 * order for the sorted distribution, and shuffled otherwise (a Zipfian
+	 * distribution skews the keys that are touched, not the keys that exist).
+	 *
+	 * @param n
+	 *            The number of keys.
+	 * @param seed
+	 *            The seed of the random number generator.
+	 * @return
+	 *         The keys, in insertion order.
+	 */
+	public Integer[] keys (int n, long seed) {
+
+		Integer[] keys = new Integer[n];
+
+		for (int i = 0; i < n; i++) {
+			keys[i] = key(i);
+		}
+
+		if (this != SORTED) {
+
+			Random random = new Random(seed);
+
+			for (int i = n - 1; i > 0; i--) {
+				Integer temp = keys[i];
+				int j = random.nextInt(i + 1);
+				keys[i] = keys[j];
+				keys[j] = temp;
+			}
+		}
+
+		return keys;
+	}
+
+	/**
+	 * Obtains the key of a rank.
+	 *
+	 * @param rank
+	 *            The rank of the key.
+	 * @return
+	 *         The key: every key is even, so that odd keys are always absent.
+	 */
+	public static Integer key (int rank) {
+		return 2 * rank;
+	}
+
+	/**
+	 * Scrambles a value with the 64 bit FNV-1a hash.
+	 *
+	 * @param value
+	 *            The value to scramble.
+	 * @return
+	 *         The scrambled value.
+	 */
+	private static long scramble (long value) {
+
+		long hash = 0xCBF29CE484222325L;
+
+		for (int i = 0; i < 8; i++) {
+			hash ^= value & 0xFF;
+			hash *= 0x100000001B3L;
+			value >>>= 8;
+		}
+
+		return hash;
+	}
+
+	/**
+	 * A generator of Zipfian ranks in [0, n), where rank 0 is the most
+	 * popular. The normalization constant takes O(n) time to compute once,
+	 * after which every rank is generated in constant time and space.
+	 */
+	private static final class Zipfian {
+
+		private final int n;
+		private final double alpha;
+		private final double zetaN;
+		private final double eta;
+		private final double half;
+
+		private Zipfian (int n) {
+
+			double zeta2 = zeta(2);
+			this.n = n;
+			this.zetaN = zeta(n);
+			this.alpha = 1.0 / (1.0 - ZIPFIAN_EXPONENT);
+			this.eta = (1.0 - Math.pow(2.0 / n, 1.0 - ZIPFIAN_EXPONENT)) / (1.0 - zeta2 / this.zetaN);
+			this.half = 1.0 + Math.pow(0.5, ZIPFIAN_EXPONENT);
+		}
+
+		private int next (Random random) {
+
+			double u = random.nextDouble();
+			double uz = u * this.zetaN;
+
+			if (uz < 1.0) {
+				return 0;
+			}
+			else if (uz < this.half) {
+				return 1;
+			}
+
+			return Math.min(this.n - 1, (int) (this.n * Math.pow(this.eta * u - this.eta + 1.0, this.alpha)));
+		}
+
+		private static double zeta (int n) {
+
+			double sum = 0;
+
+			for (int i = 1; i <= n; i++) {
+				sum += 1.0 / Math.pow(i, ZIPFIAN_EXPONENT);
+			}
+
+			return sum;
+		}
+	}
+}
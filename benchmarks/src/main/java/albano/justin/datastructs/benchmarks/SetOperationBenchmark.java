@@ -0,0 +1,124 @@
+package albano.justin.datastructs.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import albano.justin.datastructs.trees.AVLTree;
+
+/**
+ * Benchmarks of the join-based set operations of the {@link AVLTree}
+ * ({@link AVLTree#union(AVLTree, AVLTree)} and
+ * {@link AVLTree#difference(AVLTree, AVLTree)}) against merging the sorted
+ * arrays of the trees and building a new tree, for a large tree and a tree of
+ * varying size. The set operations consume their operands, so both trees are
+ * rebuilt before every invocation, outside of the measurement.
+ *
+ * @author Justin Albano
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SetOperationBenchmark {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	@Param({ "1000000" })
+	public int size;
+
+	@Param({ "100", "10000", "1000000" })
+	public int otherSize;
+
+	@Param({ "RANDOM", "ZIPFIAN" })
+	public KeyDistribution distribution;
+
+	private Integer[] keys;
+	private Integer[] otherKeys;
+	private AVLTree<Integer> tree;
+	private AVLTree<Integer> other;
+
+	/***************************************************************************
+	 * Setup
+	 **************************************************************************/
+
+	@Setup(Level.Trial)
+	public void setUpTrial () {
+
+		this.keys = KeyDistribution.SORTED.keys(this.size, 42);
+		this.otherKeys = new Integer[this.otherSize];
+		int[] ranks = this.distribution.ranks(this.size, this.otherSize, 43);
+
+		for (int i = 0; i < this.otherSize; i++) {
+			// Half of the other keys are present in the large tree
+			this.otherKeys[i] = KeyDistribution.key(ranks[i]) + (i & 1);
+		}
+
+		Arrays.sort(this.otherKeys);
+	}
+
+	@Setup(Level.Invocation)
+	public void setUpInvocation () {
+		this.tree = new AVLTree<Integer>(Integer.class, this.keys, true);
+		this.other = new AVLTree<Integer>(Integer.class, this.otherKeys, true);
+	}
+
+	/***************************************************************************
+	 * Benchmarks
+	 **************************************************************************/
+
+	@Benchmark
+	public AVLTree<Integer> union () {
+		return AVLTree.union(this.tree, this.other);
+	}
+
+	@Benchmark
+	public AVLTree<Integer> difference () {
+		return AVLTree.difference(this.tree, this.other);
+	}
+
+	/**
+	 * Merges the sorted arrays of the trees and builds a tree from the merged
+	 * array, which is the alternative to a join-based union.
+	 */
+	@Benchmark
+	public AVLTree<Integer> mergeAndRebuild () {
+
+		Integer[] first = this.tree.toSortedArray();
+		Integer[] second = this.other.toSortedArray();
+		Integer[] merged = new Integer[first.length + second.length];
+		int i = 0;
+		int j = 0;
+		int k = 0;
+
+		while (i < first.length && j < second.length) {
+			merged[k++] = (first[i].compareTo(second[j]) <= 0) ? first[i++] : second[j++];
+		}
+
+		while (i < first.length) {
+			merged[k++] = first[i++];
+		}
+
+		while (j < second.length) {
+			merged[k++] = second[j++];
+		}
+
+		return new AVLTree<Integer>(Integer.class, merged, true);
+	}
+}
@@ -0,0 +1,189 @@
+package albano.justin.datastructs.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import albano.justin.datastructs.trees.AVLTree;
+import albano.justin.datastructs.trees.BinaryTree;
+import albano.justin.datastructs.trees.RedBlackTree;
+import albano.justin.datastructs.trees.ScapegoatTree;
+import albano.justin.datastructs.trees.SplayTree;
+
+/**
+ * Single-threaded benchmarks of the core operations of the mutable trees:
+ * {@link BinaryTree#insert(Comparable)},
+ * {@link BinaryTree#isInTree(Comparable)},
+ * {@link BinaryTree#toSortedArray()}, {@link BinaryTree#rebalance()} and the
+ * array constructor, for every tree, key distribution and size. The Zipfian
+ * lookups compare the self-adjusting {@link SplayTree}, which moves the hot
+ * keys to the top of the tree, against the balanced trees.
+ *
+ * <p>
+ * The tree is built from the keys of the distribution, in the order of the
+ * distribution, by the array constructor. Note that the array constructor
+ * builds a balanced tree regardless of the order: the order only matters to
+ * the insertions, which are measured against a tree that is rebuilt before
+ * every iteration so that its growth remains bounded.
+ * </p>
+ *
+ * @author Justin Albano
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+public class TreeBenchmark {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	/**
+	 * The number of operation keys drawn from the distribution (a power of 2,
+	 * so that the cursor wraps with a mask).
+	 */
+	static final int OPERATIONS = 1 << 20;
+
+	@Param({ "BinaryTree", "AVLTree", "RedBlackTree", "ScapegoatTree", "SplayTree" })
+	public String tree;
+
+	@Param({ "RANDOM", "SORTED", "ZIPFIAN" })
+	public KeyDistribution distribution;
+
+	@Param({ "1000", "100000", "1000000" })
+	public int size;
+
+	private Integer[] keys;
+	private Integer[] hits;
+	private Integer[] misses;
+	private BinaryTree<Integer> built;
+	private BinaryTree<Integer> growing;
+	private int cursor;
+
+	/***************************************************************************
+	 * Setup
+	 **************************************************************************/
+
+	@Setup(Level.Trial)
+	public void setUpTrial () {
+
+		this.keys = this.distribution.keys(this.size, 42);
+		this.hits = new Integer[OPERATIONS];
+		this.misses = new Integer[OPERATIONS];
+		int[] ranks = this.distribution.ranks(this.size, OPERATIONS, 43);
+
+		for (int i = 0; i < OPERATIONS; i++) {
+			this.hits[i] = KeyDistribution.key(ranks[i]);
+			this.misses[i] = KeyDistribution.key(ranks[i]) + 1;
+		}
+
+		this.built = create(this.tree, this.keys.clone());
+	}
+
+	@Setup(Level.Iteration)
+	public void setUpIteration () {
+		this.growing = create(this.tree, this.keys.clone());
+		this.cursor = 0;
+	}
+
+	/***************************************************************************
+	 * Benchmarks
+	 **************************************************************************/
+
+	/**
+	 * Inserts an absent key (the absent keys follow the distribution, so the
+	 * sorted distribution appends to the rightmost path of the tree).
+	 */
+	@Benchmark
+	public void insert () {
+		this.growing.insert(this.misses[this.next()]);
+	}
+
+	@Benchmark
+	public boolean isInTreeHit () {
+		return this.built.isInTree(this.hits[this.next()]);
+	}
+
+	@Benchmark
+	public boolean isInTreeMiss () {
+		return this.built.isInTree(this.misses[this.next()]);
+	}
+
+	@Benchmark
+	public Integer[] toSortedArray () {
+		return this.built.toSortedArray();
+	}
+
+	@Benchmark
+	public Integer[] parallelToSortedArray () {
+		return this.built.parallelToSortedArray();
+	}
+
+	@Benchmark
+	public BinaryTree<Integer> rebalance () {
+		this.built.rebalance();
+		return this.built;
+	}
+
+	/**
+	 * Builds a tree with the array constructor, from the keys in the order of
+	 * the distribution. The constructor sorts the array in place, so the
+	 * measured time includes the copy of the keys.
+	 */
+	@Benchmark
+	public BinaryTree<Integer> arrayConstructor () {
+		return create(this.tree, this.keys.clone());
+	}
+
+	/***************************************************************************
+	 * Helpers
+	 **************************************************************************/
+
+	private int next () {
+		int index = this.cursor;
+		this.cursor = (index + 1) & (OPERATIONS - 1);
+		return index;
+	}
+
+	/**
+	 * Creates a tree of the provided type.
+	 *
+	 * @param type
+	 *            The simple name of the tree class.
+	 * @param keys
+	 *            The keys of the tree (sorted in place).
+	 * @return
+	 *         The tree.
+	 */
+	static BinaryTree<Integer> create (String type, Integer[] keys) {
+
+		switch (type) {
+			case "AVLTree":
+				return new AVLTree<Integer>(Integer.class, keys);
+			case "RedBlackTree":
+				return new RedBlackTree<Integer>(Integer.class, keys);
+			case "ScapegoatTree":
+				return new ScapegoatTree<Integer>(Integer.class, keys);
+			case "SplayTree":
+				return new SplayTree<Integer>(Integer.class, keys);
+			default:
+				return new BinaryTree<Integer>(Integer.class, keys);
+		}
+	}
+}
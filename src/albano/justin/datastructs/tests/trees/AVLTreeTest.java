@@ -0,0 +1,595 @@
+package albano.justin.datastructs.tests.trees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import albano.justin.datastructs.trees.AVLTree;
+
+/**
+ * Tests for the self-balancing {@link AVLTree}.
+ *
+ * @author Justin Albano
+ */
+public class AVLTreeTest {
+
+	/***************************************************************************
+	 * Setup & Tear Down
+	 **************************************************************************/
+
+	@Before
+	public void setUp () throws Exception {}
+
+	@After
+	public void tearDown () throws Exception {}
+
+	/***************************************************************************
+	 * Tests
+	 **************************************************************************/
+
+	/**
+	 * Tests that the size and height of an empty tree are zero.
+	 */
+	@Test
+	public void testSizeOfEmptyTree () {
+
+		// Create an empty tree and ensure its size and height are 0
+		AVLTree<Integer> tree = new AVLTree<>(Integer.class);
+		assertEquals("An empty AVL tree size should be 0", 0, tree.size());
+		assertEquals("An empty AVL tree height should be 0", 0, tree.height());
+
+		// Create a tree with no data (array) and ensure its size is 0
+		Integer[] arrayOfInts = null;
+		tree = new AVLTree<>(Integer.class, arrayOfInts);
+		assertEquals("An AVL tree with null array data should be of size 0", 0, tree.size());
+	}
+
+	/**
+	 * Tests the insert mechanism for the tree when inserting multiple pieces of
+	 * data into the tree.
+	 */
+	@Test
+	public void testInsertMultipleItems () {
+
+		// Create an empty tree
+		AVLTree<Integer> tree = new AVLTree<>(Integer.class);
+
+		// Insert multiple items into the tree
+		tree.insert(10);
+		tree.insert(20);
+		tree.insert(5);
+		tree.insert(25);
+
+		// Ensure that these values are in the tree
+		assertTrue("Item of value 10 should be present in tree after insertion", tree.isInTree(10));
+		assertTrue("Item of value 20 should be present in tree after insertion", tree.isInTree(20));
+		assertTrue("Item of value 5 should be present in tree after insertion", tree.isInTree(5));
+		assertTrue("Item of value 25 should be present in tree after insertion", tree.isInTree(25));
+		assertTrue("Item of value 15 should not be present in tree", !tree.isInTree(15));
+
+		// Ensure the correct size of the tree
+		assertEquals("Size is 4 after adding 4 items to the tree", 4, tree.size());
+	}
+
+	/**
+	 * Tests that inserting data in sorted order, which degrades an unbalanced
+	 * tree into a list, produces a tree of minimal height.
+	 */
+	@Test
+	public void testSortedInsertionStaysBalanced () {
+
+		// Create an empty tree
+		AVLTree<Integer> tree = new AVLTree<>(Integer.class);
+
+		for (int i = 0; i < 1023; i++) {
+			// Insert the values in ascending order
+			tree.insert(i);
+		}
+
+		// A perfectly balanced tree of 1023 nodes has a height of 10
+		assertEquals("Sorted insertion should produce a tree of height 10", 10, tree.height());
+		assertTrue("Ensure the tree is considered balanced", tree.isBalanced());
+	}
+
+	/**
+	 * Tests that the cached height never exceeds the AVL bound when inserting
+	 * random data.
+	 */
+	@Test
+	public void testHeightBoundForRandomInsertion () {
+
+		// Create an empty tree and a deterministic source of random data
+		AVLTree<Integer> tree = new AVLTree<>(Integer.class);
+		Random random = new Random(42);
+
+		for (int i = 0; i < 10000; i++) {
+			// Insert the random values
+			tree.insert(random.nextInt());
+		}
+
+		// The height of an AVL tree is at most 1.44 log2(n + 2)
+		double bound = 1.44 * Math.log(tree.size() + 2) / Math.log(2);
+		assertTrue("The height of the tree should be within the AVL bound", tree.height() <= bound);
+		assertEquals("Size is 10000 after adding 10000 items to the tree", 10000, tree.size());
+	}
+
+	/**
+	 * Tests that the array conversion of the tree contains all of the elements
+	 * in the tree and is properly sorted after rotations.
+	 */
+	@Test
+	public void testTreeToSortedArray () {
+
+		// A set of out of order data
+		Integer[] arrayOfNumbers = { 10, 15, 6, 12, 90, 14, 55, 0, 3, 3 };
+
+		// Sort the array (to use later to check if the array returned by the
+		// tree is actually sorted)
+		Integer[] sortedArrayOfNumbers = arrayOfNumbers.clone();
+		Arrays.sort(sortedArrayOfNumbers);
+
+		// Create an empty tree
+		AVLTree<Integer> tree = new AVLTree<>(Integer.class);
+
+		for (int i = 0; i < arrayOfNumbers.length; i++) {
+			// Add the numbers to the tree
+			tree.insert(arrayOfNumbers[i]);
+		}
+
+		// Ensure the array obtained from the tree matches the sorted data
+		assertTrue("The array obtained from the tree should be sorted", Arrays.equals(sortedArrayOfNumbers, tree.toSortedArray()));
+	}
+
+	/**
+	 * Tests the creation of the tree from an array.
+	 */
+	@Test
+	public void testCreateFromArray () {
+
+		// An array of data from which to populate the tree
+		Integer[] data = { 1, 0, 4, 76, 58, 12, 9, 133 };
+
+		// Create the tree
+		AVLTree<Integer> tree = new AVLTree<>(Integer.class, data);
+
+		for (int i = 0; i < data.length; i++) {
+			// Ensure that each value is present in the tree
+			assertTrue("Element of value " + data[i] + " is in tree", tree.isInTree(data[i]));
+		}
+
+		// Ensure the tree is balanced and of the correct size
+		assertTrue("Ensure the balanced tree is considered balanced", tree.isBalanced());
+		assertEquals("Size matches the size of the array", data.length, tree.size());
+	}
+
+	/**
+	 * Tests rank, select and countInRange against the sorted data of a tree
+	 * built by insertion, which rotates the tree.
+	 */
+	@Test
+	public void testOrderStatistics () {
+
+		// Fill a tree with random data, including duplicates
+		Random random = new Random(42);
+		AVLTree<Integer> tree = new AVLTree<>(Integer.class);
+
+		for (int i = 0; i < 5000; i++) {
+			tree.insert(random.nextInt(2000));
+		}
+
+		Integer[] sorted = tree.toSortedArray();
+
+		for (int i = 0; i < sorted.length; i++) {
+			assertEquals("Select returns the element of each rank", sorted[i], tree.select(i));
+		}
+
+		for (int value = -1; value <= 2000; value += 7) {
+
+			// Count the elements below the value and within a range by scanning
+			int below = 0;
+			int within = 0;
+
+			for (Integer element : sorted) {
+				below += (element < value) ? 1 : 0;
+				within += (element >= value && element <= value + 100) ? 1 : 0;
+			}
+
+			assertEquals("The rank counts the smaller elements", below, tree.rank(value));
+			assertEquals("The range count includes both bounds", within, tree.countInRange(value, value + 100));
+		}
+
+		assertEquals("An empty range has no elements", 0, tree.countInRange(10, 5));
+	}
+
+	/**
+	 * Tests that select rejects ranks outside of the tree.
+	 */
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testSelectOutOfBounds () {
+
+		AVLTree<Integer> tree = new AVLTree<>(Integer.class);
+		tree.insert(1);
+		tree.select(1);
+	}
+
+	/**
+	 * Tests that iteration and the navigation methods follow the rotated
+	 * structure of the tree.
+	 */
+	@Test
+	public void testIterationAndNavigation () {
+
+		AVLTree<Integer> tree = new AVLTree<>(Integer.class);
+
+		for (int i = 0; i < 1000; i++) {
+			tree.insert(2 * i);
+		}
+
+		int expected = 0;
+
+		for (Integer element : tree) {
+			assertEquals("The iterator returns the data in order", expected, element.intValue());
+			expected += 2;
+		}
+
+		assertEquals("The iterator returns every element", 2000, expected);
+		assertEquals("The descending iterator starts at the largest element", 1998, tree.descendingIterator().next().intValue());
+		assertEquals("The floor of an odd value is the even value below it", 10, tree.floor(11).intValue());
+		assertEquals("The ceiling of an odd value is the even value above it", 12, tree.ceiling(11).intValue());
+		assertEquals("The higher element skips an equal element", 14, tree.higher(12).intValue());
+		assertEquals("The lower element skips an equal element", 10, tree.lower(12).intValue());
+		assertEquals("The stream sums every element", 999000, tree.parallelStream().mapToInt(Integer::intValue).sum());
+	}
+
+	/**
+	 * Tests a random sequence of insertions and removals, including
+	 * duplicates, against a count of each data.
+	 */
+	@Test
+	public void testRemove () {
+
+		AVLTree<Integer> tree = new AVLTree<>(Integer.class);
+		int[] counts = new int[500];
+		int size = 0;
+		Random random = new Random(42);
+
+		assertTrue("Removing from an empty tree fails", !tree.remove(10));
+
+		for (int i = 0; i < 50000; i++) {
+
+			int value = random.nextInt(counts.length);
+
+			if (random.nextInt(3) > 0) {
+				tree.insert(value);
+				counts[value]++;
+				size++;
+			}
+			else {
+				boolean removed = tree.remove(value);
+				assertEquals("Removal succeeds only for present data", counts[value] > 0, removed);
+
+				if (removed) {
+					counts[value]--;
+					size--;
+				}
+			}
+		}
+
+		assertEquals("The size counts the remaining data", size, tree.size());
+
+		// The height of the tree stays logarithmic
+		assertTrue("The tree stays balanced", tree.height() <= 1.44 * Math.log(size + 2) / Math.log(2));
+
+		// The remaining data is in order, and the subtree sizes are intact
+		Integer[] sorted = tree.toSortedArray();
+		int index = 0;
+
+		for (int value = 0; value < counts.length; value++) {
+
+			assertEquals("Data is present exactly when it remains", counts[value] > 0, tree.isInTree(value));
+
+			for (int c = 0; c < counts[value]; c++, index++) {
+				assertEquals("The sorted array holds the remaining data", value, sorted[index].intValue());
+				assertEquals("Select returns the remaining data", value, tree.select(index).intValue());
+			}
+		}
+
+		assertEquals("The sorted array holds every remaining element", size, index);
+	}
+
+	/**
+	 * Tests that sorted batches, both small enough to be spliced into the tree
+	 * and large enough to be merged with it, are inserted with every
+	 * duplicate and keep the subtree sizes intact.
+	 */
+	@Test
+	public void testInsertAll () {
+
+		Random random = new Random(42);
+		AVLTree<Integer> tree = new AVLTree<>(Integer.class);
+		List<Integer> expected = new ArrayList<Integer>();
+
+		for (int batchSize : new int[] { 5000, 10, 100, 20000, 1, 300, 3000 }) {
+
+			Integer[] batch = new Integer[batchSize];
+
+			for (int i = 0; i < batch.length; i++) {
+				batch[i] = random.nextInt(10000);
+				expected.add(batch[i]);
+			}
+
+			Arrays.sort(batch);
+			tree.insertAll(batch);
+			Collections.sort(expected);
+
+			assertEquals("The size counts every inserted element", expected.size(), tree.size());
+			assertEquals("The tree holds every inserted element", expected, tree.toSortedList());
+
+			for (int i = 0; i < expected.size(); i += 97) {
+				assertEquals("Select returns the inserted data", expected.get(i), tree.select(i));
+			}
+
+			assertTrue("The tree stays within the AVL bound", tree.height() <= 1.44 * Math.log(tree.size() + 2) / Math.log(2));
+		}
+
+		// An unsorted collection is sorted before insertion
+		tree.insertAll(Arrays.asList(3, 1, 2));
+		expected.addAll(Arrays.asList(1, 2, 3));
+		Collections.sort(expected);
+		assertEquals("An unsorted collection is inserted", expected, tree.toSortedList());
+	}
+
+	/**
+	 * Tests that splitting a tree and joining the halves back together keeps
+	 * every element, the subtree sizes and the AVL bound.
+	 */
+	@Test
+	public void testSplitAndJoin () {
+
+		Random random = new Random(42);
+		List<Integer> expected = new ArrayList<Integer>();
+		AVLTree<Integer> tree = new AVLTree<>(Integer.class);
+
+		for (int i = 0; i < 10000; i++) {
+			int value = random.nextInt(3000);
+			expected.add(value);
+			tree.insert(value);
+		}
+
+		Collections.sort(expected);
+
+		for (int key : new int[] { -1, 0, 1500, 1501, 2999, 3000 }) {
+
+			AVLTree<Integer> greater = tree.split(key);
+			int index = countBelow(expected, key);
+
+			assertEquals("The tree keeps the data less than the key", expected.subList(0, index), tree.toSortedList());
+			assertEquals("The split holds the data from the key", expected.subList(index, expected.size()), greater.toSortedList());
+			assertHeightBound(tree);
+			assertHeightBound(greater);
+
+			// Join the halves around the key
+			tree = AVLTree.join(tree, key, greater);
+			expected.add(index, key);
+
+			assertEquals("The join holds the data of both halves and the key", expected, tree.toSortedList());
+			assertEquals("The split tree is emptied by the join", 0, greater.size());
+			assertHeightBound(tree);
+
+			for (int i = 0; i < expected.size(); i += 97) {
+				assertEquals("Select returns the joined data", expected.get(i), tree.select(i));
+			}
+		}
+
+		// Join trees of very different heights
+		AVLTree<Integer> small = new AVLTree<>(Integer.class, new Integer[] { -3, -2 });
+		AVLTree<Integer> joined = AVLTree.join(small, -1, tree);
+		expected.addAll(0, Arrays.asList(-3, -2, -1));
+		assertEquals("A short tree is joined to a tall tree", expected, joined.toSortedList());
+		assertEquals("The joined tree counts every element", expected.size(), joined.size());
+		assertHeightBound(joined);
+	}
+
+	/**
+	 * Tests that joining trees that are not in order around the key is
+	 * rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testJoinOutOfOrder () {
+		AVLTree<Integer> left = new AVLTree<>(Integer.class, new Integer[] { 1, 5 });
+		AVLTree<Integer> right = new AVLTree<>(Integer.class, new Integer[] { 6, 7 });
+		AVLTree.join(left, 3, right);
+	}
+
+	/**
+	 * Tests the union, intersection and difference of trees of similar and
+	 * very different sizes, including trees large enough to be combined in
+	 * parallel.
+	 */
+	@Test
+	public void testSetOperations () {
+
+		Random random = new Random(42);
+		int[][] sizes = { { 0, 100 }, { 100, 0 }, { 1000, 1000 }, { 20, 30000 }, { 30000, 20 }, { 20000, 20000 } };
+
+		for (int[] size : sizes) {
+
+			List<Integer> first = randomList(random, size[0], 40000);
+			List<Integer> second = randomList(random, size[1], 40000);
+
+			// The union keeps the first list, and the data of the second list
+			// absent from the first
+			List<Integer> union = new ArrayList<Integer>(first);
+			List<Integer> intersection = new ArrayList<Integer>();
+			List<Integer> difference = new ArrayList<Integer>();
+
+			for (Integer value : second) {
+				if (Collections.binarySearch(first, value) < 0) {
+					union.add(value);
+				}
+			}
+
+			for (Integer value : first) {
+				if (Collections.binarySearch(second, value) >= 0) {
+					intersection.add(value);
+				}
+				else {
+					difference.add(value);
+				}
+			}
+
+			Collections.sort(union);
+			assertCombined(union, AVLTree.union(tree(first), tree(second)));
+			assertCombined(intersection, AVLTree.intersection(tree(first), tree(second)));
+			assertCombined(difference, AVLTree.difference(tree(first), tree(second)));
+		}
+
+		// The operands are consumed
+		AVLTree<Integer> first = new AVLTree<>(Integer.class, new Integer[] { 1, 2, 3 });
+		AVLTree<Integer> second = new AVLTree<>(Integer.class, new Integer[] { 2, 4 });
+		assertEquals("The union holds the data of both trees", Arrays.asList(1, 2, 3, 4), AVLTree.union(first, second).toSortedList());
+		assertEquals("The first tree is emptied", 0, first.size());
+		assertEquals("The second tree is emptied", 0, second.size());
+	}
+
+	/**
+	 * Tests that trees ordered by a comparator are kept balanced, and split
+	 * and combined in the order of the comparator.
+	 */
+	@Test
+	public void testComparator () {
+
+		Random random = new Random(42);
+		AVLTree<Integer> first = new AVLTree<>(Integer.class, Comparator.reverseOrder());
+		AVLTree<Integer> second = new AVLTree<>(Integer.class, Comparator.reverseOrder());
+		List<Integer> firstData = randomList(random, 10000, 40000);
+		List<Integer> secondData = randomList(random, 10000, 40000);
+		firstData.forEach(first::insert);
+		secondData.forEach(second::insert);
+
+		assertHeightBound(first);
+		assertEquals("The first element is the largest", Collections.max(firstData), first.select(0));
+
+		List<Integer> expected = new ArrayList<Integer>(firstData);
+		secondData.stream().filter(value -> Collections.binarySearch(firstData, value) < 0).forEach(expected::add);
+		Collections.sort(expected, Collections.reverseOrder());
+
+		AVLTree<Integer> union = AVLTree.union(first, second);
+		assertEquals("The union holds the data in the order of the trees", expected, union.toSortedList());
+		assertEquals("The union keeps the order of the trees", Comparator.reverseOrder(), union.comparator());
+		assertHeightBound(union);
+
+		// The data before the key in the order of the tree is the larger data
+		AVLTree<Integer> rest = union.split(20000);
+		int before = (int) expected.stream().filter(value -> value > 20000).count();
+		assertEquals("The split keeps the data before the key", expected.subList(0, before), union.toSortedList());
+		assertEquals("The split moves the rest of the data", expected.subList(before, expected.size()), rest.toSortedList());
+	}
+
+	/**
+	 * Tests that trees of different orders cannot be combined.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testCombineDifferentOrders () {
+		AVLTree<Integer> first = new AVLTree<>(Integer.class, Comparator.reverseOrder());
+		AVLTree<Integer> second = new AVLTree<>(Integer.class, new Integer[] { 1, 2 });
+		AVLTree.union(first, second);
+	}
+
+	/**
+	 * Tests that a tree cannot be combined or joined with itself, and that
+	 * the rejected tree is left intact.
+	 */
+	@Test
+	public void testCombineWithItself () {
+
+		Integer[] data = new Integer[20];
+
+		for (int i = 0; i < data.length; i++) {
+			data[i] = i;
+		}
+
+		AVLTree<Integer> tree = new AVLTree<>(Integer.class, data.clone());
+		int rejected = 0;
+
+		for (int operation = 0; operation < 4; operation++) {
+
+			try {
+				switch (operation) {
+					case 0:
+						AVLTree.union(tree, tree);
+						break;
+					case 1:
+						AVLTree.intersection(tree, tree);
+						break;
+					case 2:
+						AVLTree.difference(tree, tree);
+						break;
+					default:
+						AVLTree.join(tree, 100, tree);
+						break;
+				}
+			}
+			catch (IllegalArgumentException e) {
+				rejected++;
+			}
+
+			assertEquals("The rejected tree keeps its data", Arrays.asList(data), tree.toSortedList());
+		}
+
+		assertEquals("Every operation on the same tree is rejected", 4, rejected);
+	}
+
+	private static List<Integer> randomList (Random random, int size, int bound) {
+
+		List<Integer> list = new ArrayList<Integer>();
+
+		for (int i = 0; i < size; i++) {
+			list.add(random.nextInt(bound));
+		}
+
+		Collections.sort(list);
+		return list;
+	}
+
+	private static AVLTree<Integer> tree (List<Integer> data) {
+		return new AVLTree<>(Integer.class, data.toArray(new Integer[data.size()]), true);
+	}
+
+	private static void assertCombined (List<Integer> expected, AVLTree<Integer> tree) {
+
+		assertEquals("The combined tree holds the expected data", expected, tree.toSortedList());
+		assertEquals("The combined tree counts every element", expected.size(), tree.size());
+		assertHeightBound(tree);
+
+		for (int i = 0; i < expected.size(); i += 97) {
+			assertEquals("Select returns the combined data", expected.get(i), tree.select(i));
+		}
+	}
+
+	private static void assertHeightBound (AVLTree<Integer> tree) {
+		assertTrue("The tree is balanced", tree.isBalanced());
+		assertTrue("The tree stays within the AVL bound", tree.height() <= 1.44 * Math.log(tree.size() + 2) / Math.log(2));
+	}
+
+	private static int countBelow (List<Integer> sorted, int key) {
+
+		int count = 0;
+
+		while (count < sorted.size() && sorted.get(count) < key) {
+			count++;
+		}
+
+		return count;
+	}
+}
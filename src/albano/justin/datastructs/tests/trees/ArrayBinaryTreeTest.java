@@ -0,0 +1,176 @@
+package albano.justin.datastructs.tests.trees;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import albano.justin.datastructs.trees.ArrayBinaryTree;
+
+/**
+ * Tests for the array-backed {@link ArrayBinaryTree}.
+ *
+ * @author Justin Albano
+ */
+public class ArrayBinaryTreeTest {
+
+	/***************************************************************************
+	 * Setup & Tear Down
+	 **************************************************************************/
+
+	@Before
+	public void setUp () throws Exception {}
+
+	@After
+	public void tearDown () throws Exception {}
+
+	/***************************************************************************
+	 * Tests
+	 **************************************************************************/
+
+	/**
+	 * Tests that the size of an empty tree is zero.
+	 */
+	@Test
+	public void testSizeOfEmptyTree () {
+
+		// Create an empty tree and ensure its size is 0
+		ArrayBinaryTree<Integer> tree = new ArrayBinaryTree<>(Integer.class);
+		assertEquals("An empty tree size should be 0", 0, tree.size());
+		assertEquals("An empty tree height should be 0", 0, tree.height());
+
+		// Create a tree with no data (array) and ensure its size is 0
+		Integer[] arrayOfInts = null;
+		tree = new ArrayBinaryTree<>(Integer.class, arrayOfInts);
+		assertEquals("A tree with null array data should be of size 0", 0, tree.size());
+	}
+
+	/**
+	 * Tests the insert mechanism for the tree when inserting multiple pieces of
+	 * data into the tree.
+	 */
+	@Test
+	public void testInsertMultipleItems () {
+
+		// Create an empty tree
+		ArrayBinaryTree<Integer> tree = new ArrayBinaryTree<>(Integer.class);
+
+		// Insert multiple items into the tree
+		tree.insert(10);
+		tree.insert(20);
+		tree.insert(5);
+		tree.insert(25);
+
+		// Ensure that these values are in the tree
+		assertTrue("Item of value 10 should be present in tree after insertion", tree.isInTree(10));
+		assertTrue("Item of value 20 should be present in tree after insertion", tree.isInTree(20));
+		assertTrue("Item of value 5 should be present in tree after insertion", tree.isInTree(5));
+		assertTrue("Item of value 25 should be present in tree after insertion", tree.isInTree(25));
+		assertTrue("Item of value 15 should not be present in tree", !tree.isInTree(15));
+
+		// Ensure the correct size and contents of the tree
+		assertEquals("Size is 4 after adding 4 items to the tree", 4, tree.size());
+		assertArrayEquals("The sorted array contains every item", new Integer[] { 5, 10, 20, 25 }, tree.toSortedArray());
+	}
+
+	/**
+	 * Tests the removal of data from the tree, including the removal of nodes
+	 * with no children, one child and two children.
+	 */
+	@Test
+	public void testRemove () {
+
+		// Create a balanced tree of the values 1 through 7
+		ArrayBinaryTree<Integer> tree = new ArrayBinaryTree<>(Integer.class, new Integer[] { 1, 2, 3, 4, 5, 6, 7 });
+
+		// Remove the root (two children), an inner node and a leaf
+		assertTrue("Item of value 4 should be removed", tree.remove(4));
+		assertTrue("Item of value 6 should be removed", tree.remove(6));
+		assertTrue("Item of value 1 should be removed", tree.remove(1));
+		assertTrue("Item of value 4 should not be removed twice", !tree.remove(4));
+
+		// Ensure the remaining data is intact
+		assertEquals("Size is 4 after removing 3 items from the tree", 4, tree.size());
+		assertArrayEquals("The sorted array contains the remaining items", new Integer[] { 2, 3, 5, 7 }, tree.toSortedArray());
+		assertTrue("Item of value 6 should not be present in tree", !tree.isInTree(6));
+	}
+
+	/**
+	 * Tests that a random mix of insertions and removals keeps the tree
+	 * consistent with a sorted list of the same data and within the AVL height
+	 * bound.
+	 */
+	@Test
+	public void testRandomInsertAndRemove () {
+
+		// Create an empty tree and a deterministic source of random data
+		ArrayBinaryTree<Integer> tree = new ArrayBinaryTree<>(Integer.class);
+		List<Integer> expected = new ArrayList<Integer>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 20000; i++) {
+
+			Integer value = random.nextInt(1000);
+
+			if (random.nextBoolean()) {
+				// Insert the value into the tree and the list
+				tree.insert(value);
+				expected.add(value);
+			}
+			else {
+				// Remove the value from the tree and the list
+				assertEquals("Removal of " + value + " matches the list", expected.remove(value), tree.remove(value));
+			}
+		}
+
+		// Ensure the tree matches the list
+		Collections.sort(expected);
+		assertEquals("The size of the tree matches the list", expected.size(), tree.size());
+		assertEquals("The sorted list matches the list", expected, tree.toSortedList());
+
+		// The height of an AVL tree is at most 1.44 log2(n + 2)
+		double bound = 1.44 * Math.log(tree.size() + 2) / Math.log(2);
+		assertTrue("The height of the tree should be within the AVL bound", tree.height() <= bound);
+	}
+
+	/**
+	 * Tests that compacting the tree preserves its data and produces a tree of
+	 * minimal height that can still be modified.
+	 */
+	@Test
+	public void testCompact () {
+
+		// Create a tree with gaps left by removed data
+		ArrayBinaryTree<Integer> tree = new ArrayBinaryTree<>(Integer.class);
+
+		for (int i = 0; i < 2000; i++) {
+			tree.insert(i);
+		}
+
+		for (int i = 0; i < 2000; i += 2) {
+			tree.remove(i);
+		}
+
+		// Compact the tree
+		Integer[] before = tree.toSortedArray();
+		tree.compact();
+
+		// Ensure the data is unchanged and the tree has minimal height
+		assertArrayEquals("The data is unchanged after compaction", before, tree.toSortedArray());
+		assertEquals("A balanced tree of 1000 nodes has a height of 10", 10, tree.height());
+
+		// Ensure the tree can be modified after compaction
+		tree.insert(0);
+		assertTrue("Item of value 1 should be removed", tree.remove(1));
+		assertTrue("Item of value 0 should be present in tree", tree.isInTree(0));
+		assertEquals("Size is 1000 after the modifications", 1000, tree.size());
+	}
+}
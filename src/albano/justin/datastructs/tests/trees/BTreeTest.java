@@ -0,0 +1,163 @@
+package albano.justin.datastructs.tests.trees;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import albano.justin.datastructs.trees.BTree;
+
+/**
+ * Tests for the {@link BTree}.
+ *
+ * @author Justin Albano
+ */
+public class BTreeTest {
+
+	/***************************************************************************
+	 * Setup & Tear Down
+	 **************************************************************************/
+
+	@Before
+	public void setUp () throws Exception {}
+
+	@After
+	public void tearDown () throws Exception {}
+
+	/***************************************************************************
+	 * Tests
+	 **************************************************************************/
+
+	/**
+	 * Tests that the size and height of an empty tree are zero.
+	 */
+	@Test
+	public void testSizeOfEmptyTree () {
+
+		// Create an empty tree and ensure its size and height are 0
+		BTree<Integer> tree = new BTree<>(Integer.class);
+		assertEquals("An empty B-tree size should be 0", 0, tree.size());
+		assertEquals("An empty B-tree height should be 0", 0, tree.height());
+		assertTrue("Item of value 1 should not be present in an empty tree", !tree.isInTree(1));
+
+		// Create a tree with no data (array) and ensure its size is 0
+		Integer[] arrayOfInts = null;
+		tree = new BTree<>(Integer.class, arrayOfInts);
+		assertEquals("A B-tree with null array data should be of size 0", 0, tree.size());
+	}
+
+	/**
+	 * Tests the insert mechanism for the tree when inserting multiple pieces of
+	 * data into the tree, including duplicate data.
+	 */
+	@Test
+	public void testInsertMultipleItems () {
+
+		// Create an empty tree with the smallest fanout
+		BTree<Integer> tree = new BTree<>(Integer.class, 4);
+
+		// Insert multiple items into the tree
+		tree.insert(10);
+		tree.insert(20);
+		tree.insert(5);
+		tree.insert(25);
+		tree.insert(10);
+
+		// Ensure that these values are in the tree
+		assertTrue("Item of value 10 should be present in tree after insertion", tree.isInTree(10));
+		assertTrue("Item of value 20 should be present in tree after insertion", tree.isInTree(20));
+		assertTrue("Item of value 5 should be present in tree after insertion", tree.isInTree(5));
+		assertTrue("Item of value 25 should be present in tree after insertion", tree.isInTree(25));
+		assertTrue("Item of value 15 should not be present in tree", !tree.isInTree(15));
+
+		// Ensure the correct size and contents of the tree
+		assertEquals("Size is 5 after adding 5 items to the tree", 5, tree.size());
+		assertArrayEquals("The sorted array contains every item", new Integer[] { 5, 10, 10, 20, 25 }, tree.toSortedArray());
+	}
+
+	/**
+	 * Tests that random insertion, over a range of fanouts, stores the data in
+	 * order and keeps the height of the tree logarithmic in the fanout.
+	 */
+	@Test
+	public void testRandomInsertion () {
+
+		for (int fanout : new int[] { 4, 5, 16, 128 }) {
+
+			// Insert random data, with duplicates, into the tree
+			BTree<Integer> tree = new BTree<>(Integer.class, fanout);
+			Random random = new Random(42);
+			Integer[] data = new Integer[20000];
+
+			for (int i = 0; i < data.length; i++) {
+				data[i] = random.nextInt(10000);
+				tree.insert(data[i]);
+			}
+
+			// Ensure the sorted array of the tree matches the sorted data
+			Integer[] sortedData = data.clone();
+			Arrays.sort(sortedData);
+			assertArrayEquals("The sorted array matches the inserted data", sortedData, tree.toSortedArray());
+			assertEquals("The sorted list matches the inserted data", Arrays.asList(sortedData), tree.toSortedList());
+
+			for (int i = 0; i < 100; i++) {
+				assertTrue("Inserted data is present in the tree", tree.isInTree(data[i]));
+				assertTrue("Data that was not inserted is not present", !tree.isInTree(10000 + i));
+			}
+
+			// Every node other than the root holds at least half its capacity,
+			// so the tree has at most log_(fanout / 2)(n) + 1 levels
+			double bound = Math.log(data.length) / Math.log((fanout & ~1) / 2) + 1;
+			assertTrue("The height of the tree is logarithmic in the fanout", tree.height() <= bound);
+		}
+	}
+
+	/**
+	 * Tests the creation of a tree with a populated array, and that insertion
+	 * into the packed tree keeps it sorted.
+	 */
+	@Test
+	public void testCreateFromArray () {
+
+		for (int length : new int[] { 1, 3, 4, 7, 100, 5000 }) {
+
+			Integer[] data = new Integer[length];
+
+			for (int i = 0; i < length; i++) {
+				data[i] = length - i;
+			}
+
+			// Create the tree and ensure it holds the data in order
+			BTree<Integer> tree = new BTree<>(Integer.class, 4, data);
+			Integer[] sortedData = data.clone();
+			Arrays.sort(sortedData);
+			assertEquals("The tree holds every item", length, tree.size());
+			assertArrayEquals("The packed tree is sorted", sortedData, tree.toSortedArray());
+
+			for (Integer value : data) {
+				assertTrue("Every item is present in the packed tree", tree.isInTree(value));
+			}
+
+			// Insert into the packed tree
+			tree.insert(0);
+			tree.insert(length / 2);
+			assertEquals("The tree holds the inserted items", length + 2, tree.size());
+			assertTrue("The inserted item is present", tree.isInTree(0));
+			assertEquals("The smallest item is the inserted item", 0, tree.toSortedArray()[0].intValue());
+		}
+	}
+
+	/**
+	 * Tests that a fanout below the minimum is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidFanout () {
+		new BTree<>(Integer.class, 3);
+	}
+}
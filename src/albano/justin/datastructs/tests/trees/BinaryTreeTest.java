@@ -3,16 +3,32 @@ package albano.justin.datastructs.tests.trees;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import albano.justin.datastructs.trees.BinaryTree;
+import albano.justin.datastructs.trees.TreeStats;
 
 /**
  * TODO Class documentation
@@ -242,8 +258,9 @@ public class BinaryTreeTest {
 		// Balance the tree
 		tree.rebalance();
 
-		// Ensure the tree is balanced
+		// Ensure the tree is balanced and its size is unchanged
 		assertTrue("Ensure the balanced tree is considered balanced", tree.isBalanced());
+		assertEquals("Size is unchanged after rebalancing the tree", 4, tree.size());
 	}
 
 	/**
@@ -268,4 +285,904 @@ public class BinaryTreeTest {
 		// Ensure the tree is balanced
 		assertTrue("Ensure the balanced tree is considered balanced", tree.isBalanced());
 	}
+
+	/**
+	 * Tests that the operations on a degenerate (list-like) tree, created by
+	 * inserting sorted data, do not overflow the call stack.
+	 */
+	@Test
+	public void testDegenerateTreeOperations () {
+
+		// Create a tree that degrades into a list of 20,000 nodes
+		int count = 20000;
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class);
+
+		for (int i = 0; i < count; i++) {
+			// Insert the values in ascending order
+			tree.insert(i);
+		}
+
+		// Ensure each operation completes on the degenerate tree
+		assertTrue("The last item should be present in the tree", tree.isInTree(count - 1));
+		assertTrue("An item larger than all others should not be present in the tree", !tree.isInTree(count));
+		assertEquals("The height of the degenerate tree is its size", count, tree.height());
+		assertTrue("Ensure the degenerate tree is considered unbalanced", !tree.isBalanced());
+		assertEquals("The sorted array contains every item", count, tree.toSortedArray().length);
+		assertEquals("The sorted list contains every item", count, tree.toSortedList().size());
+	}
+
+	/**
+	 * Tests the creation of the tree from an array that is declared to be
+	 * sorted, ensuring the tree is balanced and its contents are in order.
+	 */
+	@Test
+	public void testCreateFromSortedArray () {
+
+		// A sorted array of data from which to populate the tree
+		Integer[] data = new Integer[1000];
+
+		for (int i = 0; i < data.length; i++) {
+			data[i] = i * 2;
+		}
+
+		// Create the tree without sorting the array
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class, data, true);
+
+		// Ensure the tree has the correct size and is balanced
+		assertEquals("Size matches the size of the array", data.length, tree.size());
+		assertTrue("Ensure the tree is considered balanced", tree.isBalanced());
+		assertEquals("A balanced tree of 1000 nodes has a height of 10", 10, tree.height());
+
+		// Ensure the contents of the tree match the array
+		assertTrue("The sorted array matches the original data", Arrays.equals(data, tree.toSortedArray()));
+		assertTrue("Element of value 500 is in tree", tree.isInTree(500));
+		assertTrue("Element of value 501 is not in tree", !tree.isInTree(501));
+	}
+
+	/**
+	 * Tests the creation of the tree from an iterator over sorted data.
+	 */
+	@Test
+	public void testCreateFromSortedIterator () {
+
+		// A sorted list of data from which to populate the tree
+		List<Integer> data = new ArrayList<Integer>();
+
+		for (int i = 0; i < 100; i++) {
+			data.add(i);
+		}
+
+		// Create the tree from the iterator over the list
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class, data.iterator(), data.size());
+
+		// Ensure the tree has the correct size, is balanced and is in order
+		assertEquals("Size matches the size of the list", data.size(), tree.size());
+		assertTrue("Ensure the tree is considered balanced", tree.isBalanced());
+		assertEquals("The sorted list matches the original data", data, tree.toSortedList());
+	}
+
+	/**
+	 * Tests the creation of the tree from unsorted and sorted lists.
+	 */
+	@Test
+	public void testCreateFromList () {
+
+		// An unsorted list of data from which to populate the tree
+		List<Integer> data = Arrays.asList(1, 0, 4, 76, 58, 12, 9, 133);
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class, data);
+
+		// Ensure the tree contains the data in order and is balanced
+		List<Integer> sortedData = new ArrayList<Integer>(data);
+		Collections.sort(sortedData);
+		assertEquals("Size matches the size of the list", data.size(), tree.size());
+		assertEquals("The sorted list matches the original data", sortedData, tree.toSortedList());
+		assertTrue("Ensure the tree is considered balanced", tree.isBalanced());
+
+		// Create the tree from a sorted set
+		tree = new BinaryTree<>(Integer.class, new TreeSet<Integer>(data));
+		assertEquals("The sorted list matches the data of the sorted set", sortedData, tree.toSortedList());
+		assertTrue("Ensure the tree is considered balanced", tree.isBalanced());
+	}
+
+	/**
+	 * Tests the creation of the tree from an iterable that is not a collection.
+	 */
+	@Test
+	public void testCreateFromIterable () {
+
+		// An iterable over unsorted data (that is not a collection)
+		final List<Integer> data = Arrays.asList(5, 3, 8, 1, 9, 2);
+		Iterable<Integer> iterable = new Iterable<Integer>() {
+
+			@Override
+			public Iterator<Integer> iterator () {
+				return data.iterator();
+			}
+		};
+
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class, iterable);
+
+		// Ensure the tree contains the data in order and is balanced
+		assertEquals("Size matches the size of the iterable", data.size(), tree.size());
+		assertEquals("The sorted list matches the original data", Arrays.asList(1, 2, 3, 5, 8, 9), tree.toSortedList());
+		assertTrue("Ensure the tree is considered balanced", tree.isBalanced());
+	}
+
+	/**
+	 * Tests the creation of the tree from sorted and unsorted streams, where
+	 * the unsorted stream is large enough to be sorted in multiple runs.
+	 */
+	@Test
+	public void testCreateFromStream () {
+
+		// Create the tree from a large stream of unsorted data
+		Random random = new Random(42);
+		int[] data = random.ints(200000, 0, 1000000).toArray();
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class, IntStream.of(data).boxed());
+
+		// Ensure the tree contains the data in order and is balanced
+		int[] sortedData = data.clone();
+		Arrays.sort(sortedData);
+		assertEquals("Size matches the size of the stream", data.length, tree.size());
+		assertTrue("The sorted array matches the original data", Arrays.equals(IntStream.of(sortedData).boxed().toArray(), tree.toSortedArray()));
+		assertTrue("Ensure the tree is considered balanced", tree.isBalanced());
+
+		// Create the tree from a sorted stream
+		Stream<Integer> sortedStream = new TreeSet<Integer>(Arrays.asList(4, 2, 6)).stream();
+		tree = new BinaryTree<>(Integer.class, sortedStream);
+		assertEquals("The sorted list matches the data of the sorted stream", Arrays.asList(2, 4, 6), tree.toSortedList());
+
+		// Create the tree from an empty stream
+		tree = new BinaryTree<>(Integer.class, Stream.<Integer> empty());
+		assertEquals("An empty stream creates an empty tree", 0, tree.size());
+	}
+
+	/**
+	 * Tests the parallel sorted export of large balanced and unbalanced trees,
+	 * and the parallel build of a large balanced tree from an array.
+	 */
+	@Test
+	public void testParallelExportAndBuild () {
+
+		// Insert random data into an unbalanced tree
+		Random random = new Random(42);
+		Integer[] data = new Integer[100000];
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class);
+
+		for (int i = 0; i < data.length; i++) {
+			data[i] = random.nextInt(50000);
+			tree.insert(data[i]);
+		}
+
+		// Ensure the parallel export matches the sequential export
+		Integer[] sortedData = data.clone();
+		Arrays.sort(sortedData);
+		assertTrue("The parallel export of an unbalanced tree is sorted", Arrays.equals(sortedData, tree.parallelToSortedArray()));
+		assertEquals("The parallel list matches the sequential list", tree.toSortedList(), tree.parallelToSortedList());
+
+		tree.rebalance();
+		assertTrue("The parallel export of a rebalanced tree is sorted", Arrays.equals(sortedData, tree.parallelToSortedArray()));
+
+		// Build a tree from the array, which is large enough to be linked in
+		// parallel
+		BinaryTree<Integer> built = new BinaryTree<>(Integer.class, data.clone());
+		assertEquals("Size matches the size of the array", data.length, built.size());
+		assertTrue("The built tree is sorted", Arrays.equals(sortedData, built.parallelToSortedArray()));
+		assertTrue("The built tree is balanced", built.isBalanced());
+		assertEquals("The built tree has the height of a complete tree", 32 - Integer.numberOfLeadingZeros(data.length), built.height());
+	}
+
+	/**
+	 * Tests rank, select and countInRange against the sorted data of a tree
+	 * built by insertion and by rebalancing.
+	 */
+	@Test
+	public void testOrderStatistics () {
+
+		// Fill a tree with random data, including duplicates
+		Random random = new Random(42);
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class);
+
+		for (int i = 0; i < 5000; i++) {
+			tree.insert(random.nextInt(2000));
+		}
+
+		// Check the statistics after rebalancing, which rebuilds the tree
+		tree.rebalance();
+
+		Integer[] sorted = tree.toSortedArray();
+
+		for (int i = 0; i < sorted.length; i++) {
+			assertEquals("Select returns the element of each rank", sorted[i], tree.select(i));
+		}
+
+		for (int value = -1; value <= 2000; value += 7) {
+
+			// Count the elements below the value and within a range by scanning
+			int below = 0;
+			int within = 0;
+
+			for (Integer element : sorted) {
+				below += (element < value) ? 1 : 0;
+				within += (element >= value && element <= value + 100) ? 1 : 0;
+			}
+
+			assertEquals("The rank counts the smaller elements", below, tree.rank(value));
+			assertEquals("The range count includes both bounds", within, tree.countInRange(value, value + 100));
+		}
+
+		assertEquals("An empty range has no elements", 0, tree.countInRange(10, 5));
+	}
+
+	/**
+	 * Tests that select rejects ranks outside of the tree.
+	 */
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testSelectOutOfBounds () {
+
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class);
+		tree.insert(1);
+		tree.select(1);
+	}
+
+	/**
+	 * Tests that the ascending and descending iterators and the streams of a
+	 * tree return the same data as the sorted array.
+	 */
+	@Test
+	public void testIterationAndStreams () {
+
+		// Fill an unbalanced tree with random data, including duplicates
+		Random random = new Random(42);
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class);
+
+		for (int i = 0; i < 20000; i++) {
+			tree.insert(random.nextInt(5000));
+		}
+
+		List<Integer> sorted = tree.toSortedList();
+		List<Integer> ascending = new ArrayList<Integer>();
+
+		for (Integer element : tree) {
+			ascending.add(element);
+		}
+
+		List<Integer> descending = new ArrayList<Integer>();
+		Iterator<Integer> iterator = tree.descendingIterator();
+
+		while (iterator.hasNext()) {
+			descending.add(iterator.next());
+		}
+
+		Collections.reverse(descending);
+		assertEquals("The iterator returns the data in ascending order", sorted, ascending);
+		assertEquals("The descending iterator returns the data in descending order", sorted, descending);
+		assertEquals("The stream returns the data in order", sorted, tree.stream().collect(Collectors.toList()));
+		assertEquals("The parallel stream returns the data in order", sorted, tree.parallelStream().collect(Collectors.toList()));
+		assertEquals("The parallel stream counts the data", 20000, tree.parallelStream().filter(x -> x >= 0).count());
+
+		// The spliterator is sized and sorted, and splits by rank
+		Spliterator<Integer> spliterator = tree.spliterator();
+		assertTrue("The spliterator is sized and sorted", spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.SORTED));
+		Spliterator<Integer> prefix = spliterator.trySplit();
+		assertEquals("The prefix holds half of the data", 10000, prefix.estimateSize());
+		assertEquals("The suffix holds the other half of the data", 10000, spliterator.estimateSize());
+		prefix.tryAdvance(x -> assertEquals("The prefix starts at the smallest element", sorted.get(0), x));
+		spliterator.tryAdvance(x -> assertEquals("The suffix starts at the middle element", sorted.get(10000), x));
+
+		// An empty tree has nothing to iterate
+		BinaryTree<Integer> empty = new BinaryTree<>(Integer.class);
+		assertTrue("An empty tree has no elements", !empty.iterator().hasNext());
+		assertEquals("An empty tree streams no elements", 0, empty.stream().count());
+	}
+
+	/**
+	 * Tests floor, ceiling, higher and lower against a sorted set.
+	 */
+	@Test
+	public void testNavigation () {
+
+		Random random = new Random(42);
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class);
+		TreeSet<Integer> expected = new TreeSet<Integer>();
+
+		for (int i = 0; i < 2000; i++) {
+			int value = 2 * random.nextInt(1000);
+			tree.insert(value);
+			expected.add(value);
+		}
+
+		for (int value = -2; value <= 2002; value++) {
+			assertEquals("Floor of " + value, expected.floor(value), tree.floor(value));
+			assertEquals("Ceiling of " + value, expected.ceiling(value), tree.ceiling(value));
+			assertEquals("Higher of " + value, expected.higher(value), tree.higher(value));
+			assertEquals("Lower of " + value, expected.lower(value), tree.lower(value));
+		}
+	}
+
+	/**
+	 * Tests that a range view returns exactly the elements within its
+	 * inclusive bounds, lazily and as a sized stream.
+	 */
+	@Test
+	public void testSubRange () {
+
+		Random random = new Random(42);
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class);
+
+		for (int i = 0; i < 5000; i++) {
+			tree.insert(random.nextInt(2000));
+		}
+
+		Integer[] sorted = tree.toSortedArray();
+
+		for (int value = -50; value <= 2000; value += 37) {
+
+			List<Integer> expected = new ArrayList<Integer>();
+
+			for (Integer element : sorted) {
+				if (element >= value && element <= value + 100) {
+					expected.add(element);
+				}
+			}
+
+			List<Integer> actual = new ArrayList<Integer>();
+			Iterable<Integer> range = tree.subRange(value, value + 100);
+
+			for (Integer element : range) {
+				actual.add(element);
+			}
+
+			assertEquals("The range holds the elements within its bounds", expected, actual);
+			assertEquals("The range is sized", expected.size(), range.spliterator().getExactSizeIfKnown());
+			assertEquals("The range streams its elements", expected, StreamSupport.stream(range.spliterator(), true).collect(Collectors.toList()));
+		}
+
+		assertTrue("An inverted range is empty", !tree.subRange(10, 5).iterator().hasNext());
+	}
+
+	/**
+	 * Tests that an iterator fails once the tree is modified.
+	 */
+	@Test(expected = ConcurrentModificationException.class)
+	public void testIteratorFailsFast () {
+
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class, new Integer[] { 1, 2, 3 });
+		Iterator<Integer> iterator = tree.iterator();
+		iterator.next();
+		tree.insert(4);
+		iterator.next();
+	}
+
+	/**
+	 * Tests that a removal, present or missing, descends the tree without
+	 * being counted as a lookup, and that a missing removal leaves the subtree
+	 * sizes intact.
+	 */
+	@Test
+	public void testRemoveIsNotLookup () {
+
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class);
+
+		for (int i = 0; i < 100; i += 2) {
+			tree.insert((i * 37) % 100);
+		}
+
+		tree.resetStats();
+
+		assertTrue("Present data is removed", tree.remove(74));
+		assertTrue("Missing data is not removed", !tree.remove(75));
+		assertTrue("Removed data is not removed twice", !tree.remove(74));
+		assertEquals("The size counts the remaining data", 49, tree.size());
+		assertEquals("Removals are not counted as lookups", 0, tree.stats().getLookups());
+
+		for (int i = 0; i < tree.size(); i++) {
+			int expected = (i < 37) ? 2 * i : 2 * i + 2;
+			assertEquals("Select returns the remaining data", expected, tree.select(i).intValue());
+		}
+	}
+
+	/**
+	 * Tests a random sequence of insertions and removals, including
+	 * duplicates, against a count of each data.
+	 */
+	@Test
+	public void testRemove () {
+
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class);
+		int[] counts = new int[500];
+		int size = 0;
+		Random random = new Random(42);
+
+		assertTrue("Removing from an empty tree fails", !tree.remove(10));
+
+		for (int i = 0; i < 50000; i++) {
+
+			int value = random.nextInt(counts.length);
+
+			if (random.nextInt(3) > 0) {
+				tree.insert(value);
+				counts[value]++;
+				size++;
+			}
+			else {
+				boolean removed = tree.remove(value);
+				assertEquals("Removal succeeds only for present data", counts[value] > 0, removed);
+
+				if (removed) {
+					counts[value]--;
+					size--;
+				}
+			}
+		}
+
+		assertEquals("The size counts the remaining data", size, tree.size());
+
+		// Rebalancing keeps the remaining data
+		tree.rebalance();
+		assertTrue("The tree is balanced after rebalancing", tree.isBalanced());
+
+		// The remaining data is in order, and the subtree sizes are intact
+		Integer[] sorted = tree.toSortedArray();
+		int index = 0;
+
+		for (int value = 0; value < counts.length; value++) {
+
+			assertEquals("Data is present exactly when it remains", counts[value] > 0, tree.isInTree(value));
+
+			for (int c = 0; c < counts[value]; c++, index++) {
+				assertEquals("The sorted array holds the remaining data", value, sorted[index].intValue());
+				assertEquals("Select returns the remaining data", value, tree.select(index).intValue());
+			}
+		}
+
+		assertEquals("The sorted array holds every remaining element", size, index);
+	}
+
+	/**
+	 * Tests that removeAll removes every occurrence of its data, whether it
+	 * removes the data one at a time or filters and rebuilds the tree.
+	 */
+	@Test
+	public void testRemoveAll () {
+
+		for (int removals : new int[] { 10, 3000 }) {
+
+			Random random = new Random(42);
+			BinaryTree<Integer> tree = new BinaryTree<>(Integer.class);
+			List<Integer> expected = new ArrayList<Integer>();
+
+			for (int i = 0; i < 10000; i++) {
+				int value = random.nextInt(5000);
+				tree.insert(value);
+				expected.add(value);
+			}
+
+			List<Integer> remove = new ArrayList<Integer>();
+
+			for (int i = 0; i < removals; i++) {
+				remove.add(random.nextInt(5000));
+			}
+
+			expected.removeAll(remove);
+			Collections.sort(expected);
+
+			assertTrue("Data is removed", tree.removeAll(remove));
+			assertEquals("Every occurrence of the data is removed", expected, tree.toSortedList());
+			assertEquals("The size counts the remaining data", expected.size(), tree.size());
+			assertTrue("Removing the data again changes nothing", !tree.removeAll(remove));
+
+			for (int i = 0; i < expected.size(); i += 101) {
+				assertEquals("Select returns the remaining data", expected.get(i), tree.select(i));
+			}
+		}
+	}
+
+	/**
+	 * Tests that lazily deleted data is hidden from every query and that the
+	 * tree is compacted once the tombstones pass the threshold.
+	 */
+	@Test
+	public void testLazyDeletion () {
+
+		Integer[] data = new Integer[1000];
+
+		for (int i = 0; i < data.length; i++) {
+			// Store each value twice
+			data[i] = i / 2;
+		}
+
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class, data.clone());
+		tree.setCompactionThreshold(0.6);
+		int height = tree.height();
+
+		// Remove both copies of the multiples of 3, and one copy of the
+		// values that are 1 more than a multiple of 3
+		List<Integer> expected = new ArrayList<Integer>();
+
+		for (int value = 0; value < 500; value++) {
+
+			if (value % 3 == 0) {
+				assertTrue("The first copy is removed", tree.remove(value));
+				assertTrue("The second copy is removed", tree.remove(value));
+				assertTrue("There is no third copy", !tree.remove(value));
+			}
+			else if (value % 3 == 1) {
+				assertTrue("One copy is removed", tree.remove(value));
+				expected.add(value);
+			}
+			else {
+				expected.add(value);
+				expected.add(value);
+			}
+		}
+
+		assertEquals("Removals leave tombstones without restructuring", height, tree.height());
+		assertEquals("Each removal leaves a tombstone", 501, tree.tombstones());
+		assertEquals("The size counts the live data", expected.size(), tree.size());
+		assertEquals("The sorted list skips the tombstones", expected, tree.toSortedList());
+
+		List<Integer> iterated = new ArrayList<Integer>();
+
+		for (Integer element : tree) {
+			iterated.add(element);
+		}
+
+		List<Integer> reversed = new ArrayList<Integer>();
+		tree.descendingIterator().forEachRemaining(reversed::add);
+		Collections.reverse(reversed);
+
+		assertEquals("The iterator skips the tombstones", expected, iterated);
+		assertEquals("The descending iterator skips the tombstones", expected, reversed);
+		assertEquals("The parallel stream skips the tombstones", expected, tree.parallelStream().collect(Collectors.toList()));
+
+		for (int value = 0; value < 500; value++) {
+
+			int below = 0;
+
+			for (Integer element : expected) {
+				below += (element < value) ? 1 : 0;
+			}
+
+			assertEquals("Only live data is found", value % 3 != 0, tree.isInTree(value));
+			assertEquals("The rank counts only live data", below, tree.rank(value));
+		}
+
+		assertEquals("The floor skips a tombstone", 2, tree.floor(3).intValue());
+		assertEquals("The ceiling skips a tombstone", 4, tree.ceiling(3).intValue());
+		assertEquals("The higher element skips a tombstone", 4, tree.higher(2).intValue());
+		assertEquals("The lower element skips a tombstone", 2, tree.lower(4).intValue());
+		assertEquals("The range skips the tombstones", Arrays.asList(4, 5, 5, 7), toList(tree.subRange(3, 7)));
+
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals("Select skips the tombstones", expected.get(i), tree.select(i));
+		}
+
+		// The 100th of the next removals passes the threshold and compacts
+		// the tree, and the rest leave tombstones in the compacted tree
+		for (int value = 1; value < 500; value += 3) {
+			assertTrue("The last copy is removed", tree.remove(value));
+		}
+
+		assertEquals("The tree is compacted once the tombstones pass the threshold", 67, tree.tombstones());
+		assertEquals("The size counts the live data", 332, tree.size());
+		assertEquals("The compacted tree holds the live data", 332, tree.toSortedList().size());
+
+		// Disabling lazy deletion compacts the tree
+		tree.setCompactionThreshold(0);
+		assertEquals("Disabling lazy deletion removes the tombstones", 0, tree.tombstones());
+		assertTrue("The compacted tree is balanced", tree.isBalanced());
+	}
+
+	/***************************************************************************
+	 * Helpers
+	 **************************************************************************/
+
+	private static <T> List<T> toList (Iterable<T> iterable) {
+
+		List<T> list = new ArrayList<T>();
+
+		for (T element : iterable) {
+			list.add(element);
+		}
+
+		return list;
+	}
+
+	/**
+	 * Tests that sorted batches, both small enough to be spliced into the tree
+	 * and large enough to be merged with it, are inserted with every
+	 * duplicate and keep the subtree sizes intact.
+	 */
+	@Test
+	public void testInsertAll () {
+
+		Random random = new Random(42);
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class);
+		List<Integer> expected = new ArrayList<Integer>();
+
+		for (int batchSize : new int[] { 5000, 10, 100, 20000, 1, 300 }) {
+
+			Integer[] batch = new Integer[batchSize];
+
+			for (int i = 0; i < batch.length; i++) {
+				batch[i] = random.nextInt(10000);
+				expected.add(batch[i]);
+			}
+
+			Arrays.sort(batch);
+			tree.insertAll(batch);
+			Collections.sort(expected);
+
+			assertEquals("The size counts every inserted element", expected.size(), tree.size());
+			assertEquals("The tree holds every inserted element", expected, tree.toSortedList());
+
+			for (int i = 0; i < expected.size(); i += 97) {
+				assertEquals("Select returns the inserted data", expected.get(i), tree.select(i));
+			}
+
+			// Splicing links balanced subtrees, so the tree stays shallow
+			assertTrue("The tree stays shallow", tree.height() <= 4 * Math.log(tree.size()) / Math.log(2));
+		}
+
+		// An unsorted collection is sorted before insertion
+		tree.insertAll(Arrays.asList(3, 1, 2));
+		expected.addAll(Arrays.asList(1, 2, 3));
+		Collections.sort(expected);
+		assertEquals("An unsorted collection is inserted", expected, tree.toSortedList());
+	}
+
+	/**
+	 * Tests that a long sequence of small ascending batches, each of which is
+	 * spliced below the largest data of the tree, does not deepen the tree
+	 * beyond its depth bound.
+	 */
+	@Test
+	public void testInsertAllSortedBatches () {
+
+		Random random = new Random(42);
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class);
+
+		for (int i = 0; i < 100000; i++) {
+			tree.insert(random.nextInt(100000));
+		}
+
+		Integer[] batch = new Integer[10000];
+
+		for (int round = 0; round < 100; round++) {
+
+			for (int i = 0; i < batch.length; i++) {
+				batch[i] = 100000 + round * batch.length + i;
+			}
+
+			tree.insertAll(batch);
+		}
+
+		assertEquals("The size counts every inserted element", 1100000, tree.size());
+		assertTrue("The tree stays within the depth bound", tree.height() <= 3 * (32 - Integer.numberOfLeadingZeros(tree.size())));
+		assertEquals("Select returns the largest data", Integer.valueOf(1099999), tree.select(tree.size() - 1));
+	}
+
+	/**
+	 * Tests the counters of the tree, which are only kept when they are
+	 * enabled by the albano.justin.datastructs.trees.stats system property
+	 * (the Maven build runs the tests both with and without the counters).
+	 */
+	@Test
+	public void testStats () throws Exception {
+
+		// A sorted insertion order degenerates the tree into a path
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class);
+
+		for (int i = 0; i < 40; i++) {
+			tree.insert(i);
+		}
+
+		assertTrue("The tree finds the first element", tree.isInTree(0));
+		assertTrue("The tree finds the last element", tree.isInTree(39));
+		assertTrue("The tree does not find a missing element", !tree.isInTree(40));
+		tree.rebalance();
+
+		TreeStats stats = tree.stats();
+		assertEquals("The snapshot holds the size", stats.isEnabled() ? 40 : 0, stats.getSize());
+
+		if (!stats.isEnabled()) {
+			// A disabled tree counts nothing
+			assertEquals("A disabled tree counts no lookups", 0, stats.getLookups());
+			assertEquals("A disabled tree counts no inserts", 0, stats.getInserts());
+			tree.resetStats();
+
+			// The disabled counters are still published over JMX
+			ObjectName name = tree.registerMBean("testStatsDisabled");
+
+			try {
+				MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+				CompositeData published = (CompositeData) server.getAttribute(name, "Stats");
+				assertEquals("The MBean publishes disabled counters", false, published.get("enabled"));
+				assertEquals("The MBean publishes no lookups", 0L, published.get("lookups"));
+				server.invoke(name, "reset", new Object[0], new String[0]);
+			}
+			finally {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+			}
+
+			return;
+		}
+
+		// The i-th insertion compares against the i nodes above it
+		assertEquals("Every insertion is counted", 40, stats.getInserts());
+		assertEquals("The insertions compare along the path", 39 * 40 / 2, stats.getInsertComparisons());
+		assertEquals("Every lookup is counted", 3, stats.getLookups());
+		assertEquals("The lookups compare along the path", 1 + 40 + 40, stats.getLookupComparisons());
+		assertEquals("The rebalance is counted", 1, stats.getRebalances());
+		assertTrue("The rebalance is timed", stats.getRebalanceNanos() > 0);
+
+		long[] histogram = stats.getDepthHistogram();
+		assertEquals("The histogram reaches the longest path", 41, histogram.length);
+		assertEquals("Two lookups compared every node", 2, histogram[40]);
+		assertEquals("One insertion compared 39 nodes", 1, histogram[39]);
+
+		// The balanced tree shortens the paths
+		tree.resetStats();
+
+		for (int i = 0; i < 40; i++) {
+			assertTrue("The tree finds every element", tree.isInTree(i));
+		}
+
+		stats = tree.stats();
+		assertEquals("The counters are reset", 0, stats.getInserts());
+		assertTrue("The balanced paths are short", stats.getAverageLookupComparisons() <= 6);
+
+		// The counters are published over JMX
+		ObjectName name = tree.registerMBean("testStats");
+
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			CompositeData published = (CompositeData) server.getAttribute(name, "Stats");
+			assertEquals("The MBean publishes the lookups", 40L, published.get("lookups"));
+			server.invoke(name, "reset", new Object[0], new String[0]);
+			assertEquals("The MBean resets the counters", 0, tree.stats().getLookups());
+		}
+		finally {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		}
+	}
+
+	/**
+	 * Tests that a tree ordered by a comparator keeps, searches, navigates and
+	 * exports its data in the order of the comparator.
+	 */
+	@Test
+	public void testComparator () {
+
+		Random random = new Random(42);
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class, Comparator.reverseOrder());
+		List<Integer> expected = new ArrayList<Integer>();
+
+		for (int i = 0; i < 2000; i++) {
+			int value = random.nextInt(1000);
+			tree.insert(value);
+			expected.add(value);
+		}
+
+		// Both a reverse-ordered set and an unsorted list are inserted in bulk
+		TreeSet<Integer> descending = new TreeSet<Integer>(Comparator.reverseOrder());
+		descending.addAll(Arrays.asList(5, 1000, 3));
+		tree.insertAll(descending);
+		tree.insertAll(Arrays.asList(7, 1001, 7));
+		expected.addAll(Arrays.asList(5, 1000, 3, 7, 1001, 7));
+
+		assertTrue("A removed element is reported", tree.remove(1001));
+		expected.remove(Integer.valueOf(1001));
+		Collections.sort(expected, Collections.reverseOrder());
+
+		assertEquals("The tree holds its data in the order of the comparator", expected, tree.toSortedList());
+		assertEquals("The tree reports its comparator", Comparator.reverseOrder(), tree.comparator());
+		assertEquals("The stream reports the comparator", Comparator.reverseOrder(), tree.spliterator().getComparator());
+
+		for (int value = -1; value <= 1001; value++) {
+			assertEquals("Lookup of " + value, expected.contains(value), tree.isInTree(value));
+			assertEquals("Rank of " + value, countBefore(expected, value), tree.rank(value));
+		}
+
+		assertEquals("The ceiling is the next smaller element", Integer.valueOf(1000), tree.ceiling(1001));
+		assertEquals("A range runs in the order of the tree", countBefore(expected, 4) - countBefore(expected, 7), toList(tree.subRange(7, 5)).size());
+		assertTrue("A range against the order of the tree is empty", !tree.subRange(5, 7).iterator().hasNext());
+		assertTrue("A snapshot keeps the order of the tree", tree.freeze().isInTree(expected.get(42)));
+
+		// Removing most of the data rebuilds the tree from its sorted data
+		assertTrue("The data is removed", tree.removeAll(IntStream.range(250, 1001).boxed().collect(Collectors.toList())));
+		expected.removeIf(value -> value >= 250);
+		assertEquals("The rebuilt tree keeps the order", expected, tree.toSortedList());
+	}
+
+	/**
+	 * Tests that a tree ordered by a primitive key never falls back to the
+	 * natural order of its data.
+	 */
+	@Test
+	public void testKeyExtractor () {
+
+		BinaryTree<Record> tree = new BinaryTree<>(Record.class, (Record record) -> record.id);
+
+		for (int i = 0; i < 1000; i++) {
+			tree.insert(new Record((i * 7919) % 1000));
+		}
+
+		tree.insertAll(Arrays.asList(new Record(2000), new Record(1500)));
+
+		assertEquals("The tree holds every record", 1002, tree.size());
+		assertTrue("A record is found by its key", tree.isInTree(new Record(123)));
+		assertTrue("A missing key is not found", !tree.isInTree(new Record(1001)));
+		assertTrue("A record is removed by its key", tree.remove(new Record(500)));
+		assertEquals("Select orders the records by key", 501, tree.select(500).id);
+		assertEquals("The largest record is last", 2000, tree.select(tree.size() - 1).id);
+		assertTrue("A snapshot orders the records by key", tree.freeze().isInTree(new Record(1500)));
+	}
+
+	/**
+	 * Tests that every populated constructor that takes a comparator sorts and
+	 * links its data by the comparator, never falling back to the natural
+	 * order of the data.
+	 */
+	@Test
+	public void testPopulatedWithComparator () {
+
+		Comparator<Record> byId = Comparator.comparingLong((Record record) -> record.id);
+		Record[] records = new Record[1000];
+
+		for (int i = 0; i < records.length; i++) {
+			records[i] = new Record((i * 7919) % 1000);
+		}
+
+		TreeSet<Record> sortedSet = new TreeSet<Record>(byId);
+		sortedSet.addAll(Arrays.asList(records));
+
+		List<BinaryTree<Record>> trees = new ArrayList<BinaryTree<Record>>();
+		trees.add(new BinaryTree<>(Record.class, byId, records.clone(), false));
+		trees.add(new BinaryTree<>(Record.class, byId, sortedSet.iterator(), sortedSet.size()));
+		trees.add(new BinaryTree<>(Record.class, byId, Arrays.asList(records), false));
+		trees.add(new BinaryTree<>(Record.class, byId, (Iterable<Record>) () -> Arrays.asList(records).iterator()));
+		trees.add(new BinaryTree<>(Record.class, byId, Arrays.stream(records)));
+		trees.add(new BinaryTree<>(Record.class, byId, sortedSet.stream()));
+
+		for (BinaryTree<Record> tree : trees) {
+
+			assertEquals("The tree holds every record", records.length, tree.size());
+			assertTrue("The tree is balanced", tree.isBalanced());
+			assertTrue("A record is found by its key", tree.isInTree(new Record(123)));
+
+			for (int i = 0; i < records.length; i++) {
+				assertEquals("Select orders the records by key", i, tree.select(i).id);
+			}
+		}
+	}
+
+	private static int countBefore (List<Integer> sorted, int value) {
+
+		int count = 0;
+
+		while (count < sorted.size() && sorted.get(count) > value) {
+			count++;
+		}
+
+		return count;
+	}
+
+	/**
+	 * A record with a numeric key, whose natural order must not be used.
+	 */
+	private static final class Record implements Comparable<Record> {
+
+		private final long id;
+
+		private Record (long id) {
+			this.id = id;
+		}
+
+		@Override
+		public int compareTo (Record other) {
+			throw new UnsupportedOperationException("Records are compared by key");
+		}
+	}
 }
@@ -0,0 +1,220 @@
+package albano.justin.datastructs.tests.trees;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import albano.justin.datastructs.trees.AVLTree;
+import albano.justin.datastructs.trees.BinaryTree;
+import albano.justin.datastructs.trees.ConcurrentBinaryTree;
+import albano.justin.datastructs.trees.RedBlackTree;
+
+/**
+ * Tests for the {@link ConcurrentBinaryTree}.
+ *
+ * @author Justin Albano
+ */
+public class ConcurrentBinaryTreeTest {
+
+	/***************************************************************************
+	 * Setup & Tear Down
+	 **************************************************************************/
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp () throws Exception {
+		this.executor = Executors.newFixedThreadPool(5);
+	}
+
+	@After
+	public void tearDown () throws Exception {
+		this.executor.shutdownNow();
+		this.executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	/***************************************************************************
+	 * Tests
+	 **************************************************************************/
+
+	/**
+	 * Tests the view of a tree from a single thread.
+	 */
+	@Test
+	public void testSingleThread () {
+
+		ConcurrentBinaryTree<Integer> tree = new ConcurrentBinaryTree<>(Integer.class);
+		assertEquals("An empty tree size should be 0", 0, tree.size());
+		assertEquals("An empty tree height should be 0", 0, tree.height());
+		assertTrue("Item of value 10 should not be present in an empty tree", !tree.isInTree(10));
+
+		// Insert multiple items into the tree
+		tree.insert(10);
+		tree.insert(20);
+		tree.insert(30);
+		tree.insert(5);
+
+		assertTrue("Item of value 10 should be present in tree after insertion", tree.isInTree(10));
+		assertTrue("Item of value 15 should not be present in tree", !tree.isInTree(15));
+		assertEquals("Size is 4 after adding 4 items to the tree", 4, tree.size());
+		assertEquals("The unbalanced tree has a height of 3", 3, tree.height());
+
+		// Balance the tree
+		tree.rebalance();
+		assertTrue("The tree is balanced after rebalancing", tree.isBalanced());
+		assertArrayEquals("The sorted array contains every item", new Integer[] { 5, 10, 20, 30 }, tree.toSortedArray());
+		assertEquals("The snapshot contains every item", tree.toSortedList(), tree.freeze().toSortedList());
+
+		// Remove items from the tree
+		assertTrue("Item 10 is removed", tree.remove(10));
+		assertTrue("Item 10 is not removed twice", !tree.remove(10));
+		assertTrue("Items 5 and 30 are removed", tree.removeAll(Arrays.asList(5, 30)));
+		assertArrayEquals("The sorted array contains the remaining item", new Integer[] { 20 }, tree.toSortedArray());
+	}
+
+	/**
+	 * Tests that searches find live data, and only live data, while the
+	 * wrapped tree holds tombstones.
+	 */
+	@Test
+	public void testLazyDeletion () {
+
+		AVLTree<Integer> delegate = new AVLTree<>(Integer.class);
+		delegate.setCompactionThreshold(0.9);
+		ConcurrentBinaryTree<Integer> tree = new ConcurrentBinaryTree<>(delegate);
+
+		for (int i = 0; i < 100; i++) {
+			tree.insert(i);
+			tree.insert(i);
+		}
+
+		for (int i = 0; i < 100; i += 2) {
+			assertTrue("One copy is removed", tree.remove(i));
+		}
+
+		for (int i = 0; i < 100; i++) {
+			assertTrue("Data with a live copy is found", tree.isInTree(i));
+		}
+
+		for (int i = 0; i < 100; i += 2) {
+			assertTrue("The other copy is removed", tree.remove(i));
+			assertTrue("Data without a live copy is not found", !tree.isInTree(i));
+		}
+
+		assertEquals("The size counts the live data", 100, tree.size());
+	}
+
+	/**
+	 * Tests that readers running concurrently with a writer never observe a
+	 * torn tree, for trees whose insertions relink (AVL and red-black) and
+	 * rebuild (rebalance) the existing nodes. Data present before the readers
+	 * start must always be found, data that is never inserted must never be
+	 * found, and the size must never decrease.
+	 */
+	@Test
+	public void testConcurrentReadersAndWriter () throws Exception {
+
+		List<BinaryTree<Integer>> trees = new ArrayList<BinaryTree<Integer>>();
+		trees.add(new BinaryTree<>(Integer.class));
+		trees.add(new AVLTree<>(Integer.class));
+		trees.add(new RedBlackTree<>(Integer.class));
+
+		for (BinaryTree<Integer> delegate : trees) {
+			this.stressTree(new ConcurrentBinaryTree<>(delegate), delegate instanceof AVLTree || delegate instanceof RedBlackTree);
+		}
+	}
+
+	/***************************************************************************
+	 * Helpers
+	 **************************************************************************/
+
+	/**
+	 * Runs four readers against a writer that inserts even data (and, for an
+	 * unbalanced tree, periodically rebalances it).
+	 */
+	private void stressTree (final ConcurrentBinaryTree<Integer> tree, final boolean selfBalancing) throws Exception {
+
+		// Insert the multiples of 4 below 2000 before the readers start
+		for (int i = 0; i < 2000; i += 4) {
+			tree.insert(i);
+		}
+
+		final int writes = 20000;
+		final AtomicBoolean writing = new AtomicBoolean(true);
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> readers = new ArrayList<Future<?>>();
+
+		for (int r = 0; r < 4; r++) {
+
+			final long seed = r;
+
+			readers.add(this.executor.submit(() -> {
+
+				Random random = new Random(seed);
+				int lastSize = 0;
+				start.await();
+
+				do {
+					// Data inserted before the readers started is always found
+					int present = 4 * random.nextInt(500);
+					assertTrue("Data inserted before the reads is found: " + present, tree.isInTree(present));
+
+					// Odd data is never inserted, so it is never found
+					int absent = 2 * random.nextInt(writes) + 1;
+					assertTrue("Data never inserted is not found: " + absent, !tree.isInTree(absent));
+
+					int size = tree.size();
+					assertTrue("The size never decreases", size >= lastSize);
+					lastSize = size;
+
+					if (selfBalancing) {
+						assertTrue("The height of a self-balancing tree stays logarithmic", tree.height() <= 2 * (32 - Integer.numberOfLeadingZeros(size + 1)));
+					}
+				}
+				while (writing.get());
+
+				return null;
+			}));
+		}
+
+		start.countDown();
+
+		try {
+			// Insert shuffled even data that is not a multiple of 4
+			Random random = new Random(42);
+
+			for (int i = 0; i < writes; i++) {
+				tree.insert(4 * random.nextInt(writes) + 2);
+
+				if (!selfBalancing && i % 1000 == 999) {
+					tree.rebalance();
+				}
+			}
+		}
+		finally {
+			writing.set(false);
+		}
+
+		for (Future<?> reader : readers) {
+			// Rethrow any assertion that failed in a reader
+			reader.get(60, TimeUnit.SECONDS);
+		}
+
+		assertEquals("Every insertion is counted", 500 + writes, tree.size());
+	}
+}
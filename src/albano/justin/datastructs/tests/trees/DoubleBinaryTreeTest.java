@@ -0,0 +1,212 @@
+package albano.justin.datastructs.tests.trees;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import albano.justin.datastructs.trees.DoubleBinaryTree;
+
+/**
+ * Tests for the primitive {@link DoubleBinaryTree}.
+ *
+ * @author Justin Albano
+ */
+public class DoubleBinaryTreeTest {
+
+	/***************************************************************************
+	 * Setup & Tear Down
+	 **************************************************************************/
+
+	@Before
+	public void setUp () throws Exception {}
+
+	@After
+	public void tearDown () throws Exception {}
+
+	/***************************************************************************
+	 * Tests
+	 **************************************************************************/
+
+	/**
+	 * Tests that the size and height of an empty tree are zero.
+	 */
+	@Test
+	public void testSizeOfEmptyTree () {
+
+		// Create an empty tree and ensure its size and height are 0
+		DoubleBinaryTree tree = new DoubleBinaryTree();
+		assertEquals("An empty tree size should be 0", 0, tree.size());
+		assertEquals("An empty tree height should be 0", 0, tree.height());
+		assertEquals("An empty tree has an empty sorted array", 0, tree.toSortedArray().length);
+
+		// Create a tree with no data and ensure its size is 0
+		double[] data = null;
+		tree = new DoubleBinaryTree(data);
+		assertEquals("A tree with null array data should be of size 0", 0, tree.size());
+	}
+
+	/**
+	 * Tests the insert mechanism for the tree when inserting multiple keys into
+	 * the tree, including duplicate keys.
+	 */
+	@Test
+	public void testInsertMultipleItems () {
+
+		// Create an empty tree
+		DoubleBinaryTree tree = new DoubleBinaryTree();
+
+		// Insert multiple keys into the tree
+		tree.insert(10);
+		tree.insert(20);
+		tree.insert(5);
+		tree.insert(25);
+		tree.insert(5);
+
+		// Ensure that these keys are in the tree
+		assertTrue("Key 10 should be present in tree after insertion", tree.contains(10));
+		assertTrue("Key 20 should be present in tree after insertion", tree.contains(20));
+		assertTrue("Key 5 should be present in tree after insertion", tree.contains(5));
+		assertTrue("Key 25 should be present in tree after insertion", tree.contains(25));
+		assertTrue("Key 15 should not be present in tree", !tree.contains(15));
+
+		// Ensure the correct size and contents of the tree
+		assertEquals("Size is 5 after adding 5 keys to the tree", 5, tree.size());
+		assertArrayEquals("The sorted array contains every key", new double[] { 5, 5, 10, 20, 25 }, tree.toSortedArray(), 0.0);
+	}
+
+	/**
+	 * Tests that inserting keys in sorted order produces a tree of minimal
+	 * height, growing the tree beyond its initial capacity.
+	 */
+	@Test
+	public void testSortedInsertionStaysBalanced () {
+
+		// Create an empty tree with a small capacity
+		DoubleBinaryTree tree = new DoubleBinaryTree(1);
+
+		for (int i = 0; i < 1023; i++) {
+			// Insert the keys in ascending order
+			tree.insert(i);
+		}
+
+		// A perfectly balanced tree of 1023 nodes has a height of 10
+		assertEquals("Sorted insertion should produce a tree of height 10", 10, tree.height());
+		assertEquals("Size is 1023 after adding 1023 keys to the tree", 1023, tree.size());
+	}
+
+	/**
+	 * Tests that the tree matches a sorted array after random insertions.
+	 */
+	@Test
+	public void testRandomInsertion () {
+
+		// Create an empty tree and a deterministic source of random keys
+		DoubleBinaryTree tree = new DoubleBinaryTree();
+		Random random = new Random(42);
+		double[] data = new double[10000];
+
+		for (int i = 0; i < data.length; i++) {
+			// Insert the random keys
+			data[i] = random.nextInt(20000);
+			tree.insert(data[i]);
+		}
+
+		// Ensure the sorted array of the tree matches the sorted keys
+		double[] sortedData = data.clone();
+		Arrays.sort(sortedData);
+		assertArrayEquals("The sorted array matches the inserted keys", sortedData, tree.toSortedArray(), 0.0);
+
+		for (int i = 0; i < data.length; i++) {
+			// Ensure each key is present in the tree
+			assertTrue("Key " + data[i] + " is in tree", tree.contains(data[i]));
+		}
+
+		// The height of an AVL tree is at most 1.44 log2(n + 2)
+		double bound = 1.44 * Math.log(tree.size() + 2) / Math.log(2);
+		assertTrue("The height of the tree should be within the AVL bound", tree.height() <= bound);
+	}
+
+	/**
+	 * Tests that removed keys are no longer present and that the remaining
+	 * keys are intact after reinsertion.
+	 */
+	@Test
+	public void testRemove () {
+
+		// Create a tree of the keys 0 through 99
+		DoubleBinaryTree tree = new DoubleBinaryTree();
+
+		for (int i = 0; i < 100; i++) {
+			tree.insert(i);
+		}
+
+		for (int i = 0; i < 100; i += 2) {
+			// Remove every even key
+			assertTrue("Key " + i + " should be removed", tree.remove(i));
+		}
+
+		// Ensure the even keys are no longer present
+		assertTrue("Key 50 should not be present in tree", !tree.contains(50));
+		assertTrue("Key 50 should not be removed twice", !tree.remove(50));
+		assertEquals("Size is 50 after removing 50 keys", 50, tree.size());
+
+		// Reinsert a key and compact the tree
+		tree.insert(50);
+		tree.compact();
+		assertTrue("Key 50 should be present in tree after reinsertion", tree.contains(50));
+		assertArrayEquals("The smallest keys remain in order", new double[] { 1, 3, 5 }, Arrays.copyOf(tree.toSortedArray(), 3), 0.0);
+	}
+
+	/**
+	 * Tests the creation of the tree from an array.
+	 */
+	@Test
+	public void testCreateFromArray () {
+
+		// An array of keys from which to populate the tree
+		double[] data = { 1, 0, 4, 76, 58, 12, 9, 133 };
+		DoubleBinaryTree tree = new DoubleBinaryTree(data);
+
+		// Ensure the tree contains the keys in order
+		double[] sortedData = data.clone();
+		Arrays.sort(sortedData);
+		assertEquals("Size matches the size of the array", data.length, tree.size());
+		assertArrayEquals("The sorted array matches the original keys", sortedData, tree.toSortedArray(), 0.0);
+		assertEquals("A balanced tree of 8 nodes has a height of 4", 4, tree.height());
+
+		// Ensure the tree can be added to after creation
+		tree.insert(60);
+		assertTrue("Key 60 should be present in tree after insertion", tree.contains(60));
+		assertEquals("Size is 9 after adding a key", 9, tree.size());
+	}
+
+	/**
+	 * Tests that special keys are ordered consistently with
+	 * {@link Arrays#sort(double[])}.
+	 */
+	@Test
+	public void testSpecialKeys () {
+
+		// An array of keys including signed zeros, infinities and NaN
+		double[] data = { Double.NaN, 0.0, -0.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 1.5 };
+		DoubleBinaryTree tree = new DoubleBinaryTree();
+
+		for (int i = 0; i < data.length; i++) {
+			tree.insert(data[i]);
+		}
+
+		// Ensure the keys are ordered and found like a sorted array
+		double[] sortedData = data.clone();
+		Arrays.sort(sortedData);
+		assertArrayEquals("The sorted array matches the sorted keys", sortedData, tree.toSortedArray(), 0.0);
+		assertTrue("NaN should be present in the tree", tree.contains(Double.NaN));
+		assertTrue("Negative zero should be present in the tree", tree.contains(-0.0));
+	}
+}
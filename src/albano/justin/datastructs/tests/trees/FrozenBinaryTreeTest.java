@@ -0,0 +1,117 @@
+package albano.justin.datastructs.tests.trees;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import albano.justin.datastructs.trees.ArrayBinaryTree;
+import albano.justin.datastructs.trees.BinaryTree;
+import albano.justin.datastructs.trees.FrozenBinaryTree;
+
+/**
+ * Tests for the {@link FrozenBinaryTree}.
+ *
+ * @author Justin Albano
+ */
+public class FrozenBinaryTreeTest {
+
+	/***************************************************************************
+	 * Setup & Tear Down
+	 **************************************************************************/
+
+	@Before
+	public void setUp () throws Exception {}
+
+	@After
+	public void tearDown () throws Exception {}
+
+	/***************************************************************************
+	 * Tests
+	 **************************************************************************/
+
+	/**
+	 * Tests that the snapshot of an empty tree is empty.
+	 */
+	@Test
+	public void testFreezeEmptyTree () {
+
+		FrozenBinaryTree<Integer> frozen = new BinaryTree<>(Integer.class).freeze();
+		assertEquals("An empty snapshot size should be 0", 0, frozen.size());
+		assertEquals("An empty snapshot height should be 0", 0, frozen.height());
+		assertTrue("Item of value 1 should not be present in an empty snapshot", !frozen.isInTree(1));
+		assertEquals("An empty snapshot has an empty sorted array", 0, frozen.toSortedArray().length);
+	}
+
+	/**
+	 * Tests that every data of snapshots of many sizes is found, and that data
+	 * between and beyond the data is not.
+	 */
+	@Test
+	public void testSearchAllSizes () {
+
+		for (int size = 1; size <= 300; size++) {
+
+			// Freeze the even numbers below twice the size
+			Integer[] data = new Integer[size];
+
+			for (int i = 0; i < size; i++) {
+				data[i] = 2 * (size - 1 - i);
+			}
+
+			FrozenBinaryTree<Integer> frozen = new FrozenBinaryTree<>(Integer.class, data);
+			assertEquals("The snapshot holds every item", size, frozen.size());
+
+			for (int i = -1; i <= 2 * size; i++) {
+				boolean expected = i >= 0 && i < 2 * size && i % 2 == 0;
+				assertEquals("Only the even numbers are present in the snapshot: " + i, expected, frozen.isInTree(i));
+			}
+
+			// Ensure the data is returned in order
+			Integer[] sortedData = data.clone();
+			Arrays.sort(sortedData);
+			assertArrayEquals("The sorted array of the snapshot is sorted", sortedData, frozen.toSortedArray());
+			assertEquals("The height is that of a complete tree", 32 - Integer.numberOfLeadingZeros(size), frozen.height());
+		}
+	}
+
+	/**
+	 * Tests that a snapshot of a tree holds the data of the tree, including
+	 * duplicates, and is unaffected by later changes to the tree.
+	 */
+	@Test
+	public void testFreezeTree () {
+
+		// Fill a tree with random data
+		Random random = new Random(42);
+		BinaryTree<Integer> tree = new BinaryTree<>(Integer.class);
+		ArrayBinaryTree<Integer> arrayTree = new ArrayBinaryTree<>(Integer.class);
+
+		for (int i = 0; i < 10000; i++) {
+			int value = random.nextInt(5000);
+			tree.insert(value);
+			arrayTree.insert(value);
+		}
+
+		// Ensure the snapshot holds the data of the tree
+		FrozenBinaryTree<Integer> frozen = tree.freeze();
+		assertArrayEquals("The snapshot holds the data of the tree", tree.toSortedArray(), frozen.toSortedArray());
+		assertEquals("The sorted list of the snapshot matches the tree", tree.toSortedList(), frozen.toSortedList());
+		assertArrayEquals("Snapshots of both trees are equal", frozen.toSortedArray(), arrayTree.freeze().toSortedArray());
+
+		for (int i = 0; i < 5000; i++) {
+			assertEquals("The snapshot and the tree agree on every item", tree.isInTree(i), frozen.isInTree(i));
+		}
+
+		// Change the tree and ensure the snapshot is unchanged
+		tree.insert(-1);
+		assertTrue("The snapshot is unaffected by changes to the tree", !frozen.isInTree(-1));
+		assertEquals("The snapshot size is unaffected by changes to the tree", 10000, frozen.size());
+	}
+}
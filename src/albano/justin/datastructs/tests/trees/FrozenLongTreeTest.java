@@ -0,0 +1,81 @@
+package albano.justin.datastructs.tests.trees;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import albano.justin.datastructs.trees.FrozenLongTree;
+import albano.justin.datastructs.trees.LongBinaryTree;
+
+/**
+ * Tests for the {@link FrozenLongTree}.
+ *
+ * @author Justin Albano
+ */
+public class FrozenLongTreeTest {
+
+	/***************************************************************************
+	 * Setup & Tear Down
+	 **************************************************************************/
+
+	@Before
+	public void setUp () throws Exception {}
+
+	@After
+	public void tearDown () throws Exception {}
+
+	/***************************************************************************
+	 * Tests
+	 **************************************************************************/
+
+	/**
+	 * Tests that the snapshot of an empty tree is empty.
+	 */
+	@Test
+	public void testFreezeEmptyTree () {
+
+		FrozenLongTree frozen = new LongBinaryTree().freeze();
+		assertEquals("An empty snapshot size should be 0", 0, frozen.size());
+		assertTrue("Key 0 should not be present in an empty snapshot", !frozen.contains(0L));
+		assertEquals("An empty snapshot has an empty sorted array", 0, frozen.toSortedArray().length);
+	}
+
+	/**
+	 * Tests that a snapshot of a tree of random keys, including the extreme
+	 * keys, holds exactly the keys of the tree.
+	 */
+	@Test
+	public void testFreezeTree () {
+
+		// Fill a tree with random keys
+		Random random = new Random(42);
+		long[] data = new long[10001];
+
+		for (int i = 0; i < data.length - 2; i++) {
+			data[i] = random.nextLong();
+		}
+
+		data[data.length - 2] = Long.MIN_VALUE;
+		data[data.length - 1] = Long.MAX_VALUE;
+
+		LongBinaryTree tree = new LongBinaryTree(data);
+		FrozenLongTree frozen = tree.freeze();
+
+		// Ensure the snapshot holds every key in order
+		long[] sortedData = data.clone();
+		Arrays.sort(sortedData);
+		assertArrayEquals("The snapshot holds the keys of the tree", sortedData, frozen.toSortedArray());
+
+		for (long key : data) {
+			assertTrue("Every key of the tree is present in the snapshot", frozen.contains(key));
+			assertEquals("The snapshot and the tree agree on neighboring keys", tree.contains(key + 1), frozen.contains(key + 1));
+		}
+	}
+}
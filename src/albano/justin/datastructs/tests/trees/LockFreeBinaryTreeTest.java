@@ -0,0 +1,358 @@
+package albano.justin.datastructs.tests.trees;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import albano.justin.datastructs.trees.LockFreeBinaryTree;
+
+/**
+ * Tests for the {@link LockFreeBinaryTree}, including a stress harness that
+ * checks concurrent histories for linearizability.
+ *
+ * @author Justin Albano
+ */
+public class LockFreeBinaryTreeTest {
+
+	/***************************************************************************
+	 * Setup & Tear Down
+	 **************************************************************************/
+
+	private static final int THREADS = 4;
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp () throws Exception {
+		this.executor = Executors.newFixedThreadPool(THREADS);
+	}
+
+	@After
+	public void tearDown () throws Exception {
+		this.executor.shutdownNow();
+		this.executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	/***************************************************************************
+	 * Tests
+	 **************************************************************************/
+
+	/**
+	 * Tests insertion, search and removal from a single thread.
+	 */
+	@Test
+	public void testSingleThread () {
+
+		LockFreeBinaryTree<Integer> tree = new LockFreeBinaryTree<>(Integer.class);
+		assertEquals("An empty tree size should be 0", 0, tree.size());
+		assertTrue("Item of value 10 should not be present in an empty tree", !tree.isInTree(10));
+		assertTrue("Removing from an empty tree fails", !tree.remove(10));
+
+		// Insert multiple items into the tree, including a duplicate
+		assertTrue("Item 10 is inserted", tree.insert(10));
+		assertTrue("Item 20 is inserted", tree.insert(20));
+		assertTrue("Item 5 is inserted", tree.insert(5));
+		assertTrue("Item 25 is inserted", tree.insert(25));
+		assertTrue("Item 10 is not inserted twice", !tree.insert(10));
+
+		assertTrue("Item of value 10 should be present in tree after insertion", tree.isInTree(10));
+		assertTrue("Item of value 15 should not be present in tree", !tree.isInTree(15));
+		assertEquals("Size is 4 after adding 4 distinct items to the tree", 4, tree.size());
+		assertArrayEquals("The sorted array contains every item", new Integer[] { 5, 10, 20, 25 }, tree.toSortedArray());
+
+		// Remove items from the tree
+		assertTrue("Item 10 is removed", tree.remove(10));
+		assertTrue("Item 10 is not removed twice", !tree.remove(10));
+		assertTrue("Item 25 is removed", tree.remove(25));
+		assertTrue("Item of value 10 should not be present after removal", !tree.isInTree(10));
+		assertEquals("The sorted list contains the remaining items", 2, tree.toSortedList().size());
+		assertArrayEquals("The sorted array contains the remaining items", new Integer[] { 5, 20 }, tree.toSortedArray());
+	}
+
+	/**
+	 * Tests a random sequence of operations against a {@link Set} from a single
+	 * thread.
+	 */
+	@Test
+	public void testRandomOperations () {
+
+		LockFreeBinaryTree<Integer> tree = new LockFreeBinaryTree<>(Integer.class);
+		Set<Integer> expected = new HashSet<Integer>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 50000; i++) {
+
+			int value = random.nextInt(1000);
+
+			if (random.nextBoolean()) {
+				assertEquals("Insertion succeeds only for absent data", expected.add(value), tree.insert(value));
+			}
+			else {
+				assertEquals("Removal succeeds only for present data", expected.remove(value), tree.remove(value));
+			}
+		}
+
+		assertEquals("The size matches the set", expected.size(), tree.size());
+		assertEquals("The data matches the set", new HashSet<Integer>(tree.toSortedList()), expected);
+	}
+
+	/**
+	 * Tests that, after many threads insert and remove overlapping data, every
+	 * data is present exactly when its successful insertions outnumber its
+	 * successful removals, and that the two differ by at most one.
+	 */
+	@Test
+	public void testConcurrentCounts () throws Exception {
+
+		final LockFreeBinaryTree<Integer> tree = new LockFreeBinaryTree<>(Integer.class);
+		final int keys = 256;
+		final CyclicBarrier start = new CyclicBarrier(THREADS);
+		List<Future<int[]>> results = new ArrayList<Future<int[]>>();
+
+		for (int t = 0; t < THREADS; t++) {
+
+			final long seed = t;
+
+			results.add(this.executor.submit(() -> {
+
+				// Count the successful insertions and removals of each data
+				int[] counts = new int[keys];
+				Random random = new Random(seed);
+				start.await();
+
+				for (int i = 0; i < 100000; i++) {
+
+					int value = random.nextInt(keys);
+
+					if (random.nextBoolean()) {
+						counts[value] += tree.insert(value) ? 1 : 0;
+					}
+					else {
+						counts[value] -= tree.remove(value) ? 1 : 0;
+					}
+
+					tree.isInTree(random.nextInt(keys));
+				}
+
+				return counts;
+			}));
+		}
+
+		int[] counts = new int[keys];
+
+		for (Future<int[]> result : results) {
+			int[] threadCounts = result.get(60, TimeUnit.SECONDS);
+
+			for (int i = 0; i < keys; i++) {
+				counts[i] += threadCounts[i];
+			}
+		}
+
+		int present = 0;
+
+		for (int i = 0; i < keys; i++) {
+			assertTrue("Insertions and removals of a data differ by at most one", counts[i] == 0 || counts[i] == 1);
+			assertEquals("Data is present exactly when it was inserted more often", counts[i] == 1, tree.isInTree(i));
+			present += counts[i];
+		}
+
+		assertEquals("The size counts the present data", present, tree.size());
+		assertEquals("The sorted list holds the present data", present, tree.toSortedList().size());
+	}
+
+	/**
+	 * Tests that concurrent histories of operations on a few data are
+	 * linearizable. Each operation is stamped from a shared clock when it is
+	 * invoked and when it responds. Operations on different data commute, so a
+	 * history is linearizable exactly when the history of each data is, which
+	 * is checked by searching for an order of its operations that respects
+	 * their real-time order and the results they returned.
+	 */
+	@Test
+	public void testLinearizability () throws Exception {
+
+		final int keys = 2;
+		final int operations = 6;
+		final AtomicLong clock = new AtomicLong();
+
+		for (int round = 0; round < 300; round++) {
+
+			final LockFreeBinaryTree<Integer> tree = new LockFreeBinaryTree<>(Integer.class);
+			final CyclicBarrier start = new CyclicBarrier(THREADS);
+			final int seed = round;
+			List<Future<List<Operation>>> results = new ArrayList<Future<List<Operation>>>();
+
+			for (int t = 0; t < THREADS; t++) {
+
+				final int thread = t;
+
+				results.add(this.executor.submit(() -> {
+
+					List<Operation> history = new ArrayList<Operation>();
+					Random random = new Random(seed * THREADS + thread);
+					start.await();
+
+					for (int i = 0; i < operations; i++) {
+
+						Operation operation = new Operation(random.nextInt(keys), random.nextInt(3));
+						operation.invoked = clock.incrementAndGet();
+
+						switch (operation.type) {
+							case Operation.INSERT:
+								operation.result = tree.insert(operation.key);
+								break;
+							case Operation.REMOVE:
+								operation.result = tree.remove(operation.key);
+								break;
+							default:
+								operation.result = tree.isInTree(operation.key);
+								break;
+						}
+
+						operation.responded = clock.incrementAndGet();
+						history.add(operation);
+					}
+
+					return history;
+				}));
+			}
+
+			// Split the history by data and check each part
+			List<List<Operation>> histories = new ArrayList<List<Operation>>();
+
+			for (int k = 0; k < keys; k++) {
+				histories.add(new ArrayList<Operation>());
+			}
+
+			for (Future<List<Operation>> result : results) {
+				for (Operation operation : result.get(60, TimeUnit.SECONDS)) {
+					histories.get(operation.key).add(operation);
+				}
+			}
+
+			for (List<Operation> history : histories) {
+				assertTrue("The history is linearizable: " + history, linearizable(history, 0, false, new HashSet<Long>()));
+			}
+		}
+	}
+
+	/***************************************************************************
+	 * Helpers
+	 **************************************************************************/
+
+	/**
+	 * Searches for a linearization of the operations of a single data that
+	 * have not yet been linearized.
+	 *
+	 * @param history
+	 *            The operations on the data.
+	 * @param linearized
+	 *            The set of operations already linearized, as a bit mask.
+	 * @param present
+	 *            True if the data is present after the linearized operations.
+	 * @param failed
+	 *            The states from which no linearization exists.
+	 * @return
+	 *         True if the remaining operations can be linearized.
+	 */
+	private static boolean linearizable (List<Operation> history, long linearized, boolean present, Set<Long> failed) {
+
+		if (Long.bitCount(linearized) == history.size()) {
+			return true;
+		}
+
+		long state = (linearized << 1) | (present ? 1 : 0);
+
+		if (failed.contains(state)) {
+			return false;
+		}
+
+		// The earliest response among the remaining operations
+		long earliestResponse = Long.MAX_VALUE;
+
+		for (int i = 0; i < history.size(); i++) {
+			if ((linearized & (1L << i)) == 0) {
+				earliestResponse = Math.min(earliestResponse, history.get(i).responded);
+			}
+		}
+
+		for (int i = 0; i < history.size(); i++) {
+
+			Operation operation = history.get(i);
+
+			// An operation may be linearized next only if no remaining
+			// operation responded before it was invoked
+			if ((linearized & (1L << i)) != 0 || operation.invoked > earliestResponse) {
+				continue;
+			}
+
+			boolean expected;
+			boolean next;
+
+			switch (operation.type) {
+				case Operation.INSERT:
+					expected = !present;
+					next = true;
+					break;
+				case Operation.REMOVE:
+					expected = present;
+					next = false;
+					break;
+				default:
+					expected = present;
+					next = present;
+					break;
+			}
+
+			if (operation.result == expected && linearizable(history, linearized | (1L << i), next, failed)) {
+				return true;
+			}
+		}
+
+		failed.add(state);
+
+		return false;
+	}
+
+	/**
+	 * An operation of a concurrent history.
+	 */
+	private static final class Operation {
+
+		static final int INSERT = 0;
+		static final int REMOVE = 1;
+
+		final int key;
+		final int type;
+		long invoked;
+		long responded;
+		boolean result;
+
+		Operation (int key, int type) {
+			this.key = key;
+			this.type = type;
+		}
+
+		@Override
+		public String toString () {
+			String[] names = { "insert", "remove", "isInTree" };
+			return names[this.type] + "(" + this.key + ")=" + this.result + "@[" + this.invoked + "," + this.responded + "]";
+		}
+	}
+}
@@ -0,0 +1,258 @@
+package albano.justin.datastructs.tests.trees;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import albano.justin.datastructs.trees.KeyCodec;
+import albano.justin.datastructs.trees.MappedBPlusTree;
+
+/**
+ * Tests for the {@link MappedBPlusTree}.
+ *
+ * @author Justin Albano
+ */
+public class MappedBPlusTreeTest {
+
+	/***************************************************************************
+	 * Setup & Tear Down
+	 **************************************************************************/
+
+	private Path file;
+	private MappedBPlusTree<Long> tree;
+
+	@Before
+	public void setUp () throws Exception {
+
+		// Use small pages, so that the tests split pages over several levels
+		this.file = Files.createTempFile("bplustree", ".idx");
+		this.tree = new MappedBPlusTree<>(this.file, Long.class, KeyCodec.longKeys(), 512);
+	}
+
+	@After
+	public void tearDown () throws Exception {
+		this.tree.close();
+		Files.deleteIfExists(this.file);
+	}
+
+	/***************************************************************************
+	 * Tests
+	 **************************************************************************/
+
+	/**
+	 * Tests that an empty tree has no keys and a single leaf.
+	 */
+	@Test
+	public void testSizeOfEmptyTree () {
+		assertEquals("An empty tree size should be 0", 0, this.tree.size());
+		assertEquals("An empty tree height should be 1", 1, this.tree.height());
+		assertEquals("An empty tree has an empty sorted array", 0, this.tree.toSortedArray().length);
+		assertTrue("Key 1 should not be present in an empty tree", !this.tree.isInTree(1L));
+	}
+
+	/**
+	 * Tests the insert mechanism for the tree when inserting multiple keys into
+	 * the tree, including a key that is already present.
+	 */
+	@Test
+	public void testInsertMultipleItems () {
+
+		// Insert multiple keys into the tree
+		assertTrue("Key 10 is inserted", this.tree.insert(10L));
+		assertTrue("Key 20 is inserted", this.tree.insert(20L));
+		assertTrue("Key 5 is inserted", this.tree.insert(5L));
+		assertTrue("Key 25 is inserted", this.tree.insert(25L));
+		assertTrue("Key 10 is not inserted twice", !this.tree.insert(10L));
+
+		// Ensure that these keys are in the tree
+		assertTrue("Key 10 should be present in tree after insertion", this.tree.isInTree(10L));
+		assertTrue("Key 5 should be present in tree after insertion", this.tree.isInTree(5L));
+		assertTrue("Key 15 should not be present in tree", !this.tree.isInTree(15L));
+
+		// Ensure the correct size and contents of the tree
+		assertEquals("Size is 4 after adding 4 distinct keys to the tree", 4, this.tree.size());
+		assertArrayEquals("The sorted array contains every key", new Long[] { 5L, 10L, 20L, 25L }, this.tree.toSortedArray());
+	}
+
+	/**
+	 * Tests that many random keys, spread over many pages, are stored in order.
+	 */
+	@Test
+	public void testRandomInsertion () {
+
+		// Insert random keys into the tree
+		Long[] data = this.insertRandomKeys(20000);
+
+		// Ensure the sorted array of the tree matches the sorted keys
+		Long[] sortedData = data.clone();
+		Arrays.sort(sortedData);
+		assertArrayEquals("The sorted array matches the inserted keys", sortedData, this.tree.toSortedArray());
+		assertEquals("The sorted list matches the inserted keys", Arrays.asList(sortedData), this.tree.toSortedList());
+		assertTrue("The tree has split into several levels", this.tree.height() > 2);
+
+		for (Long key : data) {
+			assertTrue("Every inserted key is present in the tree", this.tree.isInTree(key));
+		}
+	}
+
+	/**
+	 * Tests that sorted insertion, which always splits the rightmost leaf,
+	 * stores every key.
+	 */
+	@Test
+	public void testSortedInsertion () {
+
+		for (long i = 0; i < 10000; i++) {
+			this.tree.insert(i);
+		}
+
+		Long[] sorted = this.tree.toSortedArray();
+		assertEquals("Every key is stored", 10000, sorted.length);
+
+		for (int i = 0; i < sorted.length; i++) {
+			assertEquals("The keys are stored in order", i, sorted[i].longValue());
+		}
+	}
+
+	/**
+	 * Tests that reverse sorted insertion, which always shifts every key of
+	 * the leftmost leaf, stores every key.
+	 */
+	@Test
+	public void testReverseSortedInsertion () {
+
+		for (long i = 9999; i >= 0; i--) {
+			this.tree.insert(i);
+		}
+
+		Long[] sorted = this.tree.toSortedArray();
+		assertEquals("Every key is stored", 10000, sorted.length);
+
+		for (int i = 0; i < sorted.length; i++) {
+			assertEquals("The keys are stored in order", i, sorted[i].longValue());
+		}
+	}
+
+	/**
+	 * Tests ordered scans of ranges of keys.
+	 */
+	@Test
+	public void testRangeScan () {
+
+		for (long i = 0; i < 5000; i++) {
+			this.tree.insert(i * 2);
+		}
+
+		// Scan a range whose bounds are not in the tree
+		List<Long> expected = new ArrayList<Long>();
+
+		for (long i = 1002; i < 3000; i += 2) {
+			expected.add(i);
+		}
+
+		assertEquals("The range contains the keys between its bounds", expected, toList(this.tree.rangeScan(1001L, 3000L)));
+
+		// Scan unbounded and empty ranges
+		assertEquals("An unbounded scan includes every key", 5000, toList(this.tree.rangeScan(null, null)).size());
+		assertEquals("A scan above the last key is empty", 0, toList(this.tree.rangeScan(10000L, null)).size());
+		assertEquals("A scan with equal bounds is empty", 0, toList(this.tree.rangeScan(20L, 20L)).size());
+		assertEquals("A scan below the first key is empty", 0, toList(this.tree.rangeScan(null, 0L)).size());
+	}
+
+	/**
+	 * Tests that the keys of a closed tree are found when the file is reopened.
+	 */
+	@Test
+	public void testReopen () throws IOException {
+
+		Long[] data = this.insertRandomKeys(5000);
+		int height = this.tree.height();
+		this.tree.close();
+
+		// Reopen the file, which keeps the page size it was created with
+		this.tree = new MappedBPlusTree<>(this.file, Long.class, KeyCodec.longKeys());
+
+		Long[] sortedData = data.clone();
+		Arrays.sort(sortedData);
+		assertEquals("The reopened tree has the same size", data.length, this.tree.size());
+		assertEquals("The reopened tree has the same height", height, this.tree.height());
+		assertArrayEquals("The reopened tree has the same keys", sortedData, this.tree.toSortedArray());
+
+		// Ensure the reopened tree can be modified
+		assertTrue("A new key is inserted into the reopened tree", this.tree.insert(Long.MIN_VALUE));
+		assertTrue("The new key is present in the reopened tree", this.tree.isInTree(Long.MIN_VALUE));
+	}
+
+	/**
+	 * Tests that a file cannot be opened with a codec of a different width.
+	 */
+	@Test(expected = IOException.class)
+	public void testReopenWithDifferentWidth () throws IOException {
+
+		this.tree.insert(1L);
+		this.tree.close();
+
+		new MappedBPlusTree<>(this.file, byte[].class, KeyCodec.fixedBytes(4)).close();
+	}
+
+	/**
+	 * Tests that a closed tree can no longer be used.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void testClosedTree () throws IOException {
+
+		this.tree.insert(1L);
+		this.tree.close();
+
+		// Closing the tree twice has no effect, but using it fails
+		this.tree.close();
+		this.tree.isInTree(1L);
+	}
+
+	/***************************************************************************
+	 * Helpers
+	 **************************************************************************/
+
+	/**
+	 * Inserts distinct random keys into the tree.
+	 */
+	private Long[] insertRandomKeys (int count) {
+
+		Random random = new Random(42);
+		Long[] data = new Long[count];
+
+		for (int i = 0; i < data.length; i++) {
+
+			do {
+				data[i] = random.nextLong();
+			}
+			while (!this.tree.insert(data[i]));
+		}
+
+		return data;
+	}
+
+	private static List<Long> toList (Iterator<Long> keys) {
+
+		List<Long> list = new ArrayList<Long>();
+
+		while (keys.hasNext()) {
+			list.add(keys.next());
+		}
+
+		return list;
+	}
+}
@@ -0,0 +1,183 @@
+package albano.justin.datastructs.tests.trees;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import albano.justin.datastructs.trees.KeyCodec;
+import albano.justin.datastructs.trees.OffHeapBinaryTree;
+
+/**
+ * Tests for the {@link OffHeapBinaryTree}.
+ *
+ * @author Justin Albano
+ */
+public class OffHeapBinaryTreeTest {
+
+	/***************************************************************************
+	 * Setup & Tear Down
+	 **************************************************************************/
+
+	private OffHeapBinaryTree<Long> tree;
+
+	@Before
+	public void setUp () throws Exception {
+
+		// Use small slabs, so that the tests allocate several of them
+		this.tree = new OffHeapBinaryTree<>(Long.class, KeyCodec.longKeys(), 1024);
+	}
+
+	@After
+	public void tearDown () throws Exception {
+		this.tree.close();
+	}
+
+	/***************************************************************************
+	 * Tests
+	 **************************************************************************/
+
+	/**
+	 * Tests that the size and height of an empty tree are zero.
+	 */
+	@Test
+	public void testSizeOfEmptyTree () {
+		assertEquals("An empty tree size should be 0", 0, this.tree.size());
+		assertEquals("An empty tree height should be 0", 0, this.tree.height());
+		assertEquals("An empty tree has an empty sorted array", 0, this.tree.toSortedArray().length);
+	}
+
+	/**
+	 * Tests the insert mechanism for the tree when inserting multiple keys into
+	 * the tree.
+	 */
+	@Test
+	public void testInsertMultipleItems () {
+
+		// Insert multiple keys into the tree
+		this.tree.insert(10L);
+		this.tree.insert(20L);
+		this.tree.insert(5L);
+		this.tree.insert(25L);
+
+		// Ensure that these keys are in the tree
+		assertTrue("Key 10 should be present in tree after insertion", this.tree.isInTree(10L));
+		assertTrue("Key 20 should be present in tree after insertion", this.tree.isInTree(20L));
+		assertTrue("Key 5 should be present in tree after insertion", this.tree.isInTree(5L));
+		assertTrue("Key 25 should be present in tree after insertion", this.tree.isInTree(25L));
+		assertTrue("Key 15 should not be present in tree", !this.tree.isInTree(15L));
+
+		// Ensure the correct size and contents of the tree
+		assertEquals("Size is 4 after adding 4 keys to the tree", 4, this.tree.size());
+		assertArrayEquals("The sorted array contains every key", new Long[] { 5L, 10L, 20L, 25L }, this.tree.toSortedArray());
+	}
+
+	/**
+	 * Tests that many random keys, spread over many slabs, are stored in order
+	 * and that the tree stays balanced.
+	 */
+	@Test
+	public void testRandomInsertion () {
+
+		// Insert random keys into the tree
+		Random random = new Random(42);
+		Long[] data = new Long[10000];
+
+		for (int i = 0; i < data.length; i++) {
+			data[i] = random.nextLong();
+			this.tree.insert(data[i]);
+		}
+
+		// Ensure the sorted array of the tree matches the sorted keys
+		Long[] sortedData = data.clone();
+		Arrays.sort(sortedData);
+		assertArrayEquals("The sorted array matches the inserted keys", sortedData, this.tree.toSortedArray());
+		assertTrue("The first key is present in the tree", this.tree.isInTree(data[0]));
+
+		// The height of an AVL tree is at most 1.44 log2(n + 2)
+		double bound = 1.44 * Math.log(this.tree.size() + 2) / Math.log(2);
+		assertTrue("The height of the tree should be within the AVL bound", this.tree.height() <= bound);
+	}
+
+	/**
+	 * Tests a tree of fixed-width byte array keys, which are ordered as
+	 * unsigned bytes.
+	 */
+	@Test
+	public void testFixedWidthByteKeys () {
+
+		try (OffHeapBinaryTree<byte[]> byteTree = new OffHeapBinaryTree<>(byte[].class, KeyCodec.fixedBytes(2))) {
+
+			// Insert keys that differ in their sign when treated as signed
+			byteTree.insert(new byte[] { (byte) 0xFF, 0 });
+			byteTree.insert(new byte[] { 0, 1 });
+			byteTree.insert(new byte[] { 0, 0 });
+
+			// Ensure the keys are found and ordered as unsigned bytes
+			assertTrue("Key {0, 1} should be present in tree", byteTree.isInTree(new byte[] { 0, 1 }));
+			assertTrue("Key {1, 0} should not be present in tree", !byteTree.isInTree(new byte[] { 1, 0 }));
+
+			byte[][] sorted = byteTree.toSortedArray();
+			assertArrayEquals("The smallest key is {0, 0}", new byte[] { 0, 0 }, sorted[0]);
+			assertArrayEquals("The largest key is {0xFF, 0}", new byte[] { (byte) 0xFF, 0 }, sorted[2]);
+		}
+	}
+
+	/**
+	 * Tests that a key whose length differs from the width of the codec is
+	 * rejected, rather than compared against a prefix of the stored keys.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongLengthByteKey () {
+
+		try (OffHeapBinaryTree<byte[]> byteTree = new OffHeapBinaryTree<>(byte[].class, KeyCodec.fixedBytes(4))) {
+			byteTree.insert(new byte[] { 1, 2, 3, 4 });
+			byteTree.isInTree(new byte[] { 1, 2, 3, 4, 99 });
+		}
+	}
+
+	/**
+	 * Tests a tree whose slabs grow from a small first slab up to their
+	 * maximum size, and then continue at the maximum size.
+	 */
+	@Test
+	public void testGrowingSlabs () {
+
+		try (OffHeapBinaryTree<Long> largeTree = new OffHeapBinaryTree<>(Long.class, KeyCodec.longKeys(), 1 << 20)) {
+
+			// Insert enough keys to fill several slabs of the maximum size
+			for (long i = 0; i < 100000; i++) {
+				largeTree.insert(i);
+			}
+
+			// Ensure every key is found in order
+			Long[] sorted = largeTree.toSortedArray();
+			assertEquals("The tree contains every inserted key", 100000, sorted.length);
+
+			for (int i = 0; i < sorted.length; i++) {
+				assertEquals("The keys are in order", Long.valueOf(i), sorted[i]);
+				assertTrue("Key " + i + " should be present in tree", largeTree.isInTree((long) i));
+			}
+		}
+	}
+
+	/**
+	 * Tests that a closed tree can no longer be used.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void testClosedTree () {
+
+		this.tree.insert(1L);
+		this.tree.close();
+
+		// Closing the tree twice has no effect, but using it fails
+		this.tree.close();
+		this.tree.isInTree(1L);
+	}
+}
@@ -0,0 +1,183 @@
+package albano.justin.datastructs.tests.trees;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import albano.justin.datastructs.trees.PersistentBinaryTree;
+
+/**
+ * Tests for the {@link PersistentBinaryTree}.
+ *
+ * @author Justin Albano
+ */
+public class PersistentBinaryTreeTest {
+
+	/***************************************************************************
+	 * Setup & Tear Down
+	 **************************************************************************/
+
+	@Before
+	public void setUp () throws Exception {}
+
+	@After
+	public void tearDown () throws Exception {}
+
+	/***************************************************************************
+	 * Tests
+	 **************************************************************************/
+
+	/**
+	 * Tests that the size and height of an empty tree are zero.
+	 */
+	@Test
+	public void testSizeOfEmptyTree () {
+
+		PersistentBinaryTree<Integer> tree = new PersistentBinaryTree<>(Integer.class);
+		assertEquals("An empty tree size should be 0", 0, tree.size());
+		assertEquals("An empty tree height should be 0", 0, tree.height());
+
+		Integer[] arrayOfInts = null;
+		tree = new PersistentBinaryTree<>(Integer.class, arrayOfInts);
+		assertEquals("A tree with null array data should be of size 0", 0, tree.size());
+	}
+
+	/**
+	 * Tests that insertion returns a new version and leaves the previous
+	 * version unchanged.
+	 */
+	@Test
+	public void testInsertKeepsVersions () {
+
+		PersistentBinaryTree<Integer> empty = new PersistentBinaryTree<>(Integer.class);
+		PersistentBinaryTree<Integer> first = empty.insert(10).insert(20).insert(5);
+		PersistentBinaryTree<Integer> second = first.insert(25).insert(10);
+
+		// Ensure each version holds only its own data
+		assertEquals("The empty version is unchanged", 0, empty.size());
+		assertArrayEquals("The first version is unchanged", new Integer[] { 5, 10, 20 }, first.toSortedArray());
+		assertArrayEquals("The second version holds every item", new Integer[] { 5, 10, 10, 20, 25 }, second.toSortedArray());
+		assertEquals("The sorted list matches the sorted array", Arrays.asList(second.toSortedArray()), second.toSortedList());
+		assertTrue("Item 25 is not present in the first version", !first.isInTree(25));
+		assertTrue("Item 25 is present in the second version", second.isInTree(25));
+	}
+
+	/**
+	 * Tests that an insertion shares the nodes off its path with the previous
+	 * version.
+	 */
+	@Test
+	public void testStructuralSharing () {
+
+		// Create a perfect tree of 1023 items
+		Integer[] data = new Integer[1023];
+
+		for (int i = 0; i < data.length; i++) {
+			data[i] = i;
+		}
+
+		PersistentBinaryTree<Integer> tree = new PersistentBinaryTree<>(Integer.class, data);
+		assertEquals("A perfect tree of 1023 items has a height of 10", 10, tree.height());
+
+		// Insert a larger item, which is placed in the right subtree of the
+		// root without rotating the root
+		PersistentBinaryTree<Integer> next = tree.insert(2000);
+		assertSame("The left subtree of the root is shared", tree.getRootNode().getLeftNode(), next.getRootNode().getLeftNode());
+		assertTrue("The root is copied", tree.getRootNode() != next.getRootNode());
+	}
+
+	/**
+	 * Tests that random and sorted insertion keep every version balanced.
+	 */
+	@Test
+	public void testHeightBound () {
+
+		Random random = new Random(42);
+		PersistentBinaryTree<Integer> randomTree = new PersistentBinaryTree<>(Integer.class);
+		PersistentBinaryTree<Integer> sortedTree = new PersistentBinaryTree<>(Integer.class);
+		Integer[] data = new Integer[20000];
+
+		for (int i = 0; i < data.length; i++) {
+			data[i] = random.nextInt(5000);
+			randomTree = randomTree.insert(data[i]);
+			sortedTree = sortedTree.insert(i);
+		}
+
+		Integer[] sortedData = data.clone();
+		Arrays.sort(sortedData);
+		assertArrayEquals("The sorted array matches the inserted data", sortedData, randomTree.toSortedArray());
+
+		// The height of an AVL tree is at most 1.44 log2(n + 2)
+		double bound = 1.44 * Math.log(data.length + 2) / Math.log(2);
+		assertTrue("Random insertion stays within the AVL bound", randomTree.height() <= bound);
+		assertTrue("Sorted insertion stays within the AVL bound", sortedTree.height() <= bound);
+	}
+
+	/**
+	 * Tests that readers of published versions always see a consistent
+	 * snapshot while a writer keeps inserting, without locking.
+	 */
+	@Test
+	public void testConcurrentSnapshots () throws Exception {
+
+		final AtomicReference<PersistentBinaryTree<Integer>> current = new AtomicReference<>(new PersistentBinaryTree<>(Integer.class));
+		final int writes = 20000;
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+
+		try {
+			List<Future<?>> readers = new ArrayList<Future<?>>();
+
+			for (int r = 0; r < 3; r++) {
+
+				readers.add(executor.submit(() -> {
+
+					// Each version holds exactly the data 0 to size - 1
+					PersistentBinaryTree<Integer> snapshot;
+
+					do {
+						snapshot = current.get();
+						int size = snapshot.size();
+						Integer[] array = snapshot.toSortedArray();
+						assertEquals("The snapshot array matches its size", size, array.length);
+
+						for (int i = 0; i < size; i += 97) {
+							assertEquals("The snapshot holds the data in order", i, array[i].intValue());
+						}
+
+						assertTrue("The snapshot does not hold later data", !snapshot.isInTree(size));
+					}
+					while (snapshot.size() < writes);
+
+					return null;
+				}));
+			}
+
+			for (int i = 0; i < writes; i++) {
+				// Publish each new version
+				current.set(current.get().insert(i));
+			}
+
+			for (Future<?> reader : readers) {
+				reader.get(60, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,497 @@
+package albano.justin.datastructs.tests.trees;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import albano.justin.datastructs.trees.RedBlackTree;
+
+/**
+ * Tests for the {@link RedBlackTree}, mirroring the tests for the unbalanced
+ * binary tree.
+ * 
+ * @author Justin Albano
+ */
+public class RedBlackTreeTest {
+
+	/***************************************************************************
+	 * Setup & Tear Down
+	 **************************************************************************/
+
+	@Before
+	public void setUp () throws Exception {}
+
+	@After
+	public void tearDown () throws Exception {}
+
+	/***************************************************************************
+	 * Tests
+	 **************************************************************************/
+
+	/**
+	 * Tests that the size of an empty tree is zero.
+	 */
+	@Test
+	public void testSizeOfEmptyTree () {
+
+		// Create an empty tree and ensure its size is 0
+		RedBlackTree<Integer> tree = new RedBlackTree<>(Integer.class);
+		assertEquals("An empty red-black tree size should be 0", 0, tree.size());
+
+		// Create a tree with no data (array) and ensure its size is 0
+		Integer[] arrayOfInts = null;
+		tree = new RedBlackTree<>(Integer.class, arrayOfInts);
+		assertEquals("A red-black tree with null array data should be of size 0", 0, tree.size());
+	}
+
+	/**
+	 * Tests the insert mechanism for the tree when inserting multiple pieces of
+	 * data into the tree. This test checks to ensure that the data is present
+	 * in the tree after insertion and that the size of the tree is correct
+	 * after insertion.
+	 */
+	@Test
+	public void testInsertMultipleItems () {
+
+		// Create an empty tree
+		RedBlackTree<Integer> tree = new RedBlackTree<>(Integer.class);
+
+		// Insert multiple items into the tree
+		tree.insert(10);
+		tree.insert(20);
+		tree.insert(5);
+		tree.insert(25);
+
+		// Ensure that these values are in the tree
+		assertTrue("Item of value 10 should be present in tree after insertion", tree.isInTree(10));
+		assertTrue("Item of value 20 should be present in tree after insertion", tree.isInTree(20));
+		assertTrue("Item of value 5 should be present in tree after insertion", tree.isInTree(5));
+		assertTrue("Item of value 25 should be present in tree after insertion", tree.isInTree(25));
+
+		// Ensure the correct size of the tree
+		assertEquals("Size is 4 after adding 4 items to the tree", 4, tree.size());
+
+	}
+
+	/**
+	 * Tests the height of the tree based on a predefined insertion order.
+	 */
+	@Test
+	public void testHeightOfTree () {
+
+		// Create an empty tree
+		RedBlackTree<Integer> tree = new RedBlackTree<>(Integer.class);
+
+		// Insert multiple items into the tree
+		tree.insert(10);
+		tree.insert(20);
+		tree.insert(5);
+		tree.insert(25);
+
+		// Ensure the correct size of the tree
+		assertEquals("The height of the tree, based on the insertion order, should be 3", 3, tree.height());
+	}
+
+	/**
+	 * Tests that inserting data in sorted order, which degrades an unbalanced
+	 * tree into a list, keeps the height within the red-black bound.
+	 */
+	@Test
+	public void testSortedInsertionStaysBalanced () {
+
+		// Create an empty tree
+		RedBlackTree<Integer> tree = new RedBlackTree<>(Integer.class);
+
+		for (int i = 0; i < 10000; i++) {
+			// Insert the values in ascending order
+			tree.insert(i);
+		}
+
+		// The height of a red-black tree is at most 2 log2(n + 1)
+		double bound = 2 * Math.log(tree.size() + 1) / Math.log(2);
+		assertTrue("The height of the tree should be within the red-black bound", tree.height() <= bound);
+
+		for (int i = 0; i < 10000; i++) {
+			// Ensure that each value is present in the tree
+			assertTrue("Element of value " + i + " is in tree", tree.isInTree(i));
+		}
+	}
+
+	/**
+	 * Tests that the array conversion of the tree contains all of the elements
+	 * in the tree and is properly sorted.
+	 */
+	@Test
+	public void testTreeToSortedArray () {
+
+		// A set of out of order data
+		Integer[] arrayOfNumbers = { 10, 15, 6, 12, 90, 14, 55, 0 };
+
+		// Sort the array (to use later to check if the array returned by the
+		// tree is actually sorted)
+		Integer[] sortedArrayOfNumbers = arrayOfNumbers.clone();
+		Arrays.sort(sortedArrayOfNumbers);
+
+		// Create an empty tree
+		RedBlackTree<Integer> tree = new RedBlackTree<>(Integer.class);
+
+		for (int i = 0; i < arrayOfNumbers.length; i++) {
+			// Add the numbers to the tree
+			tree.insert(arrayOfNumbers[i]);
+		}
+
+		// Obtain the sorted array version of the tree
+		Integer[] arrayFromTree = tree.toSortedArray();
+
+		// Ensure the size of the converted and original arrays match
+		assertEquals("The size of the sorted array matches the size of the original array", arrayOfNumbers.length, arrayFromTree.length);
+
+		for (int i = 0; i < arrayFromTree.length; i++) {
+			// Ensure all of the elements are present and sorted
+			assertEquals("Element " + i + " matches", sortedArrayOfNumbers[i], arrayFromTree[i]);
+		}
+
+		/*
+		 * Note: Since the sizes of the array are asserted to be equal, and the
+		 * elements in the sorted array are present in the array obtained from
+		 * the tree, then the elements in the array obtained from the tree match
+		 * the original array element one-to-one. There do not exist any "extra"
+		 * elements in the array obtained from the tree that are not present in
+		 * the original array.
+		 */
+	}
+	
+	/**
+	 * Tests that the list conversion of the tree contains all of the elements
+	 * in the tree and is properly sorted.
+	 */
+	@Test
+	public void testTreeToSortedList () {
+
+		// A set of out of order data
+		Integer[] arrayOfNumbers = { 10, 15, 6, 12, 90, 14, 55, 0 };
+		List<Integer> list = Arrays.asList(arrayOfNumbers);
+
+		// Sort the list (to use later to check if the array returned by the
+		// tree is actually sorted)
+		List<Integer> sortedList = new ArrayList<Integer>();
+		Collections.sort(list);
+
+		// Create an empty tree
+		RedBlackTree<Integer> tree = new RedBlackTree<>(Integer.class);
+
+		for (Integer value : list) {
+			// Add the numbers to the tree
+			tree.insert(value);
+		}
+
+		// Obtain the sorted list version of the tree
+		List<Integer> listFromTree = tree.toSortedList();
+
+		// Ensure the size of the converted and original listss match
+		assertEquals("The size of the sorted array matches the size of the original array", list.size(), listFromTree.size());
+
+		for (int i = 0; i < sortedList.size(); i++) {
+			// Ensure all of the elements are present and sorted
+			assertEquals("Element " + i + " matches", sortedList.get(i), listFromTree.get(i));
+		}
+
+		/*
+		 * Note: Since the sizes of the lists are asserted to be equal, and the
+		 * elements in the sorted list are present in the array obtained from
+		 * the tree, then the elements in the list obtained from the tree match
+		 * the original list element one-to-one. There do not exist any "extra"
+		 * elements in the list obtained from the tree that are not present in
+		 * the original list.
+		 */
+	}
+
+	/**
+	 * Tests that the rebalance() method leaves the contents and size of the
+	 * (already balanced) tree untouched.
+	 */
+	@Test
+	public void testBalancingTree () {
+
+		// Create an empty tree
+		RedBlackTree<Integer> tree = new RedBlackTree<>(Integer.class);
+
+		// Add some values (that would make an unbalanced tree unbalanced)
+		tree.insert(10);
+		tree.insert(20);
+		tree.insert(30);
+		tree.insert(40);
+
+		// Balance the tree
+		tree.rebalance();
+
+		// Ensure the tree is unchanged
+		assertEquals("Size is 4 after rebalancing the tree", 4, tree.size());
+		assertArrayEquals("The contents are unchanged after rebalancing the tree", new Integer[] { 10, 20, 30, 40 }, tree.toSortedArray());
+	}
+
+	/**
+	 * Tests the creation of the tree from an array. This test ensures that all
+	 * the data in the array is present in the tree and that upon creation, the
+	 * tree is balanced.
+	 */
+	@Test
+	public void testCreateFromArray () {
+		
+		// An array of data from which to populate the tree
+		Integer[] data = {1, 0, 4, 76, 58, 12, 9, 133};
+
+		// Create an empty tree
+		RedBlackTree<Integer> tree = new RedBlackTree<>(Integer.class, data);
+
+		for (int i = 0; i < data.length; i++) {
+			// Ensure that each value is present in the tree
+			assertTrue("Element of value " + data[i] + " is in tree", tree.isInTree(data[i]));
+		}
+
+		// Ensure the size of the tree matches the array
+		assertEquals("Size matches the size of the array", data.length, tree.size());
+	}
+
+	/**
+	 * Tests that a large array, which is linked in parallel, builds a valid
+	 * red-black tree that supports further insertion.
+	 */
+	@Test
+	public void testCreateFromLargeArray () {
+
+		Integer[] data = new Integer[50000];
+
+		for (int i = 0; i < data.length; i++) {
+			data[i] = data.length - i;
+		}
+
+		RedBlackTree<Integer> tree = new RedBlackTree<>(Integer.class, data);
+
+		for (int i = 0; i < 1000; i++) {
+			tree.insert(data.length + i);
+		}
+
+		// The height of a red-black tree is at most 2 log2(n + 1)
+		double bound = 2 * Math.log(tree.size() + 1) / Math.log(2);
+		assertEquals("Size includes the array and the insertions", data.length + 1000, tree.size());
+		assertTrue("The height is within the red-black bound", tree.height() <= bound);
+		assertEquals("The parallel export matches the sequential export", tree.toSortedList(), tree.parallelToSortedList());
+	}
+
+	/**
+	 * Tests rank, select and countInRange against the sorted data of a tree
+	 * built by insertion, which rotates the tree.
+	 */
+	@Test
+	public void testOrderStatistics () {
+
+		// Fill a tree with random data, including duplicates
+		Random random = new Random(42);
+		RedBlackTree<Integer> tree = new RedBlackTree<>(Integer.class);
+
+		for (int i = 0; i < 5000; i++) {
+			tree.insert(random.nextInt(2000));
+		}
+
+		Integer[] sorted = tree.toSortedArray();
+
+		for (int i = 0; i < sorted.length; i++) {
+			assertEquals("Select returns the element of each rank", sorted[i], tree.select(i));
+		}
+
+		for (int value = -1; value <= 2000; value += 7) {
+
+			// Count the elements below the value and within a range by scanning
+			int below = 0;
+			int within = 0;
+
+			for (Integer element : sorted) {
+				below += (element < value) ? 1 : 0;
+				within += (element >= value && element <= value + 100) ? 1 : 0;
+			}
+
+			assertEquals("The rank counts the smaller elements", below, tree.rank(value));
+			assertEquals("The range count includes both bounds", within, tree.countInRange(value, value + 100));
+		}
+
+		assertEquals("An empty range has no elements", 0, tree.countInRange(10, 5));
+	}
+
+	/**
+	 * Tests that select rejects ranks outside of the tree.
+	 */
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testSelectOutOfBounds () {
+
+		RedBlackTree<Integer> tree = new RedBlackTree<>(Integer.class);
+		tree.insert(1);
+		tree.select(1);
+	}
+
+	/**
+	 * Tests a random sequence of insertions and removals, including
+	 * duplicates, against a count of each data.
+	 */
+	@Test
+	public void testRemove () {
+
+		RedBlackTree<Integer> tree = new RedBlackTree<>(Integer.class);
+		int[] counts = new int[500];
+		int size = 0;
+		Random random = new Random(42);
+
+		assertTrue("Removing from an empty tree fails", !tree.remove(10));
+
+		for (int i = 0; i < 50000; i++) {
+
+			int value = random.nextInt(counts.length);
+
+			if (random.nextInt(3) > 0) {
+				tree.insert(value);
+				counts[value]++;
+				size++;
+			}
+			else {
+				boolean removed = tree.remove(value);
+				assertEquals("Removal succeeds only for present data", counts[value] > 0, removed);
+
+				if (removed) {
+					counts[value]--;
+					size--;
+				}
+			}
+		}
+
+		assertEquals("The size counts the remaining data", size, tree.size());
+
+		// The height of the tree stays logarithmic
+		assertTrue("The tree stays balanced", tree.height() <= 2 * Math.log(size + 1) / Math.log(2));
+
+		// The remaining data is in order, and the subtree sizes are intact
+		Integer[] sorted = tree.toSortedArray();
+		int index = 0;
+
+		for (int value = 0; value < counts.length; value++) {
+
+			assertEquals("Data is present exactly when it remains", counts[value] > 0, tree.isInTree(value));
+
+			for (int c = 0; c < counts[value]; c++, index++) {
+				assertEquals("The sorted array holds the remaining data", value, sorted[index].intValue());
+				assertEquals("Select returns the remaining data", value, tree.select(index).intValue());
+			}
+		}
+
+		assertEquals("The sorted array holds every remaining element", size, index);
+	}
+
+	/**
+	 * Tests that removing every element, in random order, leaves an empty tree
+	 * that stays balanced throughout.
+	 */
+	@Test
+	public void testRemoveEverything () {
+
+		Integer[] data = new Integer[4096];
+
+		for (int i = 0; i < data.length; i++) {
+			data[i] = i;
+		}
+
+		RedBlackTree<Integer> tree = new RedBlackTree<>(Integer.class, data.clone());
+		Collections.shuffle(Arrays.asList(data), new Random(42));
+
+		for (int i = 0; i < data.length; i++) {
+
+			assertTrue("Each element is removed", tree.remove(data[i]));
+
+			if (i % 256 == 0) {
+				assertTrue("The tree stays balanced", tree.height() <= 2 * Math.log(tree.size() + 1) / Math.log(2) + 1);
+			}
+		}
+
+		assertEquals("The tree is empty", 0, tree.size());
+		assertEquals("The empty tree has no height", 0, tree.height());
+	}
+
+	/**
+	 * Tests that sorted batches, both small enough to be spliced into the tree
+	 * and large enough to be merged with it, are inserted with every
+	 * duplicate and keep the subtree sizes intact.
+	 */
+	@Test
+	public void testInsertAll () {
+
+		Random random = new Random(42);
+		RedBlackTree<Integer> tree = new RedBlackTree<>(Integer.class);
+		List<Integer> expected = new ArrayList<Integer>();
+
+		for (int batchSize : new int[] { 5000, 10, 100, 20000, 1, 300, 3000 }) {
+
+			Integer[] batch = new Integer[batchSize];
+
+			for (int i = 0; i < batch.length; i++) {
+				batch[i] = random.nextInt(10000);
+				expected.add(batch[i]);
+			}
+
+			Arrays.sort(batch);
+			tree.insertAll(batch);
+			Collections.sort(expected);
+
+			assertEquals("The size counts every inserted element", expected.size(), tree.size());
+			assertEquals("The tree holds every inserted element", expected, tree.toSortedList());
+
+			for (int i = 0; i < expected.size(); i += 97) {
+				assertEquals("Select returns the inserted data", expected.get(i), tree.select(i));
+			}
+
+			assertTrue("The tree stays within the red-black bound", tree.height() <= 2 * Math.log(tree.size() + 1) / Math.log(2));
+		}
+
+		// An unsorted collection is sorted before insertion
+		tree.insertAll(Arrays.asList(3, 1, 2));
+		expected.addAll(Arrays.asList(1, 2, 3));
+		Collections.sort(expected);
+		assertEquals("An unsorted collection is inserted", expected, tree.toSortedList());
+	}
+
+	/**
+	 * Tests that a tree ordered by a primitive key stays balanced, and inserts
+	 * and removes its data in the order of the key.
+	 */
+	@Test
+	public void testKeyExtractor () {
+
+		// Order the data by its last digit, then by the rest of its digits
+		RedBlackTree<Integer> tree = new RedBlackTree<>(Integer.class, (Integer value) -> ((long) (value % 10) << 32) | (value / 10));
+		List<Integer> expected = new ArrayList<Integer>();
+
+		for (int i = 0; i < 10000; i++) {
+			tree.insert(i);
+			expected.add(i);
+		}
+
+		for (int i = 0; i < 10000; i += 3) {
+			assertTrue("Present data is removed", tree.remove(i));
+			expected.remove(Integer.valueOf(i));
+		}
+
+		Collections.sort(expected, (first, second) -> (first % 10 != second % 10) ? first % 10 - second % 10 : first - second);
+
+		assertEquals("The tree holds its data in the order of the key", expected, tree.toSortedList());
+		assertTrue("The tree stays balanced", tree.height() <= 2 * Math.log(tree.size() + 1) / Math.log(2));
+		assertTrue("Present data is found by its key", tree.isInTree(9998));
+		assertTrue("Removed data is not found", !tree.isInTree(9));
+	}
+}
@@ -0,0 +1,260 @@
+package albano.justin.datastructs.tests.trees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import albano.justin.datastructs.trees.ScapegoatTree;
+
+/**
+ * Tests for the {@link ScapegoatTree}.
+ *
+ * @author Justin Albano
+ */
+public class ScapegoatTreeTest {
+
+	/***************************************************************************
+	 * Setup & Tear Down
+	 **************************************************************************/
+
+	@Before
+	public void setUp () throws Exception {}
+
+	@After
+	public void tearDown () throws Exception {}
+
+	/***************************************************************************
+	 * Tests
+	 **************************************************************************/
+
+	/**
+	 * Tests that the size of an empty tree is zero.
+	 */
+	@Test
+	public void testSizeOfEmptyTree () {
+
+		ScapegoatTree<Integer> tree = new ScapegoatTree<>(Integer.class);
+		assertEquals("An empty tree size should be 0", 0, tree.size());
+		assertEquals("An empty tree height should be 0", 0, tree.height());
+
+		Integer[] arrayOfInts = null;
+		tree = new ScapegoatTree<>(Integer.class, arrayOfInts);
+		assertEquals("A tree with null array data should be of size 0", 0, tree.size());
+	}
+
+	/**
+	 * Tests that a sorted insertion order, which degenerates an unbalanced
+	 * tree into a path, stays within the depth bound of the tree.
+	 */
+	@Test
+	public void testSortedInsertionStaysBalanced () {
+
+		for (double alpha : new double[] { 0.55, ScapegoatTree.DEFAULT_ALPHA, 0.9 }) {
+
+			ScapegoatTree<Integer> tree = new ScapegoatTree<>(Integer.class, alpha);
+
+			for (int i = 0; i < 50000; i++) {
+				tree.insert(i);
+			}
+
+			assertEquals("The tree holds every item", 50000, tree.size());
+			assertTrue("The tree stays within the depth bound", tree.height() <= depthBound(tree.size(), alpha) + 1);
+
+			for (int i = 0; i < tree.size(); i += 97) {
+				assertEquals("Select returns the inserted data", Integer.valueOf(i), tree.select(i));
+			}
+		}
+	}
+
+	/**
+	 * Tests that random insertions and removals keep every element, the
+	 * subtree sizes and the depth bound.
+	 */
+	@Test
+	public void testInsertAndRemove () {
+
+		Random random = new Random(42);
+		ScapegoatTree<Integer> tree = new ScapegoatTree<>(Integer.class);
+		List<Integer> expected = new ArrayList<Integer>();
+
+		for (int round = 0; round < 5; round++) {
+
+			for (int i = 0; i < 10000; i++) {
+				int value = random.nextInt(5000);
+				tree.insert(value);
+				expected.add(value);
+			}
+
+			// Remove most of the data, which shrinks the tree enough to
+			// rebuild it as a whole
+			for (int i = 0; i < 8000; i++) {
+				Integer value = random.nextInt(5000);
+				assertEquals("Remove reports whether the data was present", expected.remove(value), tree.remove(value));
+			}
+
+			Collections.sort(expected);
+			assertEquals("The size counts every element", expected.size(), tree.size());
+			assertEquals("The tree holds every element", expected, tree.toSortedList());
+			assertTrue("The tree stays within the depth bound", tree.height() <= depthBound(tree.size(), ScapegoatTree.DEFAULT_ALPHA) + 1);
+
+			for (int i = 0; i < expected.size(); i += 37) {
+				assertEquals("Select returns the data", expected.get(i), tree.select(i));
+			}
+		}
+	}
+
+	/**
+	 * Tests that the rebuilds drop the tombstones of lazy deletion.
+	 */
+	@Test
+	public void testLazyDeletion () {
+
+		ScapegoatTree<Integer> tree = new ScapegoatTree<>(Integer.class);
+		tree.setCompactionThreshold(0.5);
+		List<Integer> expected = new ArrayList<Integer>();
+
+		for (int i = 0; i < 1000; i++) {
+			tree.insert(i);
+			expected.add(i);
+		}
+
+		for (int i = 0; i < 200; i++) {
+			tree.remove(i * 5);
+			expected.remove(Integer.valueOf(i * 5));
+		}
+
+		assertTrue("Removals leave tombstones", tree.tombstones() > 0);
+
+		// Sorted insertions rebuild subtrees, dropping their tombstones
+		for (int i = 1000; i < 3000; i++) {
+			tree.insert(i);
+			expected.add(i);
+		}
+
+		assertTrue("Rebuilds drop tombstones", tree.tombstones() < 200);
+		assertEquals("The size counts every live element", expected.size(), tree.size());
+		assertEquals("The tree holds every live element", expected, tree.toSortedList());
+
+		for (int i = 0; i < expected.size(); i += 37) {
+			assertEquals("Select skips the tombstones", expected.get(i), tree.select(i));
+		}
+
+		tree.compact();
+		assertEquals("The tombstone count stays exact", 0, tree.tombstones());
+		assertEquals("Compaction keeps every live element", expected, tree.toSortedList());
+	}
+
+	/**
+	 * Tests that a batch of sorted data is inserted within the depth bound.
+	 */
+	@Test
+	public void testInsertAll () {
+
+		ScapegoatTree<Integer> tree = new ScapegoatTree<>(Integer.class, new Integer[] { 5, 1, 9 });
+		Integer[] batch = new Integer[1000];
+
+		for (int i = 0; i < batch.length; i++) {
+			batch[i] = 10 + i;
+		}
+
+		tree.insertAll(Arrays.copyOf(batch, 2));
+		tree.insertAll(batch);
+
+		assertEquals("The size counts every element", 1005, tree.size());
+		assertEquals("The tree holds the smallest data", Integer.valueOf(1), tree.select(0));
+		assertEquals("The tree holds the largest data", Integer.valueOf(1009), tree.select(1004));
+		assertTrue("The tree stays within the depth bound", tree.height() <= depthBound(tree.size(), ScapegoatTree.DEFAULT_ALPHA) + 1);
+	}
+
+	/**
+	 * Tests that a batch inserted into an empty tree counts towards its
+	 * largest size, so that removing enough of the batch rebuilds the tree.
+	 */
+	@Test
+	public void testInsertAllThenShrink () {
+
+		ScapegoatTree<Integer> tree = new ScapegoatTree<>(Integer.class);
+		tree.setCompactionThreshold(0.9);
+		Integer[] batch = new Integer[1000];
+
+		for (int i = 0; i < batch.length; i++) {
+			batch[i] = i;
+		}
+
+		tree.insertAll(batch);
+
+		// The 301st removal leaves the tree below alpha of its largest size,
+		// which rebuilds it and drops its tombstones
+		for (int i = 0; i < 301; i++) {
+			tree.remove(i);
+		}
+
+		assertEquals("The size counts every live element", 699, tree.size());
+		assertEquals("The shrunk tree is rebuilt", 0, tree.tombstones());
+	}
+
+	/**
+	 * Tests a populated tree with a balance factor other than the default.
+	 */
+	@Test
+	public void testPopulatedTreeWithAlpha () {
+
+		Integer[] data = new Integer[5000];
+
+		for (int i = 0; i < data.length; i++) {
+			data[i] = data.length - i;
+		}
+
+		ScapegoatTree<Integer> tree = new ScapegoatTree<>(Integer.class, data, false, 0.55);
+		assertEquals("The tree uses the provided balance factor", 0.55, tree.getAlpha(), 0);
+
+		for (int i = 5001; i <= 10000; i++) {
+			tree.insert(i);
+		}
+
+		assertEquals("The tree holds every item", 10000, tree.size());
+		assertTrue("The tree stays within the depth bound", tree.height() <= depthBound(tree.size(), 0.55) + 1);
+	}
+
+	/**
+	 * Tests that a tree ordered by a comparator stays within the depth bound
+	 * when its data arrives in the order of the comparator.
+	 */
+	@Test
+	public void testComparator () {
+
+		ScapegoatTree<Integer> tree = new ScapegoatTree<>(Integer.class, Comparator.reverseOrder());
+
+		for (int i = 50000; i > 0; i--) {
+			tree.insert(i);
+		}
+
+		assertEquals("The tree holds every item", 50000, tree.size());
+		assertTrue("The tree stays within the depth bound", tree.height() <= depthBound(tree.size(), ScapegoatTree.DEFAULT_ALPHA) + 1);
+		assertEquals("The largest data is first", Integer.valueOf(50000), tree.select(0));
+		assertEquals("The smallest data is last", Integer.valueOf(1), tree.select(49999));
+		assertTrue("Present data is found", tree.isInTree(4242));
+	}
+
+	/**
+	 * Tests that a balance factor outside of (0.5, 1) is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidAlpha () {
+		new ScapegoatTree<>(Integer.class, 0.5);
+	}
+
+	private static double depthBound (int size, double alpha) {
+		return Math.floor(Math.log(size) / Math.log(1 / alpha)) + 1;
+	}
+}
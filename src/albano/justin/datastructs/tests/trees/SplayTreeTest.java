@@ -0,0 +1,218 @@
+package albano.justin.datastructs.tests.trees;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import albano.justin.datastructs.trees.ConcurrentBinaryTree;
+import albano.justin.datastructs.trees.SplayTree;
+import albano.justin.datastructs.trees.TreeStats;
+
+/**
+ * Tests for the self-adjusting {@link SplayTree}.
+ *
+ * @author Justin Albano
+ */
+public class SplayTreeTest {
+
+	/***************************************************************************
+	 * Setup & Tear Down
+	 **************************************************************************/
+
+	@Before
+	public void setUp () throws Exception {}
+
+	@After
+	public void tearDown () throws Exception {}
+
+	/***************************************************************************
+	 * Tests
+	 **************************************************************************/
+
+	/**
+	 * Tests that the size of an empty tree is zero.
+	 */
+	@Test
+	public void testSizeOfEmptyTree () {
+
+		SplayTree<Integer> tree = new SplayTree<>(Integer.class);
+		assertEquals("An empty tree size should be 0", 0, tree.size());
+		assertTrue("An empty tree holds nothing", !tree.isInTree(1));
+
+		Integer[] arrayOfInts = null;
+		tree = new SplayTree<>(Integer.class, arrayOfInts);
+		assertEquals("A tree with null array data should be of size 0", 0, tree.size());
+	}
+
+	/**
+	 * Tests that lookups and insertions move the accessed data to the root,
+	 * so that a repeated lookup is answered by the root.
+	 */
+	@Test
+	public void testAccessedDataMovesToRoot () {
+
+		Integer[] data = new Integer[1023];
+
+		for (int i = 0; i < data.length; i++) {
+			data[i] = 2 * i;
+		}
+
+		SplayTree<Integer> tree = new SplayTree<>(Integer.class, data, true);
+
+		for (int key : new int[] { 0, 2044, 1000, 1000, 7 }) {
+			tree.insert(key);
+			assertTrue("The inserted data is found", tree.isInTree(key));
+			assertEquals("The inserted data is the smallest data from the key", Integer.valueOf(key), tree.select(tree.rank(key)));
+		}
+
+		tree.resetStats();
+
+		for (int key : new int[] { 500, 2, 2042 }) {
+			assertTrue("The data is found", tree.isInTree(key));
+			assertTrue("The data is found again", tree.isInTree(key));
+		}
+
+		TreeStats stats = tree.stats();
+
+		if (stats.isEnabled()) {
+			// Every repeated lookup is answered by the root
+			assertEquals("Every lookup is counted", 6, stats.getLookups());
+			assertTrue("The repeated lookups compare only the root", stats.getDepthHistogram()[1] >= 3);
+		}
+
+		assertTrue("A missing key is not found", !tree.isInTree(3));
+	}
+
+	/**
+	 * Tests that random insertions, lookups and removals keep every element
+	 * and the subtree sizes, including duplicates.
+	 */
+	@Test
+	public void testRandomOperations () {
+
+		Random random = new Random(42);
+		SplayTree<Integer> tree = new SplayTree<>(Integer.class);
+		List<Integer> expected = new ArrayList<Integer>();
+
+		for (int i = 0; i < 20000; i++) {
+
+			int value = random.nextInt(2000);
+
+			switch (random.nextInt(3)) {
+				case 0:
+					tree.insert(value);
+					expected.add(value);
+					break;
+				case 1:
+					assertEquals("Lookups find the inserted data", expected.contains(value), tree.isInTree(value));
+					break;
+				default:
+					assertEquals("Remove reports whether the data was present", expected.remove(Integer.valueOf(value)), tree.remove(value));
+					break;
+			}
+		}
+
+		Collections.sort(expected);
+		assertEquals("The size counts every element", expected.size(), tree.size());
+		assertEquals("The tree holds every element", expected, tree.toSortedList());
+
+		for (int i = 0; i < expected.size(); i += 37) {
+			assertEquals("Select returns the data", expected.get(i), tree.select(i));
+		}
+	}
+
+	/**
+	 * Tests that a sorted insertion order, which splays each new node to the
+	 * root, is handled without recursion, and that a lookup of the deepest
+	 * node then halves the depth of the tree.
+	 */
+	@Test
+	public void testSortedInsertion () {
+
+		SplayTree<Integer> tree = new SplayTree<>(Integer.class);
+
+		for (int i = 0; i < 100000; i++) {
+			tree.insert(i);
+		}
+
+		assertEquals("Sorted insertion forms a path", 100000, tree.height());
+		assertTrue("The deepest node is found", tree.isInTree(0));
+		assertTrue("The splay halves the depth of the path", tree.height() <= 50002);
+		assertEquals("Select returns the data", Integer.valueOf(4242), tree.select(4242));
+	}
+
+	/**
+	 * Tests that a lookup, which restructures the tree, invalidates the
+	 * iterators of the tree.
+	 */
+	@Test(expected = ConcurrentModificationException.class)
+	public void testLookupInvalidatesIterators () {
+
+		SplayTree<Integer> tree = new SplayTree<>(Integer.class, new Integer[] { 1, 2, 3 });
+		Iterator<Integer> iterator = tree.iterator();
+		iterator.next();
+		tree.isInTree(3);
+		iterator.next();
+	}
+
+	/**
+	 * Tests that a tree ordered by a comparator splays in the order of the
+	 * comparator, and that a lookup or insertion compares once per node: a
+	 * repeated lookup makes a single comparison with the root.
+	 */
+	@Test
+	public void testComparator () {
+
+		int[] comparisons = new int[1];
+		Comparator<Integer> descending = (first, second) -> {
+			comparisons[0]++;
+			return Integer.compare(second, first);
+		};
+
+		Random random = new Random(42);
+		SplayTree<Integer> tree = new SplayTree<>(Integer.class, descending);
+		List<Integer> expected = new ArrayList<Integer>();
+
+		for (int i = 0; i < 1000; i++) {
+			int value = random.nextInt(500);
+			tree.insert(value);
+			expected.add(value);
+		}
+
+		Collections.sort(expected, Collections.reverseOrder());
+		assertEquals("The tree holds its data in the order of the comparator", expected, tree.toSortedList());
+
+		for (int key : new int[] { 0, 250, 499 }) {
+
+			tree.isInTree(key);
+			comparisons[0] = 0;
+			assertEquals("A repeated lookup is answered by the root", expected.contains(key), tree.isInTree(key));
+			assertEquals("A repeated lookup compares only the root", 1, comparisons[0]);
+		}
+
+		tree.insert(1000);
+		comparisons[0] = 0;
+		tree.insert(1000);
+		assertEquals("An insertion next to the root compares only the root", 1, comparisons[0]);
+		assertEquals("The largest data is first", Integer.valueOf(1000), tree.select(0));
+	}
+
+	/**
+	 * Tests that a splay tree cannot be shared by concurrent readers.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotConcurrent () {
+		new ConcurrentBinaryTree<>(new SplayTree<>(Integer.class));
+	}
+}
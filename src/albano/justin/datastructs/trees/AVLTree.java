@@ -0,0 +1,975 @@
+package albano.justin.datastructs.trees;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToLongFunction;
+
+/**
+ * A self-balancing binary search tree that restores the AVL property (the
+ * heights of the left and right subtrees of every node differ by at most 1)
+ * after every insertion and removal. The height of each subtree is cached in
+ * its root {@link BinaryTreeNode}, which keeps lookups at O(log n) regardless
+ * of the insertion order and allows {@link #height()} and {@link #isBalanced()}
+ * to be answered in constant time. The cached heights also allow two trees to
+ * be joined around a key in logarithmic time, on which the split and the set
+ * operations ({@link #union(AVLTree, AVLTree)},
+ * {@link #intersection(AVLTree, AVLTree)} and
+ * {@link #difference(AVLTree, AVLTree)}) of the tree are built.
+ *
+ * <h1>Citations</h1>
+ * <ul>
+ * <li>The rotation and rebalancing algorithms are based on the original
+ * description by G. M. Adelson-Velsky and E. M. Landis, "An algorithm for the
+ * organization of information" (1962)</li>
+ * <li>The join, split and set operations are based on G. E. Blelloch, D.
+ * Ferizovic and Y. Sun, "Just Join for Parallel Ordered Sets" (2016)</li>
+ * </ul>
+ *
+ * @author Justin Albano
+ */
+public class AVLTree<T extends Comparable<T>> extends BinaryTree<T> {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	/**
+	 * The set operations performed by {@link #combine(int, AVLTree, AVLTree)},
+	 * and the merge (keeping every copy of equal data) performed by
+	 * {@link #splice(Comparable[])}.
+	 */
+	private static final int UNION = 0;
+	private static final int INTERSECTION = 1;
+	private static final int DIFFERENCE = 2;
+	private static final int MERGE = 3;
+
+	/**
+	 * The number of comparisons made by the insertion in progress, which is
+	 * only counted when the counters of the tree are enabled (see
+	 * {@link TreeStats}).
+	 */
+	private int insertComparisons;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates a default, empty AVL tree of data.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 */
+	public AVLTree (Class<T> dataType) {
+		super(dataType);
+	}
+
+	/**
+	 * Creates a default, empty AVL tree of data, ordered by the provided
+	 * comparator rather than by the natural order of the data.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 */
+	public AVLTree (Class<T> dataType, Comparator<? super T> comparator) {
+		super(dataType, comparator);
+	}
+
+	/**
+	 * Creates a default, empty AVL tree of data, ordered by a primitive
+	 * key extracted from the data (see
+	 * {@link BinaryTree#BinaryTree(Class, ToLongFunction)}).
+	 * The key of both pieces of data is extracted on every comparison.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param keyExtractor
+	 *            The function that extracts the key of the data.
+	 */
+	public AVLTree (Class<T> dataType, ToLongFunction<? super T> keyExtractor) {
+		super(dataType, keyExtractor);
+	}
+
+	/**
+	 * Creates a populated AVL tree of data, using the provided array as the
+	 * default data for the tree.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The tree is balanced</li>
+	 * </ol>
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 */
+	public AVLTree (Class<T> dataType, T[] data) {
+		super(dataType, data);
+	}
+
+	/**
+	 * Creates a populated AVL tree of data, using the provided array as the
+	 * default data for the tree. If the array is declared to be sorted, it is
+	 * linked into the tree without sorting it or performing any comparisons.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>If sorted is true, the array is sorted in ascending order</li>
+	 * </ol>
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 * @param sorted
+	 *            True if the array is already sorted in ascending order; false
+	 *            if the array must be sorted (in place) before use.
+	 */
+	public AVLTree (Class<T> dataType, T[] data, boolean sorted) {
+		super(dataType, data, sorted);
+	}
+
+	/**
+	 * Creates a populated AVL tree of data, ordered by the provided comparator,
+	 * using the provided array as the default data for the tree. If the array
+	 * is not declared to be sorted, it is sorted by the comparator.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>If sorted is true, the array is sorted in the order of the
+	 * comparator</li>
+	 * </ol>
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 * @param sorted
+	 *            True if the array is already sorted in the order of the
+	 *            comparator; false if the array must be sorted (in place)
+	 *            before use.
+	 */
+	public AVLTree (Class<T> dataType, Comparator<? super T> comparator, T[] data, boolean sorted) {
+		super(dataType, comparator, data, sorted);
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Obtains the height of the tree. Since the height of the tree is cached
+	 * in the root node, this operation is performed in constant time.
+	 *
+	 * @return
+	 *         The height of the tree.
+	 */
+	@Override
+	public int height () {
+		return height(this.rootNode);
+	}
+
+	@Override
+	int height (int limit) {
+		return height(this.rootNode);
+	}
+
+	/**
+	 * Checks if the tree is balanced. An AVL tree is balanced after every
+	 * insertion, so this operation is performed in constant time.
+	 *
+	 * @return
+	 *         True, since an AVL tree is always balanced.
+	 */
+	@Override
+	public boolean isBalanced () {
+		return true;
+	}
+
+	/**
+	 * Balances the tree. Since the tree is balanced after every insertion, no
+	 * work is performed.
+	 */
+	@Override
+	public void rebalance () {}
+
+	/**
+	 * Insert data into the tree, rotating the nodes along the insertion path
+	 * as necessary to keep the tree balanced.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The tree is balanced</li>
+	 * </ol>
+	 *
+	 * @param data
+	 *            The data to insert into the tree.
+	 */
+	@Override
+	public void insert (T data) {
+
+		// Insert the data into the tree
+		this.insertComparisons = 0;
+		this.rootNode = this.insert(this.rootNode, data);
+
+		if (TreeMetrics.ENABLED) {
+			this.metrics.recordInsert(this.insertComparisons);
+		}
+
+		// Increment the size of the tree
+		this.size++;
+		this.modCount++;
+	}
+
+	/**
+	 * Inserts a batch of sorted data into the tree by linking the batch into
+	 * a balanced subtree and merging it with the tree by the join-based
+	 * algorithm of the set operations (see {@link #union(AVLTree, AVLTree)}),
+	 * keeping every copy of equal data. The merge takes O(m log(n / m + 1))
+	 * time, and the tree stays balanced.
+	 *
+	 * @param sortedData
+	 *            The sorted data to insert into the tree.
+	 * @return
+	 *         0, since the tree stays balanced.
+	 */
+	@Override
+	protected int splice (T[] sortedData) {
+
+		BinaryTreeNode<T> batch = this.buildBalanced(sortedData, 0, sortedData.length - 1);
+
+		if (BinaryTreeNode.size(this.rootNode) + sortedData.length >= PARALLEL_THRESHOLD) {
+			this.rootNode = ForkJoinPool.commonPool().invoke(new CombineTask(MERGE, this.rootNode, batch));
+		}
+		else {
+			this.rootNode = this.combine(MERGE, this.rootNode, batch);
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Helper method used to insert data into the subtree and rebalance the
+	 * subtree on the way back up. The recursion depth is bounded by the
+	 * height of the tree, which is logarithmic in the size of the tree.
+	 *
+	 * @param rootNode
+	 *            The root node of the subtree to insert the data into.
+	 * @param data
+	 *            The data to add to the subtree.
+	 * @return
+	 *         The new root of the subtree, after rebalancing.
+	 */
+	private BinaryTreeNode<T> insert (BinaryTreeNode<T> rootNode, T data) {
+
+		if (rootNode == null) {
+			// The current node should hold the data but has not been created
+			return new BinaryTreeNode<T>(data);
+		}
+
+		if (TreeMetrics.ENABLED) {
+			this.insertComparisons++;
+		}
+
+		if (this.compare(data, rootNode.getData()) <= 0) {
+			// The data being added is less then or equal to the data at the
+			// current node and should be added to the left subtree
+			rootNode.setLeftNode(this.insert(rootNode.getLeftNode(), data));
+		}
+		else {
+			// The data being added is greater than the data at the current node
+			// and should be added to the right subtree
+			rootNode.setRightNode(this.insert(rootNode.getRightNode(), data));
+		}
+
+		return rebalance(rootNode);
+	}
+
+	/**
+	 * Unlinks a single occurrence of the provided data from the tree,
+	 * rotating the nodes along the removal path as necessary to keep the tree
+	 * balanced.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The tree is balanced</li>
+	 * </ol>
+	 *
+	 * @param data
+	 *            The data to unlink from the tree.
+	 * @return
+	 *         True if the data was found and unlinked; false if the data is
+	 *         not in the tree.
+	 */
+	@Override
+	protected boolean delete (T data) {
+
+		int initialSize = this.rootNode.getSize();
+		this.rootNode = this.delete(this.rootNode, data);
+
+		// The size of the root is recomputed on the way back up, so it only
+		// shrinks if a node was unlinked
+		return BinaryTreeNode.size(this.rootNode) < initialSize;
+	}
+
+	/**
+	 * Helper method used to unlink data from the subtree and rebalance the
+	 * subtree on the way back up. A node with two children takes the data of
+	 * its successor, which is unlinked from the right subtree in its place.
+	 *
+	 * @param rootNode
+	 *            The root node of the subtree that may contain the data.
+	 * @param data
+	 *            The data to unlink from the subtree.
+	 * @return
+	 *         The new root of the subtree, after rebalancing.
+	 */
+	private BinaryTreeNode<T> delete (BinaryTreeNode<T> rootNode, T data) {
+
+		if (rootNode == null) {
+			// The data is not in the subtree
+			return null;
+		}
+
+		int comparison = this.compare(data, rootNode.getData());
+
+		if (comparison < 0) {
+			rootNode.setLeftNode(this.delete(rootNode.getLeftNode(), data));
+		}
+		else if (comparison > 0) {
+			rootNode.setRightNode(this.delete(rootNode.getRightNode(), data));
+		}
+		else if (rootNode.getLeftNode() == null) {
+			// The right subtree (if any) is a single AVL subtree
+			return rootNode.getRightNode();
+		}
+		else if (rootNode.getRightNode() == null) {
+			return rootNode.getLeftNode();
+		}
+		else {
+			// Take the data of the successor and unlink it instead
+			BinaryTreeNode<T> successor = rootNode.getRightNode();
+
+			while (successor.getLeftNode() != null) {
+				successor = successor.getLeftNode();
+			}
+
+			rootNode.setData(successor.getData());
+			rootNode.setRightNode(deleteSmallest(rootNode.getRightNode()));
+		}
+
+		return rebalance(rootNode);
+	}
+
+	/**
+	 * Unlinks the smallest node of the subtree, rebalancing the subtree on the
+	 * way back up.
+	 *
+	 * @param rootNode
+	 *            The root node of the subtree.
+	 * @return
+	 *         The new root of the subtree, after rebalancing.
+	 */
+	private static <T extends Comparable<T>> BinaryTreeNode<T> deleteSmallest (BinaryTreeNode<T> rootNode) {
+
+		if (rootNode.getLeftNode() == null) {
+			return rootNode.getRightNode();
+		}
+
+		rootNode.setLeftNode(deleteSmallest(rootNode.getLeftNode()));
+
+		return rebalance(rootNode);
+	}
+
+	/**
+	 * Splits the tree around the provided key. The data less than the key
+	 * remains in this tree, and the data greater than or equal to the key is
+	 * moved into the returned tree. The split follows a single path of the
+	 * tree, joining the subtrees hanging off the path back together, so it is
+	 * performed in O(log n) time without copying any node.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>Both trees are balanced</li>
+	 * </ol>
+	 *
+	 * @param key
+	 *            The key to split the tree around.
+	 * @return
+	 *         A tree containing the data greater than or equal to the key.
+	 */
+	public AVLTree<T> split (T key) {
+
+		this.compact();
+
+		Split<T> split = this.split(this.rootNode, key, false);
+		AVLTree<T> greater = new AVLTree<T>(this.dataType, this.comparator);
+		greater.setRoot(split.right);
+		this.setRoot(split.left);
+
+		return greater;
+	}
+
+	/**
+	 * Joins two trees around a key into a new tree. Every node of the two
+	 * trees is reused, and the shorter tree is attached at the matching height
+	 * along the spine of the taller tree, so the join is performed in
+	 * O(|log n - log m|) time. The provided trees are consumed: they are left
+	 * empty once their nodes have been moved into the new tree.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>Every element of the left tree is less than or equal to the key</li>
+	 * <li>Every element of the right tree is greater than or equal to the
+	 * key</li>
+	 * </ol>
+	 *
+	 * @param left
+	 *            The tree of the data less than or equal to the key (emptied).
+	 * @param key
+	 *            The key to place between the two trees.
+	 * @param right
+	 *            The tree of the data greater than or equal to the key
+	 *            (emptied).
+	 * @return
+	 *         A balanced tree containing the data of both trees and the key.
+	 * @throws IllegalArgumentException
+	 *             If the trees are the same tree, do not share the same order,
+	 *             or are not in order around the key.
+	 */
+	public static <T extends Comparable<T>> AVLTree<T> join (AVLTree<T> left, T key, AVLTree<T> right) {
+
+		checkOperands(left, right);
+		left.compact();
+		right.compact();
+
+		if ((left.size > 0 && left.compare(left.select(left.size - 1), key) > 0) || (right.size > 0 && right.compare(right.select(0), key) < 0)) {
+			throw new IllegalArgumentException("The trees must be ordered around the key: " + key);
+		}
+
+		AVLTree<T> joined = new AVLTree<T>(left.dataType, left.comparator);
+		joined.setRoot(join(left.rootNode, new BinaryTreeNode<T>(key), right.rootNode));
+		left.setRoot(null);
+		right.setRoot(null);
+
+		return joined;
+	}
+
+	/**
+	 * Obtains the union of two trees: the data of the first tree, and the data
+	 * of the second tree that is not equal to any data of the first tree. The
+	 * union is computed by the join-based algorithm of Blelloch, Ferizovic and
+	 * Sun: the second tree is split around the root of the first, and the
+	 * union of the left halves and the union of the right halves (computed in
+	 * parallel, through fork-join tasks, for large trees) are joined around the
+	 * root. For trees of sizes m and n (m &lt;= n), this takes O(m log(n / m +
+	 * 1)) time, which is far less than merging the sorted data of the trees
+	 * when one tree is much smaller than the other.
+	 *
+	 * <p>
+	 * The provided trees are consumed: their nodes are reused in the result
+	 * (or discarded), and both trees are left empty.
+	 * </p>
+	 *
+	 * @param first
+	 *            The first tree (emptied).
+	 * @param second
+	 *            The second tree (emptied).
+	 * @return
+	 *         A balanced tree containing the union of the trees.
+	 * @throws IllegalArgumentException
+	 *             If the trees are the same tree, or do not share the same
+	 *             order.
+	 */
+	public static <T extends Comparable<T>> AVLTree<T> union (AVLTree<T> first, AVLTree<T> second) {
+		return combine(UNION, first, second);
+	}
+
+	/**
+	 * Obtains the intersection of two trees: the data of the first tree that
+	 * is equal to some data of the second tree. The intersection is computed
+	 * by splitting the first tree around the root of the second (see
+	 * {@link #union(AVLTree, AVLTree)}), in O(m log(n / m + 1)) time. The
+	 * provided trees are consumed, and both are left empty.
+	 *
+	 * @param first
+	 *            The first tree (emptied).
+	 * @param second
+	 *            The second tree (emptied).
+	 * @return
+	 *         A balanced tree containing the intersection of the trees.
+	 * @throws IllegalArgumentException
+	 *             If the trees are the same tree, or do not share the same
+	 *             order.
+	 */
+	public static <T extends Comparable<T>> AVLTree<T> intersection (AVLTree<T> first, AVLTree<T> second) {
+		return combine(INTERSECTION, first, second);
+	}
+
+	/**
+	 * Obtains the difference of two trees: the data of the first tree that is
+	 * not equal to any data of the second tree. The difference is computed by
+	 * splitting the first tree around the root of the second (see
+	 * {@link #union(AVLTree, AVLTree)}), in O(m log(n / m + 1)) time. The
+	 * provided trees are consumed, and both are left empty.
+	 *
+	 * @param first
+	 *            The first tree (emptied).
+	 * @param second
+	 *            The second tree (emptied).
+	 * @return
+	 *         A balanced tree containing the difference of the trees.
+	 * @throws IllegalArgumentException
+	 *             If the trees are the same tree, or do not share the same
+	 *             order.
+	 */
+	public static <T extends Comparable<T>> AVLTree<T> difference (AVLTree<T> first, AVLTree<T> second) {
+		return combine(DIFFERENCE, first, second);
+	}
+
+	/**
+	 * Combines two trees into a new tree by a set operation, emptying both
+	 * trees.
+	 *
+	 * @param operation
+	 *            The set operation: {@link #UNION}, {@link #INTERSECTION} or
+	 *            {@link #DIFFERENCE}.
+	 * @param first
+	 *            The first tree.
+	 * @param second
+	 *            The second tree.
+	 * @return
+	 *         The combined tree.
+	 * @throws IllegalArgumentException
+	 *             If the trees are the same tree, or do not share the same
+	 *             order.
+	 */
+	private static <T extends Comparable<T>> AVLTree<T> combine (int operation, AVLTree<T> first, AVLTree<T> second) {
+
+		checkOperands(first, second);
+		first.compact();
+		second.compact();
+
+		AVLTree<T> combined = new AVLTree<T>(first.dataType, first.comparator);
+		BinaryTreeNode<T> firstRoot = first.rootNode;
+		BinaryTreeNode<T> secondRoot = second.rootNode;
+		first.setRoot(null);
+		second.setRoot(null);
+
+		if (BinaryTreeNode.size(firstRoot) + BinaryTreeNode.size(secondRoot) >= PARALLEL_THRESHOLD) {
+			combined.setRoot(ForkJoinPool.commonPool().invoke(combined.new CombineTask(operation, firstRoot, secondRoot)));
+		}
+		else {
+			combined.setRoot(combined.combine(operation, firstRoot, secondRoot));
+		}
+
+		return combined;
+	}
+
+	/**
+	 * Checks that two trees are distinct and share the same order, so that the
+	 * nodes of one tree can be placed among the nodes of the other. A tree
+	 * cannot be combined with itself, since splitting one operand would rewire
+	 * the nodes of the other.
+	 *
+	 * @param first
+	 *            The first tree.
+	 * @param second
+	 *            The second tree.
+	 * @throws IllegalArgumentException
+	 *             If the trees are the same tree, or do not share the same
+	 *             order.
+	 */
+	private static void checkOperands (AVLTree<?> first, AVLTree<?> second) {
+
+		if (first == second) {
+			throw new IllegalArgumentException("A tree cannot be combined with itself");
+		}
+
+		if (!Objects.equals(first.comparator, second.comparator)) {
+			throw new IllegalArgumentException("The trees must share the same order");
+		}
+	}
+
+	/**
+	 * Combines two subtrees by a set operation. The tree that is not split
+	 * provides the pivot: the root of the first tree for a union or a merge
+	 * (so that its data is kept in preference to equal data of the second
+	 * tree), or the root of the second tree otherwise (so that every copy of
+	 * equal data in the first tree is split out together). The halves on
+	 * either side of the pivot are combined recursively, in parallel for large
+	 * subtrees, and joined back together.
+	 *
+	 * @param operation
+	 *            The set operation, or {@link #MERGE}.
+	 * @param first
+	 *            The root of the first subtree.
+	 * @param second
+	 *            The root of the second subtree.
+	 * @return
+	 *         The root of the combined subtree.
+	 */
+	private BinaryTreeNode<T> combine (int operation, BinaryTreeNode<T> first, BinaryTreeNode<T> second) {
+
+		if (first == null) {
+			return (operation == UNION || operation == MERGE) ? second : null;
+		}
+		else if (second == null) {
+			return (operation == INTERSECTION) ? null : first;
+		}
+
+		boolean parallel = BinaryTreeNode.size(first) + BinaryTreeNode.size(second) >= PARALLEL_THRESHOLD;
+		boolean firstPivot = operation == UNION || operation == MERGE;
+		BinaryTreeNode<T> pivot = firstPivot ? first : second;
+		BinaryTreeNode<T> other = firstPivot ? second : first;
+
+		// Split the other tree into the data less than, equal to and greater
+		// than the pivot
+		Split<T> lower = this.split(other, pivot.getData(), false);
+		Split<T> upper = this.split(lower.right, pivot.getData(), true);
+		BinaryTreeNode<T> pivotLeft = pivot.getLeftNode();
+		BinaryTreeNode<T> pivotRight = pivot.getRightNode();
+		BinaryTreeNode<T> left;
+		BinaryTreeNode<T> right;
+
+		if (parallel) {
+			CombineTask leftTask = firstPivot ? new CombineTask(operation, pivotLeft, lower.left) : new CombineTask(operation, lower.left, pivotLeft);
+			leftTask.fork();
+			right = firstPivot ? this.combine(operation, pivotRight, upper.right) : this.combine(operation, upper.right, pivotRight);
+			left = leftTask.join();
+		}
+		else {
+			left = firstPivot ? this.combine(operation, pivotLeft, lower.left) : this.combine(operation, lower.left, pivotLeft);
+			right = firstPivot ? this.combine(operation, pivotRight, upper.right) : this.combine(operation, upper.right, pivotRight);
+		}
+
+		switch (operation) {
+			case UNION:
+				// Keep the pivot, and discard the equal data of the second tree
+				return join(left, pivot, right);
+			case MERGE:
+				// Keep the pivot, placing the equal data of the second tree
+				// before it
+				return join(join(left, upper.left), pivot, right);
+			case INTERSECTION:
+				// Keep the equal data of the first tree, which is in order
+				// between the two halves
+				return join(join(left, upper.left), right);
+			default:
+				// Discard the equal data of the first tree
+				return join(left, right);
+		}
+	}
+
+	/**
+	 * Splits a subtree into the data less than the key (or less than or equal
+	 * to the key) and the rest of the data. The nodes on the path to the key
+	 * are joined to the subtrees on their far side on the way back up, so the
+	 * halves are balanced. The recursion depth is bounded by the height of the
+	 * subtree.
+	 *
+	 * @param node
+	 *            The root of the subtree.
+	 * @param key
+	 *            The key to split the subtree around.
+	 * @param inclusive
+	 *            True if data equal to the key belongs in the left half.
+	 * @return
+	 *         The left and right halves of the subtree.
+	 */
+	private Split<T> split (BinaryTreeNode<T> node, T key, boolean inclusive) {
+
+		if (node == null) {
+			return new Split<T>();
+		}
+
+		int comparison = this.compare(node.getData(), key);
+		BinaryTreeNode<T> left = node.getLeftNode();
+		BinaryTreeNode<T> right = node.getRightNode();
+
+		if (comparison < 0 || (inclusive && comparison == 0)) {
+			// The node and its left subtree belong in the left half
+			Split<T> split = this.split(right, key, inclusive);
+			split.left = join(left, node, split.left);
+			return split;
+		}
+		else {
+			// The node and its right subtree belong in the right half
+			Split<T> split = this.split(left, key, inclusive);
+			split.right = join(split.right, node, right);
+			return split;
+		}
+	}
+
+	/**
+	 * Joins two subtrees around a node. If the heights of the subtrees differ
+	 * by more than 1, the node and the shorter subtree are joined into the
+	 * spine of the taller subtree at the height of the shorter subtree, and
+	 * the spine is rebalanced on the way back up.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>The data of the left subtree, the node and the right subtree are in
+	 * order</li>
+	 * </ol>
+	 *
+	 * @param left
+	 *            The left subtree.
+	 * @param node
+	 *            The node to place between the subtrees, whose children are
+	 *            replaced.
+	 * @param right
+	 *            The right subtree.
+	 * @return
+	 *         The root of the joined subtree.
+	 */
+	private static <T extends Comparable<T>> BinaryTreeNode<T> join (BinaryTreeNode<T> left, BinaryTreeNode<T> node, BinaryTreeNode<T> right) {
+
+		int leftHeight = height(left);
+		int rightHeight = height(right);
+
+		if (leftHeight > rightHeight + 1) {
+			left.setRightNode(join(left.getRightNode(), node, right));
+			return rebalance(left);
+		}
+		else if (rightHeight > leftHeight + 1) {
+			right.setLeftNode(join(left, node, right.getLeftNode()));
+			return rebalance(right);
+		}
+
+		node.setLeftNode(left);
+		node.setRightNode(right);
+		node.updateHeight();
+		node.updateSize();
+
+		return node;
+	}
+
+	/**
+	 * Concatenates two subtrees, by unlinking the largest node of the left
+	 * subtree and joining the subtrees around it.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>The data of the left subtree precedes the data of the right
+	 * subtree</li>
+	 * </ol>
+	 *
+	 * @param left
+	 *            The left subtree.
+	 * @param right
+	 *            The right subtree.
+	 * @return
+	 *         The root of the concatenated subtree.
+	 */
+	private static <T extends Comparable<T>> BinaryTreeNode<T> join (BinaryTreeNode<T> left, BinaryTreeNode<T> right) {
+
+		if (left == null) {
+			return right;
+		}
+		else if (right == null) {
+			return left;
+		}
+
+		BinaryTreeNode<T> largest = left;
+
+		while (largest.getRightNode() != null) {
+			largest = largest.getRightNode();
+		}
+
+		return join(deleteLargest(left), largest, right);
+	}
+
+	/**
+	 * Unlinks the largest node of the subtree, rebalancing the subtree on the
+	 * way back up.
+	 *
+	 * @param rootNode
+	 *            The root node of the subtree.
+	 * @return
+	 *         The new root of the subtree, after rebalancing.
+	 */
+	private static <T extends Comparable<T>> BinaryTreeNode<T> deleteLargest (BinaryTreeNode<T> rootNode) {
+
+		if (rootNode.getRightNode() == null) {
+			return rootNode.getLeftNode();
+		}
+
+		rootNode.setRightNode(deleteLargest(rootNode.getRightNode()));
+
+		return rebalance(rootNode);
+	}
+
+	/**
+	 * Replaces the nodes of the tree with the provided subtree.
+	 *
+	 * @param root
+	 *            The root of the subtree.
+	 */
+	private void setRoot (BinaryTreeNode<T> root) {
+		this.rootNode = root;
+		this.size = BinaryTreeNode.size(root);
+		this.modCount++;
+	}
+
+	/**
+	 * Restores the AVL property at the provided node, assuming that the
+	 * subtrees of the node are already AVL trees whose heights differ by at
+	 * most 2.
+	 *
+	 * @param node
+	 *            The root of the subtree to rebalance.
+	 * @return
+	 *         The new root of the subtree, after rebalancing.
+	 */
+	static <T extends Comparable<T>> BinaryTreeNode<T> rebalance (BinaryTreeNode<T> node) {
+
+		// Ensure the cached height and size reflect any change in the subtrees
+		node.updateHeight();
+		node.updateSize();
+
+		int balanceFactor = getBalanceFactor(node);
+
+		if (balanceFactor > 1) {
+			// The left subtree is too tall; if it leans to the right, a double
+			// (left-right) rotation is required
+			if (getBalanceFactor(node.getLeftNode()) < 0) {
+				node.setLeftNode(rotateLeft(node.getLeftNode()));
+			}
+
+			return rotateRight(node);
+		}
+		else if (balanceFactor < -1) {
+			// The right subtree is too tall; if it leans to the left, a double
+			// (right-left) rotation is required
+			if (getBalanceFactor(node.getRightNode()) > 0) {
+				node.setRightNode(rotateRight(node.getRightNode()));
+			}
+
+			return rotateLeft(node);
+		}
+		else {
+			// The node is already balanced
+			return node;
+		}
+	}
+
+	/**
+	 * Rotates the subtree to the right, making the left node of the provided
+	 * node the new root of the subtree.
+	 *
+	 * @param node
+	 *            The root of the subtree to rotate.
+	 * @return
+	 *         The new root of the subtree.
+	 */
+	static <T extends Comparable<T>> BinaryTreeNode<T> rotateRight (BinaryTreeNode<T> node) {
+
+		BinaryTreeNode<T> newRoot = node.getLeftNode();
+
+		// Move the inner subtree across and place the old root on the right
+		node.setLeftNode(newRoot.getRightNode());
+		newRoot.setRightNode(node);
+
+		// Update the heights and sizes from the bottom up
+		node.updateHeight();
+		newRoot.updateHeight();
+		node.updateSize();
+		newRoot.updateSize();
+
+		return newRoot;
+	}
+
+	/**
+	 * Rotates the subtree to the left, making the right node of the provided
+	 * node the new root of the subtree.
+	 *
+	 * @param node
+	 *            The root of the subtree to rotate.
+	 * @return
+	 *         The new root of the subtree.
+	 */
+	static <T extends Comparable<T>> BinaryTreeNode<T> rotateLeft (BinaryTreeNode<T> node) {
+
+		BinaryTreeNode<T> newRoot = node.getRightNode();
+
+		// Move the inner subtree across and place the old root on the left
+		node.setRightNode(newRoot.getLeftNode());
+		newRoot.setLeftNode(node);
+
+		// Update the heights and sizes from the bottom up
+		node.updateHeight();
+		newRoot.updateHeight();
+		node.updateSize();
+		newRoot.updateSize();
+
+		return newRoot;
+	}
+
+	/**
+	 * Obtains the balance factor for a subtree from the cached heights of its
+	 * children.
+	 *
+	 * @param node
+	 *            The root of the subtree.
+	 * @return
+	 *         The balance factor, or the difference between the height of the
+	 *         left and right subtrees.
+	 */
+	static <T extends Comparable<T>> int getBalanceFactor (BinaryTreeNode<T> node) {
+		return height(node.getLeftNode()) - height(node.getRightNode());
+	}
+
+	/**
+	 * Obtains the cached height of a subtree.
+	 *
+	 * @param node
+	 *            The root of the subtree.
+	 * @return
+	 *         The height of the subtree, or 0 if the subtree is empty.
+	 */
+	static <T extends Comparable<T>> int height (BinaryTreeNode<T> node) {
+		return (node == null) ? 0 : node.getHeight();
+	}
+
+	/**
+	 * The two halves of a split subtree.
+	 */
+	private static final class Split<T extends Comparable<T>> {
+		private BinaryTreeNode<T> left;
+		private BinaryTreeNode<T> right;
+	}
+
+	/**
+	 * A task that combines two subtrees by a set operation, combining the
+	 * halves of large subtrees in parallel.
+	 */
+	private final class CombineTask extends RecursiveTask<BinaryTreeNode<T>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int operation;
+		private final BinaryTreeNode<T> first;
+		private final BinaryTreeNode<T> second;
+
+		private CombineTask (int operation, BinaryTreeNode<T> first, BinaryTreeNode<T> second) {
+			this.operation = operation;
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		protected BinaryTreeNode<T> compute () {
+			return AVLTree.this.combine(this.operation, this.first, this.second);
+		}
+	}
+}
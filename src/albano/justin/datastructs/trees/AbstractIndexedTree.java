@@ -0,0 +1,277 @@
+package albano.justin.datastructs.trees;
+
+/**
+ * The AVL balancing shared by binary trees whose nodes are identified by
+ * integer indices rather than by node objects, such as the array-backed trees
+ * of {@link IndexedBinaryTree} and the off-heap tree of
+ * {@link OffHeapBinaryTree}. The links and heights of the nodes are read and
+ * written through index-based accessors, so each tree stores its nodes as it
+ * sees fit, while the rotations and the repair of the insertion path are
+ * written once.
+ *
+ * <p>
+ * Since the height of an AVL tree of at most 2^31 nodes never exceeds 45, the
+ * path from the root to any node always fits in a fixed-size array, which
+ * allows insertions and removals to be performed without recursion or
+ * allocation.
+ * </p>
+ *
+ * @author Justin Albano
+ */
+abstract class AbstractIndexedTree {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	/**
+	 * The index used to represent an absent node.
+	 */
+	protected static final int NIL = -1;
+
+	/**
+	 * The maximum height of the tree (the height of an AVL tree of at most
+	 * 2^31 nodes is at most 45).
+	 */
+	protected static final int MAX_HEIGHT = 64;
+
+	protected int rootNode;
+	protected int size;
+
+	/**
+	 * The nodes along the path of the current insertion or removal, and
+	 * whether the path descended to the left of each node.
+	 */
+	protected final int[] path;
+	protected final boolean[] pathLeft;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates an empty tree.
+	 */
+	protected AbstractIndexedTree () {
+
+		this.rootNode = NIL;
+		this.size = 0;
+
+		this.path = new int[MAX_HEIGHT];
+		this.pathLeft = new boolean[MAX_HEIGHT];
+	}
+
+	/***************************************************************************
+	 * Node Accessors
+	 **************************************************************************/
+
+	/**
+	 * Obtains the index of the left child of a node.
+	 *
+	 * @param node
+	 *            The index of the node.
+	 * @return
+	 *         The index of the left child, or {@link #NIL} if there is none.
+	 */
+	protected abstract int left (int node);
+
+	protected abstract void setLeft (int node, int left);
+
+	/**
+	 * Obtains the index of the right child of a node.
+	 *
+	 * @param node
+	 *            The index of the node.
+	 * @return
+	 *         The index of the right child, or {@link #NIL} if there is none.
+	 */
+	protected abstract int right (int node);
+
+	protected abstract void setRight (int node, int right);
+
+	/**
+	 * Obtains the cached height of a node, which is never {@link #NIL}.
+	 *
+	 * @param node
+	 *            The index of the node.
+	 * @return
+	 *         The height of the subtree rooted at the node.
+	 */
+	protected abstract int nodeHeight (int node);
+
+	protected abstract void setNodeHeight (int node, int height);
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Links a new leaf node below the last node of the insertion path and
+	 * rebalances the nodes along the path, from the bottom up.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>The first depth entries of {@link #path} and {@link #pathLeft}
+	 * describe the path from the root to the parent of the new node</li>
+	 * </ol>
+	 *
+	 * @param depth
+	 *            The number of nodes on the insertion path.
+	 * @param node
+	 *            The new leaf node.
+	 */
+	protected final void attach (int depth, int node) {
+
+		int subtree = node;
+
+		for (int i = depth - 1; i >= 0; i--) {
+
+			int parent = this.path[i];
+			int previousHeight = this.nodeHeight(parent);
+
+			// Link the (possibly rotated) subtree below its parent
+			if (this.pathLeft[i]) {
+				this.setLeft(parent, subtree);
+			}
+			else {
+				this.setRight(parent, subtree);
+			}
+
+			subtree = this.rebalance(parent);
+
+			if (subtree == parent && this.nodeHeight(parent) == previousHeight) {
+				// Neither the root nor the height of this subtree changed, so
+				// the ancestors of the subtree are unaffected
+				this.size++;
+				return;
+			}
+		}
+
+		// The rebalancing reached the root of the tree
+		this.rootNode = subtree;
+		this.size++;
+	}
+
+	/**
+	 * Restores the AVL property at the provided node.
+	 *
+	 * @param node
+	 *            The root of the subtree to rebalance.
+	 * @return
+	 *         The new root of the subtree, after rebalancing.
+	 */
+	protected final int rebalance (int node) {
+
+		this.updateHeight(node);
+
+		int balanceFactor = this.getBalanceFactor(node);
+
+		if (balanceFactor > 1) {
+			// The left subtree is too tall; if it leans to the right, a double
+			// (left-right) rotation is required
+			if (this.getBalanceFactor(this.left(node)) < 0) {
+				this.setLeft(node, this.rotateLeft(this.left(node)));
+			}
+
+			return this.rotateRight(node);
+		}
+		else if (balanceFactor < -1) {
+			// The right subtree is too tall; if it leans to the left, a double
+			// (right-left) rotation is required
+			if (this.getBalanceFactor(this.right(node)) > 0) {
+				this.setRight(node, this.rotateRight(this.right(node)));
+			}
+
+			return this.rotateLeft(node);
+		}
+		else {
+			// The node is already balanced
+			return node;
+		}
+	}
+
+	/**
+	 * Rotates the subtree to the right, making the left node of the provided
+	 * node the new root of the subtree.
+	 *
+	 * @param node
+	 *            The root of the subtree to rotate.
+	 * @return
+	 *         The new root of the subtree.
+	 */
+	private int rotateRight (int node) {
+
+		int newRoot = this.left(node);
+
+		// Move the inner subtree across and place the old root on the right
+		this.setLeft(node, this.right(newRoot));
+		this.setRight(newRoot, node);
+
+		// Update the heights from the bottom up
+		this.updateHeight(node);
+		this.updateHeight(newRoot);
+
+		return newRoot;
+	}
+
+	/**
+	 * Rotates the subtree to the left, making the right node of the provided
+	 * node the new root of the subtree.
+	 *
+	 * @param node
+	 *            The root of the subtree to rotate.
+	 * @return
+	 *         The new root of the subtree.
+	 */
+	private int rotateLeft (int node) {
+
+		int newRoot = this.right(node);
+
+		// Move the inner subtree across and place the old root on the left
+		this.setRight(node, this.left(newRoot));
+		this.setLeft(newRoot, node);
+
+		// Update the heights from the bottom up
+		this.updateHeight(node);
+		this.updateHeight(newRoot);
+
+		return newRoot;
+	}
+
+	/**
+	 * Recomputes the cached height of a node from the cached heights of its
+	 * children.
+	 *
+	 * @param node
+	 *            The node whose height is recomputed.
+	 */
+	protected final void updateHeight (int node) {
+		this.setNodeHeight(node, 1 + Math.max(this.height(this.left(node)), this.height(this.right(node))));
+	}
+
+	/**
+	 * Obtains the balance factor of a node from the cached heights of its
+	 * children.
+	 *
+	 * @param node
+	 *            The node.
+	 * @return
+	 *         The difference between the height of the left and right
+	 *         subtrees of the node.
+	 */
+	private int getBalanceFactor (int node) {
+		return this.height(this.left(node)) - this.height(this.right(node));
+	}
+
+	/**
+	 * Obtains the cached height of a subtree.
+	 *
+	 * @param node
+	 *            The root of the subtree.
+	 * @return
+	 *         The height of the subtree, or 0 if the subtree is empty.
+	 */
+	protected final int height (int node) {
+		return (node == NIL) ? 0 : this.nodeHeight(node);
+	}
+}
@@ -0,0 +1,281 @@
+package albano.justin.datastructs.trees;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A balanced binary search tree whose nodes are stored in parallel arrays (see
+ * {@link IndexedBinaryTree}) rather than as {@link BinaryTreeNode} objects.
+ * The only objects referenced by the tree are its data and a fixed number of
+ * arrays, so a large tree presents far fewer objects to the garbage collector
+ * than a {@link BinaryTree} of the same size, and the slots of removed data are
+ * reused by later insertions without allocating.
+ *
+ * @author Justin Albano
+ */
+public class ArrayBinaryTree<T extends Comparable<T>> extends IndexedBinaryTree {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	private Object[] keys;
+	private final Class<T> dataType;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates a default, empty tree of data.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 */
+	public ArrayBinaryTree (Class<T> dataType) {
+		this(dataType, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty tree of data that can hold the provided number of
+	 * elements before growing.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param initialCapacity
+	 *            The number of elements the tree can hold before growing.
+	 */
+	public ArrayBinaryTree (Class<T> dataType, int initialCapacity) {
+		super(initialCapacity);
+		this.keys = new Object[this.capacity()];
+		this.dataType = dataType;
+	}
+
+	/**
+	 * Creates a populated tree of data, using the provided array as the default
+	 * data for the tree. The provided array is not modified. Upon adding the
+	 * data provided, the tree is guaranteed to be balanced.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 */
+	public ArrayBinaryTree (Class<T> dataType, T[] data) {
+
+		// Construct the tree with enough capacity for the data
+		this(dataType, (data == null) ? DEFAULT_CAPACITY : data.length);
+
+		if (data != null) {
+			// Sort a copy of the data and link it into a balanced tree
+			System.arraycopy(data, 0, this.keys, 0, data.length);
+			Arrays.sort(this.keys, 0, data.length);
+			this.linkSorted(data.length);
+		}
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Insert data into the tree. Data equal to existing data is added to the
+	 * left of the existing data.
+	 *
+	 * @param data
+	 *            The data to insert into the tree.
+	 */
+	public void insert (T data) {
+
+		int depth = 0;
+		int node = this.rootNode;
+
+		while (node != NIL) {
+			// Record the path down to the leaf position of the data
+			boolean left = data.compareTo(this.key(node)) <= 0;
+			this.path[depth] = node;
+			this.pathLeft[depth++] = left;
+			node = left ? this.leftNodes[node] : this.rightNodes[node];
+		}
+
+		// Create the node and link it into the tree
+		int newNode = this.allocateNode();
+		this.keys[newNode] = data;
+		this.attach(depth, newNode);
+	}
+
+	/**
+	 * Checks if the target data provided is found within the tree.
+	 *
+	 * @param target
+	 *            The data to search for in the tree.
+	 * @return
+	 *         True if the target data is found in the tree; false if the target
+	 *         data is not found in the tree.
+	 */
+	public boolean isInTree (T target) {
+
+		int node = this.rootNode;
+
+		while (node != NIL) {
+
+			int comparison = target.compareTo(this.key(node));
+
+			if (comparison == 0) {
+				// The data being searched for is found at the current node
+				return true;
+			}
+
+			node = (comparison < 0) ? this.leftNodes[node] : this.rightNodes[node];
+		}
+
+		return false;
+	}
+
+	/**
+	 * Removes a single occurrence of the target data from the tree. The slot
+	 * of the removed data is reused by a later insertion.
+	 *
+	 * @param target
+	 *            The data to remove from the tree.
+	 * @return
+	 *         True if the target data was found and removed; false otherwise.
+	 */
+	public boolean remove (T target) {
+
+		int depth = 0;
+		int node = this.rootNode;
+
+		while (node != NIL) {
+
+			// Record the path down to the node holding the data
+			int comparison = target.compareTo(this.key(node));
+			this.path[depth] = node;
+			this.pathLeft[depth++] = comparison < 0;
+
+			if (comparison == 0) {
+				// Remove the node holding the data
+				this.detach(depth);
+				return true;
+			}
+
+			node = (comparison < 0) ? this.leftNodes[node] : this.rightNodes[node];
+		}
+
+		return false;
+	}
+
+	/**
+	 * Obtains a sorted array of the data contained within the tree.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>Returned array is sorted</li>
+	 * </ol>
+	 *
+	 * @return
+	 *         A sorted array of the data contained within the tree.
+	 */
+	@SuppressWarnings("unchecked")
+	public T[] toSortedArray () {
+
+		T[] array = (T[]) Array.newInstance(this.dataType, this.size);
+		this.inOrderConversion(array);
+
+		return array;
+	}
+
+	/**
+	 * Obtains a sorted list of the data contained within the tree.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>list is sorted</li>
+	 * </ol>
+	 *
+	 * @return
+	 *         A sorted list of the data contained within the tree.
+	 */
+	public List<T> toSortedList () {
+
+		Object[] array = new Object[this.size];
+		this.inOrderConversion(array);
+
+		List<T> list = new ArrayList<T>(this.size);
+
+		for (Object data : array) {
+			list.add(this.dataType.cast(data));
+		}
+
+		return list;
+	}
+
+	/**
+	 * Obtains an immutable snapshot of the data contained within the tree,
+	 * laid out for fast searches (see {@link FrozenBinaryTree}). Later changes
+	 * to the tree do not affect the snapshot.
+	 *
+	 * @return
+	 *         A snapshot of the data contained within the tree.
+	 */
+	public FrozenBinaryTree<T> freeze () {
+		return new FrozenBinaryTree<T>(this.dataType, this.toSortedArray(), true);
+	}
+
+	/**
+	 * Adds the data of the tree to the provided array in order.
+	 *
+	 * @param array
+	 *            The array to store the data of the tree.
+	 */
+	private void inOrderConversion (Object[] array) {
+
+		int[] stack = new int[MAX_HEIGHT];
+		int depth = 0;
+		int index = 0;
+		int node = this.rootNode;
+
+		while (node != NIL || depth > 0) {
+
+			while (node != NIL) {
+				// Descend as far left as possible
+				stack[depth++] = node;
+				node = this.leftNodes[node];
+			}
+
+			// Add the smallest remaining data and traverse its right subtree
+			node = stack[--depth];
+			array[index++] = this.keys[node];
+			node = this.rightNodes[node];
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private T key (int node) {
+		return (T) this.keys[node];
+	}
+
+	@Override
+	protected void resizeKeys (int capacity) {
+		this.keys = Arrays.copyOf(this.keys, capacity);
+	}
+
+	@Override
+	protected void permuteKeys (int[] order, int count) {
+
+		Object[] keys = new Object[this.keys.length];
+
+		for (int i = 0; i < count; i++) {
+			keys[i] = this.keys[order[i]];
+		}
+
+		this.keys = keys;
+	}
+
+	@Override
+	protected void releaseKey (int node) {
+		this.keys[node] = null;
+	}
+}
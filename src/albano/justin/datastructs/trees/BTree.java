@@ -0,0 +1,491 @@
+package albano.justin.datastructs.trees;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An in-memory B-tree, whose nodes each hold a sorted array of up to
+ * <code>fanout - 1</code> data and (for an internal node) up to
+ * <code>fanout</code> children. A node is searched by a binary search over its
+ * contiguous array of data, so a lookup visits only
+ * <code>log<sub>fanout</sub>(n)</code> nodes rather than the
+ * <code>log<sub>2</sub>(n)</code> nodes of a balanced binary tree, which
+ * greatly reduces the number of cache misses incurred by a lookup in a large
+ * tree.
+ *
+ * <p>
+ * Like {@link BinaryTree}, the tree may contain duplicate data.
+ * </p>
+ *
+ * <h1>Citations</h1>
+ * <ul>
+ * <li>The insert algorithm, which splits full nodes on the way down so that a
+ * single pass suffices, is based on the algorithm depicted in Cormen et al.,
+ * Introduction to Algorithms, Chapter 18</li>
+ * </ul>
+ *
+ * @author Justin Albano
+ */
+public class BTree<T extends Comparable<T>> {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	/**
+	 * The default maximum number of children of each node.
+	 */
+	public static final int DEFAULT_FANOUT = 64;
+
+	private final Class<T> dataType;
+	private final int maxKeys;
+	private Node rootNode;
+	private int height;
+	private int size;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates a default, empty tree of data.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 */
+	public BTree (Class<T> dataType) {
+		this(dataType, DEFAULT_FANOUT);
+	}
+
+	/**
+	 * Creates an empty tree of data whose nodes have at most the provided
+	 * number of children.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param fanout
+	 *            The maximum number of children of each node (at least 4). An
+	 *            odd fanout is rounded down to an even fanout.
+	 */
+	public BTree (Class<T> dataType, int fanout) {
+
+		if (fanout < 4) {
+			throw new IllegalArgumentException("The fanout of a B-tree must be at least 4: " + fanout);
+		}
+
+		// A full node holds an odd number of data, so that it splits into two
+		// equal halves around its middle data
+		this.dataType = dataType;
+		this.maxKeys = (fanout & ~1) - 1;
+		this.rootNode = null;
+		this.height = 0;
+		this.size = 0;
+	}
+
+	/**
+	 * Creates a populated tree of data, using the provided array as the default
+	 * data for the tree. The provided array is not modified.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 */
+	public BTree (Class<T> dataType, T[] data) {
+		this(dataType, DEFAULT_FANOUT, data);
+	}
+
+	/**
+	 * Creates a populated tree of data whose nodes have at most the provided
+	 * number of children, using the provided array as the default data for the
+	 * tree. The provided array is not modified.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param fanout
+	 *            The maximum number of children of each node (at least 4).
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 */
+	public BTree (Class<T> dataType, int fanout, T[] data) {
+
+		this(dataType, fanout);
+
+		if (data != null && data.length > 0) {
+
+			// Sort a copy of the data and pack it into nodes
+			Object[] sorted = data.clone();
+			Arrays.sort(sorted);
+
+			this.height = this.heightFor(sorted.length);
+			this.rootNode = this.buildPacked(sorted, 0, sorted.length, this.height);
+			this.size = sorted.length;
+		}
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Returns number of elements currently stored in the tree.
+	 *
+	 * @return
+	 *         The number of elements currently stored in the tree.
+	 */
+	public int size () {
+		return this.size;
+	}
+
+	/**
+	 * Obtains the height of the tree (the number of nodes on the path from the
+	 * root to a leaf). Every leaf of a B-tree is at the same depth.
+	 *
+	 * @return
+	 *         The height of the tree.
+	 */
+	public int height () {
+		return this.height;
+	}
+
+	/**
+	 * Checks if the target data provided is found within the tree.
+	 *
+	 * @param target
+	 *            The data to search for in the tree.
+	 * @return
+	 *         True if the target data is found in the tree; false if the target
+	 *         data is not found in the tree.
+	 */
+	public boolean isInTree (T target) {
+
+		Node node = this.rootNode;
+
+		while (node != null) {
+
+			int index = lowerBound(node, target);
+
+			if (index < node.count && target.compareTo(this.key(node, index)) == 0) {
+				// The data being searched for is found in the current node
+				return true;
+			}
+
+			// The data can only be in the child between its neighbors
+			node = node.isLeaf() ? null : node.children[index];
+		}
+
+		return false;
+	}
+
+	/**
+	 * Insert data into the tree. Data equal to existing data is added to the
+	 * left of the existing data. Every full node on the path to the leaf that
+	 * receives the data is split before it is entered, so the leaf always has
+	 * room for the data.
+	 *
+	 * @param data
+	 *            The data to insert into the tree.
+	 */
+	public void insert (T data) {
+
+		if (this.rootNode == null) {
+			// The first data is placed in a new leaf
+			this.rootNode = new Node(this.maxKeys, true);
+			this.height = 1;
+		}
+		else if (this.rootNode.count == this.maxKeys) {
+			// Split a full root beneath a new root
+			Node newRoot = new Node(this.maxKeys, false);
+			newRoot.children[0] = this.rootNode;
+			this.splitChild(newRoot, 0);
+			this.rootNode = newRoot;
+			this.height++;
+		}
+
+		Node node = this.rootNode;
+
+		while (!node.isLeaf()) {
+
+			int index = lowerBound(node, data);
+
+			if (node.children[index].count == this.maxKeys) {
+
+				// Split the full child, and enter the half that holds the data
+				this.splitChild(node, index);
+
+				if (data.compareTo(this.key(node, index)) > 0) {
+					index++;
+				}
+			}
+
+			node = node.children[index];
+		}
+
+		// Insert the data into the leaf
+		int index = lowerBound(node, data);
+		System.arraycopy(node.keys, index, node.keys, index + 1, node.count - index);
+		node.keys[index] = data;
+		node.count++;
+		this.size++;
+	}
+
+	/**
+	 * Splits the full child of a node at the provided index into two nodes,
+	 * moving the middle data of the child up into the node.
+	 *
+	 * @param parent
+	 *            The node whose child is split, which is not full.
+	 * @param index
+	 *            The index of the child to split.
+	 */
+	private void splitChild (Node parent, int index) {
+
+		Node child = parent.children[index];
+		int middle = this.maxKeys / 2;
+
+		// Move the data (and children) above the middle into a new node
+		Node sibling = new Node(this.maxKeys, child.isLeaf());
+		sibling.count = this.maxKeys - middle - 1;
+		System.arraycopy(child.keys, middle + 1, sibling.keys, 0, sibling.count);
+		Arrays.fill(child.keys, middle + 1, this.maxKeys, null);
+
+		if (!child.isLeaf()) {
+			System.arraycopy(child.children, middle + 1, sibling.children, 0, sibling.count + 1);
+			Arrays.fill(child.children, middle + 1, this.maxKeys + 1, null);
+		}
+
+		// Move the middle data up into the parent, with the new node to its
+		// right
+		System.arraycopy(parent.keys, index, parent.keys, index + 1, parent.count - index);
+		System.arraycopy(parent.children, index + 1, parent.children, index + 2, parent.count - index);
+		parent.keys[index] = child.keys[middle];
+		parent.children[index + 1] = sibling;
+		parent.count++;
+
+		child.keys[middle] = null;
+		child.count = middle;
+	}
+
+	/**
+	 * Obtains a sorted array of the data contained within the tree.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>Returned array is sorted</li>
+	 * </ol>
+	 *
+	 * @return
+	 *         A sorted array of the data contained within the tree.
+	 */
+	@SuppressWarnings("unchecked")
+	public T[] toSortedArray () {
+
+		T[] array = (T[]) Array.newInstance(this.dataType, this.size);
+		this.inOrderConversion(array);
+
+		return array;
+	}
+
+	/**
+	 * Obtains a sorted list of the data contained within the tree.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>list is sorted</li>
+	 * </ol>
+	 *
+	 * @return
+	 *         A sorted list of the data contained within the tree.
+	 */
+	public List<T> toSortedList () {
+		return new ArrayList<T>(Arrays.asList(this.toSortedArray()));
+	}
+
+	/**
+	 * Adds the data of the tree to the provided array in order. The position
+	 * within each node on the current path is kept in an explicit stack, whose
+	 * depth is the height of the tree.
+	 *
+	 * @param array
+	 *            The array to store the data of the tree.
+	 */
+	private void inOrderConversion (Object[] array) {
+
+		if (this.rootNode == null) {
+			return;
+		}
+
+		Node[] nodes = new Node[this.height];
+		int[] positions = new int[this.height];
+		int depth = 0;
+		int index = 0;
+		nodes[0] = this.rootNode;
+
+		while (depth >= 0) {
+
+			Node node = nodes[depth];
+
+			if (node.isLeaf()) {
+				// Add all the data of the leaf, then return to its parent
+				System.arraycopy(node.keys, 0, array, index, node.count);
+				index += node.count;
+				depth--;
+			}
+			else if (positions[depth] <= node.count) {
+
+				// Add the data before the next child (if any), then descend
+				// into the child
+				int position = positions[depth]++;
+
+				if (position > 0) {
+					array[index++] = node.keys[position - 1];
+				}
+
+				nodes[++depth] = node.children[position];
+				positions[depth] = 0;
+			}
+			else {
+				// Every child has been visited
+				depth--;
+			}
+		}
+	}
+
+	/**
+	 * Computes the smallest height of a tree that can hold the provided number
+	 * of data.
+	 *
+	 * @param count
+	 *            The number of data.
+	 * @return
+	 *         The smallest height that can hold the data.
+	 */
+	private int heightFor (int count) {
+
+		int height = 1;
+
+		for (long capacity = this.maxKeys; capacity < count; height++) {
+			capacity = capacity * (this.maxKeys + 1) + this.maxKeys;
+		}
+
+		return height;
+	}
+
+	/**
+	 * Builds a subtree of the provided height from a range of sorted data,
+	 * spreading the data evenly over as few children as can hold it.
+	 *
+	 * @param data
+	 *            The sorted data.
+	 * @param first
+	 *            The index of the first data of the subtree.
+	 * @param last
+	 *            The index after the last data of the subtree.
+	 * @param height
+	 *            The height of the subtree.
+	 * @return
+	 *         The root of the subtree.
+	 */
+	private Node buildPacked (Object[] data, int first, int last, int height) {
+
+		int count = last - first;
+
+		if (height == 1) {
+			// A leaf holds the data directly
+			Node leaf = new Node(this.maxKeys, true);
+			System.arraycopy(data, first, leaf.keys, 0, count);
+			leaf.count = count;
+
+			return leaf;
+		}
+
+		// Find the capacity of a child, and the number of children needed
+		long childCapacity = this.maxKeys;
+
+		for (int level = 2; level < height; level++) {
+			childCapacity = childCapacity * (this.maxKeys + 1) + this.maxKeys;
+		}
+
+		int children = (int) ((count + childCapacity + 1) / (childCapacity + 1));
+		int childData = (count - children + 1) / children;
+		int extra = (count - children + 1) % children;
+
+		Node node = new Node(this.maxKeys, false);
+		node.count = children - 1;
+
+		for (int i = 0; i < children; i++) {
+
+			// Build each child, separating it from the next by a single data
+			int end = first + childData + ((i < extra) ? 1 : 0);
+			node.children[i] = this.buildPacked(data, first, end, height - 1);
+
+			if (i < children - 1) {
+				node.keys[i] = data[end];
+			}
+
+			first = end + 1;
+		}
+
+		return node;
+	}
+
+	/**
+	 * Finds the index of the first data of a node that is greater than or equal
+	 * to the provided data, using a binary search.
+	 *
+	 * @param node
+	 *            The node to search.
+	 * @param data
+	 *            The data to find.
+	 * @return
+	 *         The index of the first data greater than or equal to the data, or
+	 *         the number of data in the node if there is none.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T extends Comparable<T>> int lowerBound (Node node, T data) {
+
+		int low = 0;
+		int high = node.count;
+
+		while (low < high) {
+
+			int middle = (low + high) >>> 1;
+
+			if (data.compareTo((T) node.keys[middle]) > 0) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T key (Node node, int index) {
+		return (T) node.keys[index];
+	}
+
+	/**
+	 * A node of the tree, holding a sorted array of data and, if the node is
+	 * not a leaf, the children between them.
+	 */
+	private static final class Node {
+
+		private final Object[] keys;
+		private final Node[] children;
+		private int count;
+
+		private Node (int maxKeys, boolean leaf) {
+			this.keys = new Object[maxKeys];
+			this.children = leaf ? null : new Node[maxKeys + 1];
+		}
+
+		private boolean isLeaf () {
+			return this.children == null;
+		}
+	}
+}
@@ -1,13 +1,35 @@
 package albano.justin.datastructs.trees;
 
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Array;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
 
 /**
  * TODO Class documentation
- * TODO Add deletion method
  * 
  * <h1>Citations</h1>
  * <ul>
@@ -16,18 +38,63 @@ import java.util.List;
  * href="http://cslibrary.stanford.edu/110/BinaryTrees.html">here</a>)</li>
  * </ul>
  * 
+ * <p>
+ * All operations are loop-based (using an explicit stack or queue where a
+ * traversal requires one) rather than recursive, so that a degenerate tree of
+ * any size can be processed without overflowing the call stack.
+ * </p>
+ * 
  * @author Justin Albano
  */
-public class BinaryTree<T extends Comparable<T>> {
+public class BinaryTree<T extends Comparable<T>> implements Iterable<T> {
 
 	/***************************************************************************
 	 * Attributes
 	 **************************************************************************/
 
+	/**
+	 * The smallest number of elements for which the bulk operations of the
+	 * tree split their work into fork-join tasks.
+	 */
+	protected static final int PARALLEL_THRESHOLD = 1 << 13;
+
+	/**
+	 * The multiple of log2(n) beyond which a splice of a sorted batch (see
+	 * {@link #insertAll(Comparable[])}) may not deepen the tree before the
+	 * tree is rebuilt.
+	 */
+	protected static final int SPLICE_DEPTH_FACTOR = 3;
+
 	protected BinaryTreeNode<T> rootNode;
 	protected Class<T> dataType;
 	protected int size;
 
+	/**
+	 * The ordering of the data in the tree, or null if the data is kept in its
+	 * natural order.
+	 */
+	protected final Comparator<? super T> comparator;
+
+	/**
+	 * The number of structural modifications made to the tree, which allows
+	 * iterators to detect that the tree has changed beneath them.
+	 */
+	protected int modCount;
+
+	/**
+	 * The largest fraction of the nodes of the tree that may be tombstones
+	 * (lazily deleted nodes) before the tree is compacted, or 0 if removals
+	 * unlink their nodes immediately.
+	 */
+	protected double compactionThreshold;
+	protected int tombstones;
+
+	/**
+	 * The counters of the hot paths of the tree, or null if the counters are
+	 * disabled (see {@link TreeStats}).
+	 */
+	final TreeMetrics metrics = TreeMetrics.ENABLED ? new TreeMetrics() : null;
+
 	/***************************************************************************
 	 * Constructors
 	 **************************************************************************/
@@ -39,9 +106,44 @@ public class BinaryTree<T extends Comparable<T>> {
 	 *            The class of the data being stored in the tree.
 	 */
 	public BinaryTree (Class<T> dataType) {
+		this(dataType, (Comparator<? super T>) null);
+	}
+
+	/**
+	 * Creates a default, empty tree of data, ordered by the provided
+	 * comparator rather than by the natural order of the data. Every search
+	 * of the tree makes a single call to the comparator per node.
+	 * 
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 */
+	public BinaryTree (Class<T> dataType, Comparator<? super T> comparator) {
 		this.rootNode = null;
 		this.dataType = dataType;
 		this.size = 0;
+		this.comparator = comparator;
+	}
+
+	/**
+	 * Creates a default, empty tree of data, ordered by a primitive key
+	 * extracted from the data. Data with a cheap key, such as a record
+	 * identified by a numeric field, is then compared by its key, without
+	 * calling the (possibly expensive) natural ordering of the data. The keys
+	 * are not cached in the nodes: the key of both pieces of data is extracted
+	 * on every comparison, so the extractor should be as cheap as a field
+	 * read. To fill the tree in bulk, pass {@code Comparator.comparingLong} of
+	 * the extractor to a populated constructor that takes a comparator.
+	 * 
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param keyExtractor
+	 *            The function that extracts the key of the data.
+	 */
+	public BinaryTree (Class<T> dataType, ToLongFunction<? super T> keyExtractor) {
+		this(dataType, Comparator.comparingLong(keyExtractor));
 	}
 
 	/**
@@ -61,429 +163,2376 @@ public class BinaryTree<T extends Comparable<T>> {
 	 */
 	public BinaryTree (Class<T> dataType, T[] data) {
 
-		// Construct the tree through the default constructor
-		this(dataType);
-
-		if (data != null) {
-			// Sort the array and add it to the tree
-			Arrays.sort(data);
-			this.balanceWithStoredArray(data, 0, data.length - 1);
-		}
+		// Construct the tree, sorting the data first
+		this(dataType, data, false);
 	}
 
 	/**
-	 * Creates a populated tree of data, using the provided list as the default
-	 * data for the tree.
+	 * Creates a populated tree of data, using the provided array as the default
+	 * data for the tree. If the array is declared to be sorted, it is linked
+	 * into the tree as-is, without sorting it and without performing any
+	 * comparisons. Upon adding the data provided, the tree is guaranteed to be
+	 * balanced.
+	 * 
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>If sorted is true, the array is sorted in ascending order</li>
+	 * </ol>
+	 * 
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The tree is balanced</li>
+	 * </ol>
 	 * 
 	 * @param dataType
 	 *            The class of the data being stored in the tree.
 	 * @param data
-	 *            A list of data to use as the default data for the tree.
+	 *            An array of data to use as the default data for the tree.
+	 * @param sorted
+	 *            True if the array is already sorted in ascending order; false
+	 *            if the array must be sorted (in place) before use.
 	 */
-	public BinaryTree (Class<T> dataType, List<T> data) {
-
-		// Construct the tree through the default constructor
-		this(dataType);
+	public BinaryTree (Class<T> dataType, T[] data, boolean sorted) {
+		this(dataType, (Comparator<? super T>) null, data, sorted);
 	}
 
-	/***************************************************************************
-	 * Methods
-	 **************************************************************************/
-
 	/**
-	 * Returns number of elements currently stored in the tree.
+	 * Creates a populated tree of data, ordered by the provided comparator,
+	 * using the provided array as the default data for the tree (see
+	 * {@link #BinaryTree(Class, Comparable[], boolean)}). If the array is not
+	 * declared to be sorted, it is sorted by the comparator.
 	 * 
-	 * @return
-	 *         The number of elements currently stored in the tree.
-	 */
-	public int size () {
-		return this.size;
-	}
-
-	/**
-	 * Obtains the height of the tree.
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>If sorted is true, the array is sorted in the order of the
+	 * comparator</li>
+	 * </ol>
 	 * 
-	 * @author Dr. Richard Stansbury, Embry-Riddle Aeronautical University
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The tree is balanced</li>
+	 * </ol>
 	 * 
-	 * @return
-	 *         The height of the tree.
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 * @param sorted
+	 *            True if the array is already sorted in the order of the
+	 *            comparator; false if the array must be sorted (in place)
+	 *            before use.
 	 */
-	public int height () {
+	public BinaryTree (Class<T> dataType, Comparator<? super T> comparator, T[] data, boolean sorted) {
 
-		// Calculate the height of the tree starting with the top node
-		return this.height(this.rootNode);
-	}
+		// Construct the tree through the default constructor
+		this(dataType, comparator);
 
-	/**
-	 * Helper method that obtains the height of a node in the tree.
-	 * 
-	 * @author Dr. Richard Stansbury, Embry-Riddle Aeronautical University
-	 * 
-	 * @param rootNode
-	 *            The node to obtain the height of.
-	 * @return
-	 *         The height of the tree, based on the current node.
-	 */
-	private int height (BinaryTreeNode<T> rootNode) {
+		if (data != null) {
 
-		if (rootNode == null) {
-			// There is no node at the current location (base case)
-			return 0;
-		}
-		else {
-			// Return the maximum height of the left and right subtrees (a 1 is
-			// added to the maximum in order to count the current node)
-			return 1 + Math.max(this.height(rootNode.getLeftNode()), this.height(rootNode.getRightNode()));
+			if (!sorted) {
+				// Sort the array before linking it into the tree
+				Arrays.parallelSort(data, this.comparator);
+			}
+
+			this.rootNode = this.buildBalanced(data, 0, data.length - 1);
+			this.size = data.length;
 		}
 	}
 
 	/**
-	 * Checks if the tree is balanced.
+	 * Creates a populated tree of data, using the provided iterator over
+	 * sorted data as the default data for the tree. The data is linked into
+	 * the tree in a single pass, without performing any comparisons. Upon
+	 * adding the data provided, the tree is guaranteed to be balanced.
 	 * 
-	 * @author Dr. Richard Stansbury, Embry-Riddle Aeronautical University
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>The iterator returns its data in ascending order</li>
+	 * <li>The iterator returns at least count elements</li>
+	 * </ol>
 	 * 
-	 * @return
-	 *         True if the tree is balanced, and false if it is not.
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The tree is balanced</li>
+	 * </ol>
+	 * 
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param sortedData
+	 *            An iterator over the sorted data to use as the default data
+	 *            for the tree.
+	 * @param count
+	 *            The number of elements to take from the iterator.
 	 */
-	public boolean isBalanced () {
-
-		// Check if the root of the tree is balanced
-		return this.isBalanced(this.rootNode);
+	public BinaryTree (Class<T> dataType, Iterator<? extends T> sortedData, int count) {
+		this(dataType, (Comparator<? super T>) null, sortedData, count);
 	}
 
 	/**
-	 * Checks if the subtree provided, with the current node as the root of the
-	 * tree, is balanced.
+	 * Creates a populated tree of data, ordered by the provided comparator,
+	 * using the provided iterator over data sorted by the comparator as the
+	 * default data for the tree (see
+	 * {@link #BinaryTree(Class, Iterator, int)}).
 	 * 
-	 * @author Dr. Richard Stansbury, Embry-Riddle Aeronautical University
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>The iterator returns its data in the order of the comparator</li>
+	 * <li>The iterator returns at least count elements</li>
+	 * </ol>
 	 * 
-	 * @param rootNode
-	 *            The root of the subtree to check.
-	 * @return
-	 *         True if the subtree provided is balanced, and false if it is not.
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The tree is balanced</li>
+	 * </ol>
+	 * 
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 * @param sortedData
+	 *            An iterator over the sorted data to use as the default data
+	 *            for the tree.
+	 * @param count
+	 *            The number of elements to take from the iterator.
 	 */
-	private boolean isBalanced (BinaryTreeNode<T> rootNode) {
+	public BinaryTree (Class<T> dataType, Comparator<? super T> comparator, Iterator<? extends T> sortedData, int count) {
 
-		if (rootNode == null) {
-			// The tree is empty and is therefore balanced
-			return true;
-		}
-		else if ((rootNode.getLeftNode() == null) && (rootNode.getRightNode() == null)) {
-			// This node is leaf and is balanced
-			return true;
-		}
-		else if (Math.abs(this.getBalanceFactor(rootNode)) <= 1) {
-			// The balance factor for the current node and the current node is
-			// balanced if the left and right subtrees are balanced
-			return (this.isBalanced(rootNode.getLeftNode()) && this.isBalanced(rootNode.getRightNode()));
-		}
-		else {
-			// Return false in all other cases
-			return false;
-		}
+		// Construct the tree through the default constructor
+		this(dataType, comparator);
+
+		this.rootNode = this.buildBalanced(sortedData, count);
+		this.size = count;
 	}
 
 	/**
-	 * Obtains the balance factor for a subtree, based on the current node as
-	 * the root of the tree.
+	 * Creates a populated tree of data, using the provided collection as the
+	 * default data for the tree. If the collection is found to already be
+	 * sorted, it is linked into the tree without being copied or sorted. Upon
+	 * adding the data provided, the tree is guaranteed to be balanced.
 	 * 
-	 * @author Dr. Richard Stansbury, Embry-Riddle Aeronautical University
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The tree is balanced</li>
+	 * </ol>
 	 * 
-	 * @param rootNode
-	 *            The root of the subtree.
-	 * @return
-	 *         The balance factor, or the difference between the height of the
-	 *         left and right subtrees.
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            A collection of data to use as the default data for the tree.
 	 */
-	private int getBalanceFactor (BinaryTreeNode<T> rootNode) {
+	public BinaryTree (Class<T> dataType, Collection<? extends T> data) {
 
-		// Return the balance factor, which is equal to the difference between
-		// the left and right subtree
-		return (this.height(rootNode.getLeftNode()) - this.height(rootNode.getRightNode()));
+		// Construct the tree, checking if the data is sorted
+		this(dataType, data, false);
 	}
 
 	/**
-	 * Balances the tree, ensuring that all nodes in the the tree are popularly
-	 * balanced.
+	 * Creates a populated tree of data, using the provided collection as the
+	 * default data for the tree. If the collection is declared (or found) to
+	 * be sorted, it is linked into the tree without being copied or sorted.
+	 * Upon adding the data provided, the tree is guaranteed to be balanced.
 	 * 
-	 * @author Dr. Richard Stansbury, Embry-Riddle Aeronautical University
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>If sorted is true, the collection iterates in ascending order</li>
+	 * </ol>
+	 * 
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The tree is balanced</li>
+	 * </ol>
+	 * 
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            A collection of data to use as the default data for the tree.
+	 * @param sorted
+	 *            True if the collection is known to iterate in ascending order;
+	 *            false if the tree should check the order itself.
 	 */
-	public void rebalance () {
-
-		// Convert the tree into an array
-		T[] sortedArray = this.toSortedArray();
-
-		// Clear the tree
-		this.rootNode = null;
-
-		// Reinsert the elements of the array into the tree
-		this.balanceWithStoredArray(sortedArray, 0, this.size - 1);
-
+	public BinaryTree (Class<T> dataType, Collection<? extends T> data, boolean sorted) {
+		this(dataType, (Comparator<? super T>) null, data, sorted);
 	}
 
 	/**
-	 * Obtains a sorted array of the data contained within the tree.
+	 * Creates a populated tree of data, ordered by the provided comparator,
+	 * using the provided collection as the default data for the tree (see
+	 * {@link #BinaryTree(Class, Collection, boolean)}). A collection that is
+	 * not declared (or found) to be sorted by the comparator is copied and
+	 * sorted by the comparator.
+	 * 
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>If sorted is true, the collection iterates in the order of the
+	 * comparator</li>
+	 * </ol>
 	 * 
 	 * <h1>Postconditions</h1>
 	 * <ol>
-	 * <li>Returned array is sorted</li>
+	 * <li>The tree is balanced</li>
 	 * </ol>
 	 * 
-	 * @return
-	 *         A sorted array of the data contained within the tree.
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 * @param data
+	 *            A collection of data to use as the default data for the tree.
+	 * @param sorted
+	 *            True if the collection is known to iterate in the order of
+	 *            the comparator; false if the tree should check the order
+	 *            itself.
 	 */
-	@SuppressWarnings("unchecked")
-	public T[] toSortedArray () {
-
-		// Create a generic array of the data
-		T[] arrayToFill = (T[]) Array.newInstance(this.dataType, this.size);
+	public BinaryTree (Class<T> dataType, Comparator<? super T> comparator, Collection<? extends T> data, boolean sorted) {
 
-		// Perform in order traversal of the tree to create array
-		this.inOrderArrayConversion(this.rootNode, arrayToFill, 0);
+		// Construct the tree through the default constructor
+		this(dataType, comparator);
 
-		return arrayToFill;
+		if (data != null) {
+			this.load(data, sorted);
+		}
 	}
 
 	/**
-	 * Obtains a sorted list of the data contained within the tree.
+	 * Creates a populated tree of data, using the data returned by the
+	 * provided iterable as the default data for the tree. An iterable of
+	 * unknown size is read into memory in runs of bounded length, which are
+	 * sorted and merged as they are linked into the tree. Upon adding the data
+	 * provided, the tree is guaranteed to be balanced.
 	 * 
 	 * <h1>Postconditions</h1>
 	 * <ol>
-	 * <li>list is sorted</li>
+	 * <li>The tree is balanced</li>
 	 * </ol>
 	 * 
-	 * @return
-	 *         A sorted list of the data contained within the tree.
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            An iterable of data to use as the default data for the tree.
 	 */
-	public List<T> toSortedList () {
-
-		// Create a list to store the data
-		List<T> list = new ArrayList<T>();
-
-		// Obtain the sorted data
-		this.inOrderListConversion(this.rootNode, list);
-
-		return list;
+	public BinaryTree (Class<T> dataType, Iterable<? extends T> data) {
+		this(dataType, (Comparator<? super T>) null, data);
 	}
 
 	/**
-	 * Adds the elements of the subtree provided to the list.
+	 * Creates a populated tree of data, ordered by the provided comparator,
+	 * using the data returned by the provided iterable as the default data for
+	 * the tree (see {@link #BinaryTree(Class, Iterable)}). The data is sorted
+	 * by the comparator.
 	 * 
 	 * <h1>Postconditions</h1>
 	 * <ol>
-	 * <li>list is sorted</li>
+	 * <li>The tree is balanced</li>
 	 * </ol>
 	 * 
-	 * @param subtree
-	 *            The subtree from which to obtain data.
-	 * @param list
-	 *            The list to insert the data into.
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 * @param data
+	 *            An iterable of data to use as the default data for the tree.
 	 */
-	private void inOrderListConversion (BinaryTreeNode<T> subtree, List<T> list) {
+	public BinaryTree (Class<T> dataType, Comparator<? super T> comparator, Iterable<? extends T> data) {
 
-		if (subtree == null) {
-			// This subtree is empty
-			return;
+		// Construct the tree through the default constructor
+		this(dataType, comparator);
+
+		if (data instanceof Collection) {
+			// The size of the data is known
+			this.load((Collection<? extends T>) data, false);
 		}
-		else {
-			// Perform in-order insertion into the list
-			this.inOrderListConversion(subtree.getLeftNode(), list);
-			list.add(subtree.getData());
-			this.inOrderListConversion(subtree.getRightNode(), list);
+		else if (data != null) {
+			this.load(data.iterator());
 		}
 	}
 
 	/**
-	 * Adds the elements of the subtree provided into the provided array,
-	 * starting with the index provided.
+	 * Creates a populated tree of data, using the data of the provided stream
+	 * as the default data for the tree. A stream that reports that it is sorted
+	 * (in the natural order of the data) and of known size is linked into the
+	 * tree as it is consumed; any other stream is read into memory in runs of bounded
+	 * length, which are sorted and merged as they are linked into the tree.
+	 * Upon adding the data provided, the tree is guaranteed to be balanced.
 	 * 
-	 * <h1>Preconditions</h1>
+	 * <h1>Postconditions</h1>
 	 * <ol>
-	 * <li>array is large enough to hold the values in the tree</li>
+	 * <li>The tree is balanced</li>
 	 * </ol>
 	 * 
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            A stream of data to use as the default data for the tree.
+	 */
+	public BinaryTree (Class<T> dataType, Stream<? extends T> data) {
+		this(dataType, (Comparator<? super T>) null, data);
+	}
+
+	/**
+	 * Creates a populated tree of data, ordered by the provided comparator,
+	 * using the data of the provided stream as the default data for the tree
+	 * (see {@link #BinaryTree(Class, Stream)}). A stream that reports that it
+	 * is sorted by the same comparator and of known size is linked into the
+	 * tree as it is consumed; any other stream is sorted by the comparator.
+	 * 
 	 * <h1>Postconditions</h1>
 	 * <ol>
-	 * <li>array is sorted</li>
+	 * <li>The tree is balanced</li>
 	 * </ol>
 	 * 
-	 * @param subtree
-	 *            The subtree to obtain data from.
-	 * @param array
-	 *            The array to store the data of the subtree.
-	 * @param index
-	 *            The starting index to insert into the array. For example, if
-	 *            an index of 3 is provided, the first data element found in the
-	 *            provided subtree will be inserted into the provided array at
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 * @param data
+	 *            A stream of data to use as the default data for the tree.
+	 */
+	public BinaryTree (Class<T> dataType, Comparator<? super T> comparator, Stream<? extends T> data) {
+
+		// Construct the tree through the default constructor
+		this(dataType, comparator);
+
+		if (data != null) {
+
+			Spliterator<? extends T> spliterator = data.spliterator();
+
+			if (spliterator.hasCharacteristics(Spliterator.SORTED | Spliterator.SIZED)
+					&& Objects.equals(spliterator.getComparator(), this.comparator)
+					&& spliterator.getExactSizeIfKnown() <= Integer.MAX_VALUE) {
+				// The stream is already in the order of the tree and of known
+				// size
+				int count = (int) spliterator.getExactSizeIfKnown();
+				this.rootNode = this.buildBalanced(Spliterators.iterator(spliterator), count);
+				this.size = count;
+			}
+			else {
+				this.load(Spliterators.iterator(spliterator));
+			}
+		}
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Returns number of elements currently stored in the tree.
+	 * 
+	 * @return
+	 *         The number of elements currently stored in the tree.
+	 */
+	public int size () {
+		return this.size;
+	}
+
+	/**
+	 * Obtains a snapshot of the counters of the lookups, insertions and
+	 * rebalances of the tree. The counters are kept only if they are enabled
+	 * (see {@link TreeStats}).
+	 * 
+	 * @return
+	 *         A snapshot of the counters of the tree.
+	 */
+	public TreeStats stats () {
+		return (this.metrics == null) ? TreeStats.DISABLED : this.metrics.snapshot(this.size);
+	}
+
+	/**
+	 * Resets the counters of the tree.
+	 */
+	public void resetStats () {
+
+		if (this.metrics != null) {
+			this.metrics.reset();
+		}
+	}
+
+	/**
+	 * Publishes the counters of the tree (see {@link #stats()}) to the
+	 * platform MBean server, under the domain of this package, with the type
+	 * of the tree and the provided name as keys.
+	 * 
+	 * @param name
+	 *            The name of the tree, which must be unique among the trees of
+	 *            the same type.
+	 * @return
+	 *         The name under which the MBean is registered, which can be used
+	 *         to unregister it.
+	 * @throws JMException
+	 *             If the MBean cannot be registered.
+	 */
+	public ObjectName registerMBean (String name) throws JMException {
+
+		ObjectName objectName = new ObjectName(BinaryTree.class.getPackage().getName() + ":type=" + this.getClass().getSimpleName() + ",name=" + ObjectName.quote(name));
+		TreeStatsMXBean bean = new TreeStatsMXBean() {
+
+			@Override
+			public TreeStats getStats () {
+				return BinaryTree.this.stats();
+			}
+
+			@Override
+			public void reset () {
+				BinaryTree.this.resetStats();
+			}
+		};
+
+		ManagementFactory.getPlatformMBeanServer().registerMBean(new StandardMBean(bean, TreeStatsMXBean.class, true), objectName);
+
+		return objectName;
+	}
+
+	/**
+	 * Obtains the height of the tree.
+	 * 
+	 * @author Dr. Richard Stansbury, Embry-Riddle Aeronautical University
+	 * 
+	 * @return
+	 *         The height of the tree.
+	 */
+	public int height () {
+
+		// Calculate the height of the tree starting with the top node
+		return this.height(this.rootNode, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Obtains the height of the tree, giving up once more than the provided
+	 * number of nodes have been visited. The bound allows the height to be
+	 * computed optimistically while the tree may be modified concurrently (see
+	 * {@link ConcurrentBinaryTree}), since a traversal of a tree whose links
+	 * are changing could otherwise fail to terminate.
+	 * 
+	 * @param limit
+	 *            The largest number of nodes to visit.
+	 * @return
+	 *         The height of the tree, or -1 if more nodes would have to be
+	 *         visited.
+	 */
+	int height (int limit) {
+		return this.height(this.rootNode, limit);
+	}
+
+	/**
+	 * Helper method that obtains the height of a node in the tree. The height
+	 * is obtained by counting the levels of a level-order traversal of the
+	 * subtree.
+	 * 
+	 * @param rootNode
+	 *            The node to obtain the height of.
+	 * @param limit
+	 *            The largest number of nodes to visit.
+	 * @return
+	 *         The height of the tree, based on the current node, or -1 if more
+	 *         nodes would have to be visited.
+	 */
+	private int height (BinaryTreeNode<T> rootNode, int limit) {
+
+		if (rootNode == null) {
+			// There is no node at the current location
+			return 0;
+		}
+
+		// Queue of the nodes on the level currently being counted
+		Deque<BinaryTreeNode<T>> level = new ArrayDeque<BinaryTreeNode<T>>();
+		level.add(rootNode);
+		int height = 0;
+		int visited = 0;
+
+		while (!level.isEmpty()) {
+
+			// Replace each node on the current level with its children
+			for (int remaining = level.size(); remaining > 0; remaining--) {
+
+				BinaryTreeNode<T> node = level.remove();
+
+				if (++visited > limit) {
+					return -1;
+				}
+
+				if (node.getLeftNode() != null) {
+					level.add(node.getLeftNode());
+				}
+
+				if (node.getRightNode() != null) {
+					level.add(node.getRightNode());
+				}
+			}
+
+			// Count the level that was just consumed
+			height++;
+		}
+
+		return height;
+	}
+
+	/**
+	 * Checks if the tree is balanced.
+	 * 
+	 * @author Dr. Richard Stansbury, Embry-Riddle Aeronautical University
+	 * 
+	 * @return
+	 *         True if the tree is balanced, and false if it is not.
+	 */
+	public boolean isBalanced () {
+
+		// Check if the root of the tree is balanced
+		return this.isBalanced(this.rootNode);
+	}
+
+	/**
+	 * Checks if the subtree provided, with the current node as the root of the
+	 * tree, is balanced. The subtree is balanced if the balance factor (the
+	 * difference between the height of the left and right subtrees) of every
+	 * node in the subtree is at most 1 in magnitude.
+	 * 
+	 * <p>
+	 * The heights of the subtrees are computed bottom-up during a single
+	 * post-order traversal, so each node is visited exactly once.
+	 * </p>
+	 * 
+	 * @param rootNode
+	 *            The root of the subtree to check.
+	 * @return
+	 *         True if the subtree provided is balanced, and false if it is not.
+	 */
+	private boolean isBalanced (BinaryTreeNode<T> rootNode) {
+
+		// The nodes whose subtrees are being traversed, and the heights of the
+		// subtrees that have been fully traversed (but whose parent has not)
+		Deque<BinaryTreeNode<T>> path = new ArrayDeque<BinaryTreeNode<T>>();
+		int[] heights = new int[16];
+		int heightCount = 0;
+
+		BinaryTreeNode<T> current = rootNode;
+		BinaryTreeNode<T> lastVisited = null;
+
+		while (current != null || !path.isEmpty()) {
+
+			if (current != null) {
+				// Descend as far left as possible
+				path.push(current);
+				current = current.getLeftNode();
+				continue;
+			}
+
+			BinaryTreeNode<T> node = path.peek();
+
+			if (node.getRightNode() != null && node.getRightNode() != lastVisited) {
+				// The right subtree of the node has not yet been traversed
+				current = node.getRightNode();
+				continue;
+			}
+
+			// Both subtrees have been traversed; their heights (if present) are
+			// on top of the height stack, with the right height uppermost
+			path.pop();
+			int rightHeight = (node.getRightNode() == null) ? 0 : heights[--heightCount];
+			int leftHeight = (node.getLeftNode() == null) ? 0 : heights[--heightCount];
+
+			if (Math.abs(leftHeight - rightHeight) > 1) {
+				// The balance factor of this node is too large
+				return false;
+			}
+
+			if (heightCount == heights.length) {
+				// Grow the height stack
+				heights = Arrays.copyOf(heights, heights.length * 2);
+			}
+
+			// Record the height of the subtree rooted at this node
+			heights[heightCount++] = 1 + Math.max(leftHeight, rightHeight);
+			lastVisited = node;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Balances the tree, ensuring that all nodes in the the tree are popularly
+	 * balanced.
+	 * 
+	 * @author Dr. Richard Stansbury, Embry-Riddle Aeronautical University
+	 */
+	public void rebalance () {
+
+		long start = TreeMetrics.ENABLED ? System.nanoTime() : 0;
+
+		// Convert the tree into an array
+		T[] sortedArray = this.toSortedArray();
+
+		// Relink the elements of the array into a balanced tree (the size of
+		// the tree is unchanged)
+		this.rootNode = this.buildBalanced(sortedArray, 0, this.size - 1);
+		this.tombstones = 0;
+		this.modCount++;
+
+		if (TreeMetrics.ENABLED) {
+			this.metrics.recordRebalance(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Obtains a sorted array of the data contained within the tree.
+	 * 
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>Returned array is sorted</li>
+	 * </ol>
+	 * 
+	 * @return
+	 *         A sorted array of the data contained within the tree.
+	 */
+	@SuppressWarnings("unchecked")
+	public T[] toSortedArray () {
+
+		// Create a generic array of the data
+		T[] arrayToFill = (T[]) Array.newInstance(this.dataType, this.size);
+
+		// Perform in order traversal of the tree to create array
+		this.inOrderArrayConversion(this.rootNode, arrayToFill, 0);
+
+		return arrayToFill;
+	}
+
+	/**
+	 * Obtains a sorted list of the data contained within the tree.
+	 * 
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>list is sorted</li>
+	 * </ol>
+	 * 
+	 * @return
+	 *         A sorted list of the data contained within the tree.
+	 */
+	public List<T> toSortedList () {
+
+		// Create a list to store the data
+		List<T> list = new ArrayList<T>();
+
+		// Obtain the sorted data
+		this.inOrderListConversion(this.rootNode, list);
+
+		return list;
+	}
+
+	/**
+	 * Obtains an immutable snapshot of the data contained within the tree,
+	 * laid out for fast searches (see {@link FrozenBinaryTree}). Later changes
+	 * to the tree do not affect the snapshot.
+	 * 
+	 * @return
+	 *         A snapshot of the data contained within the tree.
+	 */
+	public FrozenBinaryTree<T> freeze () {
+		return new FrozenBinaryTree<T>(this.dataType, this.toSortedArray(), true, this.comparator);
+	}
+
+	/**
+	 * Obtains the comparator that orders the data of the tree.
+	 * 
+	 * @return
+	 *         The comparator that orders the data of the tree, or null if the
+	 *         data is kept in its natural order.
+	 */
+	public Comparator<? super T> comparator () {
+		return this.comparator;
+	}
+
+	/**
+	 * Compares two pieces of data in the order of the tree.
+	 * 
+	 * @param first
+	 *            The first piece of data.
+	 * @param second
+	 *            The second piece of data.
+	 * @return
+	 *         A negative number, zero or a positive number as the first piece
+	 *         of data is less than, equal to or greater than the second.
+	 */
+	protected final int compare (T first, T second) {
+		return (this.comparator == null) ? first.compareTo(second) : this.comparator.compare(first, second);
+	}
+
+	/**
+	 * Obtains a sorted array of the data contained within the tree, filling
+	 * the array with fork-join tasks. The size of each subtree determines the
+	 * range of the array it occupies, so the left and right subtrees of every
+	 * subtree of at least {@link #PARALLEL_THRESHOLD} elements fill their
+	 * ranges in parallel.
+	 * 
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>Returned array is sorted</li>
+	 * </ol>
+	 * 
+	 * @return
+	 *         A sorted array of the data contained within the tree.
+	 */
+	@SuppressWarnings("unchecked")
+	public T[] parallelToSortedArray () {
+
+		if (this.size < PARALLEL_THRESHOLD) {
+			// The tree is too small to benefit from parallelism
+			return this.toSortedArray();
+		}
+
+		T[] array = (T[]) Array.newInstance(this.dataType, this.size);
+		ForkJoinPool.commonPool().invoke(new FillTask(this.rootNode, array, 0));
+
+		return array;
+	}
+
+	/**
+	 * Obtains a sorted list of the data contained within the tree, filling the
+	 * list with fork-join tasks (see {@link #parallelToSortedArray()}).
+	 * 
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>list is sorted</li>
+	 * </ol>
+	 * 
+	 * @return
+	 *         A sorted list of the data contained within the tree.
+	 */
+	public List<T> parallelToSortedList () {
+		return new ArrayList<T>(Arrays.asList(this.parallelToSortedArray()));
+	}
+
+	/**
+	 * Obtains an iterator over the data contained within the tree, in
+	 * ascending order. The iterator is lazy: it holds only the path from the
+	 * root to its next element, so reading the first k elements of the tree
+	 * takes O(k + log n) time rather than a copy of the whole tree. The
+	 * iterator is fail-fast, throwing a
+	 * {@link ConcurrentModificationException} if the tree is modified while it
+	 * is in use.
+	 * 
+	 * @return
+	 *         An iterator over the data contained within the tree, in
+	 *         ascending order.
+	 */
+	@Override
+	public Iterator<T> iterator () {
+		return new TreeIterator(0, this.size, false, this.modCount);
+	}
+
+	/**
+	 * Obtains a lazy iterator over the data contained within the tree, in
+	 * descending order (see {@link #iterator()}).
+	 * 
+	 * @return
+	 *         An iterator over the data contained within the tree, in
+	 *         descending order.
+	 */
+	public Iterator<T> descendingIterator () {
+		return new TreeIterator(0, this.size, true, this.modCount);
+	}
+
+	/**
+	 * Obtains a view of the elements of the tree that are greater than or
+	 * equal to the lower bound and less than or equal to the upper bound (the
+	 * elements counted by {@link #countInRange(Comparable, Comparable)}). The
+	 * view copies nothing: each iterator of the view locates the start of the
+	 * range by a single descent of the tree and then reads the range lazily,
+	 * and the spliterator of the view is sized, so it can be streamed through
+	 * {@link StreamSupport#stream(Spliterator, boolean)} without a copy.
+	 * 
+	 * @param from
+	 *            The inclusive lower bound of the range.
+	 * @param to
+	 *            The inclusive upper bound of the range.
+	 * @return
+	 *         A view of the elements within the range, in ascending order,
+	 *         which is empty if the lower bound is greater than the upper
+	 *         bound.
+	 */
+	public Iterable<T> subRange (T from, T to) {
+		return new Range(from, to);
+	}
+
+	/**
+	 * Obtains a spliterator over the data contained within the tree, in
+	 * ascending order. The spliterator splits the ranks of the elements in
+	 * half, and each half locates its first element through the size of the
+	 * subtrees, so the tree can be streamed in parallel without being copied.
+	 * The tree may contain duplicate data, so the spliterator does not report
+	 * {@link Spliterator#DISTINCT}.
+	 * 
+	 * @return
+	 *         A sized and sorted spliterator over the data contained within the
+	 *         tree.
+	 */
+	@Override
+	public Spliterator<T> spliterator () {
+		return new TreeSpliterator(0, this.size, this.modCount);
+	}
+
+	/**
+	 * Obtains a sequential stream of the data contained within the tree, in
+	 * ascending order.
+	 * 
+	 * @return
+	 *         A sequential stream of the data contained within the tree.
+	 */
+	public Stream<T> stream () {
+		return StreamSupport.stream(this.spliterator(), false);
+	}
+
+	/**
+	 * Obtains a parallel stream of the data contained within the tree, in
+	 * ascending order (see {@link #spliterator()}).
+	 * 
+	 * @return
+	 *         A parallel stream of the data contained within the tree.
+	 */
+	public Stream<T> parallelStream () {
+		return StreamSupport.stream(this.spliterator(), true);
+	}
+
+	/**
+	 * Adds the elements of the subtree provided to the list.
+	 * 
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>list is sorted</li>
+	 * </ol>
+	 * 
+	 * @param subtree
+	 *            The subtree from which to obtain data.
+	 * @param list
+	 *            The list to insert the data into.
+	 */
+	private void inOrderListConversion (BinaryTreeNode<T> subtree, List<T> list) {
+
+		// The ancestors whose data has not yet been added to the list
+		Deque<BinaryTreeNode<T>> path = new ArrayDeque<BinaryTreeNode<T>>();
+		BinaryTreeNode<T> current = subtree;
+
+		while (current != null || !path.isEmpty()) {
+
+			while (current != null) {
+				// Descend as far left as possible
+				path.push(current);
+				current = current.getLeftNode();
+			}
+
+			// Add the smallest remaining node and traverse its right subtree
+			current = path.pop();
+
+			if (!current.isDeleted()) {
+				list.add(current.getData());
+			}
+
+			current = current.getRightNode();
+		}
+	}
+
+	/**
+	 * Adds the elements of the subtree provided into the provided array,
+	 * starting with the index provided.
+	 * 
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>array is large enough to hold the values in the tree</li>
+	 * </ol>
+	 * 
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>array is sorted</li>
+	 * </ol>
+	 * 
+	 * @param subtree
+	 *            The subtree to obtain data from.
+	 * @param array
+	 *            The array to store the data of the subtree.
+	 * @param index
+	 *            The starting index to insert into the array. For example, if
+	 *            an index of 3 is provided, the first data element found in the
+	 *            provided subtree will be inserted into the provided array at
 	 *            index 3.
 	 * @return
-	 *         The index of the next available cell in the array.
+	 *         The index of the next available cell in the array.
+	 */
+	private int inOrderArrayConversion (BinaryTreeNode<T> subtree, T[] array, int index) {
+
+		// The ancestors whose data has not yet been added to the array
+		Deque<BinaryTreeNode<T>> path = new ArrayDeque<BinaryTreeNode<T>>();
+		BinaryTreeNode<T> current = subtree;
+
+		while (current != null || !path.isEmpty()) {
+
+			while (current != null) {
+				// Descend as far left as possible
+				path.push(current);
+				current = current.getLeftNode();
+			}
+
+			// Add the smallest remaining node and traverse its right subtree
+			current = path.pop();
+
+			if (!current.isDeleted()) {
+				array[index++] = current.getData();
+			}
+
+			current = current.getRightNode();
+		}
+
+		return index;
+	}
+
+	/**
+	 * Builds a balanced subtree from a range of a sorted array. The middle
+	 * element of the range becomes the root of the subtree, and the elements
+	 * to its left and right are recursively built into its left and right
+	 * subtrees. The nodes are linked directly, so the subtree is built in
+	 * linear time without performing any comparisons. A range of at least
+	 * {@link #PARALLEL_THRESHOLD} elements is split into fork-join tasks, which
+	 * link the left and right subtrees of large subtrees in parallel.
+	 * 
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>The range of the array is sorted</li>
+	 * </ol>
+	 * 
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The subtree is balanced</li>
+	 * </ol>
+	 * 
+	 * @author Dr. Richard Stansbury, Embry-Riddle Aeronautical University
+	 * 
+	 * @param data
+	 *            An array containing the data to be linked into the subtree.
+	 * @param first
+	 *            Index of the first element in the array.
+	 * @param last
+	 *            Index of the last element in the array.
+	 * @return
+	 *         The root of the balanced subtree, or null if the range is empty.
+	 */
+	protected BinaryTreeNode<T> buildBalanced (T[] data, int first, int last) {
+
+		if (last - first + 1 >= PARALLEL_THRESHOLD) {
+			// Link the halves of a large range in parallel
+			return ForkJoinPool.commonPool().invoke(new LinkTask(data, first, last));
+		}
+
+		return this.linkBalanced(data, first, last);
+	}
+
+	/**
+	 * Builds a balanced subtree from the next elements of a sorted iterator.
+	 * The subtree has the same shape as the subtree built by
+	 * {@link #buildBalanced(Comparable[], int, int)} from the same number of
+	 * elements.
+	 * 
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>The iterator returns its data in ascending order</li>
+	 * <li>The iterator has at least count remaining elements</li>
+	 * </ol>
+	 * 
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The subtree is balanced</li>
+	 * </ol>
+	 * 
+	 * @param sortedData
+	 *            An iterator over the sorted data to link into the subtree.
+	 * @param count
+	 *            The number of elements to take from the iterator.
+	 * @return
+	 *         The root of the balanced subtree, or null if count is 0.
+	 */
+	protected BinaryTreeNode<T> buildBalanced (Iterator<? extends T> sortedData, int count) {
+		return this.linkBalanced(sortedData, count);
+	}
+
+	/**
+	 * Helper method that recursively links a range of a sorted array into a
+	 * balanced subtree.
+	 * 
+	 * @param data
+	 *            An array containing the data to be linked into the subtree.
+	 * @param first
+	 *            Index of the first element in the array.
+	 * @param last
+	 *            Index of the last element in the array.
+	 * @return
+	 *         The root of the balanced subtree, or null if the range is empty.
+	 */
+	private BinaryTreeNode<T> linkBalanced (T[] data, int first, int last) {
+
+		if (first > last) {
+			// The range is empty (base case)
+			return null;
+		}
+
+		// Build the left and right portions of the range around the middle
+		int middle = (first + last) >>> 1;
+		BinaryTreeNode<T> left = this.linkBalanced(data, first, middle - 1);
+		BinaryTreeNode<T> right = this.linkBalanced(data, middle + 1, last);
+
+		return this.createNode(data[middle], left, right);
+	}
+
+	/**
+	 * Helper method that recursively links the next elements of a sorted
+	 * iterator into a balanced subtree. The left subtree is built from the
+	 * first half of the elements, followed by the root and then the right
+	 * subtree, in the order the elements are returned by the iterator.
+	 * 
+	 * @param sortedData
+	 *            An iterator over the sorted data to link into the subtree.
+	 * @param count
+	 *            The number of elements to take from the iterator.
+	 * @return
+	 *         The root of the balanced subtree, or null if count is 0.
+	 */
+	private BinaryTreeNode<T> linkBalanced (Iterator<? extends T> sortedData, int count) {
+
+		if (count <= 0) {
+			// There are no elements to take (base case)
+			return null;
+		}
+
+		// Build the left subtree, then the root, then the right subtree (the
+		// left subtree receives the same number of elements as the left
+		// portion of an array range of the same size)
+		int leftCount = (count - 1) / 2;
+		BinaryTreeNode<T> left = this.linkBalanced(sortedData, leftCount);
+		T data = sortedData.next();
+		BinaryTreeNode<T> right = this.linkBalanced(sortedData, count - 1 - leftCount);
+
+		return this.createNode(data, left, right);
+	}
+
+	/**
+	 * Links the data of a collection into the (empty) tree. The collection is
+	 * linked directly if it is sorted; otherwise, it is copied into an array
+	 * that is sorted before being linked.
+	 * 
+	 * @param data
+	 *            The collection of data to link into the tree.
+	 * @param sorted
+	 *            True if the collection is known to iterate in ascending order.
+	 */
+	@SuppressWarnings("unchecked")
+	private void load (Collection<? extends T> data, boolean sorted) {
+
+		if (sorted || isSorted(data, this.comparator)) {
+			// Link the data in the order of the collection
+			this.rootNode = this.buildBalanced(data.iterator(), data.size());
+			this.size = data.size();
+		}
+		else {
+			// Sort a copy of the data before linking it
+			T[] array = data.toArray((T[]) Array.newInstance(this.dataType, data.size()));
+			Arrays.parallelSort(array, this.comparator);
+			this.rootNode = this.buildBalanced(array, 0, array.length - 1);
+			this.size = array.length;
+		}
+	}
+
+	/**
+	 * Links the data returned by an iterator of unknown size into the (empty)
+	 * tree. The data is read into memory in sorted runs, which are merged as
+	 * they are linked into the tree.
+	 * 
+	 * @param data
+	 *            An iterator over the data to link into the tree.
+	 */
+	private void load (Iterator<? extends T> data) {
+
+		SortedRuns<T> sortedData = new SortedRuns<T>(data, this.comparator, SortedRuns.DEFAULT_RUN_LENGTH);
+
+		this.size = sortedData.size();
+		this.rootNode = this.buildBalanced(sortedData, this.size);
+	}
+
+	/**
+	 * Checks if a collection iterates in ascending order. A sorted set in
+	 * the same order is known to be sorted; any other collection is checked
+	 * by comparing each pair of adjacent elements.
+	 * 
+	 * @param data
+	 *            The collection to check.
+	 * @param comparator
+	 *            The comparator of the order, or null for the natural order.
+	 * @return
+	 *         True if the collection iterates in ascending order; false
+	 *         otherwise.
+	 */
+	private static <T extends Comparable<T>> boolean isSorted (Collection<? extends T> data, Comparator<? super T> comparator) {
+
+		if (data instanceof SortedSet && Objects.equals(((SortedSet<?>) data).comparator(), comparator)) {
+			// The set is sorted in the same order
+			return true;
+		}
+
+		T previous = null;
+
+		for (T current : data) {
+
+			if (previous != null && ((comparator == null) ? previous.compareTo(current) : comparator.compare(previous, current)) > 0) {
+				// A pair of adjacent elements is out of order
+				return false;
+			}
+
+			previous = current;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Creates a node for the tree with the provided children. Trees that store
+	 * additional information in their nodes override this method to create
+	 * their own type of node.
+	 * 
+	 * @param data
+	 *            The data to store within the node.
+	 * @param left
+	 *            The left subtree of the node.
+	 * @param right
+	 *            The right subtree of the node.
+	 * @return
+	 *         The newly created node.
+	 */
+	protected BinaryTreeNode<T> createNode (T data, BinaryTreeNode<T> left, BinaryTreeNode<T> right) {
+		return new BinaryTreeNode<T>(data, left, right);
+	}
+
+	/**
+	 * Checks if the target data provided is found within the binary tree.
+	 * 
+	 * @param target
+	 *            The data to search for in the tree.
+	 * @return
+	 *         True if the target data is found in the tree; false if the target
+	 *         data is not found in the tree.
+	 */
+	public boolean isInTree (T target) {
+
+		if (this.tombstones > 0) {
+			// A tombstone equal to the target may hide a live element, so
+			// count the live elements equal to the target
+			return this.countBelow(target, true) > this.countBelow(target, false);
+		}
+
+		// Check if the target is in the tree
+		return this.isInTree(this.rootNode, target);
+	}
+
+	/**
+	 * Obtains the rank of the provided data: the number of elements of the
+	 * tree that are less than the data. The size of each subtree is cached in
+	 * its root, so the rank is found by a single descent of the tree, in time
+	 * proportional to the height of the tree.
+	 * 
+	 * @param data
+	 *            The data to obtain the rank of (which need not be in the
+	 *            tree).
+	 * @return
+	 *         The number of elements of the tree that are less than the data.
+	 */
+	public int rank (T data) {
+		return this.countBelow(data, false);
+	}
+
+	/**
+	 * Obtains the element of the provided rank: the element that is preceded
+	 * by exactly <code>index</code> elements in sorted order. For example,
+	 * <code>select(0)</code> is the smallest element, and
+	 * <code>select((int) (0.99 * size()))</code> is the 99th percentile. The
+	 * element is found by a single descent of the tree.
+	 * 
+	 * @param index
+	 *            The rank of the element, from 0 to <code>size() - 1</code>.
+	 * @return
+	 *         The element of the provided rank.
+	 * @throws IndexOutOfBoundsException
+	 *             If the index is negative or not less than the size of the
+	 *             tree.
+	 */
+	public T select (int index) {
+
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+		}
+
+		BinaryTreeNode<T> current = this.rootNode;
+
+		while (true) {
+
+			int leftSize = BinaryTreeNode.size(current.getLeftNode());
+
+			if (index < leftSize) {
+				// The element is in the left subtree
+				current = current.getLeftNode();
+			}
+			else if (index == leftSize && !current.isDeleted()) {
+				// The element is preceded by exactly the left subtree
+				return current.getData();
+			}
+			else {
+				// Skip the left subtree and the current node
+				index -= leftSize + (current.isDeleted() ? 0 : 1);
+				current = current.getRightNode();
+			}
+		}
+	}
+
+	/**
+	 * Counts the elements of the tree that are greater than or equal to the
+	 * lower bound and less than or equal to the upper bound. The count is
+	 * found by two descents of the tree.
+	 * 
+	 * @param from
+	 *            The inclusive lower bound of the range.
+	 * @param to
+	 *            The inclusive upper bound of the range.
+	 * @return
+	 *         The number of elements within the range, or 0 if the lower bound
+	 *         is greater than the upper bound.
+	 */
+	public int countInRange (T from, T to) {
+
+		if (this.compare(from, to) > 0) {
+			return 0;
+		}
+
+		return this.countBelow(to, true) - this.countBelow(from, false);
+	}
+
+	/**
+	 * Counts the elements of the tree that are less than (or, optionally,
+	 * equal to) the provided data. Equal elements may be found in either
+	 * subtree of a node after a rotation, so the descent compares against
+	 * every node on its path.
+	 * 
+	 * @param data
+	 *            The data to compare the elements of the tree against.
+	 * @param inclusive
+	 *            True if elements equal to the data are counted.
+	 * @return
+	 *         The number of elements less than (or equal to) the data.
+	 */
+	private int countBelow (T data, boolean inclusive) {
+
+		BinaryTreeNode<T> current = this.rootNode;
+		int count = 0;
+
+		while (current != null) {
+
+			int comparison = this.compare(current.getData(), data);
+
+			if (comparison < 0 || (inclusive && comparison == 0)) {
+				// The current node and its left subtree are counted, and the
+				// right subtree may hold more
+				count += BinaryTreeNode.size(current.getLeftNode()) + (current.isDeleted() ? 0 : 1);
+				current = current.getRightNode();
+			}
+			else {
+				// The current node and its right subtree are not counted
+				current = current.getLeftNode();
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Obtains the greatest element of the tree that is less than or equal to
+	 * the provided data.
+	 * 
+	 * @param data
+	 *            The data to compare the elements of the tree against.
+	 * @return
+	 *         The greatest element less than or equal to the data, or null if
+	 *         there is no such element.
+	 */
+	public T floor (T data) {
+		return this.nearest(data, false, true);
+	}
+
+	/**
+	 * Obtains the least element of the tree that is greater than or equal to
+	 * the provided data.
+	 * 
+	 * @param data
+	 *            The data to compare the elements of the tree against.
+	 * @return
+	 *         The least element greater than or equal to the data, or null if
+	 *         there is no such element.
+	 */
+	public T ceiling (T data) {
+		return this.nearest(data, true, true);
+	}
+
+	/**
+	 * Obtains the least element of the tree that is strictly greater than the
+	 * provided data.
+	 * 
+	 * @param data
+	 *            The data to compare the elements of the tree against.
+	 * @return
+	 *         The least element greater than the data, or null if there is no
+	 *         such element.
+	 */
+	public T higher (T data) {
+		return this.nearest(data, true, false);
+	}
+
+	/**
+	 * Obtains the greatest element of the tree that is strictly less than the
+	 * provided data.
+	 * 
+	 * @param data
+	 *            The data to compare the elements of the tree against.
+	 * @return
+	 *         The greatest element less than the data, or null if there is no
+	 *         such element.
+	 */
+	public T lower (T data) {
+		return this.nearest(data, false, false);
+	}
+
+	/**
+	 * Finds the element of the tree nearest to the provided data in one
+	 * direction, by a single descent of the tree. Each node on the path that
+	 * lies on the requested side of the data is a candidate, and the descent
+	 * continues towards the data to find a nearer one.
+	 * 
+	 * @param data
+	 *            The data to compare the elements of the tree against.
+	 * @param above
+	 *            True to find the nearest element above the data; false to
+	 *            find the nearest element below it.
+	 * @param inclusive
+	 *            True if an element equal to the data may be returned.
+	 * @return
+	 *         The nearest element, or null if there is no such element.
+	 */
+	private T nearest (T data, boolean above, boolean inclusive) {
+
+		if (this.tombstones > 0) {
+			// A tombstone cannot be returned, so find the rank of the nearest
+			// live element instead
+			int index = above ? this.countBelow(data, !inclusive) : this.countBelow(data, inclusive) - 1;
+			return (index >= 0 && index < this.size) ? this.select(index) : null;
+		}
+
+		BinaryTreeNode<T> current = this.rootNode;
+		T nearest = null;
+
+		while (current != null) {
+
+			int comparison = this.compare(current.getData(), data);
+			boolean candidate = (comparison == 0) ? inclusive : (comparison > 0) == above;
+
+			if (candidate) {
+				// Record the node and look for a nearer one closer to the data
+				nearest = current.getData();
+				current = above ? current.getLeftNode() : current.getRightNode();
+			}
+			else {
+				// The node is on the wrong side of the data
+				current = above ? current.getRightNode() : current.getLeftNode();
+			}
+		}
+
+		return nearest;
+	}
+
+	/**
+	 * Helper method that is used to check if a target is in the binary tree.
+	 * The tree is descended from the provided root, comparing the target
+	 * against each node on the path exactly once.
+	 * 
+	 * @param rootNode
+	 *            The root node that is being searched for the target data.
+	 * @param target
+	 *            The data to search for in the tree.
+	 * @return
+	 *         True if the target data is found in the tree; false if the target
+	 *         data is not found in the tree.
+	 */
+	private boolean isInTree (BinaryTreeNode<T> rootNode, T target) {
+
+		long start = TreeMetrics.ENABLED ? this.metrics.startLookup() : 0;
+		BinaryTreeNode<T> current = rootNode;
+		int comparisons = 0;
+
+		while (current != null) {
+
+			int comparison = this.compare(target, current.getData());
+			comparisons++;
+
+			if (comparison == 0) {
+				// The data being searched for is found at the current node
+				break;
+			}
+
+			// Descend down the left side of the tree if the target is less than
+			// the current data, or down the right side if it is greater
+			current = (comparison < 0) ? current.getLeftNode() : current.getRightNode();
+		}
+
+		if (TreeMetrics.ENABLED) {
+			this.metrics.recordLookup(comparisons, start);
+		}
+
+		// The target is found unless the bottom of the tree was reached
+		return current != null;
+	}
+
+	/**
+	 * Insert data into the binary tree.
+	 * 
+	 * @param data
+	 *            The data to insert into the binary tree.
+	 */
+	public void insert (T data) {
+
+		// Insert the data into the tree
+		this.rootNode = this.insert(this.rootNode, data);
+
+		// Increment the size of the tree
+		this.size++;
+		this.modCount++;
+	}
+
+	/**
+	 * Helper method used to insert data into the binary search tree. The tree
+	 * is descended from the provided root to the empty position of the data,
+	 * where a new node is linked.
+	 * 
+	 * @param rootNode
+	 *            The root node to compare data with the supplied data.
+	 * @param data
+	 *            The data to add to the binary tree.
+	 * @return
+	 *         The root of the tree after the insertion (the node that was added
+	 *         if the tree was empty, or the supplied root otherwise).
+	 */
+	private BinaryTreeNode<T> insert (BinaryTreeNode<T> rootNode, T data) {
+
+		BinaryTreeNode<T> newNode = new BinaryTreeNode<T>(data);
+
+		if (rootNode == null) {
+
+			if (TreeMetrics.ENABLED) {
+				this.metrics.recordInsert(0);
+			}
+
+			// The tree is empty, so the new node becomes the root
+			return newNode;
+		}
+
+		BinaryTreeNode<T> current = rootNode;
+		int comparisons = 0;
+
+		while (true) {
+
+			// The new node is added to the subtree of every node on its path
+			current.setSize(current.getSize() + 1);
+			comparisons++;
+
+			if (this.compare(data, current.getData()) <= 0) {
+				// The data being added is less then or equal to the data at the
+				// current node and should be added to the left subtree
+				if (current.getLeftNode() == null) {
+					current.setLeftNode(newNode);
+					break;
+				}
+
+				current = current.getLeftNode();
+			}
+			else {
+				// The data being added is greater than the data at the current
+				// node and should be added to the right subtree
+				if (current.getRightNode() == null) {
+					current.setRightNode(newNode);
+					break;
+				}
+
+				current = current.getRightNode();
+			}
+		}
+
+		if (TreeMetrics.ENABLED) {
+			this.metrics.recordInsert(comparisons);
+		}
+
+		return rootNode;
+	}
+
+	/**
+	 * Removes a single occurrence of the provided data from the tree. If lazy
+	 * deletion is enabled (see {@link #setCompactionThreshold(double)}), the
+	 * node holding the data is marked as a tombstone rather than unlinked.
+	 * 
+	 * @param data
+	 *            The data to remove from the tree.
+	 * @return
+	 *         True if the data was found and removed; false if the data is not
+	 *         in the tree.
+	 */
+	public boolean remove (T data) {
+
+		if (this.compactionThreshold > 0) {
+			// Mark the data as deleted, leaving the structure of the tree as is
+			return this.removeLazily(data);
+		}
+
+		if (this.rootNode == null || !this.delete(data)) {
+			// The data is not in the tree
+			return false;
+		}
+
+		// Decrement the size of the tree
+		this.size--;
+		this.modCount++;
+
+		return true;
+	}
+
+	/**
+	 * Removes every occurrence of each of the provided data from the tree. If
+	 * the collection is large enough that removing its data one at a time
+	 * would take longer than rebuilding the tree (see
+	 * {@link #prefersRebuild(int)}), the sorted data of the tree is filtered
+	 * against the sorted collection in a single merge and the remaining data
+	 * is linked into a balanced tree.
+	 * 
+	 * @param data
+	 *            The data to remove from the tree.
+	 * @return
+	 *         True if any data was removed from the tree.
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean removeAll (Collection<? extends T> data) {
+
+		int initialSize = this.size;
+
+		if (!this.prefersRebuild(data.size())) {
+
+			for (T element : data) {
+				// Remove each occurrence of the element in turn
+				while (this.remove(element)) {}
+			}
+
+			return this.size != initialSize;
+		}
+
+		T[] removals = data.toArray((T[]) Array.newInstance(this.dataType, data.size()));
+		Arrays.parallelSort(removals, this.comparator);
+
+		// Keep the data of the tree that does not match any removal
+		T[] sorted = this.toSortedArray();
+		int kept = 0;
+		int removal = 0;
+
+		for (T element : sorted) {
+
+			while (removal < removals.length && this.compare(removals[removal], element) < 0) {
+				removal++;
+			}
+
+			if (removal == removals.length || this.compare(removals[removal], element) != 0) {
+				sorted[kept++] = element;
+			}
+		}
+
+		if (kept == initialSize) {
+			return false;
+		}
+
+		this.rootNode = this.buildBalanced(sorted, 0, kept - 1);
+		this.size = kept;
+		this.tombstones = 0;
+		this.modCount++;
+
+		return true;
+	}
+
+	/**
+	 * Inserts a batch of sorted data into the tree. The cheaper of two
+	 * strategies is chosen from the sizes of the batch and the tree:
+	 * 
+	 * <ul>
+	 * <li>A batch at least as large as the tree is merged with the sorted data
+	 * of the tree in a single pass, and the merged data is linked into a new
+	 * balanced tree, in O(n + m) time (see {@link #merge(Comparable[])})</li>
+	 * <li>A smaller batch is spliced into the tree (see
+	 * {@link #splice(Comparable[])}), descending the tree once for the whole
+	 * batch rather than once per element, in O(m log(n / m + 1)) time</li>
+	 * </ul>
+	 * 
+	 * Rebuilding allocates a node for every element of the tree, so it only
+	 * pays off over splicing once the batch outnumbers the tree. A splice
+	 * hangs each part of the batch below the existing nodes, however, so a
+	 * sequence of spliced batches deepens the tree: once a splice reaches
+	 * deeper than {@link #SPLICE_DEPTH_FACTOR} times log2(n), the tree is
+	 * rebuilt through the merge path. Data equal to existing data is placed
+	 * before the existing data, as it is by {@link #insert(Comparable)}.
+	 * 
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>The array is sorted in ascending order</li>
+	 * </ol>
+	 * 
+	 * @param sortedData
+	 *            The sorted data to insert into the tree.
 	 */
-	private int inOrderArrayConversion (BinaryTreeNode<T> subtree, T[] array, int index) {
+	public void insertAll (T[] sortedData) {
 
-		if (subtree == null) {
-			// This subtree is empty
-			return index;
+		if (sortedData.length == 0) {
+			// There is nothing to insert
+			return;
 		}
-		else {
-			// Perform in-order traversal of the left subtree
-			int leftSubtreeFinalIndex = this.inOrderArrayConversion(subtree.getLeftNode(), array, index);
 
-			// Insert the data at the current node into the array
-			array[leftSubtreeFinalIndex] = subtree.getData();
+		// The depth reached by a splice of the batch, if any
+		int depth = 0;
+
+		if (this.size == 0) {
+			// Link the batch into the empty tree (or replace its tombstones)
+			this.rootNode = this.buildBalanced(sortedData, 0, sortedData.length - 1);
+			this.tombstones = 0;
+		}
+		else if (sortedData.length >= this.size) {
+			this.merge(sortedData);
+		}
+		else {
+			depth = this.splice(sortedData);
+		}
 
-			// Perform in-order traversal of the right subtree (the index is
-			// incremented by 1 to skip the element in the array that was just
-			// added above)
-			int rightSubtreeFinalIndex = this.inOrderArrayConversion(subtree.getRightNode(), array, leftSubtreeFinalIndex + 1);
+		this.size += sortedData.length;
+		this.modCount++;
 
-			return rightSubtreeFinalIndex;
+		if (depth > SPLICE_DEPTH_FACTOR * balancedHeight(this.size)) {
+			// The splice deepened the tree too far, so rebuild it from its data
+			this.rebalance();
 		}
 	}
 
 	/**
-	 * Balances the tree using a stored array. This balancing does not happen in
-	 * place, but rather, the elements in the provided array are inserted into
-	 * the tree.
+	 * Merges a batch of sorted data with the sorted data of the tree in a
+	 * single pass, without changing the size of the tree, and links the
+	 * merged data into a new balanced tree. Data from the batch is placed
+	 * before equal data of the tree. The tombstones of the tree are dropped.
 	 * 
 	 * <h1>Preconditions</h1>
 	 * <ol>
-	 * <li>The tree is empty</li>
+	 * <li>The array is sorted in ascending order</li>
 	 * </ol>
 	 * 
-	 * <h1>Postconditions</h1>
+	 * @param sortedData
+	 *            The sorted data to merge into the tree.
+	 */
+	@SuppressWarnings("unchecked")
+	protected void merge (T[] sortedData) {
+
+		// Merge the batch with the data of the tree, taking data from the
+		// batch first when the two are equal
+		T[] existing = this.toSortedArray();
+		T[] merged = (T[]) Array.newInstance(this.dataType, existing.length + sortedData.length);
+		int i = 0;
+		int j = 0;
+
+		for (int k = 0; k < merged.length; k++) {
+
+			if (j < sortedData.length && (i == existing.length || this.compare(sortedData[j], existing[i]) <= 0)) {
+				merged[k] = sortedData[j++];
+			}
+			else {
+				merged[k] = existing[i++];
+			}
+		}
+
+		this.rootNode = this.buildBalanced(merged, 0, merged.length - 1);
+		this.tombstones = 0;
+	}
+
+	/**
+	 * Inserts a collection of data into the tree (see
+	 * {@link #insertAll(Comparable[])}). The collection is copied, and the
+	 * copy is sorted if the collection does not iterate in ascending order.
+	 * 
+	 * @param data
+	 *            The data to insert into the tree.
+	 */
+	@SuppressWarnings("unchecked")
+	public void insertAll (Collection<? extends T> data) {
+
+		boolean sorted = isSorted(data, this.comparator);
+		T[] array = data.toArray((T[]) Array.newInstance(this.dataType, data.size()));
+
+		if (!sorted) {
+			Arrays.parallelSort(array, this.comparator);
+		}
+
+		this.insertAll(array);
+	}
+
+	/**
+	 * Splices a batch of sorted data into the tree, without changing the size
+	 * of the tree. The batch is descended through the tree as a whole: at
+	 * each node, the batch is split (by binary search) into the data that
+	 * belongs in the left subtree and the data that belongs in the right
+	 * subtree, and each part continues down its own subtree. A part that
+	 * reaches an empty subtree is linked there as a balanced subtree. The
+	 * splice therefore takes O(m log(n / m + 1)) comparisons, and nodes that
+	 * no part of the batch reaches are never visited. Trees that must maintain
+	 * a balance condition override this method to restore it.
+	 * 
+	 * <h1>Preconditions</h1>
 	 * <ol>
-	 * <li>The tree is balanced</li>
+	 * <li>The array is sorted in ascending order</li>
 	 * </ol>
 	 * 
-	 * @author Dr. Richard Stansbury, Embry-Riddle Aeronautical University
-	 * 
-	 * @param data
-	 *            An array containing the data to be inserted into the tree.
-	 * @param first
-	 *            Index of the first element in the array.
-	 * @param last
-	 *            Index of the last element in the array.
+	 * @param sortedData
+	 *            The sorted data to splice into the tree.
+	 * @return
+	 *         The depth of the deepest node linked by the splice, or 0 if the
+	 *         tree keeps itself balanced.
 	 */
-	private void balanceWithStoredArray (T[] data, int first, int last) {
+	protected int splice (T[] sortedData) {
+
+		if (this.rootNode == null) {
+			this.rootNode = this.buildBalanced(sortedData, 0, sortedData.length - 1);
+			return balancedHeight(sortedData.length);
+		}
+
+		// The subtrees still to be spliced, each with the range of the batch
+		// that belongs in it and the depth of its root
+		Deque<BinaryTreeNode<T>> nodes = new ArrayDeque<BinaryTreeNode<T>>();
+		Deque<int[]> ranges = new ArrayDeque<int[]>();
+		nodes.push(this.rootNode);
+		ranges.push(new int[] { 0, sortedData.length - 1, 1 });
+		int deepest = 0;
+
+		while (!nodes.isEmpty()) {
 
-		// Variable to store the middle index
-		int middle = 0;
+			BinaryTreeNode<T> node = nodes.pop();
+			int[] range = ranges.pop();
+			int first = range[0];
+			int last = range[1];
+			int depth = range[2];
 
-		if (first <= last) {
-			// The first index is less than or equal to the last index
+			// The whole range is added to the subtree of the node
+			node.setSize(node.getSize() + (last - first + 1));
 
-			// Insert the middle element into the tree
-			middle = (int) ((first + last) / 2);
-			this.insert(data[middle]);
+			// Find the first data of the range that belongs in the right
+			// subtree (data equal to the node belongs in the left subtree)
+			int low = first;
+			int high = last + 1;
 
-			// Recursively perform the insertions on the left and right portions
-			// of the remaining elements in the array
-			this.balanceWithStoredArray(data, first, middle - 1);
-			this.balanceWithStoredArray(data, middle + 1, last);
+			while (low < high) {
+
+				int middle = (low + high) >>> 1;
+
+				if (this.compare(sortedData[middle], node.getData()) <= 0) {
+					low = middle + 1;
+				}
+				else {
+					high = middle;
+				}
+			}
+
+			if (first < low) {
+				if (node.getLeftNode() == null) {
+					node.setLeftNode(this.buildBalanced(sortedData, first, low - 1));
+					deepest = Math.max(deepest, depth + balancedHeight(low - first));
+				}
+				else {
+					nodes.push(node.getLeftNode());
+					ranges.push(new int[] { first, low - 1, depth + 1 });
+				}
+			}
+
+			if (low <= last) {
+				if (node.getRightNode() == null) {
+					node.setRightNode(this.buildBalanced(sortedData, low, last));
+					deepest = Math.max(deepest, depth + balancedHeight(last - low + 1));
+				}
+				else {
+					nodes.push(node.getRightNode());
+					ranges.push(new int[] { low, last, depth + 1 });
+				}
+			}
 		}
 
+		return deepest;
 	}
 
 	/**
-	 * Checks if the target data provided is found within the binary tree.
+	 * Obtains the height of a balanced subtree of the provided number of
+	 * nodes, as linked by {@link #buildBalanced(Comparable[], int, int)}.
 	 * 
-	 * @param target
-	 *            The data to search for in the tree.
+	 * @param count
+	 *            The number of nodes of the subtree.
 	 * @return
-	 *         True if the target data is found in the tree; false if the target
-	 *         data is not found in the tree.
+	 *         The height of the subtree.
 	 */
-	public boolean isInTree (T target) {
+	private static int balancedHeight (int count) {
+		return 32 - Integer.numberOfLeadingZeros(count);
+	}
 
-		// Check if the target is in the tree
-		return this.isInTree(this.rootNode, target);
+	/**
+	 * Checks if a bulk operation on the provided number of elements is cheaper
+	 * to perform by rebuilding the tree, which visits every node once, than by
+	 * descending the tree for each element. A descent visits about log2(n)
+	 * nodes, so the tree is rebuilt once the number of elements exceeds
+	 * n / log2(n).
+	 * 
+	 * @param count
+	 *            The number of elements of the bulk operation.
+	 * @return
+	 *         True if the tree should be rebuilt.
+	 */
+	protected boolean prefersRebuild (int count) {
+
+		int log = 32 - Integer.numberOfLeadingZeros(this.size);
+
+		return (long) count * log > this.size;
 	}
 
 	/**
-	 * Helper method that is used to recursively check if a target is in the
-	 * binary tree.
+	 * Unlinks a single occurrence of the provided data from the tree, without
+	 * changing the size of the tree, in a single descent. A node with two
+	 * children takes the data of its successor (the smallest node of its
+	 * right subtree), and the successor is unlinked in its place. Trees that
+	 * must maintain a balance condition override this method to restore it.
 	 * 
-	 * @param rootNode
-	 *            The root node that is being searched for the target data.
-	 * @param target
-	 *            The data to search for in the tree.
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>The tree is not empty</li>
+	 * <li>The tree contains no tombstones</li>
+	 * </ol>
+	 * 
+	 * @param data
+	 *            The data to unlink from the tree.
 	 * @return
-	 *         True if the target data is found in the tree; false if the target
-	 *         data is not found in the tree.
+	 *         True if the data was found and unlinked; false if the data is
+	 *         not in the tree.
 	 */
-	private boolean isInTree (BinaryTreeNode<T> rootNode, T target) {
+	protected boolean delete (T data) {
+
+		BinaryTreeNode<T> parent = null;
+		BinaryTreeNode<T> current = this.rootNode;
+
+		while (current != null) {
+
+			// The node is removed from the subtree of every node on its path
+			current.setSize(current.getSize() - 1);
+
+			int comparison = this.compare(data, current.getData());
+
+			if (comparison == 0) {
+				break;
+			}
+
+			parent = current;
+			current = (comparison < 0) ? current.getLeftNode() : current.getRightNode();
+		}
+
+		if (current == null) {
+			// The data is not in the tree, so the sizes along its search path
+			// are restored
+			for (current = this.rootNode; current != null;) {
+				current.setSize(current.getSize() + 1);
+				current = (this.compare(data, current.getData()) < 0) ? current.getLeftNode() : current.getRightNode();
+			}
 
-		if (rootNode == null) {
-			// The current node is null (base case)
 			return false;
 		}
-		else if (target.compareTo(rootNode.getData()) == 0) {
-			// The data being searched for is found at the current node
+
+		BinaryTreeNode<T> replacement;
+
+		if (current.getLeftNode() == null) {
+			replacement = current.getRightNode();
+		}
+		else if (current.getRightNode() == null) {
+			replacement = current.getLeftNode();
+		}
+		else {
+			// Move the data of the successor into the node and unlink the
+			// successor, which has no left child
+			BinaryTreeNode<T> successorParent = current;
+			BinaryTreeNode<T> successor = current.getRightNode();
+
+			while (successor.getLeftNode() != null) {
+				successor.setSize(successor.getSize() - 1);
+				successorParent = successor;
+				successor = successor.getLeftNode();
+			}
+
+			current.setData(successor.getData());
+
+			if (successorParent == current) {
+				current.setRightNode(successor.getRightNode());
+			}
+			else {
+				successorParent.setLeftNode(successor.getRightNode());
+			}
+
 			return true;
 		}
-		else if (target.compareTo(rootNode.getData()) < 0) {
-			// The data being searched for is less than the current data;
-			// therefore, recurse down the left side of the binary tree
-			return this.isInTree(rootNode.getLeftNode(), target);
+
+		// Link the only child of the node in its place
+		if (parent == null) {
+			this.rootNode = replacement;
 		}
-		else if (target.compareTo(rootNode.getData()) > 0) {
-			// The data being searched for is greater than the current data;
-			// therefore, recurse down the right side of the binary tree
-			return this.isInTree(rootNode.getRightNode(), target);
+		else if (parent.getLeftNode() == current) {
+			parent.setLeftNode(replacement);
 		}
 		else {
-			// In all other cases, return false; this is done to ensure there is
-			// a boolean value returned in all cases
-			return false;
+			parent.setRightNode(replacement);
 		}
+
+		return true;
 	}
 
 	/**
-	 * Insert data into the binary tree.
+	 * Marks a single live occurrence of the provided data as a tombstone,
+	 * compacting the tree if the fraction of tombstones exceeds the
+	 * compaction threshold. The live occurrence is located by its rank, since
+	 * a tombstone equal to the data may lie on the search path to it.
 	 * 
 	 * @param data
-	 *            The data to insert into the binary tree.
+	 *            The data to remove from the tree.
+	 * @return
+	 *         True if the data was found and removed; false if the data is not
+	 *         in the tree.
 	 */
-	public void insert (T data) {
+	private boolean removeLazily (T data) {
 
-		// Insert the data into the tree
-		this.rootNode = this.insert(this.rootNode, data);
+		int index = this.countBelow(data, false);
 
-		// Increment the size of the tree
-		this.size++;
+		if (this.countBelow(data, true) == index) {
+			// There is no live occurrence of the data
+			return false;
+		}
+
+		BinaryTreeNode<T> current = this.rootNode;
+
+		while (true) {
+
+			int leftSize = BinaryTreeNode.size(current.getLeftNode());
+
+			// The data is removed from the subtree of every node on its path
+			current.setSize(current.getSize() - 1);
+
+			if (index < leftSize) {
+				current = current.getLeftNode();
+			}
+			else if (index == leftSize && !current.isDeleted()) {
+				current.setDeleted(true);
+				break;
+			}
+			else {
+				index -= leftSize + (current.isDeleted() ? 0 : 1);
+				current = current.getRightNode();
+			}
+		}
+
+		this.size--;
+		this.tombstones++;
+		this.modCount++;
+
+		if (this.tombstones > this.compactionThreshold * (this.size + this.tombstones)) {
+			// Too much of the tree is dead
+			this.compact();
+		}
+
+		return true;
 	}
 
 	/**
-	 * Helper method used to insert data into the binary search tree.
+	 * Enables or disables lazy deletion. While lazy deletion is enabled, a
+	 * removal marks the node holding its data as a tombstone, which costs a
+	 * single descent and leaves the structure of the tree untouched. Once the
+	 * tombstones make up more than the provided fraction of the nodes of the
+	 * tree, the tree is compacted: the live data is linked into a new balanced
+	 * tree in linear time, so the cost of compaction is amortized over the
+	 * removals that preceded it. Disabling lazy deletion compacts the tree.
+	 * 
+	 * @param threshold
+	 *            The largest fraction of the nodes of the tree that may be
+	 *            tombstones, greater than 0 and at most 1, or 0 to disable lazy
+	 *            deletion (the default).
+	 * @throws IllegalArgumentException
+	 *             If the threshold is not between 0 and 1.
+	 */
+	public void setCompactionThreshold (double threshold) {
+
+		if (!(threshold >= 0 && threshold <= 1)) {
+			throw new IllegalArgumentException("Compaction threshold must be between 0 and 1: " + threshold);
+		}
+
+		this.compactionThreshold = threshold;
+
+		if (threshold == 0) {
+			// Removals unlink their nodes from now on
+			this.compact();
+		}
+	}
+
+	/**
+	 * Obtains the compaction threshold of the tree (see
+	 * {@link #setCompactionThreshold(double)}).
 	 * 
-	 * @param rootNode
-	 *            The root node to compare data with the supplied data.
-	 * @param data
-	 *            The data to add to the binary tree.
 	 * @return
-	 *         The node that was added, or the current node (supplied as a
-	 *         parameter) if no node was added.
+	 *         The largest fraction of the nodes of the tree that may be
+	 *         tombstones, or 0 if lazy deletion is disabled.
 	 */
-	private BinaryTreeNode<T> insert (BinaryTreeNode<T> rootNode, T data) {
+	public double getCompactionThreshold () {
+		return this.compactionThreshold;
+	}
 
-		if (rootNode == null) {
-			// The current node should hold the data but has not been created
-			rootNode = new BinaryTreeNode<T>(data);
-			return rootNode;
+	/**
+	 * Returns the number of tombstones (lazily deleted nodes) currently linked
+	 * into the tree.
+	 * 
+	 * @return
+	 *         The number of tombstones in the tree.
+	 */
+	public int tombstones () {
+		return this.tombstones;
+	}
+
+	/**
+	 * Removes every tombstone from the tree, linking the live data into a new
+	 * balanced tree.
+	 * 
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The tree contains no tombstones</li>
+	 * <li>The tree is balanced</li>
+	 * </ol>
+	 */
+	public void compact () {
+
+		if (this.tombstones == 0) {
+			// There is nothing to remove
+			return;
+		}
+
+		long start = TreeMetrics.ENABLED ? System.nanoTime() : 0;
+
+		this.rootNode = this.buildBalanced(this.toSortedArray(), 0, this.size - 1);
+		this.tombstones = 0;
+		this.modCount++;
+
+		if (TreeMetrics.ENABLED) {
+			this.metrics.recordRebalance(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * A task that links a range of a sorted array into a balanced subtree,
+	 * linking the left and right subtrees of a large range in parallel.
+	 */
+	private final class LinkTask extends RecursiveTask<BinaryTreeNode<T>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final T[] data;
+		private final int first;
+		private final int last;
+
+		private LinkTask (T[] data, int first, int last) {
+			this.data = data;
+			this.first = first;
+			this.last = last;
 		}
-		else if (data.compareTo(rootNode.getData()) <= 0) {
-			// The data being added is less then or equal to the data at the
-			// current node and should be added to the left subtree
-			rootNode.setLeftNode(this.insert(rootNode.getLeftNode(), data));
+
+		@Override
+		protected BinaryTreeNode<T> compute () {
+
+			if (this.last - this.first + 1 < PARALLEL_THRESHOLD) {
+				// Link a small range sequentially
+				return BinaryTree.this.linkBalanced(this.data, this.first, this.last);
+			}
+
+			int middle = (this.first + this.last) >>> 1;
+			LinkTask left = new LinkTask(this.data, this.first, middle - 1);
+			left.fork();
+			BinaryTreeNode<T> right = new LinkTask(this.data, middle + 1, this.last).compute();
+
+			return BinaryTree.this.createNode(this.data[middle], left.join(), right);
 		}
-		else if (data.compareTo(rootNode.getData()) > 0) {
-			// The data being added is greater than the data at the current node
-			// and should be added to the right subtree
-			rootNode.setRightNode(this.insert(rootNode.getRightNode(), data));
+	}
+
+	/**
+	 * A task that fills a range of an array with the data of a subtree,
+	 * filling the ranges of the left and right subtrees of a large subtree in
+	 * parallel.
+	 */
+	private final class FillTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final BinaryTreeNode<T> node;
+		private final T[] array;
+		private final int offset;
+
+		private FillTask (BinaryTreeNode<T> node, T[] array, int offset) {
+			this.node = node;
+			this.array = array;
+			this.offset = offset;
 		}
 
-		// In all other cases, return the current node
-		return rootNode;
+		@Override
+		protected void compute () {
+
+			if (BinaryTreeNode.size(this.node) < PARALLEL_THRESHOLD) {
+				// Fill the range of a small subtree sequentially
+				BinaryTree.this.inOrderArrayConversion(this.node, this.array, this.offset);
+				return;
+			}
+
+			// The data of the node follows the data of its left subtree
+			int middle = this.offset + BinaryTreeNode.size(this.node.getLeftNode());
+
+			if (!this.node.isDeleted()) {
+				this.array[middle++] = this.node.getData();
+			}
+
+			invokeAll(new FillTask(this.node.getLeftNode(), this.array, this.offset), new FillTask(this.node.getRightNode(), this.array, middle));
+		}
+	}
+
+	/**
+	 * A lazy, fail-fast iterator over a range of ranks of the tree, in
+	 * ascending or descending order. The iterator holds the nodes whose data
+	 * is yet to be returned along the path from the root to its next element.
+	 */
+	private final class TreeIterator implements Iterator<T> {
+
+		private final Deque<BinaryTreeNode<T>> path = new ArrayDeque<BinaryTreeNode<T>>();
+		private final boolean descending;
+		private final int expectedModCount;
+		private int remaining;
+
+		/**
+		 * Creates an iterator over the elements whose rank is at least the
+		 * origin and less than the fence.
+		 */
+		private TreeIterator (int origin, int fence, boolean descending, int expectedModCount) {
+
+			this.descending = descending;
+			this.expectedModCount = expectedModCount;
+			this.remaining = Math.max(0, fence - origin);
+
+			if (this.remaining > 0) {
+				this.seek(descending ? fence - 1 : origin);
+			}
+		}
+
+		/**
+		 * Descends to the element of the provided rank, keeping the nodes that
+		 * follow it (in the order of the iterator) along the way.
+		 */
+		private void seek (int index) {
+
+			BinaryTreeNode<T> current = BinaryTree.this.rootNode;
+
+			while (true) {
+
+				int leftSize = BinaryTreeNode.size(current.getLeftNode());
+
+				if (index == leftSize && !current.isDeleted()) {
+					// The element is preceded by exactly the left subtree
+					this.path.push(current);
+					return;
+				}
+				else if (index < leftSize) {
+					// The current node follows the element in ascending order
+					if (!this.descending) {
+						this.path.push(current);
+					}
+
+					current = current.getLeftNode();
+				}
+				else {
+					// The current node follows the element in descending order
+					if (this.descending) {
+						this.path.push(current);
+					}
+
+					index -= leftSize + (current.isDeleted() ? 0 : 1);
+					current = current.getRightNode();
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext () {
+			return this.remaining > 0;
+		}
+
+		@Override
+		public T next () {
+
+			if (this.remaining == 0) {
+				throw new NoSuchElementException();
+			}
+
+			if (BinaryTree.this.modCount != this.expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+
+			BinaryTreeNode<T> node;
+
+			do {
+				node = this.path.pop();
+
+				if (node.isDeleted() || --this.remaining > 0) {
+					// Descend to the next element through the subtree on the
+					// far side of the node (skipping over any tombstone)
+					BinaryTreeNode<T> current = this.descending ? node.getLeftNode() : node.getRightNode();
+
+					while (current != null) {
+						this.path.push(current);
+						current = this.descending ? current.getRightNode() : current.getLeftNode();
+					}
+				}
+			}
+			while (node.isDeleted());
+
+			return node.getData();
+		}
+	}
+
+	/**
+	 * A spliterator over a range of ranks of the tree, in ascending order. The
+	 * range is split in half until traversal starts, and each half positions
+	 * its own iterator by rank when it is first advanced.
+	 */
+	private final class TreeSpliterator implements Spliterator<T> {
+
+		private final int fence;
+		private final int expectedModCount;
+		private int origin;
+		private TreeIterator iterator;
+
+		private TreeSpliterator (int origin, int fence, int expectedModCount) {
+			this.origin = origin;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+
+		/**
+		 * Obtains the iterator over the range, creating it on first use.
+		 */
+		private TreeIterator iterator () {
+
+			if (this.iterator == null) {
+				this.iterator = new TreeIterator(this.origin, this.fence, false, this.expectedModCount);
+			}
+
+			return this.iterator;
+		}
+
+		@Override
+		public boolean tryAdvance (Consumer<? super T> action) {
+
+			TreeIterator iterator = this.iterator();
+
+			if (!iterator.hasNext()) {
+				return false;
+			}
+
+			action.accept(iterator.next());
+
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining (Consumer<? super T> action) {
+
+			TreeIterator iterator = this.iterator();
+
+			while (iterator.hasNext()) {
+				action.accept(iterator.next());
+			}
+		}
+
+		@Override
+		public Spliterator<T> trySplit () {
+
+			if (this.iterator != null || this.fence - this.origin < 2) {
+				// Traversal has started, or the range is too small to split
+				return null;
+			}
+
+			// Hand the lower half of the range to a new spliterator
+			int middle = (this.origin + this.fence) >>> 1;
+			TreeSpliterator prefix = new TreeSpliterator(this.origin, middle, this.expectedModCount);
+			this.origin = middle;
+
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize () {
+			return (this.iterator == null) ? this.fence - this.origin : this.iterator.remaining;
+		}
+
+		@Override
+		public int characteristics () {
+			return Spliterator.ORDERED | Spliterator.SORTED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+		}
+
+		@Override
+		public Comparator<? super T> getComparator () {
+
+			// The elements are sorted in the order of the tree
+			return BinaryTree.this.comparator;
+		}
+	}
+
+	/**
+	 * A view of the elements of the tree within an inclusive range. The ranks
+	 * of the bounds are found each time the view is traversed, so the view
+	 * reflects the current contents of the tree.
+	 */
+	private final class Range implements Iterable<T> {
+
+		private final T from;
+		private final T to;
+
+		private Range (T from, T to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Iterator<T> iterator () {
+			return this.spliterator().iterator();
+		}
+
+		@Override
+		public TreeSpliterator spliterator () {
+
+			if (BinaryTree.this.compare(this.from, this.to) > 0) {
+				// The range is empty
+				return new TreeSpliterator(0, 0, BinaryTree.this.modCount);
+			}
+
+			return new TreeSpliterator(BinaryTree.this.countBelow(this.from, false), BinaryTree.this.countBelow(this.to, true), BinaryTree.this.modCount);
+		}
 	}
 }
@@ -14,6 +14,9 @@ public class BinaryTreeNode<T extends Comparable<T>> {
 	private T data;
 	private BinaryTreeNode<T> leftNode;
 	private BinaryTreeNode<T> rightNode;
+	private int height;
+	private int size;
+	private boolean deleted;
 
 	/***************************************************************************
 	 * Constructors
@@ -27,8 +30,11 @@ public class BinaryTreeNode<T extends Comparable<T>> {
 	 */
 	public BinaryTreeNode (T data) {
 
-		// Set the data for this node
+		// Set the data for this node (a new node is a leaf, of height 1 and
+		// size 1)
 		this.data = data;
+		this.height = 1;
+		this.size = 1;
 	}
 
 	/**
@@ -50,6 +56,10 @@ public class BinaryTreeNode<T extends Comparable<T>> {
 		// Set the left and right nodes of the binary tree node
 		this.leftNode = left;
 		this.rightNode = right;
+
+		// Cache the height and size of the subtree rooted at this node
+		this.updateHeight();
+		this.updateSize();
 	}
 
 	/***************************************************************************
@@ -85,4 +95,101 @@ public class BinaryTreeNode<T extends Comparable<T>> {
 	public BinaryTreeNode<T> getRightNode () {
 		return this.rightNode;
 	}
+
+	/**
+	 * Obtains the cached height of the subtree rooted at this node. The cached
+	 * height is only kept up to date by trees that maintain it on every
+	 * structural change (such as {@link AVLTree}); a plain
+	 * {@link BinaryTree} does not rely on this value.
+	 * 
+	 * @return
+	 *         The cached height of the subtree rooted at this node (a leaf
+	 *         has a height of 1).
+	 */
+	public int getHeight () {
+		return this.height;
+	}
+
+	public void setHeight (int height) {
+		this.height = height;
+	}
+
+	/**
+	 * Recomputes the cached height of this node from the cached heights of
+	 * its children.
+	 * 
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>The cached heights of the left and right nodes are up to date</li>
+	 * </ol>
+	 */
+	public void updateHeight () {
+
+		// Obtain the heights of the children (an absent child has height 0)
+		int leftHeight = (this.leftNode == null) ? 0 : this.leftNode.height;
+		int rightHeight = (this.rightNode == null) ? 0 : this.rightNode.height;
+
+		// A 1 is added to the maximum in order to count the current node
+		this.height = 1 + Math.max(leftHeight, rightHeight);
+	}
+
+	/**
+	 * Obtains the number of live (not deleted) nodes in the subtree rooted at
+	 * this node. Every tree keeps the size of each subtree up to date on every
+	 * structural change, which allows the order statistics of the tree (see
+	 * {@link BinaryTree#rank(Comparable)} and {@link BinaryTree#select(int)})
+	 * to be computed by a single descent.
+	 * 
+	 * @return
+	 *         The number of live nodes in the subtree rooted at this node.
+	 */
+	public int getSize () {
+		return this.size;
+	}
+
+	public void setSize (int size) {
+		this.size = size;
+	}
+
+	/**
+	 * Recomputes the size of the subtree rooted at this node from the sizes of
+	 * its children.
+	 * 
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>The sizes of the left and right nodes are up to date</li>
+	 * </ol>
+	 */
+	public void updateSize () {
+		this.size = (this.deleted ? 0 : 1) + size(this.leftNode) + size(this.rightNode);
+	}
+
+	/**
+	 * Checks if the node has been deleted lazily (see
+	 * {@link BinaryTree#setCompactionThreshold(double)}). A deleted node, or
+	 * tombstone, remains linked into the tree to keep its structure intact,
+	 * but its data is no longer part of the tree.
+	 * 
+	 * @return
+	 *         True if the node is a tombstone; false if its data is live.
+	 */
+	public boolean isDeleted () {
+		return this.deleted;
+	}
+
+	public void setDeleted (boolean deleted) {
+		this.deleted = deleted;
+	}
+
+	/**
+	 * Obtains the size of a subtree.
+	 * 
+	 * @param node
+	 *            The root of the subtree.
+	 * @return
+	 *         The number of nodes in the subtree, or 0 if the subtree is empty.
+	 */
+	static int size (BinaryTreeNode<?> node) {
+		return (node == null) ? 0 : node.size;
+	}
 }
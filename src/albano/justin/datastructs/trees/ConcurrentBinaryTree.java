@@ -0,0 +1,384 @@
+package albano.justin.datastructs.trees;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A thread-safe view of a {@link BinaryTree} (or any of its subclasses), which
+ * guards the tree with a {@link StampedLock}. Modifications of the tree hold
+ * the write lock, while {@link #isInTree(Comparable)}, {@link #size()} and
+ * {@link #height()} first read the tree optimistically, without acquiring any
+ * lock, and only fall back to the read lock if a modification overlapped the
+ * read. Readers therefore never block one another, and a read-mostly workload
+ * scales with the number of threads reading the tree.
+ *
+ * <p>
+ * An optimistic read may observe the tree in the middle of a modification, so
+ * it is bounded (it never visits more nodes than the tree holds) and any
+ * exception it raises is discarded; in either case the overlapping
+ * modification invalidates the read, which is then repeated under the read
+ * lock.
+ * </p>
+ *
+ * <p>
+ * The wrapped tree must not be accessed other than through this view.
+ * </p>
+ *
+ * @author Justin Albano
+ */
+public class ConcurrentBinaryTree<T extends Comparable<T>> {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	private final BinaryTree<T> tree;
+	private final StampedLock lock;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates a default, empty tree of data.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 */
+	public ConcurrentBinaryTree (Class<T> dataType) {
+		this(new BinaryTree<T>(dataType));
+	}
+
+	/**
+	 * Creates a thread-safe view of the provided tree.
+	 *
+	 * @param tree
+	 *            The tree to guard, which must not be accessed other than
+	 *            through this view.
+	 * @throws IllegalArgumentException
+	 *             If the tree restructures itself on lookups (a
+	 *             {@link SplayTree}), which cannot be shared by readers.
+	 */
+	public ConcurrentBinaryTree (BinaryTree<T> tree) {
+
+		if (tree instanceof SplayTree) {
+			throw new IllegalArgumentException("A splay tree cannot be read concurrently");
+		}
+
+		this.tree = tree;
+		this.lock = new StampedLock();
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Returns number of elements currently stored in the tree.
+	 *
+	 * @return
+	 *         The number of elements currently stored in the tree.
+	 */
+	public int size () {
+
+		long stamp = this.lock.tryOptimisticRead();
+		int size = this.tree.size;
+
+		if (this.lock.validate(stamp)) {
+			return size;
+		}
+
+		stamp = this.lock.readLock();
+
+		try {
+			return this.tree.size();
+		}
+		finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Obtains a snapshot of the counters of the tree (see
+	 * {@link BinaryTree#stats()}), which counts the optimistic lookups as
+	 * well as those made under the lock. The counters are read without
+	 * locking the tree.
+	 *
+	 * @return
+	 *         A snapshot of the counters of the tree.
+	 */
+	public TreeStats stats () {
+		return this.tree.stats();
+	}
+
+	/**
+	 * Obtains the height of the tree.
+	 *
+	 * @return
+	 *         The height of the tree.
+	 */
+	public int height () {
+
+		long stamp = this.lock.tryOptimisticRead();
+
+		if (stamp != 0) {
+
+			try {
+				// Visit no more nodes than the tree holds, so that a traversal
+				// of a tree that is being modified terminates
+				int height = this.tree.height(this.tree.size);
+
+				if (height >= 0 && this.lock.validate(stamp)) {
+					return height;
+				}
+			}
+			catch (RuntimeException e) {
+				// The tree was modified during the read
+			}
+		}
+
+		stamp = this.lock.readLock();
+
+		try {
+			return this.tree.height();
+		}
+		finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Checks if the target data provided is found within the tree.
+	 *
+	 * @param target
+	 *            The data to search for in the tree.
+	 * @return
+	 *         True if the target data is found in the tree; false if the target
+	 *         data is not found in the tree.
+	 */
+	public boolean isInTree (T target) {
+
+		long stamp = this.lock.tryOptimisticRead();
+
+		if (stamp != 0) {
+
+			try {
+				long start = TreeMetrics.ENABLED ? this.tree.metrics.startLookup() : 0;
+				int found = this.search(target);
+
+				if (found >= 0 && this.lock.validate(stamp)) {
+
+					if (TreeMetrics.ENABLED) {
+						this.tree.metrics.recordLookup(found >>> 1, start);
+					}
+
+					return (found & 1) == 1;
+				}
+			}
+			catch (RuntimeException e) {
+				// The tree was modified during the read
+			}
+		}
+
+		stamp = this.lock.readLock();
+
+		try {
+			return this.tree.isInTree(target);
+		}
+		finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Searches the tree for the target without holding a lock. The search
+	 * descends no further than the number of nodes in the tree.
+	 *
+	 * @param target
+	 *            The data to search for in the tree.
+	 * @return
+	 *         The number of comparisons made by the search, shifted left by
+	 *         1 and with the lowest bit set if the target was found, or -1 if
+	 *         the search was abandoned.
+	 */
+	private int search (T target) {
+
+		if (this.tree.tombstones > 0) {
+			// A tombstone on the path may hide live data, so the search must
+			// count the data under the read lock
+			return -1;
+		}
+
+		BinaryTreeNode<T> current = this.tree.rootNode;
+		int comparisons = 0;
+
+		for (int remaining = this.tree.size; current != null; remaining--) {
+
+			if (remaining == 0) {
+				// The path is longer than the tree is large
+				return -1;
+			}
+
+			int comparison = this.tree.compare(target, current.getData());
+			comparisons++;
+
+			if (comparison == 0) {
+				return (comparisons << 1) | 1;
+			}
+
+			current = (comparison < 0) ? current.getLeftNode() : current.getRightNode();
+		}
+
+		return comparisons << 1;
+	}
+
+	/**
+	 * Checks if the tree is balanced.
+	 *
+	 * @return
+	 *         True if the tree is balanced, and false if it is not.
+	 */
+	public boolean isBalanced () {
+
+		long stamp = this.lock.readLock();
+
+		try {
+			return this.tree.isBalanced();
+		}
+		finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Insert data into the tree, excluding every other access to the tree.
+	 *
+	 * @param data
+	 *            The data to insert into the tree.
+	 */
+	public void insert (T data) {
+
+		long stamp = this.lock.writeLock();
+
+		try {
+			this.tree.insert(data);
+		}
+		finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Removes a single occurrence of the provided data from the tree,
+	 * excluding every other access to the tree.
+	 *
+	 * @param data
+	 *            The data to remove from the tree.
+	 * @return
+	 *         True if the data was found and removed; false otherwise.
+	 */
+	public boolean remove (T data) {
+
+		long stamp = this.lock.writeLock();
+
+		try {
+			return this.tree.remove(data);
+		}
+		finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Removes every occurrence of each of the provided data from the tree,
+	 * excluding every other access to the tree.
+	 *
+	 * @param data
+	 *            The data to remove from the tree.
+	 * @return
+	 *         True if any data was removed from the tree.
+	 */
+	public boolean removeAll (Collection<? extends T> data) {
+
+		long stamp = this.lock.writeLock();
+
+		try {
+			return this.tree.removeAll(data);
+		}
+		finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Balances the tree, excluding every other access to the tree.
+	 */
+	public void rebalance () {
+
+		long stamp = this.lock.writeLock();
+
+		try {
+			this.tree.rebalance();
+		}
+		finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Obtains a sorted array of the data contained within the tree.
+	 *
+	 * @return
+	 *         A sorted array of the data contained within the tree.
+	 */
+	public T[] toSortedArray () {
+
+		long stamp = this.lock.readLock();
+
+		try {
+			return this.tree.toSortedArray();
+		}
+		finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Obtains a sorted list of the data contained within the tree.
+	 *
+	 * @return
+	 *         A sorted list of the data contained within the tree.
+	 */
+	public List<T> toSortedList () {
+
+		long stamp = this.lock.readLock();
+
+		try {
+			return this.tree.toSortedList();
+		}
+		finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Obtains an immutable snapshot of the data contained within the tree (see
+	 * {@link BinaryTree#freeze()}), which can be searched by any number of
+	 * threads without locking.
+	 *
+	 * @return
+	 *         A snapshot of the data contained within the tree.
+	 */
+	public FrozenBinaryTree<T> freeze () {
+
+		long stamp = this.lock.readLock();
+
+		try {
+			return this.tree.freeze();
+		}
+		finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+}
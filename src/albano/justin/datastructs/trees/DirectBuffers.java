@@ -0,0 +1,97 @@
+package albano.justin.datastructs.trees;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases the memory of direct (and memory-mapped) buffers without waiting
+ * for the garbage collector to reclaim them. The Java platform offers no
+ * public means of doing so, so the buffer is released through
+ * <code>sun.misc.Unsafe.invokeCleaner</code> (Java 9 and later) or through the
+ * cleaner of the buffer (Java 8). If neither is available, the memory is left
+ * to be reclaimed once the buffer is garbage collected.
+ *
+ * @author Justin Albano
+ */
+final class DirectBuffers {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	private static final Object UNSAFE;
+	private static final Method INVOKE_CLEANER;
+
+	static {
+
+		Object unsafe = null;
+		Method invokeCleaner = null;
+
+		try {
+			// Obtain the invokeCleaner method of the Unsafe singleton (Java 9+)
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			unsafe = theUnsafe.get(null);
+			invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			// Fall back to the cleaner of the buffer
+			invokeCleaner = null;
+		}
+
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = invokeCleaner;
+	}
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	private DirectBuffers () {}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Releases the memory of a direct buffer. The buffer must not be accessed
+	 * after it is released.
+	 *
+	 * @param buffer
+	 *            The buffer to release.
+	 * @return
+	 *         True if the memory was released; false if it is left to the
+	 *         garbage collector.
+	 */
+	static boolean release (ByteBuffer buffer) {
+
+		if (buffer == null || !buffer.isDirect()) {
+			return false;
+		}
+
+		try {
+
+			if (INVOKE_CLEANER != null) {
+				INVOKE_CLEANER.invoke(UNSAFE, buffer);
+				return true;
+			}
+
+			// Invoke the cleaner of the buffer (Java 8)
+			Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(buffer);
+
+			if (cleaner != null) {
+				cleaner.getClass().getMethod("clean").invoke(cleaner);
+				return true;
+			}
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			// Leave the buffer to the garbage collector
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,147 @@
+package albano.justin.datastructs.trees;
+
+/**
+ * Navigates the Eytzinger layout of a sorted array, in which the data is
+ * stored in the breadth-first order of a complete binary search tree: the root
+ * is stored at index 1, and the children of the node at index <code>k</code>
+ * are stored at indices <code>2k</code> and <code>2k + 1</code>. Index 0 is
+ * unused, and denotes the absence of a node.
+ *
+ * <p>
+ * A search of the layout descends a fixed number of levels, computing the next
+ * index arithmetically from the result of each comparison, so it has no
+ * unpredictable branches, and the nodes of the first levels of every search
+ * share a few cache lines.
+ * </p>
+ *
+ * <h1>Citations</h1>
+ * <ul>
+ * <li>The layout and its search are based on Khuong and Morin, Array Layouts
+ * for Comparison-Based Searching (2017)</li>
+ * </ul>
+ *
+ * @author Justin Albano
+ */
+final class Eytzinger {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	/**
+	 * The largest number of data that can be laid out, so that the index of a
+	 * search never overflows.
+	 */
+	static final int MAX_SIZE = (1 << 30) - 1;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	private Eytzinger () {}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Ensures that the provided number of data can be laid out.
+	 *
+	 * @param size
+	 *            The number of data.
+	 * @return
+	 *         The number of data.
+	 */
+	static int checkSize (int size) {
+
+		if (size > MAX_SIZE) {
+			throw new IllegalArgumentException("At most " + MAX_SIZE + " data can be frozen: " + size);
+		}
+
+		return size;
+	}
+
+	/**
+	 * Obtains the index of the smallest data of a layout.
+	 *
+	 * @param size
+	 *            The number of data in the layout.
+	 * @return
+	 *         The index of the smallest data, or 0 if the layout is empty.
+	 */
+	static int first (int size) {
+
+		if (size == 0) {
+			return 0;
+		}
+
+		// Descend as far left as possible
+		int index = 1;
+
+		while (index <= size >>> 1) {
+			index <<= 1;
+		}
+
+		return index;
+	}
+
+	/**
+	 * Obtains the index of the data that follows the data at the provided
+	 * index in sorted order.
+	 *
+	 * @param index
+	 *            The index of the current data.
+	 * @param size
+	 *            The number of data in the layout.
+	 * @return
+	 *         The index of the next data, or 0 if the current data is the
+	 *         largest.
+	 */
+	static int next (int index, int size) {
+
+		if (index <= (size - 1) >>> 1) {
+
+			// Descend as far left as possible in the right subtree
+			index = (index << 1) + 1;
+
+			while (index <= size >>> 1) {
+				index <<= 1;
+			}
+
+			return index;
+		}
+
+		// Ascend past every node of which the current node is a right
+		// descendant
+		return ancestor(index);
+	}
+
+	/**
+	 * Obtains the index at which a search of a layout ended, from the index it
+	 * reached beyond the leaves. Each step of the search appends a 1 bit to the
+	 * index when it moves right, so the search ended at the last node from
+	 * which it moved left: the index with its trailing 1 bits and the following
+	 * 0 bit removed.
+	 *
+	 * @param index
+	 *            The index reached beyond the leaves.
+	 * @return
+	 *         The index of the smallest data greater than or equal to the
+	 *         searched data, or 0 if there is none.
+	 */
+	static int ancestor (int index) {
+		return index >>> (Integer.numberOfTrailingZeros(~index) + 1);
+	}
+
+	/**
+	 * Obtains the height of a layout (the number of levels of its tree).
+	 *
+	 * @param size
+	 *            The number of data in the layout.
+	 * @return
+	 *         The height of the layout.
+	 */
+	static int height (int size) {
+		return 32 - Integer.numberOfLeadingZeros(size);
+	}
+}
@@ -0,0 +1,218 @@
+package albano.justin.datastructs.trees;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An immutable snapshot of a tree of data, stored in a single array in the
+ * Eytzinger (breadth-first) layout of a complete binary search tree (see
+ * {@link Eytzinger}). The snapshot holds no node objects, and a search of it
+ * always descends the same number of levels, computing the next position from
+ * each comparison rather than branching on it.
+ *
+ * <p>
+ * A snapshot is obtained from {@link BinaryTree#freeze()} or
+ * {@link ArrayBinaryTree#freeze()}, and suits data that is built once and then
+ * searched many times.
+ * </p>
+ *
+ * @author Justin Albano
+ */
+public class FrozenBinaryTree<T extends Comparable<T>> {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	private final Object[] keys;
+	private final Class<T> dataType;
+	private final int size;
+
+	/**
+	 * The ordering of the data in the snapshot, or null if the data is kept in
+	 * its natural order.
+	 */
+	private final Comparator<? super T> comparator;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates a snapshot of the data of the provided array. The provided array
+	 * is not modified.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the snapshot.
+	 * @param data
+	 *            An array of data to store in the snapshot.
+	 */
+	public FrozenBinaryTree (Class<T> dataType, T[] data) {
+		this(dataType, data, false);
+	}
+
+	/**
+	 * Creates a snapshot of the data of the provided array. The provided array
+	 * is not modified. If the data is already sorted, it is not sorted again.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the snapshot.
+	 * @param data
+	 *            An array of data to store in the snapshot.
+	 * @param sorted
+	 *            True if the data is already sorted in ascending order.
+	 */
+	public FrozenBinaryTree (Class<T> dataType, T[] data, boolean sorted) {
+		this(dataType, data, sorted, null);
+	}
+
+	/**
+	 * Creates a snapshot of the data of the provided array, ordered by the
+	 * provided comparator rather than by the natural order of the data. The
+	 * provided array is not modified. If the data is already sorted, it is not
+	 * sorted again.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the snapshot.
+	 * @param data
+	 *            An array of data to store in the snapshot.
+	 * @param sorted
+	 *            True if the data is already sorted in the order of the
+	 *            comparator.
+	 * @param comparator
+	 *            The comparator that orders the data of the snapshot, or null
+	 *            to keep the data in its natural order.
+	 */
+	public FrozenBinaryTree (Class<T> dataType, T[] data, boolean sorted, Comparator<? super T> comparator) {
+
+		this.dataType = dataType;
+		this.comparator = comparator;
+		this.size = (data == null) ? 0 : Eytzinger.checkSize(data.length);
+		this.keys = new Object[this.size + 1];
+
+		if (this.size > 0) {
+
+			T[] sortedData = data;
+
+			if (!sorted) {
+				sortedData = data.clone();
+				Arrays.sort(sortedData, comparator);
+			}
+
+			// Place the sorted data at the positions of an in-order traversal
+			// of the layout
+			int index = 0;
+
+			for (int k = Eytzinger.first(this.size); k != 0; k = Eytzinger.next(k, this.size)) {
+				this.keys[k] = sortedData[index++];
+			}
+		}
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Returns number of elements stored in the snapshot.
+	 *
+	 * @return
+	 *         The number of elements stored in the snapshot.
+	 */
+	public int size () {
+		return this.size;
+	}
+
+	/**
+	 * Obtains the height of the snapshot, which is the height of a complete
+	 * binary tree of its data.
+	 *
+	 * @return
+	 *         The height of the snapshot.
+	 */
+	public int height () {
+		return Eytzinger.height(this.size);
+	}
+
+	/**
+	 * Checks if the target data provided is found within the snapshot.
+	 *
+	 * @param target
+	 *            The data to search for in the snapshot.
+	 * @return
+	 *         True if the target data is found in the snapshot; false if the
+	 *         target data is not found in the snapshot.
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean isInTree (T target) {
+
+		int k = 1;
+
+		while (k <= this.size) {
+			// Move to the left child, or to the right child if the data at the
+			// current position is less than the target
+			k = 2 * k + ((this.compare(target, (T) this.keys[k]) > 0) ? 1 : 0);
+		}
+
+		k = Eytzinger.ancestor(k);
+
+		return k != 0 && this.compare(target, (T) this.keys[k]) == 0;
+	}
+
+	/**
+	 * Compares two pieces of data in the order of the snapshot.
+	 *
+	 * @param first
+	 *            The first piece of data.
+	 * @param second
+	 *            The second piece of data.
+	 * @return
+	 *         A negative number, zero or a positive number as the first piece
+	 *         of data is less than, equal to or greater than the second.
+	 */
+	private int compare (T first, T second) {
+		return (this.comparator == null) ? first.compareTo(second) : this.comparator.compare(first, second);
+	}
+
+	/**
+	 * Obtains a sorted array of the data contained within the snapshot.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>Returned array is sorted</li>
+	 * </ol>
+	 *
+	 * @return
+	 *         A sorted array of the data contained within the snapshot.
+	 */
+	@SuppressWarnings("unchecked")
+	public T[] toSortedArray () {
+
+		T[] array = (T[]) Array.newInstance(this.dataType, this.size);
+		int index = 0;
+
+		for (int k = Eytzinger.first(this.size); k != 0; k = Eytzinger.next(k, this.size)) {
+			array[index++] = (T) this.keys[k];
+		}
+
+		return array;
+	}
+
+	/**
+	 * Obtains a sorted list of the data contained within the snapshot.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>list is sorted</li>
+	 * </ol>
+	 *
+	 * @return
+	 *         A sorted list of the data contained within the snapshot.
+	 */
+	public List<T> toSortedList () {
+		return new ArrayList<T>(Arrays.asList(this.toSortedArray()));
+	}
+}
@@ -0,0 +1,148 @@
+package albano.justin.datastructs.trees;
+
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of a tree of primitive <code>double</code> keys, stored
+ * in a single array in the Eytzinger (breadth-first) layout of a complete
+ * binary search tree (see {@link Eytzinger}). A search always descends the same
+ * number of levels, computing the next position from each comparison rather
+ * than branching on it. A snapshot is obtained from
+ * {@link DoubleBinaryTree#freeze()}.
+ *
+ * <p>
+ * Keys are ordered by {@link Double#compare(double, double)}, as in
+ * {@link DoubleBinaryTree}.
+ * </p>
+ *
+ * @author Justin Albano
+ */
+public class FrozenDoubleTree {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	private final double[] keys;
+	private final int size;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates a snapshot of the keys of the provided array. The provided array
+	 * is not modified.
+	 *
+	 * @param data
+	 *            An array of keys to store in the snapshot.
+	 */
+	public FrozenDoubleTree (double[] data) {
+		this(data, false);
+	}
+
+	/**
+	 * Creates a snapshot of the keys of the provided array. The provided array
+	 * is not modified. If the keys are already sorted, they are not sorted
+	 * again.
+	 *
+	 * @param data
+	 *            An array of keys to store in the snapshot.
+	 * @param sorted
+	 *            True if the keys are already sorted in ascending order.
+	 */
+	public FrozenDoubleTree (double[] data, boolean sorted) {
+
+		this.size = (data == null) ? 0 : Eytzinger.checkSize(data.length);
+		this.keys = new double[this.size + 1];
+
+		if (this.size > 0) {
+
+			double[] sortedData = data;
+
+			if (!sorted) {
+				sortedData = data.clone();
+				Arrays.sort(sortedData);
+			}
+
+			// Place the sorted keys at the positions of an in-order traversal
+			// of the layout
+			int index = 0;
+
+			for (int k = Eytzinger.first(this.size); k != 0; k = Eytzinger.next(k, this.size)) {
+				this.keys[k] = sortedData[index++];
+			}
+		}
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Returns number of keys stored in the snapshot.
+	 *
+	 * @return
+	 *         The number of keys stored in the snapshot.
+	 */
+	public int size () {
+		return this.size;
+	}
+
+	/**
+	 * Obtains the height of the snapshot, which is the height of a complete
+	 * binary tree of its keys.
+	 *
+	 * @return
+	 *         The height of the snapshot.
+	 */
+	public int height () {
+		return Eytzinger.height(this.size);
+	}
+
+	/**
+	 * Checks if the key provided is found within the snapshot.
+	 *
+	 * @param key
+	 *            The key to search for in the snapshot.
+	 * @return
+	 *         True if the key is found in the snapshot; false otherwise.
+	 */
+	public boolean contains (double key) {
+
+		int k = 1;
+
+		while (k <= this.size) {
+			// Move to the left child, or to the right child if the key at the
+			// current position is less than the key
+			k = 2 * k + ((Double.compare(key, this.keys[k]) > 0) ? 1 : 0);
+		}
+
+		k = Eytzinger.ancestor(k);
+
+		return k != 0 && Double.compare(this.keys[k], key) == 0;
+	}
+
+	/**
+	 * Obtains a sorted array of the keys contained within the snapshot.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>Returned array is sorted</li>
+	 * </ol>
+	 *
+	 * @return
+	 *         A sorted array of the keys contained within the snapshot.
+	 */
+	public double[] toSortedArray () {
+
+		double[] array = new double[this.size];
+		int index = 0;
+
+		for (int k = Eytzinger.first(this.size); k != 0; k = Eytzinger.next(k, this.size)) {
+			array[index++] = this.keys[k];
+		}
+
+		return array;
+	}
+}
@@ -0,0 +1,374 @@
+package albano.justin.datastructs.trees;
+
+import java.util.Arrays;
+
+/**
+ * The structure shared by binary trees that store their nodes in parallel
+ * arrays rather than as separate node objects. Each node is identified by its
+ * index into the arrays; the left and right children of a node are stored as
+ * indices, and {@link #NIL} marks an absent child. Subclasses store the key of
+ * each node in an array of their own, at the same index, and implement the
+ * searches over their keys.
+ *
+ * <p>
+ * The tree is kept balanced using the AVL rotations of {@link AVLTree} (see
+ * {@link AbstractIndexedTree}), with the height of each node cached in a byte
+ * array.
+ * </p>
+ *
+ * <p>
+ * The arrays act as a pool of nodes: the slots of removed nodes are kept on a
+ * free list (linked through their left indices) and are reused by later
+ * insertions, so a tree whose size stays steady does not allocate. The tree
+ * can also be compacted, which moves its nodes into in-order positions at the
+ * front of the arrays and relinks them into a balanced tree.
+ * </p>
+ *
+ * @author Justin Albano
+ */
+public abstract class IndexedBinaryTree extends AbstractIndexedTree {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	/**
+	 * The default number of nodes the tree can hold before growing.
+	 */
+	protected static final int DEFAULT_CAPACITY = 16;
+
+	protected int[] leftNodes;
+	protected int[] rightNodes;
+	protected byte[] heights;
+	protected int nodeCount;
+	protected int freeNode;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates an empty tree that can hold the provided number of nodes before
+	 * growing.
+	 *
+	 * @param initialCapacity
+	 *            The number of nodes the tree can hold before growing.
+	 */
+	protected IndexedBinaryTree (int initialCapacity) {
+
+		int capacity = Math.max(initialCapacity, 1);
+
+		this.leftNodes = new int[capacity];
+		this.rightNodes = new int[capacity];
+		this.heights = new byte[capacity];
+		this.nodeCount = 0;
+		this.freeNode = NIL;
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Returns number of elements currently stored in the tree.
+	 *
+	 * @return
+	 *         The number of elements currently stored in the tree.
+	 */
+	public int size () {
+		return this.size;
+	}
+
+	/**
+	 * Obtains the height of the tree. Since the height of the tree is cached
+	 * for the root node, this operation is performed in constant time.
+	 *
+	 * @return
+	 *         The height of the tree.
+	 */
+	public int height () {
+		return this.height(this.rootNode);
+	}
+
+	/**
+	 * Obtains the number of nodes the tree can hold before growing.
+	 *
+	 * @return
+	 *         The number of nodes the tree can hold before growing.
+	 */
+	protected final int capacity () {
+		return this.leftNodes.length;
+	}
+
+	/**
+	 * Resizes the array of keys to hold the provided number of nodes. This is
+	 * called whenever the arrays of the tree grow.
+	 *
+	 * @param capacity
+	 *            The new number of nodes the tree can hold.
+	 */
+	protected abstract void resizeKeys (int capacity);
+
+	/**
+	 * Moves the keys of the tree into a new array in the provided order, such
+	 * that the key at index i of the new array is the key at index order[i] of
+	 * the current array.
+	 *
+	 * @param order
+	 *            The current index of the key to store at each new index.
+	 * @param count
+	 *            The number of keys to move.
+	 */
+	protected abstract void permuteKeys (int[] order, int count);
+
+	/**
+	 * Releases the key of a node that has been removed from the tree. Trees of
+	 * object keys override this method to clear the reference to the key.
+	 *
+	 * @param node
+	 *            The node that has been removed.
+	 */
+	protected void releaseKey (int node) {}
+
+	/**
+	 * Allocates a new leaf node, reusing the slot of a removed node if one is
+	 * available, and growing the arrays of the tree otherwise. The key of the
+	 * node must be stored by the caller.
+	 *
+	 * @return
+	 *         The index of the new node.
+	 */
+	protected int allocateNode () {
+
+		int node;
+
+		if (this.freeNode != NIL) {
+			// Take the first slot from the free list
+			node = this.freeNode;
+			this.freeNode = this.leftNodes[node];
+		}
+		else {
+
+			if (this.nodeCount == this.capacity()) {
+				// Grow the arrays by half of their current capacity
+				this.resize(this.capacity() + Math.max(this.capacity() >> 1, DEFAULT_CAPACITY));
+			}
+
+			node = this.nodeCount++;
+		}
+
+		this.leftNodes[node] = NIL;
+		this.rightNodes[node] = NIL;
+		this.heights[node] = 1;
+
+		return node;
+	}
+
+	/**
+	 * Resizes the arrays of the tree (including the array of keys) to hold the
+	 * provided number of nodes.
+	 *
+	 * @param capacity
+	 *            The new number of nodes the tree can hold.
+	 */
+	protected final void resize (int capacity) {
+
+		this.leftNodes = Arrays.copyOf(this.leftNodes, capacity);
+		this.rightNodes = Arrays.copyOf(this.rightNodes, capacity);
+		this.heights = Arrays.copyOf(this.heights, capacity);
+
+		this.resizeKeys(capacity);
+	}
+
+	/**
+	 * Removes the last node of the removal path from the tree and rebalances
+	 * the nodes along the path, from the bottom up. A node with two children is
+	 * replaced by its in-order successor, which is moved (by relinking, rather
+	 * than by copying its key) into the position of the removed node. The slot
+	 * of the removed node is added to the free list.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>The first depth entries of {@link #path} and {@link #pathLeft}
+	 * describe the path from the root to the node to remove (inclusive)</li>
+	 * </ol>
+	 *
+	 * @param depth
+	 *            The number of nodes on the removal path.
+	 */
+	protected final void detach (int depth) {
+
+		int target = this.path[depth - 1];
+		int subtree;
+		int top;
+
+		if (this.leftNodes[target] != NIL && this.rightNodes[target] != NIL) {
+
+			// Extend the path to the in-order successor of the node (the
+			// leftmost node of its right subtree)
+			int last = depth - 1;
+			this.pathLeft[last] = false;
+			int successor = this.rightNodes[target];
+
+			while (this.leftNodes[successor] != NIL) {
+				this.path[++last] = successor;
+				this.pathLeft[last] = true;
+				successor = this.leftNodes[successor];
+			}
+
+			// The right subtree of the successor takes its place, and the
+			// successor takes the place of the removed node
+			subtree = this.rightNodes[successor];
+			top = last;
+
+			this.leftNodes[successor] = this.leftNodes[target];
+			this.rightNodes[successor] = this.rightNodes[target];
+			this.heights[successor] = this.heights[target];
+			this.path[depth - 1] = successor;
+		}
+		else {
+			// The only child of the node (if any) takes its place
+			subtree = (this.leftNodes[target] != NIL) ? this.leftNodes[target] : this.rightNodes[target];
+			top = depth - 2;
+		}
+
+		for (int i = top; i >= 0; i--) {
+
+			// Link the (possibly rotated) subtree below its parent
+			int parent = this.path[i];
+
+			if (this.pathLeft[i]) {
+				this.leftNodes[parent] = subtree;
+			}
+			else {
+				this.rightNodes[parent] = subtree;
+			}
+
+			subtree = this.rebalance(parent);
+		}
+
+		this.rootNode = subtree;
+		this.size--;
+
+		// Add the slot of the removed node to the free list
+		this.releaseKey(target);
+		this.heights[target] = 0;
+		this.leftNodes[target] = this.freeNode;
+		this.rightNodes[target] = NIL;
+		this.freeNode = target;
+	}
+
+	/**
+	 * Compacts the tree. The nodes are moved to the front of the arrays in
+	 * in-order positions (so that the node with the smallest key is stored at
+	 * index 0) and are relinked into a balanced tree. Afterwards, the free
+	 * list is empty and every subtree occupies a contiguous range of the
+	 * arrays.
+	 */
+	public void compact () {
+
+		// Obtain the indices of the nodes in order
+		int[] order = new int[this.size];
+		int[] stack = new int[MAX_HEIGHT];
+		int depth = 0;
+		int index = 0;
+		int node = this.rootNode;
+
+		while (node != NIL || depth > 0) {
+
+			while (node != NIL) {
+				// Descend as far left as possible
+				stack[depth++] = node;
+				node = this.leftNodes[node];
+			}
+
+			// Record the smallest remaining node and traverse its right subtree
+			node = stack[--depth];
+			order[index++] = node;
+			node = this.rightNodes[node];
+		}
+
+		// Move the keys into their in-order positions and relink the nodes
+		this.permuteKeys(order, this.size);
+		this.freeNode = NIL;
+		this.linkSorted(this.size);
+	}
+
+	/**
+	 * Links the first count nodes into a balanced tree, replacing the current
+	 * structure of the tree. The middle node of each range of indices becomes
+	 * the root of the subtree built from that range.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>The keys at indices 0 through count - 1 are sorted</li>
+	 * <li>The capacity of the tree is at least count</li>
+	 * </ol>
+	 *
+	 * @param count
+	 *            The number of nodes to link.
+	 */
+	protected final void linkSorted (int count) {
+
+		this.nodeCount = count;
+		this.size = count;
+		this.rootNode = this.linkSorted(0, count - 1);
+	}
+
+	/**
+	 * Helper method that recursively links a range of indices into a balanced
+	 * subtree.
+	 *
+	 * @param first
+	 *            The first index of the range.
+	 * @param last
+	 *            The last index of the range.
+	 * @return
+	 *         The root of the subtree, or {@link #NIL} if the range is empty.
+	 */
+	private int linkSorted (int first, int last) {
+
+		if (first > last) {
+			// The range is empty (base case)
+			return NIL;
+		}
+
+		int middle = (first + last) >>> 1;
+
+		this.leftNodes[middle] = this.linkSorted(first, middle - 1);
+		this.rightNodes[middle] = this.linkSorted(middle + 1, last);
+		this.updateHeight(middle);
+
+		return middle;
+	}
+
+	@Override
+	protected final int left (int node) {
+		return this.leftNodes[node];
+	}
+
+	@Override
+	protected final void setLeft (int node, int left) {
+		this.leftNodes[node] = left;
+	}
+
+	@Override
+	protected final int right (int node) {
+		return this.rightNodes[node];
+	}
+
+	@Override
+	protected final void setRight (int node, int right) {
+		this.rightNodes[node] = right;
+	}
+
+	@Override
+	protected final int nodeHeight (int node) {
+		return this.heights[node];
+	}
+
+	@Override
+	protected final void setNodeHeight (int node, int height) {
+		this.heights[node] = (byte) height;
+	}
+}
@@ -0,0 +1,223 @@
+package albano.justin.datastructs.trees;
+
+import java.util.Arrays;
+
+/**
+ * A balanced binary search tree of primitive <code>int</code> keys. The keys
+ * and the links between nodes are stored in parallel arrays (see
+ * {@link IndexedBinaryTree}), so the tree stores no boxed keys and no node
+ * objects, and the searches compare the keys directly rather than through
+ * {@link Comparable#compareTo(Object)}.
+ *
+ * @author Justin Albano
+ */
+public class IntBinaryTree extends IndexedBinaryTree {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	private int[] keys;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates a default, empty tree of keys.
+	 */
+	public IntBinaryTree () {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty tree of keys that can hold the provided number of keys
+	 * before growing.
+	 *
+	 * @param initialCapacity
+	 *            The number of keys the tree can hold before growing.
+	 */
+	public IntBinaryTree (int initialCapacity) {
+		super(initialCapacity);
+		this.keys = new int[this.capacity()];
+	}
+
+	/**
+	 * Creates a populated tree of keys, using the provided array as the default
+	 * keys for the tree. The provided array is not modified. Upon adding the
+	 * keys provided, the tree is guaranteed to be balanced.
+	 *
+	 * @param data
+	 *            An array of keys to use as the default keys for the tree.
+	 */
+	public IntBinaryTree (int[] data) {
+
+		// Construct the tree with enough capacity for the keys
+		this((data == null) ? DEFAULT_CAPACITY : data.length);
+
+		if (data != null) {
+			// Sort a copy of the keys and link them into a balanced tree
+			System.arraycopy(data, 0, this.keys, 0, data.length);
+			Arrays.sort(this.keys, 0, data.length);
+			this.linkSorted(data.length);
+		}
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Insert a key into the tree. Keys equal to an existing key are added to
+	 * the left of the existing key.
+	 *
+	 * @param key
+	 *            The key to insert into the tree.
+	 */
+	public void insert (int key) {
+
+		int depth = 0;
+		int node = this.rootNode;
+
+		while (node != NIL) {
+			// Record the path down to the leaf position of the key
+			boolean left = key <= this.keys[node];
+			this.path[depth] = node;
+			this.pathLeft[depth++] = left;
+			node = left ? this.leftNodes[node] : this.rightNodes[node];
+		}
+
+		// Create the node and link it into the tree
+		int newNode = this.allocateNode();
+		this.keys[newNode] = key;
+		this.attach(depth, newNode);
+	}
+
+	/**
+	 * Checks if the key provided is found within the tree.
+	 *
+	 * @param key
+	 *            The key to search for in the tree.
+	 * @return
+	 *         True if the key is found in the tree; false otherwise.
+	 */
+	public boolean contains (int key) {
+
+		int[] keys = this.keys;
+		int[] leftNodes = this.leftNodes;
+		int[] rightNodes = this.rightNodes;
+		int node = this.rootNode;
+
+		while (node != NIL) {
+
+			int current = keys[node];
+
+			if (key == current) {
+				// The key is found at the current node
+				return true;
+			}
+
+			node = (key < current) ? leftNodes[node] : rightNodes[node];
+		}
+
+		return false;
+	}
+
+	/**
+	 * Removes a single occurrence of a key from the tree. The slot of the
+	 * removed key is reused by a later insertion.
+	 *
+	 * @param key
+	 *            The key to remove from the tree.
+	 * @return
+	 *         True if the key was found and removed; false otherwise.
+	 */
+	public boolean remove (int key) {
+
+		int depth = 0;
+		int node = this.rootNode;
+
+		while (node != NIL) {
+
+			// Record the path down to the node holding the key
+			int current = this.keys[node];
+			this.path[depth] = node;
+			this.pathLeft[depth++] = key < current;
+
+			if (key == current) {
+				// Remove the node holding the key
+				this.detach(depth);
+				return true;
+			}
+
+			node = (key < current) ? this.leftNodes[node] : this.rightNodes[node];
+		}
+
+		return false;
+	}
+
+	/**
+	 * Obtains a sorted array of the keys contained within the tree.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>Returned array is sorted</li>
+	 * </ol>
+	 *
+	 * @return
+	 *         A sorted array of the keys contained within the tree.
+	 */
+	public int[] toSortedArray () {
+
+		int[] array = new int[this.size];
+		int[] stack = new int[MAX_HEIGHT];
+		int depth = 0;
+		int index = 0;
+		int node = this.rootNode;
+
+		while (node != NIL || depth > 0) {
+
+			while (node != NIL) {
+				// Descend as far left as possible
+				stack[depth++] = node;
+				node = this.leftNodes[node];
+			}
+
+			// Add the smallest remaining key and traverse its right subtree
+			node = stack[--depth];
+			array[index++] = this.keys[node];
+			node = this.rightNodes[node];
+		}
+
+		return array;
+	}
+
+	/**
+	 * Obtains an immutable snapshot of the keys contained within the tree,
+	 * laid out for fast searches (see {@link FrozenIntTree}). Later changes to
+	 * the tree do not affect the snapshot.
+	 *
+	 * @return
+	 *         A snapshot of the keys contained within the tree.
+	 */
+	public FrozenIntTree freeze () {
+		return new FrozenIntTree(this.toSortedArray(), true);
+	}
+
+	@Override
+	protected void resizeKeys (int capacity) {
+		this.keys = Arrays.copyOf(this.keys, capacity);
+	}
+
+	@Override
+	protected void permuteKeys (int[] order, int count) {
+
+		int[] keys = new int[this.keys.length];
+
+		for (int i = 0; i < count; i++) {
+			keys[i] = this.keys[order[i]];
+		}
+
+		this.keys = keys;
+	}
+}
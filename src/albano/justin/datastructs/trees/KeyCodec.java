@@ -0,0 +1,191 @@
+package albano.justin.datastructs.trees;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes keys of a fixed width into a {@link ByteBuffer}, so that trees can
+ * store their keys outside of the Java heap. Stored keys are compared against
+ * a search key directly in the buffer, without decoding them.
+ *
+ * @author Justin Albano
+ */
+public interface KeyCodec<K> {
+
+	/**
+	 * Obtains the number of bytes occupied by every encoded key.
+	 *
+	 * @return
+	 *         The number of bytes occupied by every encoded key.
+	 */
+	int width ();
+
+	/**
+	 * Writes a key into the buffer at the provided offset.
+	 *
+	 * @param buffer
+	 *            The buffer to write the key into.
+	 * @param offset
+	 *            The offset of the first byte of the key.
+	 * @param key
+	 *            The key to write.
+	 * @throws IllegalArgumentException
+	 *             If the key cannot be encoded in the width of the codec.
+	 */
+	void write (ByteBuffer buffer, int offset, K key);
+
+	/**
+	 * Reads the key stored in the buffer at the provided offset.
+	 *
+	 * @param buffer
+	 *            The buffer to read the key from.
+	 * @param offset
+	 *            The offset of the first byte of the key.
+	 * @return
+	 *         The key stored in the buffer.
+	 */
+	K read (ByteBuffer buffer, int offset);
+
+	/**
+	 * Compares a key with the key stored in the buffer at the provided offset.
+	 *
+	 * @param key
+	 *            The key to compare.
+	 * @param buffer
+	 *            The buffer holding the stored key.
+	 * @param offset
+	 *            The offset of the first byte of the stored key.
+	 * @return
+	 *         A negative number, zero or a positive number if the key is less
+	 *         than, equal to or greater than the stored key.
+	 * @throws IllegalArgumentException
+	 *             If the key cannot be encoded in the width of the codec.
+	 */
+	int compare (K key, ByteBuffer buffer, int offset);
+
+	/***************************************************************************
+	 * Codecs
+	 **************************************************************************/
+
+	/**
+	 * Obtains a codec for <code>long</code> keys, stored in 8 bytes and ordered
+	 * numerically.
+	 *
+	 * @return
+	 *         A codec for <code>long</code> keys.
+	 */
+	static KeyCodec<Long> longKeys () {
+		return LongKeyCodec.INSTANCE;
+	}
+
+	/**
+	 * Obtains a codec for byte array keys of the provided length, ordered
+	 * lexicographically with each byte treated as unsigned.
+	 *
+	 * @param width
+	 *            The length of every key.
+	 * @return
+	 *         A codec for byte array keys of the provided length.
+	 */
+	static KeyCodec<byte[]> fixedBytes (int width) {
+		return new FixedBytesKeyCodec(width);
+	}
+
+	/**
+	 * A codec for <code>long</code> keys.
+	 */
+	final class LongKeyCodec implements KeyCodec<Long> {
+
+		private static final LongKeyCodec INSTANCE = new LongKeyCodec();
+
+		private LongKeyCodec () {}
+
+		@Override
+		public int width () {
+			return Long.BYTES;
+		}
+
+		@Override
+		public void write (ByteBuffer buffer, int offset, Long key) {
+			buffer.putLong(offset, key);
+		}
+
+		@Override
+		public Long read (ByteBuffer buffer, int offset) {
+			return buffer.getLong(offset);
+		}
+
+		@Override
+		public int compare (Long key, ByteBuffer buffer, int offset) {
+			return Long.compare(key, buffer.getLong(offset));
+		}
+	}
+
+	/**
+	 * A codec for byte array keys of a fixed length.
+	 */
+	final class FixedBytesKeyCodec implements KeyCodec<byte[]> {
+
+		private final int width;
+
+		private FixedBytesKeyCodec (int width) {
+
+			if (width <= 0) {
+				throw new IllegalArgumentException("The width of a key must be positive: " + width);
+			}
+
+			this.width = width;
+		}
+
+		@Override
+		public int width () {
+			return this.width;
+		}
+
+		@Override
+		public void write (ByteBuffer buffer, int offset, byte[] key) {
+
+			this.checkLength(key);
+
+			for (int i = 0; i < this.width; i++) {
+				buffer.put(offset + i, key[i]);
+			}
+		}
+
+		@Override
+		public byte[] read (ByteBuffer buffer, int offset) {
+
+			byte[] key = new byte[this.width];
+
+			for (int i = 0; i < this.width; i++) {
+				key[i] = buffer.get(offset + i);
+			}
+
+			return key;
+		}
+
+		@Override
+		public int compare (byte[] key, ByteBuffer buffer, int offset) {
+
+			this.checkLength(key);
+
+			for (int i = 0; i < this.width; i++) {
+
+				// Compare the bytes as unsigned values
+				int comparison = (key[i] & 0xFF) - (buffer.get(offset + i) & 0xFF);
+
+				if (comparison != 0) {
+					return comparison;
+				}
+			}
+
+			return 0;
+		}
+
+		private void checkLength (byte[] key) {
+
+			if (key.length != this.width) {
+				throw new IllegalArgumentException("Expected a key of " + this.width + " bytes but was " + key.length);
+			}
+		}
+	}
+}
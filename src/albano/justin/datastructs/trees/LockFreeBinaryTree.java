@@ -0,0 +1,563 @@
+package albano.justin.datastructs.trees;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A non-blocking binary search tree, which can be searched and modified by any
+ * number of threads without locking. The tree is leaf-oriented: the data is
+ * stored in the leaves, and each internal node holds a key that routes a
+ * search to its left subtree (data less than the key) or its right subtree.
+ * Every modification replaces a single child link with a compare-and-set, so a
+ * search never waits, and a modification that finds another modification in
+ * progress on the same nodes completes that modification (helps it) instead
+ * of waiting for it.
+ *
+ * <p>
+ * Before changing a child link, a modification flags the parent (and, for a
+ * removal, the grandparent) through the update field of the node, which
+ * records the modification in progress. A flagged node cannot be flagged by
+ * another modification, and a removed parent is marked so that it can never
+ * be changed again. Insertions, removals and searches are linearizable. The
+ * size and the sorted exports are exact only when no modification is in
+ * progress.
+ * </p>
+ *
+ * <p>
+ * Unlike {@link BinaryTree}, the tree holds each data at most once.
+ * </p>
+ *
+ * <h1>Citations</h1>
+ * <ul>
+ * <li>The algorithm is that of Ellen, Fatourou, Ruppert and van Breugel,
+ * Non-blocking Binary Search Trees (PODC 2010)</li>
+ * </ul>
+ *
+ * @author Justin Albano
+ */
+public class LockFreeBinaryTree<T extends Comparable<T>> {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	// The states of the update field of an internal node
+	private static final int CLEAN = 0;
+	private static final int INSERT_FLAG = 1;
+	private static final int DELETE_FLAG = 2;
+	private static final int MARK = 3;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<Internal, Node> LEFT = AtomicReferenceFieldUpdater.newUpdater(Internal.class, Node.class, "left");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<Internal, Node> RIGHT = AtomicReferenceFieldUpdater.newUpdater(Internal.class, Node.class, "right");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<Internal, Update> UPDATE = AtomicReferenceFieldUpdater.newUpdater(Internal.class, Update.class, "update");
+
+	private final Internal<T> rootNode;
+	private final Class<T> dataType;
+	private final LongAdder size;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates a default, empty tree of data.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 */
+	public LockFreeBinaryTree (Class<T> dataType) {
+
+		// The root and its two leaves hold sentinel keys, greater than any
+		// data, so that every real leaf has a parent and a grandparent
+		this.rootNode = new Internal<T>(null, 2, new Leaf<T>(null, 1), new Leaf<T>(null, 2));
+		this.dataType = dataType;
+		this.size = new LongAdder();
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Returns number of elements currently stored in the tree. The result is
+	 * exact only if no modification is in progress.
+	 *
+	 * @return
+	 *         The number of elements currently stored in the tree.
+	 */
+	public int size () {
+		return this.size.intValue();
+	}
+
+	/**
+	 * Checks if the target data provided is found within the tree.
+	 *
+	 * @param target
+	 *            The data to search for in the tree.
+	 * @return
+	 *         True if the target data is found in the tree; false if the target
+	 *         data is not found in the tree.
+	 */
+	public boolean isInTree (T target) {
+
+		Node<T> node = this.rootNode;
+
+		while (node instanceof Internal) {
+			Internal<T> internal = (Internal<T>) node;
+			node = (compare(target, internal) < 0) ? internal.left : internal.right;
+		}
+
+		return compare(target, node) == 0;
+	}
+
+	/**
+	 * Insert data into the tree, if it is not already present.
+	 *
+	 * @param data
+	 *            The data to insert into the tree.
+	 * @return
+	 *         True if the data was inserted; false if it was already present.
+	 */
+	public boolean insert (T data) {
+
+		Search<T> search = new Search<T>();
+
+		while (true) {
+
+			this.search(data, search);
+
+			if (compare(data, search.leaf) == 0) {
+				// The data is already present
+				return false;
+			}
+
+			if (search.parentUpdate.state != CLEAN) {
+				// Complete the modification in progress at the parent
+				this.help(search.parentUpdate);
+				continue;
+			}
+
+			// Replace the leaf with an internal node whose children are the
+			// leaf and a new leaf holding the data
+			Leaf<T> leaf = search.leaf;
+			Leaf<T> newLeaf = new Leaf<T>(data, 0);
+			Leaf<T> sibling = new Leaf<T>(leaf.key, leaf.rank);
+			Internal<T> newInternal = (compare(data, leaf) < 0)
+					? new Internal<T>(leaf.key, leaf.rank, newLeaf, sibling)
+					: new Internal<T>(data, 0, sibling, newLeaf);
+
+			InsertInfo<T> info = new InsertInfo<T>(search.parent, leaf, newInternal);
+
+			if (UPDATE.compareAndSet(search.parent, search.parentUpdate, new Update(INSERT_FLAG, info))) {
+				this.helpInsert(info);
+				this.size.increment();
+				return true;
+			}
+
+			// Another modification flagged the parent first
+			this.help(search.parent.update);
+		}
+	}
+
+	/**
+	 * Removes the target data from the tree.
+	 *
+	 * @param target
+	 *            The data to remove from the tree.
+	 * @return
+	 *         True if the target data was found and removed; false otherwise.
+	 */
+	public boolean remove (T target) {
+
+		Search<T> search = new Search<T>();
+
+		while (true) {
+
+			this.search(target, search);
+
+			if (compare(target, search.leaf) != 0) {
+				// The data is not present
+				return false;
+			}
+
+			if (search.grandparentUpdate.state != CLEAN) {
+				this.help(search.grandparentUpdate);
+				continue;
+			}
+
+			if (search.parentUpdate.state != CLEAN) {
+				this.help(search.parentUpdate);
+				continue;
+			}
+
+			// Flag the grandparent, whose child link to the parent is replaced
+			// by the sibling of the leaf
+			DeleteInfo<T> info = new DeleteInfo<T>(search.grandparent, search.parent, search.leaf, search.parentUpdate);
+
+			if (UPDATE.compareAndSet(search.grandparent, search.grandparentUpdate, new Update(DELETE_FLAG, info))) {
+
+				if (this.helpDelete(info)) {
+					this.size.decrement();
+					return true;
+				}
+			}
+			else {
+				// Another modification flagged the grandparent first
+				this.help(search.grandparent.update);
+			}
+		}
+	}
+
+	/**
+	 * Obtains a sorted array of the data contained within the tree. The array
+	 * reflects every modification completed before the call, and may reflect
+	 * modifications made during it.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>Returned array is sorted</li>
+	 * </ol>
+	 *
+	 * @return
+	 *         A sorted array of the data contained within the tree.
+	 */
+	@SuppressWarnings("unchecked")
+	public T[] toSortedArray () {
+
+		List<T> list = this.toSortedList();
+		return list.toArray((T[]) Array.newInstance(this.dataType, list.size()));
+	}
+
+	/**
+	 * Obtains a sorted list of the data contained within the tree. The list
+	 * reflects every modification completed before the call, and may reflect
+	 * modifications made during it.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>list is sorted</li>
+	 * </ol>
+	 *
+	 * @return
+	 *         A sorted list of the data contained within the tree.
+	 */
+	public List<T> toSortedList () {
+
+		List<T> list = new ArrayList<T>();
+		Deque<Node<T>> stack = new ArrayDeque<Node<T>>();
+		stack.push(this.rootNode);
+
+		while (!stack.isEmpty()) {
+
+			Node<T> node = stack.pop();
+
+			if (node instanceof Internal) {
+				// Visit the left subtree before the right subtree
+				Internal<T> internal = (Internal<T>) node;
+				Node<T> left = internal.left;
+				stack.push(internal.right);
+				stack.push(left);
+			}
+			else if (node.rank == 0) {
+				// Add the data of each leaf that is not a sentinel
+				list.add(node.key);
+			}
+		}
+
+		return list;
+	}
+
+	/**
+	 * Searches for the leaf on the search path of the provided data, recording
+	 * the leaf, its parent and grandparent, and the update fields of the parent
+	 * and grandparent as they were read on the way down.
+	 *
+	 * @param data
+	 *            The data to search for.
+	 * @param search
+	 *            The record of the search.
+	 */
+	@SuppressWarnings("unchecked")
+	private void search (T data, Search<T> search) {
+
+		Internal<T> grandparent = null;
+		Internal<T> parent = null;
+		Update grandparentUpdate = null;
+		Update parentUpdate = null;
+		Node<T> node = this.rootNode;
+
+		while (node instanceof Internal) {
+			grandparent = parent;
+			grandparentUpdate = parentUpdate;
+			parent = (Internal<T>) node;
+			parentUpdate = parent.update;
+			node = (compare(data, parent) < 0) ? parent.left : parent.right;
+		}
+
+		search.grandparent = grandparent;
+		search.parent = parent;
+		search.leaf = (Leaf<T>) node;
+		search.grandparentUpdate = grandparentUpdate;
+		search.parentUpdate = parentUpdate;
+	}
+
+	/**
+	 * Completes the modification recorded in an update field.
+	 *
+	 * @param update
+	 *            The value of the update field.
+	 */
+	@SuppressWarnings("unchecked")
+	private void help (Update update) {
+
+		switch (update.state) {
+			case INSERT_FLAG:
+				this.helpInsert((InsertInfo<T>) update.info);
+				break;
+			case MARK:
+				this.helpMarked((DeleteInfo<T>) update.info);
+				break;
+			case DELETE_FLAG:
+				this.helpDelete((DeleteInfo<T>) update.info);
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Completes an insertion whose parent has been flagged, by replacing the
+	 * leaf with the new internal node and unflagging the parent.
+	 *
+	 * @param info
+	 *            The insertion.
+	 */
+	private void helpInsert (InsertInfo<T> info) {
+		casChild(info.parent, info.leaf, info.newInternal);
+		unflag(info.parent, INSERT_FLAG, info);
+	}
+
+	/**
+	 * Continues a removal whose grandparent has been flagged, by marking the
+	 * parent. If the parent is being changed by another modification, the
+	 * other modification is completed and the grandparent is unflagged, so
+	 * that the removal can be retried.
+	 *
+	 * @param info
+	 *            The removal.
+	 * @return
+	 *         True if the parent was marked (and the removal completed); false
+	 *         if the removal must be retried.
+	 */
+	private boolean helpDelete (DeleteInfo<T> info) {
+
+		Update mark = new Update(MARK, info);
+
+		if (UPDATE.compareAndSet(info.parent, info.parentUpdate, mark)) {
+			this.helpMarked(info);
+			return true;
+		}
+
+		Update current = info.parent.update;
+
+		if (current.state == MARK && current.info == info) {
+			// Another thread marked the parent for this removal
+			this.helpMarked(info);
+			return true;
+		}
+
+		this.help(current);
+		unflag(info.grandparent, DELETE_FLAG, info);
+
+		return false;
+	}
+
+	/**
+	 * Completes a removal whose parent has been marked, by replacing the
+	 * parent with the sibling of the leaf and unflagging the grandparent.
+	 *
+	 * @param info
+	 *            The removal.
+	 */
+	private void helpMarked (DeleteInfo<T> info) {
+
+		Node<T> sibling = (info.parent.right == info.leaf) ? info.parent.left : info.parent.right;
+		casChild(info.grandparent, info.parent, sibling);
+		unflag(info.grandparent, DELETE_FLAG, info);
+	}
+
+	/**
+	 * Replaces a child of a node, if it has not already been replaced.
+	 *
+	 * @param parent
+	 *            The node whose child is replaced.
+	 * @param oldChild
+	 *            The child to replace.
+	 * @param newChild
+	 *            The replacement, whose keys belong on the same side of the
+	 *            parent as the child.
+	 */
+	private static <T extends Comparable<T>> void casChild (Internal<T> parent, Node<T> oldChild, Node<T> newChild) {
+
+		if (compareKeys(newChild, parent) < 0) {
+			LEFT.compareAndSet(parent, oldChild, newChild);
+		}
+		else {
+			RIGHT.compareAndSet(parent, oldChild, newChild);
+		}
+	}
+
+	/**
+	 * Clears the flag a modification placed on a node, if it is still there.
+	 *
+	 * @param node
+	 *            The flagged node.
+	 * @param state
+	 *            The flag placed by the modification.
+	 * @param info
+	 *            The modification.
+	 */
+	private static void unflag (Internal<?> node, int state, Info info) {
+
+		Update current = node.update;
+
+		if (current.state == state && current.info == info) {
+			UPDATE.compareAndSet(node, current, new Update(CLEAN, info));
+		}
+	}
+
+	/**
+	 * Compares data with the key of a node. Every sentinel key is greater than
+	 * every data.
+	 */
+	private static <T extends Comparable<T>> int compare (T data, Node<T> node) {
+		return (node.rank == 0) ? data.compareTo(node.key) : -1;
+	}
+
+	/**
+	 * Compares the keys of two nodes. The sentinel keys are ordered by their
+	 * rank, above every data.
+	 */
+	private static <T extends Comparable<T>> int compareKeys (Node<T> first, Node<T> second) {
+		return (first.rank == 0) ? compare(first.key, second) : Integer.compare(first.rank, second.rank);
+	}
+
+	/***************************************************************************
+	 * Nodes
+	 **************************************************************************/
+
+	/**
+	 * A node of the tree, holding a key or, if its rank is not 0, a sentinel
+	 * key greater than any data.
+	 */
+	private static class Node<T> {
+
+		final T key;
+		final int rank;
+
+		Node (T key, int rank) {
+			this.key = key;
+			this.rank = rank;
+		}
+	}
+
+	/**
+	 * A leaf, which holds data (or a sentinel).
+	 */
+	private static final class Leaf<T> extends Node<T> {
+
+		Leaf (T key, int rank) {
+			super(key, rank);
+		}
+	}
+
+	/**
+	 * An internal node, which routes searches to its children and records the
+	 * modification in progress on its children.
+	 */
+	private static final class Internal<T> extends Node<T> {
+
+		volatile Node<T> left;
+		volatile Node<T> right;
+		volatile Update update;
+
+		Internal (T key, int rank, Node<T> left, Node<T> right) {
+			super(key, rank);
+			this.left = left;
+			this.right = right;
+			this.update = new Update(CLEAN, null);
+		}
+	}
+
+	/**
+	 * The immutable value of the update field of an internal node: the state
+	 * of the node, and the most recent modification that flagged or marked
+	 * it. Update fields are compared by identity, so every change of an update
+	 * field installs a new value.
+	 */
+	private static final class Update {
+
+		final int state;
+		final Info info;
+
+		Update (int state, Info info) {
+			this.state = state;
+			this.info = info;
+		}
+	}
+
+	/**
+	 * The record of a modification, used by other threads to complete it.
+	 */
+	private static class Info {}
+
+	private static final class InsertInfo<T> extends Info {
+
+		final Internal<T> parent;
+		final Leaf<T> leaf;
+		final Internal<T> newInternal;
+
+		InsertInfo (Internal<T> parent, Leaf<T> leaf, Internal<T> newInternal) {
+			this.parent = parent;
+			this.leaf = leaf;
+			this.newInternal = newInternal;
+		}
+	}
+
+	private static final class DeleteInfo<T> extends Info {
+
+		final Internal<T> grandparent;
+		final Internal<T> parent;
+		final Leaf<T> leaf;
+		final Update parentUpdate;
+
+		DeleteInfo (Internal<T> grandparent, Internal<T> parent, Leaf<T> leaf, Update parentUpdate) {
+			this.grandparent = grandparent;
+			this.parent = parent;
+			this.leaf = leaf;
+			this.parentUpdate = parentUpdate;
+		}
+	}
+
+	/**
+	 * The result of a search.
+	 */
+	private static final class Search<T> {
+
+		Internal<T> grandparent;
+		Internal<T> parent;
+		Leaf<T> leaf;
+		Update grandparentUpdate;
+		Update parentUpdate;
+	}
+}
@@ -0,0 +1,915 @@
+package albano.justin.datastructs.trees;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A disk-resident B+tree of fixed-width keys, stored in pages of a
+ * memory-mapped file. Opening an existing file only reads its header; the
+ * pages of the tree are mapped in regions on first access and faulted in by
+ * the operating system as they are read, so an index of any size is available
+ * almost immediately after it is opened.
+ *
+ * <p>
+ * The keys are encoded by a {@link KeyCodec}. Each leaf page holds a sorted run
+ * of keys and a link to the next leaf, which allows ordered range scans; each
+ * internal page holds the separator keys and page numbers of its children. A
+ * key is stored at most once (inserting a key that is already present has no
+ * effect).
+ * </p>
+ *
+ * <p>
+ * Changes are written directly to the mapped pages, and are guaranteed to
+ * reach the file once the tree is flushed or closed. The tree does not log
+ * its changes, so a file that was not closed cleanly may be inconsistent.
+ * </p>
+ *
+ * <h1>File Layout</h1>
+ * <ul>
+ * <li>Page 0 is the header, which stores the page size, key width, root page,
+ * number of pages, height and size of the tree</li>
+ * <li>Every other page is a node, whose first 12 bytes store the type of the
+ * node, the number of keys and (for a leaf) the page of the next leaf</li>
+ * </ul>
+ *
+ * @author Justin Albano
+ */
+public class MappedBPlusTree<K> implements AutoCloseable {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	/**
+	 * The default size of each page, in bytes.
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 4096;
+
+	private static final int MAGIC = 0x42505452;
+	private static final int VERSION = 1;
+	private static final int NONE = -1;
+	private static final int PAGES_PER_REGION = 1 << 12;
+
+	// The offsets of the fields of the header page
+	private static final int HEADER_MAGIC = 0;
+	private static final int HEADER_VERSION = 4;
+	private static final int HEADER_PAGE_SIZE = 8;
+	private static final int HEADER_KEY_WIDTH = 12;
+	private static final int HEADER_ROOT = 16;
+	private static final int HEADER_PAGE_COUNT = 20;
+	private static final int HEADER_HEIGHT = 24;
+	private static final int HEADER_SIZE = 28;
+
+	// The offsets of the fields of a node page
+	private static final int NODE_TYPE = 0;
+	private static final int NODE_COUNT = 4;
+	private static final int NODE_NEXT = 8;
+	private static final int NODE_DATA = 12;
+
+	private static final int LEAF = 1;
+	private static final int INTERNAL = 2;
+
+	private final Class<K> dataType;
+	private final KeyCodec<K> codec;
+	private final FileChannel channel;
+	private final int pageSize;
+	private final int keyWidth;
+	private final int leafCapacity;
+	private final int internalCapacity;
+	private final int internalKeys;
+
+	private final List<MappedByteBuffer> regions;
+	private int rootPage;
+	private int pageCount;
+	private int height;
+	private int size;
+	private boolean closed;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Opens the tree stored in the provided file, creating the file with the
+	 * default page size if it does not exist or is empty.
+	 *
+	 * @param file
+	 *            The file storing the tree.
+	 * @param dataType
+	 *            The class of the keys being stored in the tree.
+	 * @param codec
+	 *            The codec used to store the keys.
+	 * @throws IOException
+	 *             If the file cannot be opened, or does not store a tree of
+	 *             keys of the width of the codec.
+	 */
+	public MappedBPlusTree (Path file, Class<K> dataType, KeyCodec<K> codec) throws IOException {
+		this(file, dataType, codec, DEFAULT_PAGE_SIZE);
+	}
+
+	/**
+	 * Opens the tree stored in the provided file, creating the file with the
+	 * provided page size if it does not exist or is empty. The page size of an
+	 * existing file is read from the file.
+	 *
+	 * @param file
+	 *            The file storing the tree.
+	 * @param dataType
+	 *            The class of the keys being stored in the tree.
+	 * @param codec
+	 *            The codec used to store the keys.
+	 * @param pageSize
+	 *            The size of each page of a new file, in bytes (a power of two
+	 *            from 512 to 65536).
+	 * @throws IOException
+	 *             If the file cannot be opened, or does not store a tree of
+	 *             keys of the width of the codec.
+	 */
+	public MappedBPlusTree (Path file, Class<K> dataType, KeyCodec<K> codec, int pageSize) throws IOException {
+
+		this.dataType = dataType;
+		this.codec = codec;
+		this.keyWidth = codec.width();
+		this.regions = new ArrayList<MappedByteBuffer>();
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		try {
+
+			if (this.channel.size() == 0) {
+				// Create a new, empty tree
+				this.pageSize = validatePageSize(pageSize);
+			}
+			else {
+				// Read the page size of the existing tree from its header
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + 8);
+				this.channel.read(header, 0);
+
+				if (header.getInt(HEADER_MAGIC) != MAGIC || header.getInt(HEADER_VERSION) != VERSION) {
+					throw new IOException("The file " + file + " does not store a B+tree");
+				}
+
+				if (header.getInt(HEADER_KEY_WIDTH) != this.keyWidth) {
+					throw new IOException("The file " + file + " stores keys of " + header.getInt(HEADER_KEY_WIDTH) + " bytes, not " + this.keyWidth);
+				}
+
+				this.pageSize = validatePageSize(header.getInt(HEADER_PAGE_SIZE));
+			}
+
+			// A leaf holds keys only; an internal node holds one more child
+			// than keys
+			this.leafCapacity = (this.pageSize - NODE_DATA) / this.keyWidth;
+			this.internalCapacity = (this.pageSize - NODE_DATA - 4) / (this.keyWidth + 4);
+			this.internalKeys = NODE_DATA + 4 * (this.internalCapacity + 1);
+
+			if (this.leafCapacity < 3 || this.internalCapacity < 3) {
+				throw new IllegalArgumentException("A page of " + this.pageSize + " bytes cannot hold keys of " + this.keyWidth + " bytes");
+			}
+
+			if (this.channel.size() == 0) {
+				this.create();
+			}
+			else {
+				this.load();
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			this.channel.close();
+			throw e;
+		}
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Returns number of keys currently stored in the tree.
+	 *
+	 * @return
+	 *         The number of keys currently stored in the tree.
+	 */
+	public int size () {
+		return this.size;
+	}
+
+	/**
+	 * Obtains the height of the tree (the number of pages on the path from the
+	 * root to a leaf).
+	 *
+	 * @return
+	 *         The height of the tree.
+	 */
+	public int height () {
+		return this.height;
+	}
+
+	/**
+	 * Checks if the key provided is found within the tree.
+	 *
+	 * @param target
+	 *            The key to search for in the tree.
+	 * @return
+	 *         True if the key is found in the tree; false otherwise.
+	 */
+	public boolean isInTree (K target) {
+
+		this.ensureOpen();
+
+		int leaf = this.findLeaf(target);
+		ByteBuffer region = this.region(leaf);
+		int offset = this.offset(leaf);
+		int count = region.getInt(offset + NODE_COUNT);
+		int index = this.lowerBound(region, offset + NODE_DATA, count, target);
+
+		return index < count && this.codec.compare(target, region, offset + NODE_DATA + index * this.keyWidth) == 0;
+	}
+
+	/**
+	 * Insert a key into the tree. Full pages are split as the key is inserted.
+	 *
+	 * @param key
+	 *            The key to insert into the tree.
+	 * @return
+	 *         True if the key was inserted; false if it was already present.
+	 */
+	public boolean insert (K key) {
+
+		this.ensureOpen();
+
+		// Descend to the leaf, recording the internal pages and the index of
+		// the child taken from each
+		int[] pathPages = new int[this.height];
+		int[] pathIndices = new int[this.height];
+		int page = this.rootPage;
+
+		for (int level = 0; level < this.height - 1; level++) {
+			ByteBuffer region = this.region(page);
+			int offset = this.offset(page);
+			int child = this.upperBound(region, offset + this.internalKeys, region.getInt(offset + NODE_COUNT), key);
+			pathPages[level] = page;
+			pathIndices[level] = child;
+			page = region.getInt(offset + NODE_DATA + 4 * child);
+		}
+
+		// Find the position of the key within the mapped leaf
+		ByteBuffer region = this.region(page);
+		int offset = this.offset(page);
+		int count = region.getInt(offset + NODE_COUNT);
+		int index = this.lowerBound(region, offset + NODE_DATA, count, key);
+		int keyOffset = offset + NODE_DATA + index * this.keyWidth;
+
+		if (index < count && this.codec.compare(key, region, keyOffset) == 0) {
+			// The key is already present
+			return false;
+		}
+
+		if (count < this.leafCapacity) {
+			// The key fits in the leaf, so the greater keys are shifted up in
+			// place and the key is written into the gap
+			this.shiftKeys(region, keyOffset, count - index);
+			this.codec.write(region, keyOffset, key);
+			region.putInt(offset + NODE_COUNT, count + 1);
+		}
+		else {
+			// Read the full leaf and insert the key into a copy of its keys
+			byte[] leaf = this.readPage(page);
+			ByteBuffer leafBuffer = ByteBuffer.wrap(leaf);
+			byte[] keys = new byte[(count + 1) * this.keyWidth];
+			System.arraycopy(leaf, NODE_DATA, keys, 0, index * this.keyWidth);
+			this.codec.write(ByteBuffer.wrap(keys), index * this.keyWidth, key);
+			System.arraycopy(leaf, NODE_DATA + index * this.keyWidth, keys, (index + 1) * this.keyWidth, (count - index) * this.keyWidth);
+			count++;
+
+			// Split the leaf, moving the upper half of its keys into a new leaf
+			// that follows it
+			int leftCount = count / 2;
+			int rightPage = this.allocatePage();
+			byte[] right = new byte[this.pageSize];
+			ByteBuffer rightBuffer = ByteBuffer.wrap(right);
+
+			rightBuffer.putInt(NODE_TYPE, LEAF);
+			rightBuffer.putInt(NODE_COUNT, count - leftCount);
+			rightBuffer.putInt(NODE_NEXT, leafBuffer.getInt(NODE_NEXT));
+			System.arraycopy(keys, leftCount * this.keyWidth, right, NODE_DATA, (count - leftCount) * this.keyWidth);
+
+			leafBuffer.putInt(NODE_COUNT, leftCount);
+			leafBuffer.putInt(NODE_NEXT, rightPage);
+			System.arraycopy(keys, 0, leaf, NODE_DATA, leftCount * this.keyWidth);
+
+			this.writePage(page, leaf);
+			this.writePage(rightPage, right);
+
+			// The first key of the new leaf separates it from the old leaf
+			byte[] separator = Arrays.copyOfRange(keys, leftCount * this.keyWidth, (leftCount + 1) * this.keyWidth);
+			this.insertSeparator(pathPages, pathIndices, this.height - 2, separator, rightPage);
+		}
+
+		this.size++;
+		this.writeHeader();
+
+		return true;
+	}
+
+	/**
+	 * Shifts a run of keys of a mapped page up by one key, opening a gap for a
+	 * new key at the start of the run. The keys are moved one at a time from
+	 * the end of the run, so that no key is copied over a key that has yet to
+	 * be moved.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>The page has room for one more key after the run</li>
+	 * </ol>
+	 *
+	 * @param region
+	 *            The region holding the page.
+	 * @param keyOffset
+	 *            The offset of the first key of the run within the region.
+	 * @param keyCount
+	 *            The number of keys in the run.
+	 */
+	private void shiftKeys (ByteBuffer region, int keyOffset, int keyCount) {
+
+		ByteBuffer source = region.duplicate();
+		ByteBuffer target = region.duplicate();
+
+		for (int end = keyOffset + keyCount * this.keyWidth; end > keyOffset; end -= this.keyWidth) {
+			source.limit(end);
+			source.position(end - this.keyWidth);
+			target.position(end);
+			target.put(source);
+		}
+	}
+
+	/**
+	 * Inserts a separator key and the page to its right into an internal page
+	 * of the insertion path, splitting the page (and its ancestors) if it is
+	 * full. A split of the root creates a new root.
+	 *
+	 * @param pathPages
+	 *            The internal pages on the insertion path.
+	 * @param pathIndices
+	 *            The index of the child taken from each internal page.
+	 * @param level
+	 *            The level of the internal page to insert into, or -1 if the
+	 *            root was split.
+	 * @param separator
+	 *            The encoded separator key.
+	 * @param rightChild
+	 *            The page to the right of the separator key.
+	 */
+	private void insertSeparator (int[] pathPages, int[] pathIndices, int level, byte[] separator, int rightChild) {
+
+		while (level >= 0) {
+
+			int page = pathPages[level];
+			int index = pathIndices[level];
+			byte[] node = this.readPage(page);
+			ByteBuffer nodeBuffer = ByteBuffer.wrap(node);
+			int count = nodeBuffer.getInt(NODE_COUNT);
+
+			// Insert the separator at the index of the child that was split,
+			// and the new child to its right
+			byte[] keys = new byte[(count + 1) * this.keyWidth];
+			System.arraycopy(node, this.internalKeys, keys, 0, index * this.keyWidth);
+			System.arraycopy(separator, 0, keys, index * this.keyWidth, this.keyWidth);
+			System.arraycopy(node, this.internalKeys + index * this.keyWidth, keys, (index + 1) * this.keyWidth, (count - index) * this.keyWidth);
+
+			int[] children = new int[count + 2];
+
+			for (int i = 0, j = 0; i <= count; i++) {
+				children[j++] = nodeBuffer.getInt(NODE_DATA + 4 * i);
+
+				if (i == index) {
+					children[j++] = rightChild;
+				}
+			}
+
+			count++;
+
+			if (count <= this.internalCapacity) {
+				// The separator fits in the page
+				this.fillInternal(nodeBuffer, keys, children, 0, count);
+				this.writePage(page, node);
+				return;
+			}
+
+			// Split the page around its middle key, which moves up a level
+			int middle = count / 2;
+			int rightPage = this.allocatePage();
+			byte[] right = new byte[this.pageSize];
+
+			this.fillInternal(nodeBuffer, keys, children, 0, middle);
+			this.fillInternal(ByteBuffer.wrap(right), keys, children, middle + 1, count - middle - 1);
+			this.writePage(page, node);
+			this.writePage(rightPage, right);
+
+			separator = Arrays.copyOfRange(keys, middle * this.keyWidth, (middle + 1) * this.keyWidth);
+			rightChild = rightPage;
+			level--;
+		}
+
+		// The root was split, so a new root is placed above it
+		int newRoot = this.allocatePage();
+		byte[] root = new byte[this.pageSize];
+		this.fillInternal(ByteBuffer.wrap(root), separator, new int[] { this.rootPage, rightChild }, 0, 1);
+		this.writePage(newRoot, root);
+
+		this.rootPage = newRoot;
+		this.height++;
+	}
+
+	/**
+	 * Fills an internal page image with a range of keys and the children
+	 * around them.
+	 *
+	 * @param node
+	 *            The page image to fill.
+	 * @param keys
+	 *            The encoded keys.
+	 * @param children
+	 *            The children around the keys (one more than the keys).
+	 * @param first
+	 *            The index of the first key to fill.
+	 * @param count
+	 *            The number of keys to fill.
+	 */
+	private void fillInternal (ByteBuffer node, byte[] keys, int[] children, int first, int count) {
+
+		node.putInt(NODE_TYPE, INTERNAL);
+		node.putInt(NODE_COUNT, count);
+		node.putInt(NODE_NEXT, NONE);
+
+		for (int i = 0; i <= count; i++) {
+			node.putInt(NODE_DATA + 4 * i, children[first + i]);
+		}
+
+		System.arraycopy(keys, first * this.keyWidth, node.array(), this.internalKeys, count * this.keyWidth);
+	}
+
+	/**
+	 * Scans the keys of the tree in ascending order, starting at the first key
+	 * that is greater than or equal to the provided lower bound and stopping
+	 * before the first key that is greater than or equal to the provided upper
+	 * bound. The leaves are read as the scan advances.
+	 *
+	 * @param from
+	 *            The inclusive lower bound, or null to scan from the first key.
+	 * @param to
+	 *            The exclusive upper bound, or null to scan to the last key.
+	 * @return
+	 *         An iterator over the keys in the range.
+	 */
+	public Iterator<K> rangeScan (final K from, final K to) {
+
+		this.ensureOpen();
+
+		// Find the first key of the range
+		final int firstLeaf = (from == null) ? this.firstLeaf() : this.findLeaf(from);
+		ByteBuffer region = this.region(firstLeaf);
+		int offset = this.offset(firstLeaf);
+		final int firstIndex = (from == null) ? 0 : this.lowerBound(region, offset + NODE_DATA, region.getInt(offset + NODE_COUNT), from);
+
+		return new Iterator<K>() {
+
+			private int leaf = firstLeaf;
+			private int index = firstIndex;
+			private K next = this.advance();
+
+			@Override
+			public boolean hasNext () {
+				return this.next != null;
+			}
+
+			@Override
+			public K next () {
+
+				if (this.next == null) {
+					throw new NoSuchElementException();
+				}
+
+				K current = this.next;
+				this.next = this.advance();
+
+				return current;
+			}
+
+			/**
+			 * Reads the next key of the range, following the links between the
+			 * leaves as required.
+			 */
+			private K advance () {
+
+				while (this.leaf != NONE) {
+
+					ByteBuffer region = MappedBPlusTree.this.region(this.leaf);
+					int offset = MappedBPlusTree.this.offset(this.leaf);
+
+					if (this.index < region.getInt(offset + NODE_COUNT)) {
+
+						int keyOffset = offset + NODE_DATA + this.index * MappedBPlusTree.this.keyWidth;
+
+						if (to != null && MappedBPlusTree.this.codec.compare(to, region, keyOffset) <= 0) {
+							// The key is beyond the upper bound
+							this.leaf = NONE;
+							return null;
+						}
+
+						this.index++;
+						return MappedBPlusTree.this.codec.read(region, keyOffset);
+					}
+
+					// Continue with the next leaf
+					this.leaf = region.getInt(offset + NODE_NEXT);
+					this.index = 0;
+				}
+
+				return null;
+			}
+		};
+	}
+
+	/**
+	 * Obtains a sorted array of the keys contained within the tree.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>Returned array is sorted</li>
+	 * </ol>
+	 *
+	 * @return
+	 *         A sorted array of the keys contained within the tree.
+	 */
+	@SuppressWarnings("unchecked")
+	public K[] toSortedArray () {
+
+		K[] array = (K[]) Array.newInstance(this.dataType, this.size);
+		Iterator<K> keys = this.rangeScan(null, null);
+
+		for (int i = 0; i < array.length; i++) {
+			array[i] = keys.next();
+		}
+
+		return array;
+	}
+
+	/**
+	 * Obtains a sorted list of the keys contained within the tree.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>list is sorted</li>
+	 * </ol>
+	 *
+	 * @return
+	 *         A sorted list of the keys contained within the tree.
+	 */
+	public List<K> toSortedList () {
+
+		List<K> list = new ArrayList<K>(this.size);
+
+		for (Iterator<K> keys = this.rangeScan(null, null); keys.hasNext();) {
+			list.add(keys.next());
+		}
+
+		return list;
+	}
+
+	/**
+	 * Forces all changes made to the tree to be written to the file.
+	 */
+	public void flush () {
+
+		this.ensureOpen();
+
+		for (MappedByteBuffer region : this.regions) {
+
+			if (region != null) {
+				region.force();
+			}
+		}
+	}
+
+	/**
+	 * Writes all changes made to the tree to the file, unmaps the file and
+	 * closes it. Closing a closed tree has no effect.
+	 *
+	 * @throws IOException
+	 *             If the file cannot be closed.
+	 */
+	@Override
+	public void close () throws IOException {
+
+		if (this.closed) {
+			return;
+		}
+
+		try {
+			this.flush();
+		}
+		finally {
+
+			this.closed = true;
+
+			for (int i = 0; i < this.regions.size(); i++) {
+				// Unmap each region
+				DirectBuffers.release(this.regions.get(i));
+				this.regions.set(i, null);
+			}
+
+			this.channel.close();
+		}
+	}
+
+	/**
+	 * Writes the header and the empty root leaf of a new tree.
+	 */
+	private void create () {
+
+		this.pageCount = 1;
+		this.rootPage = this.allocatePage();
+		this.height = 1;
+		this.size = 0;
+
+		byte[] root = new byte[this.pageSize];
+		ByteBuffer rootBuffer = ByteBuffer.wrap(root);
+		rootBuffer.putInt(NODE_TYPE, LEAF);
+		rootBuffer.putInt(NODE_COUNT, 0);
+		rootBuffer.putInt(NODE_NEXT, NONE);
+		this.writePage(this.rootPage, root);
+
+		ByteBuffer header = this.region(0);
+		header.putInt(HEADER_MAGIC, MAGIC);
+		header.putInt(HEADER_VERSION, VERSION);
+		header.putInt(HEADER_PAGE_SIZE, this.pageSize);
+		header.putInt(HEADER_KEY_WIDTH, this.keyWidth);
+		this.writeHeader();
+	}
+
+	/**
+	 * Reads the header of an existing tree.
+	 */
+	private void load () {
+
+		ByteBuffer header = this.region(0);
+		this.rootPage = header.getInt(HEADER_ROOT);
+		this.pageCount = header.getInt(HEADER_PAGE_COUNT);
+		this.height = header.getInt(HEADER_HEIGHT);
+		this.size = header.getInt(HEADER_SIZE);
+	}
+
+	/**
+	 * Writes the fields of the tree that change as it is modified to the
+	 * header.
+	 */
+	private void writeHeader () {
+
+		ByteBuffer header = this.region(0);
+		header.putInt(HEADER_ROOT, this.rootPage);
+		header.putInt(HEADER_PAGE_COUNT, this.pageCount);
+		header.putInt(HEADER_HEIGHT, this.height);
+		header.putInt(HEADER_SIZE, this.size);
+	}
+
+	/**
+	 * Finds the leaf whose range of keys includes the provided key.
+	 *
+	 * @param key
+	 *            The key to find.
+	 * @return
+	 *         The page of the leaf.
+	 */
+	private int findLeaf (K key) {
+
+		int page = this.rootPage;
+
+		for (int level = 0; level < this.height - 1; level++) {
+			ByteBuffer region = this.region(page);
+			int offset = this.offset(page);
+			int child = this.upperBound(region, offset + this.internalKeys, region.getInt(offset + NODE_COUNT), key);
+			page = region.getInt(offset + NODE_DATA + 4 * child);
+		}
+
+		return page;
+	}
+
+	/**
+	 * Finds the leftmost leaf of the tree.
+	 *
+	 * @return
+	 *         The page of the leftmost leaf.
+	 */
+	private int firstLeaf () {
+
+		int page = this.rootPage;
+
+		for (int level = 0; level < this.height - 1; level++) {
+			page = this.region(page).getInt(this.offset(page) + NODE_DATA);
+		}
+
+		return page;
+	}
+
+	/**
+	 * Finds the index of the first of a sorted run of encoded keys that is
+	 * greater than or equal to the provided key.
+	 *
+	 * @param buffer
+	 *            The buffer holding the keys.
+	 * @param keys
+	 *            The offset of the first key.
+	 * @param count
+	 *            The number of keys.
+	 * @param key
+	 *            The key to find.
+	 * @return
+	 *         The index of the first key greater than or equal to the key, or
+	 *         count if there is none.
+	 */
+	private int lowerBound (ByteBuffer buffer, int keys, int count, K key) {
+
+		int low = 0;
+		int high = count;
+
+		while (low < high) {
+
+			int middle = (low + high) >>> 1;
+
+			if (this.codec.compare(key, buffer, keys + middle * this.keyWidth) > 0) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Finds the index of the first of a sorted run of encoded keys that is
+	 * greater than the provided key.
+	 *
+	 * @param buffer
+	 *            The buffer holding the keys.
+	 * @param keys
+	 *            The offset of the first key.
+	 * @param count
+	 *            The number of keys.
+	 * @param key
+	 *            The key to find.
+	 * @return
+	 *         The index of the first key greater than the key, or count if
+	 *         there is none.
+	 */
+	private int upperBound (ByteBuffer buffer, int keys, int count, K key) {
+
+		int low = 0;
+		int high = count;
+
+		while (low < high) {
+
+			int middle = (low + high) >>> 1;
+
+			if (this.codec.compare(key, buffer, keys + middle * this.keyWidth) >= 0) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Allocates a new page at the end of the file.
+	 *
+	 * @return
+	 *         The new page.
+	 */
+	private int allocatePage () {
+		return this.pageCount++;
+	}
+
+	/**
+	 * Copies a page into a new array.
+	 *
+	 * @param page
+	 *            The page to copy.
+	 * @return
+	 *         A copy of the page.
+	 */
+	private byte[] readPage (int page) {
+
+		byte[] image = new byte[this.pageSize];
+		ByteBuffer view = this.region(page).duplicate();
+		view.position(this.offset(page));
+		view.get(image);
+
+		return image;
+	}
+
+	/**
+	 * Writes an array over a page.
+	 *
+	 * @param page
+	 *            The page to write.
+	 * @param image
+	 *            The contents of the page.
+	 */
+	private void writePage (int page, byte[] image) {
+
+		ByteBuffer view = this.region(page).duplicate();
+		view.position(this.offset(page));
+		view.put(image);
+	}
+
+	/**
+	 * Obtains the mapped region of the file holding a page, mapping the region
+	 * (and extending the file) if it has not yet been mapped.
+	 *
+	 * @param page
+	 *            The page.
+	 * @return
+	 *         The region holding the page.
+	 */
+	private ByteBuffer region (int page) {
+
+		int index = page / PAGES_PER_REGION;
+
+		while (this.regions.size() <= index) {
+			this.regions.add(null);
+		}
+
+		MappedByteBuffer region = this.regions.get(index);
+
+		if (region == null) {
+
+			long regionSize = (long) this.pageSize * PAGES_PER_REGION;
+
+			try {
+				region = this.channel.map(FileChannel.MapMode.READ_WRITE, index * regionSize, regionSize);
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Unable to map page " + page + " of the file", e);
+			}
+
+			this.regions.set(index, region);
+		}
+
+		return region;
+	}
+
+	/**
+	 * Obtains the offset of a page within its region.
+	 *
+	 * @param page
+	 *            The page.
+	 * @return
+	 *         The offset of the first byte of the page within its region.
+	 */
+	private int offset (int page) {
+		return (page % PAGES_PER_REGION) * this.pageSize;
+	}
+
+	/**
+	 * Ensures that the tree has not been closed.
+	 *
+	 * @throws IllegalStateException
+	 *             If the tree has been closed.
+	 */
+	private void ensureOpen () {
+
+		if (this.closed) {
+			throw new IllegalStateException("The tree has been closed");
+		}
+	}
+
+	/**
+	 * Ensures that a page size is a power of two from 512 to 65536 bytes.
+	 *
+	 * @param pageSize
+	 *            The page size.
+	 * @return
+	 *         The page size.
+	 */
+	private static int validatePageSize (int pageSize) {
+
+		if (pageSize < 512 || pageSize > 65536 || Integer.bitCount(pageSize) != 1) {
+			throw new IllegalArgumentException("The page size must be a power of two from 512 to 65536 bytes: " + pageSize);
+		}
+
+		return pageSize;
+	}
+}
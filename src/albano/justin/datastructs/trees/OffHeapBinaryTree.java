@@ -0,0 +1,412 @@
+package albano.justin.datastructs.trees;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A balanced binary search tree of fixed-width keys whose nodes are stored
+ * outside of the Java heap, in direct {@link ByteBuffer}s. The keys are
+ * encoded by a {@link KeyCodec}, which also compares search keys against the
+ * stored keys in place. Since the nodes are not Java objects, even a very large
+ * tree adds nothing to the work of the garbage collector or to the required
+ * heap size.
+ *
+ * <p>
+ * Nodes are allocated from a sequence of buffers (slabs). Each node is
+ * identified by an index, which determines its slab and its offset within the
+ * slab; a node consists of the index of its left and right children, its
+ * height, and its encoded key. The first slab is small, and each new slab
+ * doubles the capacity of the tree until the slabs reach their maximum size,
+ * after which every new slab has the maximum size. New slabs are allocated as
+ * the tree grows, so existing nodes are never copied. The tree is kept
+ * balanced with the AVL rotations of {@link AVLTree} (see
+ * {@link AbstractIndexedTree}).
+ * </p>
+ *
+ * <p>
+ * The memory of the tree is released by {@link #close()}, after which the tree
+ * can no longer be used.
+ * </p>
+ *
+ * @author Justin Albano
+ */
+public class OffHeapBinaryTree<K> extends AbstractIndexedTree implements AutoCloseable {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	/**
+	 * The default maximum size of each slab, in bytes.
+	 */
+	public static final int DEFAULT_SLAB_BYTES = 1 << 26;
+
+	/**
+	 * The size of the first slab, in bytes (or the maximum size of each slab,
+	 * if that is smaller).
+	 */
+	private static final int FIRST_SLAB_BYTES = 1 << 16;
+
+	// The offsets of the fields of a node
+	private static final int LEFT = 0;
+	private static final int RIGHT = 4;
+	private static final int HEIGHT = 8;
+	private static final int KEY = 12;
+
+	private final Class<K> dataType;
+	private final KeyCodec<K> codec;
+	private final int stride;
+
+	/**
+	 * The number of nodes of the first slab, and its base 2 logarithm.
+	 */
+	private final int firstNodes;
+	private final int firstShift;
+
+	/**
+	 * The number of nodes of a slab of the maximum size, and its base 2
+	 * logarithm. The slabs double in size until they hold this many nodes.
+	 */
+	private final int slabShift;
+	private final int slabMask;
+
+	/**
+	 * The number of slabs that together hold as many nodes as a slab of the
+	 * maximum size, which is the index of the slab holding the node at that
+	 * index.
+	 */
+	private final int growthSlabs;
+
+	private ByteBuffer[] slabs;
+	private int slabCount;
+	private int capacity;
+	private boolean closed;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates a default, empty tree of keys.
+	 *
+	 * @param dataType
+	 *            The class of the keys being stored in the tree.
+	 * @param codec
+	 *            The codec used to store the keys.
+	 */
+	public OffHeapBinaryTree (Class<K> dataType, KeyCodec<K> codec) {
+		this(dataType, codec, DEFAULT_SLAB_BYTES);
+	}
+
+	/**
+	 * Creates an empty tree of keys that allocates its nodes in slabs of at
+	 * most the provided size.
+	 *
+	 * @param dataType
+	 *            The class of the keys being stored in the tree.
+	 * @param codec
+	 *            The codec used to store the keys.
+	 * @param slabBytes
+	 *            The maximum size of each slab, in bytes. Each slab holds a
+	 *            power of two number of nodes, and a slab of the maximum size
+	 *            holds the largest power of two number of nodes that fits.
+	 */
+	public OffHeapBinaryTree (Class<K> dataType, KeyCodec<K> codec, int slabBytes) {
+
+		this.dataType = dataType;
+		this.codec = codec;
+		this.stride = KEY + codec.width();
+
+		if (slabBytes < this.stride) {
+			throw new IllegalArgumentException("A slab of " + slabBytes + " bytes cannot hold a node of " + this.stride + " bytes");
+		}
+
+		// Each slab holds a power of two number of nodes, so the slab and
+		// offset of a node are obtained from its index with shifts and masks
+		int nodesPerSlab = Integer.highestOneBit(slabBytes / this.stride);
+		this.slabShift = Integer.numberOfTrailingZeros(nodesPerSlab);
+		this.slabMask = nodesPerSlab - 1;
+		this.firstNodes = Integer.highestOneBit(Math.max(Math.min(FIRST_SLAB_BYTES, slabBytes) / this.stride, 1));
+		this.firstShift = Integer.numberOfTrailingZeros(this.firstNodes);
+		this.growthSlabs = this.slabShift - this.firstShift + 1;
+
+		this.slabs = new ByteBuffer[4];
+		this.slabCount = 0;
+		this.capacity = 0;
+		this.closed = false;
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Returns number of keys currently stored in the tree.
+	 *
+	 * @return
+	 *         The number of keys currently stored in the tree.
+	 */
+	public int size () {
+		return this.size;
+	}
+
+	/**
+	 * Obtains the height of the tree.
+	 *
+	 * @return
+	 *         The height of the tree.
+	 */
+	public int height () {
+		this.ensureOpen();
+		return this.height(this.rootNode);
+	}
+
+	/**
+	 * Insert a key into the tree. Keys equal to an existing key are added to
+	 * the left of the existing key.
+	 *
+	 * @param key
+	 *            The key to insert into the tree.
+	 */
+	public void insert (K key) {
+
+		this.ensureOpen();
+
+		int depth = 0;
+		int node = this.rootNode;
+
+		while (node != NIL) {
+			// Record the path down to the leaf position of the key
+			boolean left = this.codec.compare(key, this.slab(node), this.offset(node) + KEY) <= 0;
+			this.path[depth] = node;
+			this.pathLeft[depth++] = left;
+			node = left ? this.left(node) : this.right(node);
+		}
+
+		// Create the node and link it into the tree
+		int newNode = this.allocateNode();
+		this.codec.write(this.slab(newNode), this.offset(newNode) + KEY, key);
+		this.attach(depth, newNode);
+	}
+
+	/**
+	 * Checks if the key provided is found within the tree.
+	 *
+	 * @param target
+	 *            The key to search for in the tree.
+	 * @return
+	 *         True if the key is found in the tree; false otherwise.
+	 */
+	public boolean isInTree (K target) {
+
+		this.ensureOpen();
+
+		int node = this.rootNode;
+
+		while (node != NIL) {
+
+			int comparison = this.codec.compare(target, this.slab(node), this.offset(node) + KEY);
+
+			if (comparison == 0) {
+				// The key is found at the current node
+				return true;
+			}
+
+			node = (comparison < 0) ? this.left(node) : this.right(node);
+		}
+
+		return false;
+	}
+
+	/**
+	 * Obtains a sorted array of the keys contained within the tree. The keys
+	 * are decoded onto the Java heap.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>Returned array is sorted</li>
+	 * </ol>
+	 *
+	 * @return
+	 *         A sorted array of the keys contained within the tree.
+	 */
+	@SuppressWarnings("unchecked")
+	public K[] toSortedArray () {
+
+		this.ensureOpen();
+
+		K[] array = (K[]) Array.newInstance(this.dataType, this.size);
+		int[] stack = new int[MAX_HEIGHT];
+		int depth = 0;
+		int index = 0;
+		int node = this.rootNode;
+
+		while (node != NIL || depth > 0) {
+
+			while (node != NIL) {
+				// Descend as far left as possible
+				stack[depth++] = node;
+				node = this.left(node);
+			}
+
+			// Add the smallest remaining key and traverse its right subtree
+			node = stack[--depth];
+			array[index++] = this.codec.read(this.slab(node), this.offset(node) + KEY);
+			node = this.right(node);
+		}
+
+		return array;
+	}
+
+	/**
+	 * Releases the memory of the tree. The tree can no longer be used once it
+	 * is closed; closing a closed tree has no effect.
+	 */
+	@Override
+	public void close () {
+
+		if (this.closed) {
+			return;
+		}
+
+		this.closed = true;
+
+		for (int i = 0; i < this.slabCount; i++) {
+			// Release the memory of each slab
+			DirectBuffers.release(this.slabs[i]);
+			this.slabs[i] = null;
+		}
+
+		this.slabCount = 0;
+		this.capacity = 0;
+		this.rootNode = NIL;
+		this.size = 0;
+	}
+
+	/**
+	 * Ensures that the tree has not been closed.
+	 *
+	 * @throws IllegalStateException
+	 *             If the tree has been closed.
+	 */
+	private void ensureOpen () {
+
+		if (this.closed) {
+			throw new IllegalStateException("The tree has been closed");
+		}
+	}
+
+	/**
+	 * Allocates a new leaf node, allocating a new slab if required. The key of
+	 * the node must be stored by the caller.
+	 *
+	 * @return
+	 *         The index of the new node.
+	 */
+	private int allocateNode () {
+
+		int node = this.size;
+
+		if (node == this.capacity) {
+
+			if (this.slabCount == this.slabs.length) {
+				// Grow the array of slabs
+				this.slabs = Arrays.copyOf(this.slabs, this.slabCount * 2);
+			}
+
+			// Allocate the next slab, which doubles the capacity of the tree
+			// until the slabs reach their maximum size
+			int nodes = (this.slabCount == 0) ? this.firstNodes : Math.min(this.capacity, this.slabMask + 1);
+			ByteBuffer slab = ByteBuffer.allocateDirect(nodes * this.stride);
+			this.slabs[this.slabCount++] = slab.order(ByteOrder.nativeOrder());
+			this.capacity += nodes;
+		}
+
+		this.setLeft(node, NIL);
+		this.setRight(node, NIL);
+		this.setNodeHeight(node, 1);
+
+		return node;
+	}
+
+	@Override
+	protected int left (int node) {
+		return this.slab(node).getInt(this.offset(node) + LEFT);
+	}
+
+	@Override
+	protected void setLeft (int node, int left) {
+		this.slab(node).putInt(this.offset(node) + LEFT, left);
+	}
+
+	@Override
+	protected int right (int node) {
+		return this.slab(node).getInt(this.offset(node) + RIGHT);
+	}
+
+	@Override
+	protected void setRight (int node, int right) {
+		this.slab(node).putInt(this.offset(node) + RIGHT, right);
+	}
+
+	@Override
+	protected int nodeHeight (int node) {
+		return this.slab(node).getInt(this.offset(node) + HEIGHT);
+	}
+
+	@Override
+	protected void setNodeHeight (int node, int height) {
+		this.slab(node).putInt(this.offset(node) + HEIGHT, height);
+	}
+
+	/**
+	 * Obtains the slab holding a node. The slabs that double the capacity of
+	 * the tree start at a power of two multiple of the first slab, so the
+	 * slab of a node among them is found from the highest set bit of its
+	 * index.
+	 *
+	 * @param node
+	 *            The index of the node.
+	 * @return
+	 *         The slab holding the node.
+	 */
+	private ByteBuffer slab (int node) {
+
+		int slab;
+
+		if (node < this.firstNodes) {
+			slab = 0;
+		}
+		else if ((node >>> this.slabShift) < 2) {
+			slab = 32 - Integer.numberOfLeadingZeros(node >>> this.firstShift);
+		}
+		else {
+			slab = this.growthSlabs - 1 + (node >>> this.slabShift);
+		}
+
+		return this.slabs[slab];
+	}
+
+	/**
+	 * Obtains the offset of a node within its slab.
+	 *
+	 * @param node
+	 *            The index of the node.
+	 * @return
+	 *         The offset of the first byte of the node within its slab.
+	 */
+	private int offset (int node) {
+
+		if (node < this.firstNodes) {
+			return node * this.stride;
+		}
+		else if ((node >>> this.slabShift) < 2) {
+			return (node - Integer.highestOneBit(node)) * this.stride;
+		}
+		else {
+			return (node & this.slabMask) * this.stride;
+		}
+	}
+}
@@ -0,0 +1,338 @@
+package albano.justin.datastructs.trees;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable, self-balancing (AVL) binary search tree. Inserting data does
+ * not change the tree, but returns a new version of the tree: only the nodes
+ * on the path from the root to the new data are copied, and every other node
+ * is shared with the previous version. An insertion therefore allocates
+ * O(log n) nodes, and keeping a version of the tree (a snapshot) costs
+ * nothing, since the version can never change.
+ *
+ * <p>
+ * Every version, and every {@link PersistentTreeNode} it is made of, is
+ * immutable, so any number of threads can read a version without locking. A
+ * writer publishes each new version to its readers through a
+ * <code>volatile</code> field or an
+ * {@link java.util.concurrent.atomic.AtomicReference}; a reader that obtains a
+ * version keeps a consistent view of the tree for as long as it holds it.
+ * </p>
+ *
+ * <p>
+ * Like {@link BinaryTree}, the tree may contain duplicate data.
+ * </p>
+ *
+ * @author Justin Albano
+ */
+public final class PersistentBinaryTree<T extends Comparable<T>> {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	private final PersistentTreeNode<T> rootNode;
+	private final Class<T> dataType;
+	private final int size;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates an empty tree of data.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 */
+	public PersistentBinaryTree (Class<T> dataType) {
+		this(dataType, null, 0);
+	}
+
+	/**
+	 * Creates a populated tree of data, using the provided array as the data
+	 * for the tree. The provided array is not modified. Upon adding the data
+	 * provided, the tree is guaranteed to be balanced.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            An array of data to use as the data for the tree.
+	 */
+	public PersistentBinaryTree (Class<T> dataType, T[] data) {
+		this(dataType, buildBalanced(sortedCopy(data), 0, (data == null) ? -1 : data.length - 1), (data == null) ? 0 : data.length);
+	}
+
+	/**
+	 * Creates a version of a tree.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param rootNode
+	 *            The root of the version.
+	 * @param size
+	 *            The number of data in the version.
+	 */
+	private PersistentBinaryTree (Class<T> dataType, PersistentTreeNode<T> rootNode, int size) {
+		this.rootNode = rootNode;
+		this.dataType = dataType;
+		this.size = size;
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Returns number of elements stored in the tree.
+	 *
+	 * @return
+	 *         The number of elements stored in the tree.
+	 */
+	public int size () {
+		return this.size;
+	}
+
+	/**
+	 * Obtains the height of the tree. Since the height of the tree is cached
+	 * in the root node, this operation is performed in constant time.
+	 *
+	 * @return
+	 *         The height of the tree.
+	 */
+	public int height () {
+		return PersistentTreeNode.height(this.rootNode);
+	}
+
+	/**
+	 * Obtains the root of the tree.
+	 *
+	 * @return
+	 *         The root of the tree, or null if the tree is empty.
+	 */
+	public PersistentTreeNode<T> getRootNode () {
+		return this.rootNode;
+	}
+
+	/**
+	 * Checks if the target data provided is found within the tree.
+	 *
+	 * @param target
+	 *            The data to search for in the tree.
+	 * @return
+	 *         True if the target data is found in the tree; false if the target
+	 *         data is not found in the tree.
+	 */
+	public boolean isInTree (T target) {
+
+		PersistentTreeNode<T> current = this.rootNode;
+
+		while (current != null) {
+
+			int comparison = target.compareTo(current.getData());
+
+			if (comparison == 0) {
+				// The data being searched for is found at the current node
+				return true;
+			}
+
+			current = (comparison < 0) ? current.getLeftNode() : current.getRightNode();
+		}
+
+		return false;
+	}
+
+	/**
+	 * Obtains a new version of the tree that also contains the provided data.
+	 * Data equal to existing data is added to the left of the existing data.
+	 * This version of the tree is not changed.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The new version is balanced</li>
+	 * </ol>
+	 *
+	 * @param data
+	 *            The data to insert into the new version.
+	 * @return
+	 *         The new version of the tree.
+	 */
+	public PersistentBinaryTree<T> insert (T data) {
+		return new PersistentBinaryTree<T>(this.dataType, insert(this.rootNode, data), this.size + 1);
+	}
+
+	/**
+	 * Helper method used to insert data into a subtree, copying the nodes on
+	 * the path to the data and rebalancing the copies on the way back up. The
+	 * recursion depth is bounded by the height of the tree, which is
+	 * logarithmic in the size of the tree.
+	 *
+	 * @param node
+	 *            The root of the subtree to insert the data into.
+	 * @param data
+	 *            The data to add to the subtree.
+	 * @return
+	 *         The root of the new subtree.
+	 */
+	private static <T extends Comparable<T>> PersistentTreeNode<T> insert (PersistentTreeNode<T> node, T data) {
+
+		if (node == null) {
+			return new PersistentTreeNode<T>(data, null, null);
+		}
+		else if (data.compareTo(node.getData()) <= 0) {
+			return balance(node.getData(), insert(node.getLeftNode(), data), node.getRightNode());
+		}
+		else {
+			return balance(node.getData(), node.getLeftNode(), insert(node.getRightNode(), data));
+		}
+	}
+
+	/**
+	 * Creates a node from the provided data and subtrees, rotating it to
+	 * restore the AVL property if the heights of the subtrees differ by 2. Only
+	 * the nodes whose children change are created; the subtrees beneath them
+	 * are shared.
+	 *
+	 * @param data
+	 *            The data of the node.
+	 * @param left
+	 *            The left subtree, an AVL tree.
+	 * @param right
+	 *            The right subtree, an AVL tree.
+	 * @return
+	 *         The root of the balanced subtree.
+	 */
+	private static <T extends Comparable<T>> PersistentTreeNode<T> balance (T data, PersistentTreeNode<T> left, PersistentTreeNode<T> right) {
+
+		int balanceFactor = PersistentTreeNode.height(left) - PersistentTreeNode.height(right);
+
+		if (balanceFactor > 1) {
+
+			PersistentTreeNode<T> leftLeft = left.getLeftNode();
+			PersistentTreeNode<T> leftRight = left.getRightNode();
+
+			if (PersistentTreeNode.height(leftLeft) >= PersistentTreeNode.height(leftRight)) {
+				// Single (right) rotation
+				return new PersistentTreeNode<T>(left.getData(), leftLeft, new PersistentTreeNode<T>(data, leftRight, right));
+			}
+
+			// Double (left-right) rotation
+			return new PersistentTreeNode<T>(leftRight.getData(),
+					new PersistentTreeNode<T>(left.getData(), leftLeft, leftRight.getLeftNode()),
+					new PersistentTreeNode<T>(data, leftRight.getRightNode(), right));
+		}
+		else if (balanceFactor < -1) {
+
+			PersistentTreeNode<T> rightLeft = right.getLeftNode();
+			PersistentTreeNode<T> rightRight = right.getRightNode();
+
+			if (PersistentTreeNode.height(rightRight) >= PersistentTreeNode.height(rightLeft)) {
+				// Single (left) rotation
+				return new PersistentTreeNode<T>(right.getData(), new PersistentTreeNode<T>(data, left, rightLeft), rightRight);
+			}
+
+			// Double (right-left) rotation
+			return new PersistentTreeNode<T>(rightLeft.getData(),
+					new PersistentTreeNode<T>(data, left, rightLeft.getLeftNode()),
+					new PersistentTreeNode<T>(right.getData(), rightLeft.getRightNode(), rightRight));
+		}
+
+		return new PersistentTreeNode<T>(data, left, right);
+	}
+
+	/**
+	 * Obtains a sorted array of the data contained within the tree.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>Returned array is sorted</li>
+	 * </ol>
+	 *
+	 * @return
+	 *         A sorted array of the data contained within the tree.
+	 */
+	@SuppressWarnings("unchecked")
+	public T[] toSortedArray () {
+
+		T[] array = (T[]) Array.newInstance(this.dataType, this.size);
+
+		// Perform an in-order traversal, using an explicit stack whose depth is
+		// the height of the tree
+		@SuppressWarnings("rawtypes")
+		PersistentTreeNode[] stack = new PersistentTreeNode[this.height()];
+		PersistentTreeNode<T> node = this.rootNode;
+		int depth = 0;
+		int index = 0;
+
+		while (node != null || depth > 0) {
+
+			while (node != null) {
+				stack[depth++] = node;
+				node = node.getLeftNode();
+			}
+
+			node = stack[--depth];
+			array[index++] = node.getData();
+			node = node.getRightNode();
+		}
+
+		return array;
+	}
+
+	/**
+	 * Obtains a sorted list of the data contained within the tree.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>list is sorted</li>
+	 * </ol>
+	 *
+	 * @return
+	 *         A sorted list of the data contained within the tree.
+	 */
+	public List<T> toSortedList () {
+		return new ArrayList<T>(Arrays.asList(this.toSortedArray()));
+	}
+
+	/**
+	 * Copies and sorts an array of data.
+	 */
+	private static <T> Object[] sortedCopy (T[] data) {
+
+		if (data == null) {
+			return new Object[0];
+		}
+
+		Object[] sorted = data.clone();
+		Arrays.sort(sorted);
+
+		return sorted;
+	}
+
+	/**
+	 * Links a range of sorted data into a balanced subtree.
+	 *
+	 * @param data
+	 *            The sorted data.
+	 * @param first
+	 *            The index of the first data of the subtree.
+	 * @param last
+	 *            The index of the last data of the subtree.
+	 * @return
+	 *         The root of the subtree, or null if the range is empty.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T extends Comparable<T>> PersistentTreeNode<T> buildBalanced (Object[] data, int first, int last) {
+
+		if (first > last) {
+			return null;
+		}
+
+		int middle = (first + last) >>> 1;
+
+		return new PersistentTreeNode<T>((T) data[middle], PersistentBinaryTree.<T> buildBalanced(data, first, middle - 1), PersistentBinaryTree.<T> buildBalanced(data, middle + 1, last));
+	}
+}
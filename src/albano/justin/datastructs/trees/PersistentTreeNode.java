@@ -0,0 +1,80 @@
+package albano.justin.datastructs.trees;
+
+/**
+ * An immutable node of a {@link PersistentBinaryTree}. The data, children and
+ * cached height of a node are fixed when it is created, so a node (and the
+ * subtree beneath it) can be shared by any number of versions of a tree and
+ * read by any number of threads without synchronization.
+ *
+ * @author Justin Albano
+ */
+public final class PersistentTreeNode<T extends Comparable<T>> {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	private final T data;
+	private final PersistentTreeNode<T> leftNode;
+	private final PersistentTreeNode<T> rightNode;
+	private final int height;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates a node with the provided data and children.
+	 * 
+	 * @param data
+	 *            The data to store within the node.
+	 * @param left
+	 *            The left child of the node.
+	 * @param right
+	 *            The right child of the node.
+	 */
+	public PersistentTreeNode (T data, PersistentTreeNode<T> left, PersistentTreeNode<T> right) {
+		this.data = data;
+		this.leftNode = left;
+		this.rightNode = right;
+		this.height = 1 + Math.max(height(left), height(right));
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	public T getData () {
+		return this.data;
+	}
+
+	public PersistentTreeNode<T> getLeftNode () {
+		return this.leftNode;
+	}
+
+	public PersistentTreeNode<T> getRightNode () {
+		return this.rightNode;
+	}
+
+	/**
+	 * Obtains the height of the subtree rooted at this node.
+	 * 
+	 * @return
+	 *         The height of the subtree rooted at this node.
+	 */
+	public int getHeight () {
+		return this.height;
+	}
+
+	/**
+	 * Obtains the height of a subtree.
+	 * 
+	 * @param node
+	 *            The root of the subtree.
+	 * @return
+	 *         The height of the subtree, or 0 if the subtree is empty.
+	 */
+	static int height (PersistentTreeNode<?> node) {
+		return (node == null) ? 0 : node.height;
+	}
+}
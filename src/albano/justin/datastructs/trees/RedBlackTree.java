@@ -0,0 +1,728 @@
+package albano.justin.datastructs.trees;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.function.ToLongFunction;
+
+/**
+ * A self-balancing binary search tree that colors each node red or black and
+ * repairs the coloring after every insertion and removal. Compared to an {@link AVLTree},
+ * the balance condition is looser (the height is at most 2 log2(n + 1)), so
+ * an insertion performs at most two rotations.
+ *
+ * <h1>Citations</h1>
+ * <ul>
+ * <li>The insert, delete and repair algorithms are based on the algorithms
+ * depicted in Cormen, Leiserson, Rivest and Stein, <i>Introduction to
+ * Algorithms</i>, Chapter 13 (Red-Black Trees)</li>
+ * </ul>
+ *
+ * @author Justin Albano
+ */
+public class RedBlackTree<T extends Comparable<T>> extends BinaryTree<T> {
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates a default, empty red-black tree of data.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 */
+	public RedBlackTree (Class<T> dataType) {
+		super(dataType);
+	}
+
+	/**
+	 * Creates a default, empty red-black tree of data, ordered by the provided
+	 * comparator rather than by the natural order of the data.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 */
+	public RedBlackTree (Class<T> dataType, Comparator<? super T> comparator) {
+		super(dataType, comparator);
+	}
+
+	/**
+	 * Creates a default, empty red-black tree of data, ordered by a primitive
+	 * key extracted from the data (see
+	 * {@link BinaryTree#BinaryTree(Class, ToLongFunction)}).
+	 * The key of both pieces of data is extracted on every comparison.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param keyExtractor
+	 *            The function that extracts the key of the data.
+	 */
+	public RedBlackTree (Class<T> dataType, ToLongFunction<? super T> keyExtractor) {
+		super(dataType, keyExtractor);
+	}
+
+	/**
+	 * Creates a populated red-black tree of data, using the provided array as
+	 * the default data for the tree.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 */
+	public RedBlackTree (Class<T> dataType, T[] data) {
+		super(dataType, data);
+	}
+
+	/**
+	 * Creates a populated red-black tree of data, using the provided array as the
+	 * default data for the tree. If the array is declared to be sorted, it is
+	 * linked into the tree without sorting it or performing any comparisons.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>If sorted is true, the array is sorted in ascending order</li>
+	 * </ol>
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 * @param sorted
+	 *            True if the array is already sorted in ascending order; false
+	 *            if the array must be sorted (in place) before use.
+	 */
+	public RedBlackTree (Class<T> dataType, T[] data, boolean sorted) {
+		super(dataType, data, sorted);
+	}
+
+	/**
+	 * Creates a populated red-black tree of data, ordered by the provided comparator,
+	 * using the provided array as the default data for the tree. If the array
+	 * is not declared to be sorted, it is sorted by the comparator.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>If sorted is true, the array is sorted in the order of the
+	 * comparator</li>
+	 * </ol>
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 * @param sorted
+	 *            True if the array is already sorted in the order of the
+	 *            comparator; false if the array must be sorted (in place)
+	 *            before use.
+	 */
+	public RedBlackTree (Class<T> dataType, Comparator<? super T> comparator, T[] data, boolean sorted) {
+		super(dataType, comparator, data, sorted);
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Balances the tree. Since the red-black properties are restored after
+	 * every insertion, no work is performed.
+	 */
+	@Override
+	public void rebalance () {}
+
+	/**
+	 * Builds a balanced subtree from a range of a sorted array and colors it
+	 * so that it satisfies the red-black properties.
+	 *
+	 * @param data
+	 *            An array containing the data to be linked into the subtree.
+	 * @param first
+	 *            Index of the first element in the array.
+	 * @param last
+	 *            Index of the last element in the array.
+	 * @return
+	 *         The root of the balanced subtree, or null if the range is empty.
+	 */
+	@Override
+	protected BinaryTreeNode<T> buildBalanced (T[] data, int first, int last) {
+		return colorBalanced(super.buildBalanced(data, first, last));
+	}
+
+	/**
+	 * Builds a balanced subtree from the next elements of a sorted iterator
+	 * and colors it so that it satisfies the red-black properties.
+	 *
+	 * @param sortedData
+	 *            An iterator over the sorted data to link into the subtree.
+	 * @param count
+	 *            The number of elements to take from the iterator.
+	 * @return
+	 *         The root of the balanced subtree, or null if count is 0.
+	 */
+	@Override
+	protected BinaryTreeNode<T> buildBalanced (Iterator<? extends T> sortedData, int count) {
+		return colorBalanced(super.buildBalanced(sortedData, count));
+	}
+
+	/**
+	 * Creates a black node for the tree with the provided children, linking
+	 * the children back to the new node.
+	 *
+	 * @param data
+	 *            The data to store within the node.
+	 * @param left
+	 *            The left subtree of the node.
+	 * @param right
+	 *            The right subtree of the node.
+	 * @return
+	 *         The newly created node.
+	 */
+	@Override
+	protected BinaryTreeNode<T> createNode (T data, BinaryTreeNode<T> left, BinaryTreeNode<T> right) {
+
+		RedBlackTreeNode<T> node = new RedBlackTreeNode<T>(data);
+		node.setRed(false);
+
+		// Link the children in both directions
+		node.setLeftNode(left);
+		node.setRightNode(right);
+
+		if (left != null) {
+			((RedBlackTreeNode<T>) left).setParentNode(node);
+		}
+
+		if (right != null) {
+			((RedBlackTreeNode<T>) right).setParentNode(node);
+		}
+
+		node.updateHeight();
+		node.updateSize();
+
+		return node;
+	}
+
+	/**
+	 * Colors a balanced subtree of black nodes so that it satisfies the
+	 * red-black properties. Every leaf of a balanced subtree is on one of its
+	 * two deepest levels, so coloring the nodes on the deepest level red (and
+	 * leaving the rest black) gives every path the same number of black nodes
+	 * without placing a red node below another red node.
+	 *
+	 * @param subtree
+	 *            The root of the balanced subtree.
+	 * @return
+	 *         The root of the colored subtree.
+	 */
+	private static <T extends Comparable<T>> BinaryTreeNode<T> colorBalanced (BinaryTreeNode<T> subtree) {
+
+		if (subtree == null || subtree.getHeight() == 1) {
+			// An empty subtree or a single (black) node is already valid
+			return subtree;
+		}
+
+		// Walk down the levels of the subtree until the deepest level
+		Deque<BinaryTreeNode<T>> level = new ArrayDeque<BinaryTreeNode<T>>();
+		level.add(subtree);
+
+		for (int depth = 1; depth < subtree.getHeight(); depth++) {
+
+			// Replace each node on the current level with its children
+			for (int remaining = level.size(); remaining > 0; remaining--) {
+
+				BinaryTreeNode<T> node = level.remove();
+
+				if (node.getLeftNode() != null) {
+					level.add(node.getLeftNode());
+				}
+
+				if (node.getRightNode() != null) {
+					level.add(node.getRightNode());
+				}
+			}
+		}
+
+		for (BinaryTreeNode<T> node : level) {
+			// Color the nodes on the deepest level red
+			((RedBlackTreeNode<T>) node).setRed(true);
+		}
+
+		return subtree;
+	}
+
+	/**
+	 * Insert data into the tree, recoloring and rotating the nodes above the
+	 * inserted node as necessary to restore the red-black properties.
+	 *
+	 * @param data
+	 *            The data to insert into the tree.
+	 */
+	@Override
+	public void insert (T data) {
+
+		// Link the data into the tree and repair the tree
+		this.link(data);
+
+		// Increment the size of the tree
+		this.size++;
+		this.modCount++;
+	}
+
+	/**
+	 * Inserts a batch of sorted data into the tree. Splicing whole ranges of
+	 * the batch into the tree would break the red-black properties, so a
+	 * batch large enough that linking it one element at a time would take
+	 * longer than rebuilding the tree (see {@link #prefersRebuild(int)}) is
+	 * merged with the data of the tree into a new, colored balanced tree (see
+	 * {@link #merge(Comparable[])}), in O(n + m) time. A smaller batch is
+	 * linked one element at a time, in O(m log n) time.
+	 *
+	 * @param sortedData
+	 *            The sorted data to insert into the tree.
+	 * @return
+	 *         0, since the tree stays balanced.
+	 */
+	@Override
+	protected int splice (T[] sortedData) {
+
+		if (this.prefersRebuild(sortedData.length)) {
+			this.merge(sortedData);
+			return 0;
+		}
+
+		for (T data : sortedData) {
+			this.link(data);
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Links a new node holding the data into the tree, without changing the
+	 * size of the tree, and restores the red-black properties.
+	 *
+	 * @param data
+	 *            The data to link into the tree.
+	 */
+	private void link (T data) {
+
+		RedBlackTreeNode<T> newNode = new RedBlackTreeNode<T>(data);
+		RedBlackTreeNode<T> parent = null;
+		RedBlackTreeNode<T> current = this.root();
+		boolean insertLeft = false;
+		int comparisons = 0;
+
+		while (current != null) {
+			// Walk down to the leaf position of the new data (data less than
+			// or equal to the current data is added to the left subtree)
+			parent = current;
+			parent.setSize(parent.getSize() + 1);
+			insertLeft = this.compare(data, current.getData()) <= 0;
+			current = insertLeft ? left(current) : right(current);
+			comparisons++;
+		}
+
+		if (TreeMetrics.ENABLED) {
+			this.metrics.recordInsert(comparisons);
+		}
+
+		// Link the new node below its parent
+		newNode.setParentNode(parent);
+
+		if (parent == null) {
+			this.rootNode = newNode;
+		}
+		else if (insertLeft) {
+			parent.setLeftNode(newNode);
+		}
+		else {
+			parent.setRightNode(newNode);
+		}
+
+		// Repair any red-red violation introduced by the new node
+		this.repairAfterInsert(newNode);
+	}
+
+	/**
+	 * Restores the red-black properties after inserting the provided (red)
+	 * node.
+	 *
+	 * @param node
+	 *            The node that was inserted.
+	 */
+	private void repairAfterInsert (RedBlackTreeNode<T> node) {
+
+		while (isRed(node.getParentNode())) {
+
+			RedBlackTreeNode<T> parent = node.getParentNode();
+			RedBlackTreeNode<T> grandparent = parent.getParentNode();
+
+			if (parent == grandparent.getLeftNode()) {
+
+				RedBlackTreeNode<T> uncle = right(grandparent);
+
+				if (isRed(uncle)) {
+					// Case 1: push the blackness of the grandparent down and
+					// continue the repair from the grandparent
+					parent.setRed(false);
+					uncle.setRed(false);
+					grandparent.setRed(true);
+					node = grandparent;
+				}
+				else {
+					if (node == parent.getRightNode()) {
+						// Case 2: convert an inner child into an outer child
+						node = parent;
+						this.rotateLeft(node);
+						parent = node.getParentNode();
+					}
+
+					// Case 3: rotate the grandparent to absorb the red node
+					parent.setRed(false);
+					grandparent.setRed(true);
+					this.rotateRight(grandparent);
+				}
+			}
+			else {
+
+				RedBlackTreeNode<T> uncle = left(grandparent);
+
+				if (isRed(uncle)) {
+					// Case 1 (mirrored)
+					parent.setRed(false);
+					uncle.setRed(false);
+					grandparent.setRed(true);
+					node = grandparent;
+				}
+				else {
+					if (node == parent.getLeftNode()) {
+						// Case 2 (mirrored)
+						node = parent;
+						this.rotateRight(node);
+						parent = node.getParentNode();
+					}
+
+					// Case 3 (mirrored)
+					parent.setRed(false);
+					grandparent.setRed(true);
+					this.rotateLeft(grandparent);
+				}
+			}
+		}
+
+		// The root is always black
+		this.root().setRed(false);
+	}
+
+	/**
+	 * Unlinks a single occurrence of the provided data from the tree,
+	 * recoloring and rotating the nodes above the removed position as
+	 * necessary to restore the red-black properties. A node with two children
+	 * is replaced by its successor, which takes over the color and size of the
+	 * node.
+	 *
+	 * @param data
+	 *            The data to unlink from the tree.
+	 * @return
+	 *         True if the data was found and unlinked; false if the data is
+	 *         not in the tree.
+	 */
+	@Override
+	protected boolean delete (T data) {
+
+		RedBlackTreeNode<T> parent = null;
+		RedBlackTreeNode<T> node = this.root();
+
+		while (node != null) {
+			// Walk down to the node, removing it from the subtree of every
+			// node on its path
+			node.setSize(node.getSize() - 1);
+
+			int comparison = this.compare(data, node.getData());
+
+			if (comparison == 0) {
+				break;
+			}
+
+			parent = node;
+			node = (comparison < 0) ? left(node) : right(node);
+		}
+
+		if (node == null) {
+			// The data is not in the tree, so the sizes along its search path
+			// are restored by walking back up to the root
+			for (; parent != null; parent = parent.getParentNode()) {
+				parent.setSize(parent.getSize() + 1);
+			}
+
+			return false;
+		}
+
+		// The child that takes the place of the unlinked node, and its parent
+		RedBlackTreeNode<T> child;
+		RedBlackTreeNode<T> childParent;
+		boolean unlinkedRed = node.isRed();
+
+		if (node.getLeftNode() == null) {
+			child = right(node);
+			childParent = node.getParentNode();
+			this.replaceChild(node.getParentNode(), node, child);
+		}
+		else if (node.getRightNode() == null) {
+			child = left(node);
+			childParent = node.getParentNode();
+			this.replaceChild(node.getParentNode(), node, child);
+		}
+		else {
+			// Walk down to the successor, which is removed from the subtree of
+			// every node on the way
+			RedBlackTreeNode<T> successor = right(node);
+
+			while (successor.getLeftNode() != null) {
+				successor.setSize(successor.getSize() - 1);
+				successor = left(successor);
+			}
+
+			unlinkedRed = successor.isRed();
+			child = right(successor);
+
+			if (successor.getParentNode() == node) {
+				childParent = successor;
+			}
+			else {
+				// Unlink the successor and give it the right subtree of the node
+				childParent = successor.getParentNode();
+				this.replaceChild(childParent, successor, child);
+				successor.setRightNode(node.getRightNode());
+				right(successor).setParentNode(successor);
+			}
+
+			// Move the successor into the position of the node
+			this.replaceChild(node.getParentNode(), node, successor);
+			successor.setLeftNode(node.getLeftNode());
+			left(successor).setParentNode(successor);
+			successor.setRed(node.isRed());
+			successor.setSize(node.getSize());
+		}
+
+		if (!unlinkedRed) {
+			// Removing a black node shortens the paths through the child
+			this.repairAfterDelete(child, childParent);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Restores the red-black properties after a black node was unlinked from
+	 * the tree. The child that took its place carries an extra black, which is
+	 * pushed up the tree or absorbed by recoloring and rotating.
+	 *
+	 * @param node
+	 *            The child that took the place of the unlinked node (which may
+	 *            be absent).
+	 * @param parent
+	 *            The parent of the child.
+	 */
+	private void repairAfterDelete (RedBlackTreeNode<T> node, RedBlackTreeNode<T> parent) {
+
+		while (node != this.rootNode && !isRed(node)) {
+
+			if (node == parent.getLeftNode()) {
+
+				RedBlackTreeNode<T> sibling = right(parent);
+
+				if (isRed(sibling)) {
+					// Case 1: make the sibling black by rotating the parent
+					sibling.setRed(false);
+					parent.setRed(true);
+					this.rotateLeft(parent);
+					sibling = right(parent);
+				}
+
+				if (!isRed(left(sibling)) && !isRed(right(sibling))) {
+					// Case 2: remove a black from both sides and move the
+					// extra black up to the parent
+					sibling.setRed(true);
+					node = parent;
+					parent = node.getParentNode();
+				}
+				else {
+					if (!isRed(right(sibling))) {
+						// Case 3: convert an inner red nephew into an outer one
+						left(sibling).setRed(false);
+						sibling.setRed(true);
+						this.rotateRight(sibling);
+						sibling = right(parent);
+					}
+
+					// Case 4: rotate the parent to absorb the extra black
+					sibling.setRed(parent.isRed());
+					parent.setRed(false);
+					right(sibling).setRed(false);
+					this.rotateLeft(parent);
+					node = this.root();
+				}
+			}
+			else {
+
+				RedBlackTreeNode<T> sibling = left(parent);
+
+				if (isRed(sibling)) {
+					// Case 1 (mirrored)
+					sibling.setRed(false);
+					parent.setRed(true);
+					this.rotateRight(parent);
+					sibling = left(parent);
+				}
+
+				if (!isRed(left(sibling)) && !isRed(right(sibling))) {
+					// Case 2 (mirrored)
+					sibling.setRed(true);
+					node = parent;
+					parent = node.getParentNode();
+				}
+				else {
+					if (!isRed(left(sibling))) {
+						// Case 3 (mirrored)
+						right(sibling).setRed(false);
+						sibling.setRed(true);
+						this.rotateLeft(sibling);
+						sibling = left(parent);
+					}
+
+					// Case 4 (mirrored)
+					sibling.setRed(parent.isRed());
+					parent.setRed(false);
+					left(sibling).setRed(false);
+					this.rotateRight(parent);
+					node = this.root();
+				}
+			}
+		}
+
+		if (node != null) {
+			node.setRed(false);
+		}
+	}
+
+	/**
+	 * Rotates the subtree rooted at the provided node to the left, making the
+	 * right node of the provided node the new root of the subtree.
+	 *
+	 * @param node
+	 *            The root of the subtree to rotate.
+	 */
+	private void rotateLeft (RedBlackTreeNode<T> node) {
+
+		RedBlackTreeNode<T> newRoot = right(node);
+
+		// Move the inner subtree of the new root across to the old root
+		node.setRightNode(newRoot.getLeftNode());
+
+		if (newRoot.getLeftNode() != null) {
+			left(newRoot).setParentNode(node);
+		}
+
+		// Attach the new root to the parent of the old root
+		this.replaceChild(node.getParentNode(), node, newRoot);
+
+		// Place the old root on the left of the new root
+		newRoot.setLeftNode(node);
+		node.setParentNode(newRoot);
+
+		// The new root takes over the size of the subtree
+		newRoot.setSize(node.getSize());
+		node.updateSize();
+	}
+
+	/**
+	 * Rotates the subtree rooted at the provided node to the right, making the
+	 * left node of the provided node the new root of the subtree.
+	 *
+	 * @param node
+	 *            The root of the subtree to rotate.
+	 */
+	private void rotateRight (RedBlackTreeNode<T> node) {
+
+		RedBlackTreeNode<T> newRoot = left(node);
+
+		// Move the inner subtree of the new root across to the old root
+		node.setLeftNode(newRoot.getRightNode());
+
+		if (newRoot.getRightNode() != null) {
+			right(newRoot).setParentNode(node);
+		}
+
+		// Attach the new root to the parent of the old root
+		this.replaceChild(node.getParentNode(), node, newRoot);
+
+		// Place the old root on the right of the new root
+		newRoot.setRightNode(node);
+		node.setParentNode(newRoot);
+
+		// The new root takes over the size of the subtree
+		newRoot.setSize(node.getSize());
+		node.updateSize();
+	}
+
+	/**
+	 * Replaces a child of the provided parent (or the root of the tree, if the
+	 * parent is null) with a new node.
+	 *
+	 * @param parent
+	 *            The parent whose child is replaced, or null for the root.
+	 * @param oldChild
+	 *            The child being replaced.
+	 * @param newChild
+	 *            The node that replaces the child.
+	 */
+	private void replaceChild (RedBlackTreeNode<T> parent, RedBlackTreeNode<T> oldChild, RedBlackTreeNode<T> newChild) {
+
+		if (parent == null) {
+			this.rootNode = newChild;
+		}
+		else if (parent.getLeftNode() == oldChild) {
+			parent.setLeftNode(newChild);
+		}
+		else {
+			parent.setRightNode(newChild);
+		}
+
+		if (newChild != null) {
+			newChild.setParentNode(parent);
+		}
+	}
+
+	/**
+	 * Checks if a node is red. Absent nodes are considered black.
+	 *
+	 * @param node
+	 *            The node to check.
+	 * @return
+	 *         True if the node is present and red; false otherwise.
+	 */
+	private static boolean isRed (RedBlackTreeNode<?> node) {
+		return (node != null) && node.isRed();
+	}
+
+	private RedBlackTreeNode<T> root () {
+		return (RedBlackTreeNode<T>) this.rootNode;
+	}
+
+	private static <T extends Comparable<T>> RedBlackTreeNode<T> left (RedBlackTreeNode<T> node) {
+		return (RedBlackTreeNode<T>) node.getLeftNode();
+	}
+
+	private static <T extends Comparable<T>> RedBlackTreeNode<T> right (RedBlackTreeNode<T> node) {
+		return (RedBlackTreeNode<T>) node.getRightNode();
+	}
+}
@@ -0,0 +1,57 @@
+package albano.justin.datastructs.trees;
+
+/**
+ * A binary tree node that additionally stores the color bit and the parent
+ * link required by a {@link RedBlackTree}.
+ * 
+ * @author Justin Albano
+ */
+public class RedBlackTreeNode<T extends Comparable<T>> extends BinaryTreeNode<T> {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	private boolean red;
+	private RedBlackTreeNode<T> parentNode;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates a red node with default data for the node. New nodes are always
+	 * colored red when inserted into a red-black tree.
+	 * 
+	 * @param data
+	 *            The default data to store within the node.
+	 */
+	public RedBlackTreeNode (T data) {
+
+		// Set the data for this node
+		super(data);
+
+		// New nodes are red until the tree is repaired
+		this.red = true;
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	public boolean isRed () {
+		return this.red;
+	}
+
+	public void setRed (boolean red) {
+		this.red = red;
+	}
+
+	public RedBlackTreeNode<T> getParentNode () {
+		return this.parentNode;
+	}
+
+	public void setParentNode (RedBlackTreeNode<T> parent) {
+		this.parentNode = parent;
+	}
+}
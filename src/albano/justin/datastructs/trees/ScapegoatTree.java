@@ -0,0 +1,566 @@
+package albano.justin.datastructs.trees;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.function.ToLongFunction;
+
+/**
+ * A self-balancing binary search tree that keeps no balance metadata beyond
+ * the subtree sizes that every tree already caches. An insertion that lands
+ * deeper than log<sub>1/&alpha;</sub>(n) finds the lowest ancestor of the new
+ * node that is not &alpha;-weight-balanced (a child holding more than &alpha;
+ * of the ancestor's subtree), the scapegoat, and rebuilds only the subtree of
+ * the scapegoat into a perfectly balanced subtree. Removals rebuild the whole
+ * tree once the tree has shrunk below &alpha; of its largest size since the
+ * last full rebuild. Both are amortized O(log n), and lookups are O(log n) in
+ * the worst case, without a stop-the-world rebuild of the tree on every
+ * {@link #rebalance()}.
+ *
+ * <p>
+ * The balance factor &alpha; lies between 0.5 (rebuilding often, for the
+ * shallowest trees) and 1 (rarely rebuilding, for the fastest insertions).
+ * </p>
+ *
+ * <h1>Citations</h1>
+ * <ul>
+ * <li>The insertion and removal algorithms are based on I. Galperin and R. L.
+ * Rivest, "Scapegoat Trees" (1993)</li>
+ * </ul>
+ *
+ * @author Justin Albano
+ */
+public class ScapegoatTree<T extends Comparable<T>> extends BinaryTree<T> {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	/**
+	 * The default balance factor of the tree.
+	 */
+	public static final double DEFAULT_ALPHA = 0.7;
+
+	private final double alpha;
+
+	/**
+	 * The logarithm of 1 / alpha, which is the base of the depth bound of the
+	 * tree.
+	 */
+	private final double logInverseAlpha;
+
+	/**
+	 * The largest size of the tree since it was last rebuilt as a whole.
+	 */
+	private int maxSize;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates a default, empty scapegoat tree of data, with the default
+	 * balance factor.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 */
+	public ScapegoatTree (Class<T> dataType) {
+		this(dataType, DEFAULT_ALPHA);
+	}
+
+	/**
+	 * Creates a default, empty scapegoat tree of data.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param alpha
+	 *            The balance factor of the tree.
+	 * @throws IllegalArgumentException
+	 *             If the balance factor is not in (0.5, 1).
+	 */
+	public ScapegoatTree (Class<T> dataType, double alpha) {
+		this(dataType, (Comparator<? super T>) null, alpha);
+	}
+
+	/**
+	 * Creates a default, empty scapegoat tree of data, with the default
+	 * balance factor, ordered by the provided comparator rather than by the
+	 * natural order of the data.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 */
+	public ScapegoatTree (Class<T> dataType, Comparator<? super T> comparator) {
+		this(dataType, comparator, DEFAULT_ALPHA);
+	}
+
+	/**
+	 * Creates a default, empty scapegoat tree of data, with the default
+	 * balance factor, ordered by a primitive key extracted from the data (see
+	 * {@link BinaryTree#BinaryTree(Class, ToLongFunction)}).
+	 * The key of both pieces of data is extracted on every comparison.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param keyExtractor
+	 *            The function that extracts the key of the data.
+	 */
+	public ScapegoatTree (Class<T> dataType, ToLongFunction<? super T> keyExtractor) {
+		this(dataType, Comparator.comparingLong(keyExtractor), DEFAULT_ALPHA);
+	}
+
+	/**
+	 * Creates a default, empty scapegoat tree of data, ordered by the provided
+	 * comparator rather than by the natural order of the data.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 * @param alpha
+	 *            The balance factor of the tree.
+	 * @throws IllegalArgumentException
+	 *             If the balance factor is not in (0.5, 1).
+	 */
+	public ScapegoatTree (Class<T> dataType, Comparator<? super T> comparator, double alpha) {
+
+		super(dataType, comparator);
+
+		this.alpha = validateAlpha(alpha);
+		this.logInverseAlpha = Math.log(1 / alpha);
+	}
+
+	/**
+	 * Creates a populated scapegoat tree of data, with the default balance
+	 * factor, using the provided array as the default data for the tree.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The tree is balanced</li>
+	 * </ol>
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 */
+	public ScapegoatTree (Class<T> dataType, T[] data) {
+		this(dataType, data, false);
+	}
+
+	/**
+	 * Creates a populated scapegoat tree of data, with the default balance
+	 * factor, using the provided array as the default data for the tree. If
+	 * the array is declared to be sorted, it is linked into the tree without
+	 * sorting it or performing any comparisons.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>If sorted is true, the array is sorted in ascending order</li>
+	 * </ol>
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 * @param sorted
+	 *            True if the array is already sorted in ascending order; false
+	 *            if the array must be sorted (in place) before use.
+	 */
+	public ScapegoatTree (Class<T> dataType, T[] data, boolean sorted) {
+		this(dataType, data, sorted, DEFAULT_ALPHA);
+	}
+
+	/**
+	 * Creates a populated scapegoat tree of data, using the provided array as
+	 * the default data for the tree. If the array is declared to be sorted, it
+	 * is linked into the tree without sorting it or performing any
+	 * comparisons.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>If sorted is true, the array is sorted in ascending order</li>
+	 * </ol>
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 * @param sorted
+	 *            True if the array is already sorted in ascending order; false
+	 *            if the array must be sorted (in place) before use.
+	 * @param alpha
+	 *            The balance factor of the tree.
+	 * @throws IllegalArgumentException
+	 *             If the balance factor is not in (0.5, 1).
+	 */
+	public ScapegoatTree (Class<T> dataType, T[] data, boolean sorted, double alpha) {
+		this(dataType, (Comparator<? super T>) null, data, sorted, alpha);
+	}
+
+	/**
+	 * Creates a populated scapegoat tree of data, with the default balance
+	 * factor, ordered by the provided comparator, using the provided array as
+	 * the default data for the tree. If the array is not declared to be
+	 * sorted, it is sorted by the comparator.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>If sorted is true, the array is sorted in the order of the
+	 * comparator</li>
+	 * </ol>
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 * @param sorted
+	 *            True if the array is already sorted in the order of the
+	 *            comparator; false if the array must be sorted (in place)
+	 *            before use.
+	 */
+	public ScapegoatTree (Class<T> dataType, Comparator<? super T> comparator, T[] data, boolean sorted) {
+		this(dataType, comparator, data, sorted, DEFAULT_ALPHA);
+	}
+
+	/**
+	 * Creates a populated scapegoat tree of data, ordered by the provided
+	 * comparator, using the provided array as the default data for the tree.
+	 * If the array is not declared to be sorted, it is sorted by the
+	 * comparator.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>If sorted is true, the array is sorted in the order of the
+	 * comparator</li>
+	 * </ol>
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 * @param sorted
+	 *            True if the array is already sorted in the order of the
+	 *            comparator; false if the array must be sorted (in place)
+	 *            before use.
+	 * @param alpha
+	 *            The balance factor of the tree.
+	 * @throws IllegalArgumentException
+	 *             If the balance factor is not in (0.5, 1).
+	 */
+	public ScapegoatTree (Class<T> dataType, Comparator<? super T> comparator, T[] data, boolean sorted, double alpha) {
+
+		super(dataType, comparator, data, sorted);
+
+		this.alpha = validateAlpha(alpha);
+		this.logInverseAlpha = Math.log(1 / alpha);
+		this.maxSize = this.size;
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Obtains the balance factor of the tree.
+	 *
+	 * @return
+	 *         The balance factor of the tree.
+	 */
+	public double getAlpha () {
+		return this.alpha;
+	}
+
+	/**
+	 * Balances the whole tree (see {@link BinaryTree#rebalance()}). A
+	 * scapegoat tree keeps itself balanced, so this is only needed to make
+	 * the tree perfectly balanced.
+	 */
+	@Override
+	public void rebalance () {
+		super.rebalance();
+		this.maxSize = this.size;
+	}
+
+	/**
+	 * Insert data into the tree, rebuilding the subtree of the scapegoat of
+	 * the new node if the new node is too deep.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The depth of the tree is at most log<sub>1/&alpha;</sub>(n) + 1</li>
+	 * </ol>
+	 *
+	 * @param data
+	 *            The data to insert into the tree.
+	 */
+	@Override
+	public void insert (T data) {
+
+		this.link(data, this.size + 1);
+
+		// Increment the size of the tree
+		this.size++;
+		this.modCount++;
+	}
+
+	/**
+	 * Inserts a batch of sorted data into the tree one element at a time,
+	 * since splicing whole ranges of the batch into the tree would break the
+	 * depth bound of the tree.
+	 *
+	 * @param sortedData
+	 *            The sorted data to insert into the tree.
+	 * @return
+	 *         0, since the tree stays within its depth bound.
+	 */
+	@Override
+	protected int splice (T[] sortedData) {
+
+		for (int i = 0; i < sortedData.length; i++) {
+			this.link(sortedData[i], this.size + i + 1);
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Inserts a batch of sorted data into the tree (see
+	 * {@link BinaryTree#insertAll(Comparable[])}), counting the batch towards
+	 * the largest size of the tree, which a batch linked into an empty tree or
+	 * merged with the data of the tree does not otherwise reach.
+	 *
+	 * @param sortedData
+	 *            The sorted data to insert into the tree.
+	 */
+	@Override
+	public void insertAll (T[] sortedData) {
+		super.insertAll(sortedData);
+		this.maxSize = Math.max(this.maxSize, this.size);
+	}
+
+	/**
+	 * Removes a single occurrence of the provided data from the tree (see
+	 * {@link BinaryTree#remove(Comparable)}), rebuilding the whole tree if it
+	 * has shrunk below &alpha; of its largest size.
+	 *
+	 * @param data
+	 *            The data to remove from the tree.
+	 * @return
+	 *         True if the data was found and removed; false if the data is not
+	 *         in the tree.
+	 */
+	@Override
+	public boolean remove (T data) {
+
+		boolean removed = super.remove(data);
+		this.rebuildIfShrunk();
+
+		return removed;
+	}
+
+	/**
+	 * Removes every occurrence of the provided data from the tree (see
+	 * {@link BinaryTree#removeAll(Collection)}), rebuilding the whole tree if
+	 * it has shrunk below &alpha; of its largest size.
+	 *
+	 * @param data
+	 *            The data to remove from the tree.
+	 * @return
+	 *         True if any data was removed; false if the tree is unchanged.
+	 */
+	@Override
+	public boolean removeAll (Collection<? extends T> data) {
+
+		boolean removed = super.removeAll(data);
+		this.rebuildIfShrunk();
+
+		return removed;
+	}
+
+	/**
+	 * Rebuilds the whole tree if it has shrunk below alpha of its largest
+	 * size since the last full rebuild.
+	 */
+	private void rebuildIfShrunk () {
+
+		if (this.size < this.alpha * this.maxSize) {
+			this.rebalance();
+		}
+	}
+
+	/**
+	 * Links a new node for the provided data into the tree, without changing
+	 * the size of the tree, and rebuilds the subtree of the scapegoat of the
+	 * new node if the new node is deeper than the depth bound of the tree.
+	 *
+	 * @param data
+	 *            The data to add to the tree.
+	 * @param size
+	 *            The size of the tree once the data is added.
+	 */
+	private void link (T data, int size) {
+
+		BinaryTreeNode<T> newNode = new BinaryTreeNode<T>(data);
+		this.maxSize = Math.max(this.maxSize, size);
+
+		if (this.rootNode == null) {
+
+			if (TreeMetrics.ENABLED) {
+				this.metrics.recordInsert(0);
+			}
+
+			// The tree is empty, so the new node becomes the root
+			this.rootNode = newNode;
+			return;
+		}
+
+		// The nodes above the new node, with the parent on top
+		Deque<BinaryTreeNode<T>> path = new ArrayDeque<BinaryTreeNode<T>>();
+		BinaryTreeNode<T> current = this.rootNode;
+
+		while (current != null) {
+
+			// The new node is added to the subtree of every node on its path
+			current.setSize(current.getSize() + 1);
+			path.push(current);
+
+			// Data less than or equal to the current data is added to the left
+			// subtree
+			if (this.compare(data, current.getData()) <= 0) {
+
+				if (current.getLeftNode() == null) {
+					current.setLeftNode(newNode);
+					break;
+				}
+
+				current = current.getLeftNode();
+			}
+			else {
+
+				if (current.getRightNode() == null) {
+					current.setRightNode(newNode);
+					break;
+				}
+
+				current = current.getRightNode();
+			}
+		}
+
+		if (TreeMetrics.ENABLED) {
+			this.metrics.recordInsert(path.size());
+		}
+
+		if (path.size() <= Math.floor(Math.log(size) / this.logInverseAlpha)) {
+			// The new node is within the depth bound
+			return;
+		}
+
+		// Walk back up the path to the lowest ancestor that is not
+		// alpha-weight-balanced, which must exist above a node that is too deep
+		BinaryTreeNode<T> child = newNode;
+
+		while (!path.isEmpty()) {
+
+			BinaryTreeNode<T> node = path.pop();
+
+			if (child.getSize() > this.alpha * node.getSize()) {
+				this.rebuild(node, path.peek());
+				return;
+			}
+
+			child = node;
+		}
+	}
+
+	/**
+	 * Rebuilds a subtree into a perfectly balanced subtree, in place of the
+	 * original subtree. The tombstones of the subtree are dropped.
+	 *
+	 * @param subtree
+	 *            The root of the subtree to rebuild.
+	 * @param parent
+	 *            The parent of the subtree, or null if the subtree is the
+	 *            whole tree.
+	 */
+	@SuppressWarnings("unchecked")
+	private void rebuild (BinaryTreeNode<T> subtree, BinaryTreeNode<T> parent) {
+
+		long start = TreeMetrics.ENABLED ? System.nanoTime() : 0;
+
+		// Flatten the live data of the subtree in order, counting its
+		// tombstones
+		T[] data = (T[]) Array.newInstance(this.dataType, subtree.getSize());
+		Deque<BinaryTreeNode<T>> ancestors = new ArrayDeque<BinaryTreeNode<T>>();
+		BinaryTreeNode<T> current = subtree;
+		int index = 0;
+
+		while (current != null || !ancestors.isEmpty()) {
+
+			while (current != null) {
+				ancestors.push(current);
+				current = current.getLeftNode();
+			}
+
+			current = ancestors.pop();
+
+			if (current.isDeleted()) {
+				this.tombstones--;
+			}
+			else {
+				data[index++] = current.getData();
+			}
+
+			current = current.getRightNode();
+		}
+
+		// Link the data into a balanced subtree in place of the original
+		BinaryTreeNode<T> balanced = this.buildBalanced(data, 0, data.length - 1);
+
+		if (parent == null) {
+			this.rootNode = balanced;
+		}
+		else if (parent.getLeftNode() == subtree) {
+			parent.setLeftNode(balanced);
+		}
+		else {
+			parent.setRightNode(balanced);
+		}
+
+		if (TreeMetrics.ENABLED) {
+			this.metrics.recordRebalance(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Ensures that a balance factor is in (0.5, 1).
+	 *
+	 * @param alpha
+	 *            The balance factor.
+	 * @return
+	 *         The balance factor.
+	 * @throws IllegalArgumentException
+	 *             If the balance factor is not in (0.5, 1).
+	 */
+	private static double validateAlpha (double alpha) {
+
+		if (!(alpha > 0.5 && alpha < 1)) {
+			throw new IllegalArgumentException("The balance factor must be in (0.5, 1): " + alpha);
+		}
+
+		return alpha;
+	}
+}
@@ -0,0 +1,230 @@
+package albano.justin.datastructs.trees;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * An iterator that returns the data of an unsorted source in ascending order
+ * (of a comparator, or of the natural order of the data). The source is
+ * consumed in runs of bounded length, each of which is sorted on its own, and
+ * the runs are then merged as the data is iterated. This allows a tree to be
+ * built from a source of unknown size without growing a single array to the
+ * size of the source (and copying it at each step).
+ *
+ * <p>
+ * Since the smallest element may come last, the whole source is consumed, and
+ * every run is held in memory, before the first element is returned; the peak
+ * memory is therefore proportional to the size of the source. Each element is
+ * released by its run once it has been returned.
+ * </p>
+ *
+ * <p>
+ * If the source is found to already be sorted while it is being consumed, the
+ * runs are returned one after another without merging.
+ * </p>
+ *
+ * @author Justin Albano
+ */
+final class SortedRuns<T extends Comparable<T>> implements Iterator<T> {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	/**
+	 * The default maximum number of elements in a single run.
+	 */
+	static final int DEFAULT_RUN_LENGTH = 1 << 16;
+
+	private final Comparator<? super T> comparator;
+	private final List<Run<T>> runs;
+	private final PriorityQueue<Run<T>> merge;
+	private final int size;
+	private int currentRun;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Consumes the provided source, sorting it in runs of at most the provided
+	 * length.
+	 *
+	 * @param source
+	 *            The source of the data.
+	 * @param comparator
+	 *            The comparator that orders the data, or null for the natural
+	 *            order of the data.
+	 * @param runLength
+	 *            The maximum number of elements in a single run.
+	 */
+	@SuppressWarnings("unchecked")
+	SortedRuns (Iterator<? extends T> source, Comparator<? super T> comparator, int runLength) {
+
+		this.comparator = comparator;
+		this.runs = new ArrayList<Run<T>>();
+
+		T previous = null;
+		boolean sorted = true;
+		int size = 0;
+
+		while (source.hasNext()) {
+
+			// Fill the next run from the source (the run grows as it is filled,
+			// so that a small source does not allocate a full run)
+			Object[] run = new Object[Math.min(runLength, 16)];
+			int length = 0;
+
+			while (length < runLength && source.hasNext()) {
+
+				T data = source.next();
+
+				if (length == run.length) {
+					run = Arrays.copyOf(run, (int) Math.min(runLength, 2L * length));
+				}
+
+				if (sorted && previous != null && this.compare(previous, data) > 0) {
+					// The source is out of order
+					sorted = false;
+				}
+
+				run[length++] = data;
+				previous = data;
+			}
+
+			this.runs.add(new Run<T>(run, length));
+			size += length;
+		}
+
+		this.size = size;
+
+		if (sorted) {
+			// The runs can be returned one after another
+			this.merge = null;
+		}
+		else {
+			// Sort each run and merge the runs by their smallest element
+			this.merge = new PriorityQueue<Run<T>>(Math.max(1, this.runs.size()), new Comparator<Run<T>>() {
+
+				@Override
+				public int compare (Run<T> first, Run<T> second) {
+					return SortedRuns.this.compare(first.peek(), second.peek());
+				}
+			});
+
+			for (Run<T> run : this.runs) {
+				Arrays.sort(run.data, 0, run.length, (Comparator<Object>) (Comparator<?>) this.comparator);
+				this.merge.add(run);
+			}
+		}
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Obtains the total number of elements consumed from the source.
+	 *
+	 * @return
+	 *         The total number of elements consumed from the source.
+	 */
+	int size () {
+		return this.size;
+	}
+
+	@Override
+	public boolean hasNext () {
+
+		if (this.merge != null) {
+			return !this.merge.isEmpty();
+		}
+
+		// Skip any runs that have been exhausted
+		while (this.currentRun < this.runs.size() && !this.runs.get(this.currentRun).hasNext()) {
+			this.currentRun++;
+		}
+
+		return this.currentRun < this.runs.size();
+	}
+
+	@Override
+	public T next () {
+
+		if (!this.hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		if (this.merge == null) {
+			// Return the next element of the current run
+			return this.runs.get(this.currentRun).next();
+		}
+
+		// Take the smallest element of all runs, and requeue its run (by its
+		// new smallest element) if it is not exhausted
+		Run<T> run = this.merge.poll();
+		T data = run.next();
+
+		if (run.hasNext()) {
+			this.merge.add(run);
+		}
+
+		return data;
+	}
+
+	@Override
+	public void remove () {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Compares two pieces of data by the comparator of the runs, or by their
+	 * natural order if there is none.
+	 */
+	private int compare (T first, T second) {
+		return (this.comparator == null) ? first.compareTo(second) : this.comparator.compare(first, second);
+	}
+
+	/***************************************************************************
+	 * Nested Classes
+	 **************************************************************************/
+
+	/**
+	 * A run of data consumed from the source.
+	 */
+	private static final class Run<T> {
+
+		private final Object[] data;
+		private final int length;
+		private int index;
+
+		Run (Object[] data, int length) {
+			this.data = data;
+			this.length = length;
+		}
+
+		boolean hasNext () {
+			return this.index < this.length;
+		}
+
+		@SuppressWarnings("unchecked")
+		T peek () {
+			return (T) this.data[this.index];
+		}
+
+		T next () {
+
+			T next = this.peek();
+
+			// Release the reference held by the run
+			this.data[this.index++] = null;
+
+			return next;
+		}
+	}
+}
@@ -0,0 +1,475 @@
+package albano.justin.datastructs.trees;
+
+import java.util.Comparator;
+import java.util.function.ToLongFunction;
+
+/**
+ * A self-adjusting binary search tree that moves every node it looks up or
+ * inserts to the root, by a sequence of rotations (a splay) along the search
+ * path. Recently accessed data therefore sits near the root, and a skewed or
+ * bursty workload, in which a few keys receive most of the accesses, is
+ * answered within a few comparisons. Every sequence of m operations takes
+ * O(m log n) time in total, although a single operation may take O(n) time.
+ *
+ * <p>
+ * The splay is performed top-down, in a single pass from the root without
+ * recursion, parent links or allocation: the nodes passed on the way down are
+ * gathered into a left tree of smaller data and a right tree of larger data,
+ * which are reassembled around the accessed node at the end of the pass. The
+ * sizes of the nodes on the spines of the two trees are repaired on
+ * reassembly, so the order statistics of the tree stay available.
+ * </p>
+ *
+ * <p>
+ * Since a lookup restructures the tree, a lookup is a structural
+ * modification: it invalidates the iterators of the tree, and the tree must
+ * not be read concurrently, even through a {@link ConcurrentBinaryTree}. A
+ * tree with tombstones (see {@link #setCompactionThreshold(double)}) answers
+ * lookups by rank, without splaying.
+ * </p>
+ *
+ * <h1>Citations</h1>
+ * <ul>
+ * <li>The top-down splaying algorithm is based on D. D. Sleator and R. E.
+ * Tarjan, "Self-Adjusting Binary Search Trees" (1985)</li>
+ * </ul>
+ *
+ * @author Justin Albano
+ */
+public class SplayTree<T extends Comparable<T>> extends BinaryTree<T> {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	/**
+	 * The number of comparisons made by the splay in progress, which is only
+	 * counted when the counters of the tree are enabled (see
+	 * {@link TreeStats}).
+	 */
+	private int splayComparisons;
+
+	/**
+	 * The last comparison made by the most recent splay: the comparison of
+	 * its key with the data of the node splayed to the root, which answers
+	 * the lookup or places the insertion without comparing the two again.
+	 */
+	private int lastComparison;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates a default, empty splay tree of data.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 */
+	public SplayTree (Class<T> dataType) {
+		super(dataType);
+	}
+
+	/**
+	 * Creates a default, empty splay tree of data, ordered by the provided
+	 * comparator rather than by the natural order of the data.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 */
+	public SplayTree (Class<T> dataType, Comparator<? super T> comparator) {
+		super(dataType, comparator);
+	}
+
+	/**
+	 * Creates a default, empty splay tree of data, ordered by a primitive
+	 * key extracted from the data (see
+	 * {@link BinaryTree#BinaryTree(Class, ToLongFunction)}).
+	 * The key of both pieces of data is extracted on every comparison.
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param keyExtractor
+	 *            The function that extracts the key of the data.
+	 */
+	public SplayTree (Class<T> dataType, ToLongFunction<? super T> keyExtractor) {
+		super(dataType, keyExtractor);
+	}
+
+	/**
+	 * Creates a populated splay tree of data, using the provided array as the
+	 * default data for the tree.
+	 *
+	 * <h1>Postconditions</h1>
+	 * <ol>
+	 * <li>The tree is balanced</li>
+	 * </ol>
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 */
+	public SplayTree (Class<T> dataType, T[] data) {
+		super(dataType, data);
+	}
+
+	/**
+	 * Creates a populated splay tree of data, using the provided array as the
+	 * default data for the tree. If the array is declared to be sorted, it is
+	 * linked into the tree without sorting it or performing any comparisons.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>If sorted is true, the array is sorted in ascending order</li>
+	 * </ol>
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 * @param sorted
+	 *            True if the array is already sorted in ascending order; false
+	 *            if the array must be sorted (in place) before use.
+	 */
+	public SplayTree (Class<T> dataType, T[] data, boolean sorted) {
+		super(dataType, data, sorted);
+	}
+
+	/**
+	 * Creates a populated splay tree of data, ordered by the provided comparator,
+	 * using the provided array as the default data for the tree. If the array
+	 * is not declared to be sorted, it is sorted by the comparator.
+	 *
+	 * <h1>Preconditions</h1>
+	 * <ol>
+	 * <li>If sorted is true, the array is sorted in the order of the
+	 * comparator</li>
+	 * </ol>
+	 *
+	 * @param dataType
+	 *            The class of the data being stored in the tree.
+	 * @param comparator
+	 *            The comparator that orders the data of the tree, or null to
+	 *            keep the data in its natural order.
+	 * @param data
+	 *            An array of data to use as the default data for the tree.
+	 * @param sorted
+	 *            True if the array is already sorted in the order of the
+	 *            comparator; false if the array must be sorted (in place)
+	 *            before use.
+	 */
+	public SplayTree (Class<T> dataType, Comparator<? super T> comparator, T[] data, boolean sorted) {
+		super(dataType, comparator, data, sorted);
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Checks if the target data provided is found within the tree, splaying
+	 * the target (or, if it is absent, the last node on its search path) to
+	 * the root of the tree.
+	 *
+	 * @param target
+	 *            The data to search for in the tree.
+	 * @return
+	 *         True if the target data is found in the tree; false if the target
+	 *         data is not found in the tree.
+	 */
+	@Override
+	public boolean isInTree (T target) {
+
+		if (this.tombstones > 0 || this.rootNode == null) {
+			// A tombstone may hide live data, so count the live data by rank
+			return super.isInTree(target);
+		}
+
+		long start = TreeMetrics.ENABLED ? this.metrics.startLookup() : 0;
+		this.splayComparisons = 0;
+		this.rootNode = this.splay(this.rootNode, target, true);
+		this.modCount++;
+
+		if (TreeMetrics.ENABLED) {
+			this.metrics.recordLookup(this.splayComparisons, start);
+		}
+
+		return this.lastComparison == 0;
+	}
+
+	/**
+	 * Insert data into the tree, making the new node the root of the tree.
+	 * The tree is splayed around the position of the new data, and split
+	 * between the root and the one of its subtrees on the side of the new
+	 * data.
+	 *
+	 * @param data
+	 *            The data to insert into the tree.
+	 */
+	@Override
+	public void insert (T data) {
+
+		BinaryTreeNode<T> newNode = new BinaryTreeNode<T>(data);
+		this.splayComparisons = 0;
+
+		if (this.rootNode != null) {
+
+			BinaryTreeNode<T> root = this.splay(this.rootNode, data, false);
+
+			// Data less than or equal to the root is placed before the root
+			if (this.lastComparison <= 0) {
+				newNode.setLeftNode(root.getLeftNode());
+				newNode.setRightNode(root);
+				root.setLeftNode(null);
+			}
+			else {
+				newNode.setLeftNode(root);
+				newNode.setRightNode(root.getRightNode());
+				root.setRightNode(null);
+			}
+
+			root.updateSize();
+			newNode.updateSize();
+		}
+
+		if (TreeMetrics.ENABLED) {
+			this.metrics.recordInsert(this.splayComparisons);
+		}
+
+		this.rootNode = newNode;
+
+		// Increment the size of the tree
+		this.size++;
+		this.modCount++;
+	}
+
+	/**
+	 * Unlinks a single occurrence of the provided data from the tree. The
+	 * data is splayed to the root, the largest data of the left subtree of
+	 * the root is splayed to the top of the left subtree, and the right
+	 * subtree of the root is attached to it.
+	 *
+	 * @param data
+	 *            The data to unlink from the tree.
+	 * @return
+	 *         True if the data was found and unlinked; false if the data is
+	 *         not in the tree.
+	 */
+	@Override
+	protected boolean delete (T data) {
+
+		BinaryTreeNode<T> root = this.splay(this.rootNode, data, true);
+
+		if (this.lastComparison != 0) {
+			// The data is not in the tree, but the last node on its search
+			// path was splayed to the root, which restructures the tree
+			this.rootNode = root;
+			this.modCount++;
+			return false;
+		}
+
+		if (root.getLeftNode() == null) {
+			this.rootNode = root.getRightNode();
+		}
+		else {
+			// The largest node of the left subtree has no right subtree once
+			// it is splayed to the top
+			BinaryTreeNode<T> largest = this.splay(root.getLeftNode(), null, false);
+			largest.setRightNode(root.getRightNode());
+			largest.updateSize();
+			this.rootNode = largest;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Splays the subtree around the provided key, in a single top-down pass.
+	 * Data less than or equal to the key is searched for in the left subtree
+	 * of a node, so that the data ends up in the order in which
+	 * {@link #insert(Comparable)} places it.
+	 *
+	 * @param rootNode
+	 *            The root of the subtree.
+	 * @param key
+	 *            The key to splay the subtree around, or null to splay the
+	 *            largest node of the subtree to the root.
+	 * @param stopOnEqual
+	 *            True to stop at the first node equal to the key; false to
+	 *            continue to the position at which the key would be inserted.
+	 * @return
+	 *         The new root of the subtree: the node at which the search for
+	 *         the key stopped.
+	 */
+	private BinaryTreeNode<T> splay (BinaryTreeNode<T> rootNode, T key, boolean stopOnEqual) {
+
+		// The left tree (of smaller data) and the right tree (of larger data)
+		// are chains of the nodes linked into them, whose sizes are repaired
+		// on reassembly from the number of linked nodes and the data they
+		// bring with them
+		int leftLinks = 0;
+		int leftTotal = 0;
+		int rightLinks = 0;
+		int rightTotal = 0;
+		BinaryTreeNode<T> leftRoot = null;
+		BinaryTreeNode<T> leftMax = null;
+		BinaryTreeNode<T> rightRoot = null;
+		BinaryTreeNode<T> rightMin = null;
+		BinaryTreeNode<T> current = rootNode;
+		int comparison = this.compare(key, current);
+
+		while (comparison != 0 || !stopOnEqual) {
+
+			if (comparison <= 0) {
+
+				BinaryTreeNode<T> left = current.getLeftNode();
+
+				if (left == null) {
+					break;
+				}
+
+				comparison = this.compare(key, left);
+
+				if (comparison < 0 || (comparison == 0 && !stopOnEqual)) {
+
+					// Zig-zig: rotate the left node up before linking it
+					current.setLeftNode(left.getRightNode());
+					left.setRightNode(current);
+					current.updateSize();
+					current = left;
+
+					if (current.getLeftNode() == null) {
+						break;
+					}
+
+					comparison = this.compare(key, current.getLeftNode());
+				}
+
+				// Link the current node (and its right subtree) into the right
+				// tree, as its new smallest node
+				if (rightMin == null) {
+					rightRoot = current;
+				}
+				else {
+					rightMin.setLeftNode(current);
+				}
+
+				rightMin = current;
+				rightLinks++;
+				rightTotal += live(current) + BinaryTreeNode.size(current.getRightNode());
+				current = current.getLeftNode();
+			}
+			else {
+
+				BinaryTreeNode<T> right = current.getRightNode();
+
+				if (right == null) {
+					break;
+				}
+
+				comparison = this.compare(key, right);
+
+				if (comparison > 0) {
+
+					// Zag-zag: rotate the right node up before linking it
+					current.setRightNode(right.getLeftNode());
+					right.setLeftNode(current);
+					current.updateSize();
+					current = right;
+
+					if (current.getRightNode() == null) {
+						break;
+					}
+
+					comparison = this.compare(key, current.getRightNode());
+				}
+
+				// Link the current node (and its left subtree) into the left
+				// tree, as its new largest node
+				if (leftMax == null) {
+					leftRoot = current;
+				}
+				else {
+					leftMax.setRightNode(current);
+				}
+
+				leftMax = current;
+				leftLinks++;
+				leftTotal += live(current) + BinaryTreeNode.size(current.getLeftNode());
+				current = current.getRightNode();
+			}
+		}
+
+		// Reassemble the left tree, the current node and the right tree,
+		// repairing the sizes down the chain of each tree: a linked node holds
+		// the data brought by itself and by every node linked after it
+		if (leftMax != null) {
+
+			int remaining = leftTotal + BinaryTreeNode.size(current.getLeftNode());
+			leftMax.setRightNode(current.getLeftNode());
+			current.setLeftNode(leftRoot);
+
+			for (BinaryTreeNode<T> node = leftRoot; leftLinks > 0; leftLinks--) {
+				node.setSize(remaining);
+				remaining -= live(node) + BinaryTreeNode.size(node.getLeftNode());
+				node = node.getRightNode();
+			}
+		}
+
+		if (rightMin != null) {
+
+			int remaining = rightTotal + BinaryTreeNode.size(current.getRightNode());
+			rightMin.setLeftNode(current.getRightNode());
+			current.setRightNode(rightRoot);
+
+			for (BinaryTreeNode<T> node = rightRoot; rightLinks > 0; rightLinks--) {
+				node.setSize(remaining);
+				remaining -= live(node) + BinaryTreeNode.size(node.getRightNode());
+				node = node.getLeftNode();
+			}
+		}
+
+		current.updateSize();
+
+		// The loop ends with the key compared against the new root
+		this.lastComparison = comparison;
+
+		return current;
+	}
+
+	/**
+	 * Obtains the number of live nodes in a node alone.
+	 *
+	 * @param node
+	 *            The node.
+	 * @return
+	 *         1 if the node is live, or 0 if it is a tombstone.
+	 */
+	private static int live (BinaryTreeNode<?> node) {
+		return node.isDeleted() ? 0 : 1;
+	}
+
+	/**
+	 * Compares a key against the data of a node.
+	 *
+	 * @param key
+	 *            The key, or null for a key larger than any data.
+	 * @param node
+	 *            The node to compare the key against.
+	 * @return
+	 *         A negative number, zero or a positive number as the key is less
+	 *         than, equal to or greater than the data of the node.
+	 */
+	private int compare (T key, BinaryTreeNode<T> node) {
+
+		if (TreeMetrics.ENABLED) {
+			this.splayComparisons++;
+		}
+
+		return (key == null) ? 1 : this.compare(key, node.getData());
+	}
+}
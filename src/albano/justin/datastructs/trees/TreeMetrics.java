@@ -0,0 +1,177 @@
+package albano.justin.datastructs.trees;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters of the hot paths of a {@link BinaryTree}, from which
+ * {@link TreeStats} snapshots are taken.
+ *
+ * <p>
+ * The counters are only kept if the system property
+ * {@value #PROPERTY} is set to true when this class is loaded. The switch is
+ * a static final field, so the JIT compiler treats it as a constant and
+ * removes every guarded call to the counters when it is false: a tree pays
+ * nothing for the counters unless they are enabled. The counters are
+ * {@link LongAdder}s, so that concurrent readers of a tree (such as those of
+ * a {@link ConcurrentBinaryTree}) can count without contending.
+ * </p>
+ *
+ * @author Justin Albano
+ */
+final class TreeMetrics {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	/**
+	 * The system property that enables the counters.
+	 */
+	static final String PROPERTY = "albano.justin.datastructs.trees.stats";
+
+	/**
+	 * True if the counters are enabled.
+	 */
+	static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+	/**
+	 * The number of buckets of the depth histogram; deeper operations are
+	 * counted in the last bucket.
+	 */
+	static final int DEPTH_BUCKETS = 64;
+
+	/**
+	 * One lookup in every SAMPLE_RATE is timed (a power of 2).
+	 */
+	private static final int SAMPLE_RATE = 1 << 10;
+
+	private final LongAdder lookups = new LongAdder();
+	private final LongAdder lookupComparisons = new LongAdder();
+	private final LongAdder inserts = new LongAdder();
+	private final LongAdder insertComparisons = new LongAdder();
+	private final LongAdder[] depths = new LongAdder[DEPTH_BUCKETS];
+	private final LongAdder sampledComparisons = new LongAdder();
+	private final LongAdder sampledNanos = new LongAdder();
+	private final LongAdder rebalances = new LongAdder();
+	private final LongAdder rebalanceNanos = new LongAdder();
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	TreeMetrics () {
+
+		for (int i = 0; i < DEPTH_BUCKETS; i++) {
+			this.depths[i] = new LongAdder();
+		}
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Starts a lookup, timing a random sample of the lookups.
+	 *
+	 * @return
+	 *         The start time of a timed lookup, or 0 if the lookup is not
+	 *         timed.
+	 */
+	long startLookup () {
+		return ((ThreadLocalRandom.current().nextInt() & (SAMPLE_RATE - 1)) == 0) ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Records a lookup. Every descent of the tree compares the target once
+	 * per node on its path, so the number of comparisons is also the length
+	 * of the path.
+	 *
+	 * @param comparisons
+	 *            The number of comparisons made by the lookup.
+	 * @param start
+	 *            The start time of the lookup (see {@link #startLookup()}).
+	 */
+	void recordLookup (int comparisons, long start) {
+
+		this.lookups.increment();
+		this.lookupComparisons.add(comparisons);
+		this.depths[Math.min(comparisons, DEPTH_BUCKETS - 1)].increment();
+
+		if (start != 0) {
+			this.sampledComparisons.add(comparisons);
+			this.sampledNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Records an insertion.
+	 *
+	 * @param comparisons
+	 *            The number of comparisons made by the insertion, which is
+	 *            the number of nodes above the new node.
+	 */
+	void recordInsert (int comparisons) {
+		this.inserts.increment();
+		this.insertComparisons.add(comparisons);
+		this.depths[Math.min(comparisons, DEPTH_BUCKETS - 1)].increment();
+	}
+
+	/**
+	 * Records a rebalance of the whole tree.
+	 *
+	 * @param nanos
+	 *            The time taken by the rebalance.
+	 */
+	void recordRebalance (long nanos) {
+		this.rebalances.increment();
+		this.rebalanceNanos.add(nanos);
+	}
+
+	/**
+	 * Resets every counter.
+	 */
+	void reset () {
+
+		this.lookups.reset();
+		this.lookupComparisons.reset();
+		this.inserts.reset();
+		this.insertComparisons.reset();
+		this.sampledComparisons.reset();
+		this.sampledNanos.reset();
+		this.rebalances.reset();
+		this.rebalanceNanos.reset();
+
+		for (LongAdder depth : this.depths) {
+			depth.reset();
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the counters. The counters are read one at a time,
+	 * so a snapshot taken while the tree is in use may count an operation in
+	 * some counters but not in others.
+	 *
+	 * @param size
+	 *            The size of the tree.
+	 * @return
+	 *         The snapshot.
+	 */
+	TreeStats snapshot (int size) {
+
+		long[] histogram = new long[DEPTH_BUCKETS];
+		int length = 0;
+
+		for (int i = 0; i < DEPTH_BUCKETS; i++) {
+
+			histogram[i] = this.depths[i].sum();
+
+			if (histogram[i] != 0) {
+				length = i + 1;
+			}
+		}
+
+		return new TreeStats(true, size, this.lookups.sum(), this.lookupComparisons.sum(), this.inserts.sum(), this.insertComparisons.sum(), Arrays.copyOf(histogram, length), this.sampledComparisons.sum(), this.sampledNanos.sum(), this.rebalances.sum(), this.rebalanceNanos.sum());
+	}
+}
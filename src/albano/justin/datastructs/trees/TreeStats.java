@@ -0,0 +1,204 @@
+package albano.justin.datastructs.trees;
+
+import java.beans.ConstructorProperties;
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of the counters of a {@link BinaryTree} (see
+ * {@link BinaryTree#stats()}). The counters tell apart the two usual causes
+ * of slow lookups: a skewed tree lengthens the paths (a larger
+ * {@link #getAverageLookupComparisons()} and a depth histogram that leans
+ * to the right), while an expensive comparison raises
+ * {@link #getNanosPerComparison()} for paths of the same length.
+ *
+ * <p>
+ * The counters are disabled by default (see {@link #isEnabled()}), since they
+ * are kept on the hot paths of the tree. They are enabled by setting the
+ * system property {@code albano.justin.datastructs.trees.stats} to true
+ * before the first tree is created.
+ * </p>
+ *
+ * <p>
+ * The counters cover single-element lookups ({@link BinaryTree#isInTree})
+ * and insertions ({@link BinaryTree#insert}) and the rebalances of the whole
+ * tree ({@link BinaryTree#rebalance()} and the compactions of lazy deletion).
+ * Batch operations, order statistics and traversals are not counted.
+ * </p>
+ *
+ * @author Justin Albano
+ */
+public final class TreeStats {
+
+	/***************************************************************************
+	 * Attributes
+	 **************************************************************************/
+
+	/**
+	 * The snapshot of a tree whose counters are disabled.
+	 */
+	static final TreeStats DISABLED = new TreeStats(false, 0, 0, 0, 0, 0, new long[0], 0, 0, 0, 0);
+
+	private final boolean enabled;
+	private final int size;
+	private final long lookups;
+	private final long lookupComparisons;
+	private final long inserts;
+	private final long insertComparisons;
+	private final long[] depthHistogram;
+	private final long sampledComparisons;
+	private final long sampledNanos;
+	private final long rebalances;
+	private final long rebalanceNanos;
+
+	/***************************************************************************
+	 * Constructors
+	 **************************************************************************/
+
+	/**
+	 * Creates a snapshot of the counters of a tree.
+	 *
+	 * @param enabled
+	 *            True if the counters are enabled.
+	 * @param size
+	 *            The size of the tree.
+	 * @param lookups
+	 *            The number of lookups.
+	 * @param lookupComparisons
+	 *            The number of comparisons made by the lookups.
+	 * @param inserts
+	 *            The number of insertions.
+	 * @param insertComparisons
+	 *            The number of comparisons made by the insertions.
+	 * @param depthHistogram
+	 *            The number of lookups and insertions by path length.
+	 * @param sampledComparisons
+	 *            The number of comparisons made by the timed lookups.
+	 * @param sampledNanos
+	 *            The time taken by the timed lookups.
+	 * @param rebalances
+	 *            The number of rebalances of the whole tree.
+	 * @param rebalanceNanos
+	 *            The time taken by the rebalances.
+	 */
+	@ConstructorProperties({ "enabled", "size", "lookups", "lookupComparisons", "inserts", "insertComparisons", "depthHistogram", "sampledComparisons", "sampledNanos", "rebalances", "rebalanceNanos" })
+	public TreeStats (boolean enabled, int size, long lookups, long lookupComparisons, long inserts, long insertComparisons, long[] depthHistogram, long sampledComparisons, long sampledNanos, long rebalances, long rebalanceNanos) {
+		this.enabled = enabled;
+		this.size = size;
+		this.lookups = lookups;
+		this.lookupComparisons = lookupComparisons;
+		this.inserts = inserts;
+		this.insertComparisons = insertComparisons;
+		this.depthHistogram = depthHistogram.clone();
+		this.sampledComparisons = sampledComparisons;
+		this.sampledNanos = sampledNanos;
+		this.rebalances = rebalances;
+		this.rebalanceNanos = rebalanceNanos;
+	}
+
+	/***************************************************************************
+	 * Methods
+	 **************************************************************************/
+
+	/**
+	 * Checks if the counters of the tree are enabled. The counters of a
+	 * disabled tree are all 0.
+	 *
+	 * @return
+	 *         True if the counters are enabled.
+	 */
+	public boolean isEnabled () {
+		return this.enabled;
+	}
+
+	public int getSize () {
+		return this.size;
+	}
+
+	public long getLookups () {
+		return this.lookups;
+	}
+
+	public long getLookupComparisons () {
+		return this.lookupComparisons;
+	}
+
+	public long getInserts () {
+		return this.inserts;
+	}
+
+	public long getInsertComparisons () {
+		return this.insertComparisons;
+	}
+
+	/**
+	 * Obtains the histogram of the path lengths of the lookups and
+	 * insertions. The element i counts the operations that compared i nodes
+	 * (for an insertion, the nodes above the new node); the last element of a
+	 * histogram of {@value TreeMetrics#DEPTH_BUCKETS} elements also counts
+	 * every longer path.
+	 *
+	 * @return
+	 *         The number of operations by path length, up to the longest
+	 *         path.
+	 */
+	public long[] getDepthHistogram () {
+		return this.depthHistogram.clone();
+	}
+
+	public long getSampledComparisons () {
+		return this.sampledComparisons;
+	}
+
+	public long getSampledNanos () {
+		return this.sampledNanos;
+	}
+
+	public long getRebalances () {
+		return this.rebalances;
+	}
+
+	public long getRebalanceNanos () {
+		return this.rebalanceNanos;
+	}
+
+	/**
+	 * Obtains the average number of comparisons (and so the average path
+	 * length) of a lookup.
+	 *
+	 * @return
+	 *         The average number of comparisons of a lookup, or 0 if there
+	 *         were no lookups.
+	 */
+	public double getAverageLookupComparisons () {
+		return (this.lookups == 0) ? 0 : (double) this.lookupComparisons / this.lookups;
+	}
+
+	/**
+	 * Obtains the average number of comparisons (and so the average path
+	 * length) of an insertion.
+	 *
+	 * @return
+	 *         The average number of comparisons of an insertion, or 0 if there
+	 *         were no insertions.
+	 */
+	public double getAverageInsertComparisons () {
+		return (this.inserts == 0) ? 0 : (double) this.insertComparisons / this.inserts;
+	}
+
+	/**
+	 * Obtains the average time taken per comparison by a random sample of the
+	 * lookups, which includes the time taken to move between nodes.
+	 *
+	 * @return
+	 *         The average time per comparison in nanoseconds, or 0 if no
+	 *         lookup was timed.
+	 */
+	public double getNanosPerComparison () {
+		return (this.sampledComparisons == 0) ? 0 : (double) this.sampledNanos / this.sampledComparisons;
+	}
+
+	@Override
+	public String toString () {
+		return "TreeStats [enabled=" + this.enabled + ", size=" + this.size + ", lookups=" + this.lookups + ", averageLookupComparisons=" + this.getAverageLookupComparisons() + ", inserts=" + this.inserts + ", averageInsertComparisons=" + this.getAverageInsertComparisons() + ", nanosPerComparison=" + this.getNanosPerComparison() + ", rebalances=" + this.rebalances + ", rebalanceNanos=" + this.rebalanceNanos + ", depthHistogram=" + Arrays.toString(this.depthHistogram) + "]";
+	}
+}
@@ -0,0 +1,26 @@
+package albano.justin.datastructs.trees;
+
+/**
+ * The management interface through which the counters of a
+ * {@link BinaryTree} are published over JMX (see
+ * {@link BinaryTree#registerMBean(String)}). The snapshot is mapped to a
+ * composite of open types, so it can be browsed by any JMX client without
+ * access to the classes of the tree.
+ *
+ * @author Justin Albano
+ */
+public interface TreeStatsMXBean {
+
+	/**
+	 * Obtains a snapshot of the counters of the tree.
+	 *
+	 * @return
+	 *         The snapshot of the counters.
+	 */
+	TreeStats getStats ();
+
+	/**
+	 * Resets the counters of the tree.
+	 */
+	void reset ();
+}